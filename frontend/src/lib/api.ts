@@ -92,7 +92,7 @@ export function createVehicle(customerId: string, body: CreateVehicleRequest) {
 }
 
 // Timeslots
-import type { TimeSlot, AppointmentRequest, AppointmentResponse, ModificationItem } from "@/types/booking";
+import type { TimeSlot, AppointmentRequest, AppointmentResponse, ModificationItem, ModificationQuote } from "@/types/booking";
 export function checkAvailability(date: string) {
   return apiFetch<TimeSlot[]>(`${TIMESLOT_API_BASE}/api/bookings/timeslots/check-availability/${date}`);
 }
@@ -110,6 +110,14 @@ export function listModificationItems() {
   return apiFetch<ModificationItem[]>(`${API_BASE}/api/modifications`);
 }
 
+// Server-side quotes; one entry per basket, in request order
+export function quoteModifications(baskets: string[][]) {
+  return apiFetch<ModificationQuote[]>(`${API_BASE}/api/modifications/quotes`, {
+    method: "POST",
+    body: JSON.stringify({ baskets }),
+  });
+}
+
 // Payment
 export function createPaymentIntent(bookingId: string, amount?: number) {
   return apiFetch<{ clientSecret: string; paymentIntentId: string }>(
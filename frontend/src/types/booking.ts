@@ -36,3 +36,14 @@ export interface ModificationItem {
   unitPrice?: number;
   description?: string;
 }
+
+export interface ModificationQuote {
+  requested: string[];
+  lines: { id: string; name: string; estimatedHours: number; unitPrice: number }[];
+  unknownModifications: string[];
+  baseHours: number;
+  estimatedTimeHours: number;
+  estimatedCost: number;
+  estimatedDays: number;
+  catalogVersion: number;
+}
@@ -74,6 +74,40 @@ export async function getAvailableSlots(date: string): Promise<TimeSlot[]> {
   }
 }
 
+export interface SlotAvailabilityUpdate {
+  type: "slot" | "date";
+  date: string;
+  slotId?: string;
+  startTime?: string;
+  endTime?: string;
+  available: boolean;
+  reason?: string;
+}
+
+/**
+ * Subscribe to slot availability changes for a date range instead of polling
+ * @param startDate - Start date in YYYY-MM-DD format
+ * @param endDate - End date in YYYY-MM-DD format (inclusive)
+ * @param onUpdate - Called for every slot or date change in the range
+ * @param onResync - Called when updates were dropped; refetch the range
+ * @returns Function that closes the subscription
+ */
+export function subscribeToSlotAvailability(
+  startDate: string,
+  endDate: string,
+  onUpdate: (update: SlotAvailabilityUpdate) => void,
+  onResync?: () => void
+): () => void {
+  const source = new EventSource(
+    `${GATEWAY_URL}/api/bookings/timeslots/stream?startDate=${startDate}&endDate=${endDate}`
+  );
+  const handle = (event: MessageEvent) => onUpdate(JSON.parse(event.data));
+  source.addEventListener("slot", handle as EventListener);
+  source.addEventListener("date", handle as EventListener);
+  source.addEventListener("resync", () => onResync?.());
+  return () => source.close();
+}
+
 /**
  * Format time slot for display
  * @param slot - Time slot object
@@ -0,0 +1,63 @@
+package com.revamp.admin.adminservice.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.stereotype.Component;
+
+import com.revamp.admin.adminservice.model.ModificationService;
+
+/**
+ * Ensures the indexes declared on ModificationService at startup (services are looked up by name).
+ */
+@Component
+public class MongoIndexBootstrap {
+
+	// Document classes whose collections this service queries
+	public static final List<Class<?>> DOCUMENTS = List.of(
+		ModificationService.class);
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onReady() {
+		List<String> failed = ensureIndexes(mongoTemplate);
+		if (!failed.isEmpty()) {
+			System.err.println("⚠ " + failed.size() + " index(es) could not be created: " + failed);
+		}
+	}
+
+	/**
+	 * Ensure every declared index
+	 *
+	 * @return the indexes that could not be created, as collection.name
+	 */
+	public static List<String> ensureIndexes(MongoTemplate mongoTemplate) {
+		IndexResolver resolver = IndexResolver.create(mongoTemplate.getConverter().getMappingContext());
+		List<String> failed = new ArrayList<>();
+		int ensured = 0;
+		for (Class<?> type : DOCUMENTS) {
+			IndexOperations indexOps = mongoTemplate.indexOps(type);
+			for (IndexDefinition index : resolver.resolveIndexFor(type)) {
+				String name = mongoTemplate.getCollectionName(type) + "." + index.getIndexOptions().get("name");
+				try {
+					indexOps.createIndex(index);
+					ensured++;
+				} catch (RuntimeException e) {
+					System.err.println("✗ Failed to create index " + name + ": " + e.getMessage());
+					failed.add(name);
+				}
+			}
+		}
+		System.out.println("✓ Ensured " + ensured + " index(es) on " + DOCUMENTS.size() + " collection(s)");
+		return failed;
+	}
+}
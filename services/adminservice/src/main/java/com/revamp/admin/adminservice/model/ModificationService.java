@@ -1,6 +1,7 @@
 package com.revamp.admin.adminservice.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.AllArgsConstructor;
@@ -15,6 +16,7 @@ public class ModificationService {
 	@Id
 	private String id;
 	
+	@Indexed(name = "name_1")
 	private String name; // e.g., "Engine Upgrade", "Body Kit", "Audio System"
 	private String description; // Optional description
 	private Double estimatedCost; // Optional estimated cost
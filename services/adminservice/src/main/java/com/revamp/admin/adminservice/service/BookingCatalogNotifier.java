@@ -0,0 +1,60 @@
+package com.revamp.admin.adminservice.service;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Tells the booking service that the modification catalog changed so it refreshes its
+ * in-memory snapshot right away instead of waiting for the next scheduled refresh.
+ */
+@Service
+public class BookingCatalogNotifier {
+
+	@Value("${booking.api.base:http://localhost:8084}")
+	private String bookingApiBase;
+
+	private final HttpClient httpClient = HttpClient.newBuilder()
+		.connectTimeout(Duration.ofSeconds(3))
+		.build();
+
+	/**
+	 * Fire-and-forget; a missed signal is covered by the booking service's periodic refresh.
+	 * The booking service only accepts the signal from an admin, so the token of the request
+	 * that changed the catalog is passed on.
+	 */
+	public void catalogChanged() {
+		HttpRequest.Builder builder = HttpRequest.newBuilder()
+			.uri(URI.create(bookingApiBase + "/api/modifications/invalidate"))
+			.timeout(Duration.ofSeconds(5))
+			.POST(HttpRequest.BodyPublishers.noBody());
+		String authHeader = currentAuthHeader();
+		if (authHeader != null) {
+			builder.header("Authorization", authHeader);
+		}
+		HttpRequest request = builder.build();
+
+		httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+			.whenComplete((response, error) -> {
+				if (error != null) {
+					System.err.println("⚠ Could not notify booking service of catalog change: " + error.getMessage());
+				} else if (response.statusCode() >= 300) {
+					System.err.println("⚠ Booking service rejected catalog invalidation: HTTP " + response.statusCode());
+				}
+			});
+	}
+
+	private String currentAuthHeader() {
+		if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+			return attributes.getRequest().getHeader("Authorization");
+		}
+		return null;
+	}
+}
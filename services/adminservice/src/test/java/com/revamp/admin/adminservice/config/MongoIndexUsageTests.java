@@ -0,0 +1,62 @@
+package com.revamp.admin.adminservice.config;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.revamp.admin.adminservice.service.BookingCatalogNotifier;
+import com.revamp.admin.adminservice.service.ModificationServiceService;
+
+/**
+ * Runs ModificationServiceService's name lookup against a scratch database that holds only the
+ * declared indexes, with the server's notablescan parameter on, so the lookup is rejected if it
+ * needs a collection scan. Needs a throwaway MongoDB server, given by INDEX_CHECK_MONGODB_URI,
+ * and is skipped without one.
+ */
+@EnabledIfEnvironmentVariable(named = "INDEX_CHECK_MONGODB_URI", matches = ".+")
+class MongoIndexUsageTests {
+
+	private static final String DATABASE = "index_check_admin";
+
+	private static MongoClient client;
+	private static MongoTemplate mongoTemplate;
+
+	@BeforeAll
+	static void createIndexes() {
+		client = MongoClients.create(System.getenv("INDEX_CHECK_MONGODB_URI"));
+		mongoTemplate = new MongoTemplate(client, DATABASE);
+		mongoTemplate.getDb().drop();
+		assertTrue(MongoIndexBootstrap.ensureIndexes(mongoTemplate).isEmpty(), "every declared index is created");
+		setNoTableScan(true);
+	}
+
+	@AfterAll
+	static void dropDatabase() {
+		setNoTableScan(false);
+		mongoTemplate.getDb().drop();
+		client.close();
+	}
+
+	@Test
+	void modificationServiceQueriesUseIndexes() {
+		ModificationServiceService services = new ModificationServiceService();
+		ReflectionTestUtils.setField(services, "mongoTemplate", mongoTemplate);
+		ReflectionTestUtils.setField(services, "bookingCatalogNotifier", mock(BookingCatalogNotifier.class));
+		// The second call finds the first by name and updates it
+		services.addModificationService("Body Kit", "Front and rear bumpers", 1200.0, 6);
+		services.addModificationService("Body Kit", "Front and rear bumpers, side skirts", 1500.0, 8);
+	}
+
+	private static void setNoTableScan(boolean enabled) {
+		client.getDatabase("admin").runCommand(new Document("setParameter", 1).append("notablescan", enabled));
+	}
+}
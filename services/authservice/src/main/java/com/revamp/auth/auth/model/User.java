@@ -2,13 +2,16 @@
 package com.revamp.auth.auth.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "users")
 public class User {
     @Id
     private String id;
+    @Indexed(name = "username_1")
     private String username;
+    @Indexed(name = "email_1")
     private String email;
     private String passwordHash; // store hashed password
     private String role; // "ADMIN", "EMPLOYEE", "CONSUMER"
@@ -1,6 +1,7 @@
 package com.revamp.auth.auth.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.LocalDateTime;
 
@@ -10,6 +11,7 @@ public class VerificationToken {
     @Id
     private String id;
 
+    @Indexed(name = "token_1")
     private String token;
     private String userId; // store user._id instead of object reference
     private LocalDateTime expiryDate;
@@ -0,0 +1,119 @@
+package com.revamp.booking.bookingservice.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.stereotype.Component;
+
+import com.revamp.booking.bookingservice.model.Appointment;
+import com.revamp.booking.bookingservice.model.AppointmentEvent;
+import com.revamp.booking.bookingservice.model.BayDay;
+import com.revamp.booking.bookingservice.model.CustomerNotification;
+import com.revamp.booking.bookingservice.model.DailyRollup;
+import com.revamp.booking.bookingservice.model.DailySchedule;
+import com.revamp.booking.bookingservice.model.TimeSlot;
+import com.revamp.booking.bookingservice.model.UnavailableDate;
+import com.revamp.booking.bookingservice.model.WaitlistEntry;
+import com.revamp.booking.model.PaymentReconciliationReport;
+import com.revamp.booking.model.StripeWebhookEvent;
+
+/**
+ * Creates the indexes declared on the document classes (@Indexed, @CompoundIndex) once the
+ * service is up. Spring Boot leaves auto-index-creation off, so nothing else creates them.
+ *
+ * Each index is created on its own: one that already exists in another form is reported and the
+ * others are still created. Index names follow MongoDB's default (field_1), so indexes someone
+ * created by hand are recognised instead of duplicated.
+ */
+@Component
+public class MongoIndexBootstrap {
+
+	/**
+	 * Document classes whose collections this service queries; one class per collection.
+	 * Left out on purpose: DailyCapacity (daily_capacity), which is only read and written by _id,
+	 * and ModificationItem, which maps the admin service's modificationservices collection and is
+	 * indexed by that service. The archive indexes belong to AppointmentArchiveService.
+	 */
+	public static final List<Class<?>> DOCUMENTS = List.of(
+		Appointment.class, TimeSlot.class, UnavailableDate.class, WaitlistEntry.class,
+		CustomerNotification.class, AppointmentEvent.class, BayDay.class, DailySchedule.class,
+		DailyRollup.class, StripeWebhookEvent.class, PaymentReconciliationReport.class);
+
+	// Indexes made redundant by a declared one, dropped where they still exist
+	static final Map<Class<?>, List<String>> SUPERSEDED = Map.of(
+		TimeSlot.class, List.of("date_1_startTime_1")); // Prefix of date_1_startTime_1_endTime_1
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onReady() {
+		List<String> failed = ensureIndexes(mongoTemplate);
+		if (!failed.isEmpty()) {
+			System.err.println("⚠ " + failed.size() + " index(es) could not be created: " + failed);
+		}
+		dropSuperseded(mongoTemplate, failed);
+	}
+
+	/**
+	 * Ensure every declared index
+	 *
+	 * @return the indexes that could not be created, as collection.name
+	 */
+	public static List<String> ensureIndexes(MongoTemplate mongoTemplate) {
+		IndexResolver resolver = IndexResolver.create(mongoTemplate.getConverter().getMappingContext());
+		List<String> failed = new ArrayList<>();
+		int ensured = 0;
+		for (Class<?> type : DOCUMENTS) {
+			IndexOperations indexOps = mongoTemplate.indexOps(type);
+			for (IndexDefinition index : resolver.resolveIndexFor(type)) {
+				String name = mongoTemplate.getCollectionName(type) + "." + index.getIndexOptions().get("name");
+				try {
+					indexOps.createIndex(index);
+					ensured++;
+				} catch (RuntimeException e) {
+					System.err.println("✗ Failed to create index " + name + ": " + e.getMessage());
+					failed.add(name);
+				}
+			}
+		}
+		System.out.println("✓ Ensured " + ensured + " index(es) on " + DOCUMENTS.size() + " collection(s)");
+		return failed;
+	}
+
+	/**
+	 * Drop the superseded indexes that still exist. Collections where ensureIndexes failed keep
+	 * theirs, so their queries are never left without an index.
+	 *
+	 * @param failed what ensureIndexes could not create
+	 */
+	public static void dropSuperseded(MongoTemplate mongoTemplate, List<String> failed) {
+		SUPERSEDED.forEach((type, names) -> {
+			IndexOperations indexOps = mongoTemplate.indexOps(type);
+			String collection = mongoTemplate.getCollectionName(type);
+			if (failed.stream().anyMatch(name -> name.startsWith(collection + "."))) {
+				return;
+			}
+			try {
+				List<String> existing = indexOps.getIndexInfo().stream().map(IndexInfo::getName).toList();
+				for (String name : names) {
+					if (existing.contains(name)) {
+						indexOps.dropIndex(name);
+						System.out.println("✓ Dropped superseded index " + collection + "." + name);
+					}
+				}
+			} catch (RuntimeException e) {
+				System.err.println("✗ Failed to drop superseded indexes on " + collection + ": " + e.getMessage());
+			}
+		});
+	}
+}
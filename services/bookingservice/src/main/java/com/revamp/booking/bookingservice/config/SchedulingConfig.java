@@ -0,0 +1,12 @@
+package com.revamp.booking.bookingservice.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (SSE heartbeats, maintenance jobs)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,26 @@
+package com.revamp.booking.bookingservice.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Smile (binary JSON) support for internal service-to-service calls.
+ * Only requests that send or accept application/x-jackson-smile are affected,
+ * external clients keep getting JSON.
+ */
+@Configuration
+public class SmileConfig {
+
+	public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+	@Bean
+	public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		// The builder is prototype scoped, so switching its factory does not touch the JSON ObjectMapper
+		return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+	}
+}
@@ -2,6 +2,7 @@ package com.revamp.booking.bookingservice.controller;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -10,10 +11,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import com.revamp.booking.bookingservice.model.Appointment;
+import com.revamp.booking.bookingservice.service.AppointmentEventService;
 import com.revamp.booking.bookingservice.service.AppointmentService;
+import com.revamp.booking.bookingservice.service.BatchBookingService;
+import com.revamp.booking.bookingservice.service.ChangeCounterService;
+import com.revamp.booking.bookingservice.service.EmployeeRecommendationService;
 import com.revamp.booking.dto.AppointmentRequest;
+import com.revamp.booking.dto.BatchAppointmentRequest;
 import com.revamp.booking.util.JwtUtil;
 import io.jsonwebtoken.Claims;
 
@@ -28,6 +35,18 @@ public class AppointmentController {
 	@Autowired
 	private JwtUtil jwtUtil;
 
+	@Autowired
+	private ChangeCounterService changeCounterService;
+
+	@Autowired
+	private EmployeeRecommendationService employeeRecommendationService;
+
+	@Autowired
+	private BatchBookingService batchBookingService;
+
+	@Autowired
+	private AppointmentEventService appointmentEventService;
+
 	/**
 	 * Create a new appointment
 	 */
@@ -206,14 +225,62 @@ public class AppointmentController {
 		}
 	}
 
+	/**
+	 * Book many appointments at once, from a list of requests or a recurrence rule.
+	 * Reports success or failure per item; allOrNothing books every item or none.
+	 */
+	@PostMapping("/batch")
+	public ResponseEntity<?> createAppointments(
+			@RequestHeader(value = "Authorization", required = false) String authHeader,
+			@RequestBody BatchAppointmentRequest request) {
+		if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+			Map<String, Object> errorResponse = new java.util.HashMap<>();
+			errorResponse.put("message", "Authorization header is required");
+			errorResponse.put("error", "Unauthorized");
+			return ResponseEntity.status(401).body(errorResponse);
+		}
+		String customerId;
+		String customerName;
+		String customerEmail;
+		try {
+			Claims claims = jwtUtil.parseToken(authHeader);
+			customerId = jwtUtil.getCustomerId(claims);
+			customerName = jwtUtil.getCustomerName(claims);
+			customerEmail = jwtUtil.getCustomerEmail(claims);
+		} catch (Exception e) {
+			Map<String, Object> errorResponse = new java.util.HashMap<>();
+			errorResponse.put("message", "Invalid or expired token: " + e.getMessage());
+			errorResponse.put("error", "Unauthorized");
+			return ResponseEntity.status(401).body(errorResponse);
+		}
+
+		try {
+			return ResponseEntity.ok(batchBookingService.book(customerId, customerName, customerEmail, request));
+		} catch (RuntimeException e) {
+			Map<String, Object> errorResponse = new java.util.HashMap<>();
+			errorResponse.put("message", e.getMessage());
+			errorResponse.put("error", "InvalidBatch");
+			return ResponseEntity.badRequest().body(errorResponse);
+		}
+	}
+
 	/**
 	 * Get appointment by ID
 	 */
 	@GetMapping("/{id}")
-	public ResponseEntity<Appointment> getAppointmentById(@PathVariable String id) {
+	public ResponseEntity<Appointment> getAppointmentById(@PathVariable String id, WebRequest webRequest) {
 		try {
+			// Answer 304 from updatedAt alone, without loading the document
+			String etag = appointmentService.getAppointmentUpdatedAt(id)
+					.map(updatedAt -> "W/\"appt-" + updatedAt.toInstant(ZoneOffset.UTC).toEpochMilli() + "\"")
+					.orElse(null);
+			if (etag != null && webRequest.checkNotModified(etag)) {
+				return null;
+			}
 			return appointmentService.getAppointmentById(id)
-					.map(ResponseEntity::ok)
+					.map(appointment -> etag != null
+							? ResponseEntity.ok().eTag(etag).body(appointment)
+							: ResponseEntity.ok(appointment))
 					.orElse(ResponseEntity.notFound().build());
 		} catch (Exception e) {
 			return ResponseEntity.badRequest().build();
@@ -224,8 +291,12 @@ public class AppointmentController {
 	 * Get all appointments
 	 */
 	@GetMapping
-	public ResponseEntity<?> getAllAppointments() {
+	public ResponseEntity<?> getAllAppointments(WebRequest webRequest) {
 		try {
+			String etag = changeCounterService.etag("appts", ChangeCounterService.BOOKINGS);
+			if (webRequest.checkNotModified(etag)) {
+				return null;
+			}
 			System.out.println("===== Fetching All Appointments =====");
 			System.out.println("Querying bookings collection...");
 			List<Appointment> appointments = appointmentService.getAllAppointments();
@@ -237,7 +308,7 @@ public class AppointmentController {
 					", Assigned Employees: " + (apt.getAssignedEmployeeNames() != null ? apt.getAssignedEmployeeNames().toString() : "None"));
 			}
 			System.out.println("======================================");
-			return ResponseEntity.ok(appointments);
+			return ResponseEntity.ok().eTag(etag).body(appointments);
 		} catch (Exception e) {
 			System.err.println("ERROR: Failed to get appointments: " + e.getMessage());
 			e.printStackTrace();
@@ -249,13 +320,19 @@ public class AppointmentController {
 	}
 
 	/**
-	 * Get appointments by customer ID
+	 * Get appointments by customer ID; archived history only with includeArchived=true
 	 */
 	@GetMapping("/customer/{customerId}")
-	public ResponseEntity<List<Appointment>> getAppointmentsByCustomerId(@PathVariable String customerId) {
+	public ResponseEntity<List<Appointment>> getAppointmentsByCustomerId(@PathVariable String customerId,
+			@RequestParam(defaultValue = "false") boolean includeArchived,
+			WebRequest webRequest) {
 		try {
-			List<Appointment> appointments = appointmentService.getAppointmentsByCustomerId(customerId);
-			return ResponseEntity.ok(appointments);
+			String etag = changeCounterService.etag(includeArchived ? "appts-archive" : "appts", ChangeCounterService.BOOKINGS);
+			if (webRequest.checkNotModified(etag)) {
+				return null;
+			}
+			List<Appointment> appointments = appointmentService.getAppointmentsByCustomerId(customerId, includeArchived);
+			return ResponseEntity.ok().eTag(etag).body(appointments);
 		} catch (Exception e) {
 			return ResponseEntity.badRequest().build();
 		}
@@ -267,10 +344,11 @@ public class AppointmentController {
 	@PutMapping("/{id}/status")
 	public ResponseEntity<Appointment> updateAppointmentStatus(
 			@PathVariable String id,
+			@RequestHeader(value = "Authorization", required = false) String authHeader,
 			@RequestBody Map<String, String> request) {
 		try {
 			String status = request.get("status");
-			Appointment appointment = appointmentService.updateAppointmentStatus(id, status);
+			Appointment appointment = appointmentService.updateAppointmentStatus(id, status, actorOf(authHeader));
 			return ResponseEntity.ok(appointment);
 		} catch (Exception e) {
 			return ResponseEntity.badRequest().build();
@@ -331,6 +409,40 @@ public class AppointmentController {
 		}
 	}
 
+	/**
+	 * Which of the candidate employees are free for the whole appointment
+	 */
+	@GetMapping("/{id}/free-employees")
+	public ResponseEntity<?> getFreeEmployees(
+			@PathVariable String id,
+			@RequestParam List<String> employeeIds) {
+		try {
+			return ResponseEntity.ok(appointmentService.findFreeEmployees(id, employeeIds));
+		} catch (RuntimeException e) {
+			Map<String, Object> errorResponse = new java.util.HashMap<>();
+			errorResponse.put("message", e.getMessage());
+			errorResponse.put("error", "NotFound");
+			return ResponseEntity.status(404).body(errorResponse);
+		}
+	}
+
+	/**
+	 * Candidates for an appointment ranked by skills, workload and calendar conflicts
+	 */
+	@GetMapping("/{id}/recommended-employees")
+	public ResponseEntity<?> getRecommendedEmployees(
+			@PathVariable String id,
+			@RequestParam(defaultValue = "5") int limit) {
+		try {
+			return ResponseEntity.ok(employeeRecommendationService.recommend(id, Math.max(1, Math.min(limit, 50))));
+		} catch (RuntimeException e) {
+			Map<String, Object> errorResponse = new java.util.HashMap<>();
+			errorResponse.put("message", e.getMessage());
+			errorResponse.put("error", "NotFound");
+			return ResponseEntity.status(404).body(errorResponse);
+		}
+	}
+
 	/**
 	 * Re-create tasks for an existing appointment
 	 * Useful when employee service was down during initial assignment
@@ -445,25 +557,48 @@ public class AppointmentController {
 	 * Cancel appointment
 	 */
 	@DeleteMapping("/{id}")
-	public ResponseEntity<?> cancelAppointment(@PathVariable String id) {
+	public ResponseEntity<?> cancelAppointment(
+			@PathVariable String id,
+			@RequestHeader(value = "Authorization", required = false) String authHeader) {
 		try {
-			appointmentService.cancelAppointment(id);
+			appointmentService.cancelAppointment(id, actorOf(authHeader));
 			return ResponseEntity.ok().build();
 		} catch (Exception e) {
 			return ResponseEntity.badRequest().build();
 		}
 	}
 
+	/**
+	 * Everything that happened to an appointment, from the event log, with the time spent in each status.
+	 * Also works for cancelled and archived appointments.
+	 */
+	@GetMapping("/{id}/timeline")
+	public ResponseEntity<Map<String, Object>> getTimeline(@PathVariable String id) {
+		Map<String, Object> timeline = appointmentEventService.getTimeline(id);
+		if (((List<?>) timeline.get("events")).isEmpty()) {
+			Map<String, Object> errorResponse = new java.util.HashMap<>();
+			errorResponse.put("message", "No events recorded for appointment " + id);
+			errorResponse.put("error", "NotFound");
+			return ResponseEntity.status(404).body(errorResponse);
+		}
+		return ResponseEntity.ok(timeline);
+	}
+
 	/**
 	 * Get appointments by date range
 	 */
 	@GetMapping("/range")
 	public ResponseEntity<List<Appointment>> getAppointmentsByDateRange(
 			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+			WebRequest webRequest) {
 		try {
+			String etag = changeCounterService.etag("appts", ChangeCounterService.BOOKINGS);
+			if (webRequest.checkNotModified(etag)) {
+				return null;
+			}
 			List<Appointment> appointments = appointmentService.getAppointmentsByDateRange(startDate, endDate);
-			return ResponseEntity.ok(appointments);
+			return ResponseEntity.ok().eTag(etag).body(appointments);
 		} catch (Exception e) {
 			return ResponseEntity.badRequest().build();
 		}
@@ -545,5 +680,36 @@ public class AppointmentController {
 				.body(Map.of("isValid", false, "message", "Error validating booking: " + e.getMessage()));
 		}
 	}
-}
 
+	/**
+	 * Validate many booking candidates in one call, e.g. every date and slot the booking wizard shows.
+	 * Body is a list of {serviceType, date, timeSlotId}; results come back in the same order.
+	 */
+	@PostMapping("/validate/batch")
+	public ResponseEntity<?> validateBookings(@RequestBody List<Map<String, Object>> candidates) {
+		try {
+			return ResponseEntity.ok(appointmentService.validateBookings(candidates));
+		} catch (RuntimeException e) {
+			Map<String, Object> errorResponse = new java.util.HashMap<>();
+			errorResponse.put("message", e.getMessage());
+			errorResponse.put("error", "InvalidBatch");
+			return ResponseEntity.badRequest().body(errorResponse);
+		}
+	}
+
+	/**
+	 * User ID from the token, for the event log; null when there is no usable token
+	 */
+	private String actorOf(String authHeader) {
+		if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+			return null;
+		}
+		try {
+			Claims claims = jwtUtil.parseToken(authHeader);
+			return claims.getSubject() != null ? claims.getSubject() :
+				(claims.get("id") != null ? claims.get("id").toString() : null);
+		} catch (Exception e) {
+			return null;
+		}
+	}
+}
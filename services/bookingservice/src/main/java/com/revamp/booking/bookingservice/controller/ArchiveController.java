@@ -0,0 +1,62 @@
+package com.revamp.booking.bookingservice.controller;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.revamp.booking.bookingservice.service.AppointmentArchiveService;
+import com.revamp.booking.util.JwtUtil;
+
+import io.jsonwebtoken.Claims;
+
+@RestController
+@RequestMapping("/api/bookings/archive")
+@CrossOrigin(origins = "*")
+public class ArchiveController {
+
+	@Autowired
+	private AppointmentArchiveService appointmentArchiveService;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	/**
+	 * Archive finished appointments now instead of waiting for the nightly run (admin only)
+	 */
+	@PostMapping("/run")
+	public ResponseEntity<?> runArchive(@RequestHeader(value = "Authorization", required = false) String authHeader) {
+		ResponseEntity<?> denied = requireAdmin(authHeader);
+		if (denied != null) {
+			return denied;
+		}
+		try {
+			Map<String, Object> summary = appointmentArchiveService.archive();
+			if (Boolean.TRUE.equals(summary.get("skipped"))) {
+				return ResponseEntity.status(409).body(summary);
+			}
+			return ResponseEntity.ok(summary);
+		} catch (RuntimeException e) {
+			Map<String, Object> errorResponse = new java.util.HashMap<>();
+			errorResponse.put("message", "Archival failed: " + e.getMessage());
+			errorResponse.put("error", "ArchiveFailed");
+			return ResponseEntity.status(500).body(errorResponse);
+		}
+	}
+
+	/**
+	 * 401 without a valid token, 403 for anyone but an admin, null when the caller may proceed
+	 */
+	private ResponseEntity<?> requireAdmin(String authHeader) {
+		if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+			return ResponseEntity.status(401).build();
+		}
+		try {
+			Claims claims = jwtUtil.parseToken(authHeader);
+			return jwtUtil.isAdmin(claims) ? null : ResponseEntity.status(403).build();
+		} catch (Exception e) {
+			return ResponseEntity.status(401).build();
+		}
+	}
+}
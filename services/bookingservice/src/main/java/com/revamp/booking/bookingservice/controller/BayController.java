@@ -0,0 +1,53 @@
+package com.revamp.booking.bookingservice.controller;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.revamp.booking.bookingservice.service.BayScheduleService;
+
+@RestController
+@RequestMapping("/api/bookings/bays")
+@CrossOrigin(origins = "*")
+public class BayController {
+
+	@Autowired
+	private BayScheduleService bayScheduleService;
+
+	/**
+	 * Find the earliest bay window for a modification job of the given length
+	 */
+	@GetMapping("/earliest")
+	public ResponseEntity<?> findEarliest(
+			@RequestParam int hours,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from) {
+		if (hours <= 0) {
+			Map<String, Object> error = new HashMap<>();
+			error.put("message", "hours must be positive");
+			error.put("error", "ValidationError");
+			return ResponseEntity.badRequest().body(error);
+		}
+		BayScheduleService.Placement placement = bayScheduleService.findEarliest(from != null ? from : LocalDate.now(), hours);
+		if (placement == null) {
+			Map<String, Object> error = new HashMap<>();
+			error.put("message", "No bay window found in the search horizon");
+			error.put("error", "NotFound");
+			return ResponseEntity.status(404).body(error);
+		}
+		return ResponseEntity.ok(placement);
+	}
+
+	/**
+	 * Bay occupancy and utilization for a day
+	 */
+	@GetMapping("/{date}")
+	public ResponseEntity<Map<String, Object>> getOccupancy(
+			@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+		return ResponseEntity.ok(bayScheduleService.getOccupancy(date));
+	}
+}
@@ -0,0 +1,77 @@
+package com.revamp.booking.bookingservice.controller;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.revamp.booking.bookingservice.model.DailyCapacity;
+import com.revamp.booking.bookingservice.service.CapacityLedgerService;
+import com.revamp.booking.util.JwtUtil;
+
+import io.jsonwebtoken.Claims;
+
+@RestController
+@RequestMapping("/api/bookings/capacity")
+@CrossOrigin(origins = "*")
+public class CapacityController {
+
+	@Autowired
+	private CapacityLedgerService capacityLedgerService;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	/**
+	 * Get the labor hours ledger for a day
+	 */
+	@GetMapping("/{date}")
+	public ResponseEntity<DailyCapacity> getCapacity(
+			@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+		return ResponseEntity.ok(capacityLedgerService.getDay(date));
+	}
+
+	/**
+	 * Set how many employees are working on a day (admin only)
+	 */
+	@PutMapping("/{date}/staff")
+	public ResponseEntity<?> setStaffCount(
+			@RequestHeader(value = "Authorization", required = false) String authHeader,
+			@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+			@RequestBody Map<String, Object> request) {
+		ResponseEntity<?> denied = requireAdmin(authHeader);
+		if (denied != null) {
+			return denied;
+		}
+		try {
+			int staffCount = Integer.parseInt(request.get("staffCount").toString());
+			if (staffCount < 0) {
+				throw new RuntimeException("staffCount must not be negative");
+			}
+			return ResponseEntity.ok(capacityLedgerService.setStaffCount(date, staffCount));
+		} catch (RuntimeException e) {
+			Map<String, Object> errorResponse = new java.util.HashMap<>();
+			errorResponse.put("message", e.getMessage());
+			errorResponse.put("error", "ValidationError");
+			return ResponseEntity.badRequest().body(errorResponse);
+		}
+	}
+
+	/**
+	 * 401 without a valid token, 403 for anyone but an admin, null when the caller may proceed
+	 */
+	private ResponseEntity<?> requireAdmin(String authHeader) {
+		if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+			return ResponseEntity.status(401).build();
+		}
+		try {
+			Claims claims = jwtUtil.parseToken(authHeader);
+			return jwtUtil.isAdmin(claims) ? null : ResponseEntity.status(403).build();
+		} catch (Exception e) {
+			return ResponseEntity.status(401).build();
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package com.revamp.booking.bookingservice.controller;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.revamp.booking.bookingservice.model.DailySchedule;
+import com.revamp.booking.bookingservice.service.DailyScheduleService;
+import com.revamp.booking.util.JwtUtil;
+
+import io.jsonwebtoken.Claims;
+
+@RestController
+@RequestMapping("/api/bookings/schedule")
+@CrossOrigin(origins = "*")
+public class DailyScheduleController {
+
+	@Autowired
+	private DailyScheduleService dailyScheduleService;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	/**
+	 * Get the pre-joined schedule for one day
+	 */
+	@GetMapping("/{date}")
+	public ResponseEntity<DailySchedule> getDay(
+			@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+		try {
+			return ResponseEntity.ok(dailyScheduleService.getDay(date));
+		} catch (Exception e) {
+			return ResponseEntity.badRequest().build();
+		}
+	}
+
+	/**
+	 * Get the pre-joined schedules for a date range (calendars, admin boards)
+	 */
+	@GetMapping
+	public ResponseEntity<?> getRange(
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+		try {
+			List<DailySchedule> days = dailyScheduleService.getRange(startDate, endDate);
+			return ResponseEntity.ok(days);
+		} catch (RuntimeException e) {
+			return ResponseEntity.badRequest().body(Map.of("message", e.getMessage(), "error", "ValidationError"));
+		}
+	}
+
+	/**
+	 * Rebuild the schedule projection for a date range from the source collections (admin only)
+	 */
+	@PostMapping("/rebuild")
+	public ResponseEntity<?> rebuild(
+			@RequestHeader(value = "Authorization", required = false) String authHeader,
+			@RequestBody Map<String, String> request) {
+		ResponseEntity<?> denied = requireAdmin(authHeader);
+		if (denied != null) {
+			return denied;
+		}
+		try {
+			LocalDate startDate = LocalDate.parse(request.get("startDate"));
+			LocalDate endDate = LocalDate.parse(request.get("endDate"));
+			List<DailySchedule> days = dailyScheduleService.rebuild(startDate, endDate);
+			return ResponseEntity.ok(Map.of("message", "Daily schedules rebuilt", "days", days.size()));
+		} catch (RuntimeException e) {
+			return ResponseEntity.badRequest().body(Map.of("message", String.valueOf(e.getMessage()), "error", "ValidationError"));
+		}
+	}
+
+	/**
+	 * 401 without a valid token, 403 for anyone but an admin, null when the caller may proceed
+	 */
+	private ResponseEntity<?> requireAdmin(String authHeader) {
+		if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+			return ResponseEntity.status(401).build();
+		}
+		try {
+			Claims claims = jwtUtil.parseToken(authHeader);
+			return jwtUtil.isAdmin(claims) ? null : ResponseEntity.status(403).build();
+		} catch (Exception e) {
+			return ResponseEntity.status(401).build();
+		}
+	}
+}
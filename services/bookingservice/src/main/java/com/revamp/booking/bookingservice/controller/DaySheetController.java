@@ -0,0 +1,52 @@
+package com.revamp.booking.bookingservice.controller;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.revamp.booking.bookingservice.model.DaySheet;
+import com.revamp.booking.bookingservice.service.DaySheetService;
+
+@RestController
+@RequestMapping("/api/bookings/day-sheet")
+@CrossOrigin(origins = "*")
+public class DaySheetController {
+
+	@Autowired
+	private DaySheetService daySheetService;
+
+	/**
+	 * Get the workshop day board (slots with their appointment, modification jobs,
+	 * crew and holiday flag) for a date range
+	 */
+	@GetMapping
+	public ResponseEntity<?> getDaySheets(
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+		try {
+			List<DaySheet> sheets = daySheetService.getDaySheets(startDate, endDate);
+			return ResponseEntity.ok(sheets);
+		} catch (RuntimeException e) {
+			return ResponseEntity.badRequest().body(Map.of("message", e.getMessage(), "error", "ValidationError"));
+		}
+	}
+
+	/**
+	 * Get the workshop day board for a single date
+	 */
+	@GetMapping("/{date}")
+	public ResponseEntity<DaySheet> getDaySheet(
+			@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+		try {
+			List<DaySheet> sheets = daySheetService.getDaySheets(date, date);
+			return sheets.isEmpty() ? ResponseEntity.notFound().build() : ResponseEntity.ok(sheets.get(0));
+		} catch (Exception e) {
+			return ResponseEntity.badRequest().build();
+		}
+	}
+}
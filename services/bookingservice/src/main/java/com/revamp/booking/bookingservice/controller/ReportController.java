@@ -0,0 +1,122 @@
+package com.revamp.booking.bookingservice.controller;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.revamp.booking.bookingservice.service.AppointmentEventService;
+import com.revamp.booking.bookingservice.service.RollupService;
+import com.revamp.booking.util.JwtUtil;
+
+import io.jsonwebtoken.Claims;
+
+@RestController
+@RequestMapping("/api/bookings/reports")
+@CrossOrigin(origins = "*")
+public class ReportController {
+
+	@Autowired
+	private RollupService rollupService;
+
+	@Autowired
+	private AppointmentEventService appointmentEventService;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	/**
+	 * Utilization, revenue and modification mix per day, read from the rollups (admin only)
+	 */
+	@GetMapping("/daily")
+	public ResponseEntity<?> getDailyReport(
+			@RequestHeader(value = "Authorization", required = false) String authHeader,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+		ResponseEntity<?> denied = requireAdmin(authHeader);
+		if (denied != null) {
+			return denied;
+		}
+		try {
+			return ResponseEntity.ok(rollupService.getDailyReport(startDate, endDate));
+		} catch (RuntimeException e) {
+			return badRequest(e);
+		}
+	}
+
+	/**
+	 * The same figures per week (Monday to Sunday, admin only)
+	 */
+	@GetMapping("/weekly")
+	public ResponseEntity<?> getWeeklyReport(
+			@RequestHeader(value = "Authorization", required = false) String authHeader,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+		ResponseEntity<?> denied = requireAdmin(authHeader);
+		if (denied != null) {
+			return denied;
+		}
+		try {
+			return ResponseEntity.ok(rollupService.getWeeklyReport(startDate, endDate));
+		} catch (RuntimeException e) {
+			return badRequest(e);
+		}
+	}
+
+	/**
+	 * Time appointments created in the range spent in each status, from the appointment event log
+	 */
+	@GetMapping("/stage-durations")
+	public ResponseEntity<?> getStageDurations(
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+		try {
+			return ResponseEntity.ok(appointmentEventService.getStageDurations(startDate, endDate));
+		} catch (RuntimeException e) {
+			return badRequest(e);
+		}
+	}
+
+	/**
+	 * Rebuild the rollups for a date range from bookings and the archive (admin only)
+	 */
+	@PostMapping("/rollups/backfill")
+	public ResponseEntity<?> backfill(
+			@RequestHeader(value = "Authorization", required = false) String authHeader,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+		ResponseEntity<?> denied = requireAdmin(authHeader);
+		if (denied != null) {
+			return denied;
+		}
+		try {
+			int days = rollupService.backfill(startDate, endDate);
+			return ResponseEntity.ok(Map.of("startDate", startDate.toString(), "endDate", endDate.toString(),
+				"daysWithAppointments", days));
+		} catch (RuntimeException e) {
+			return badRequest(e);
+		}
+	}
+
+	private ResponseEntity<?> badRequest(RuntimeException e) {
+		Map<String, Object> errorResponse = new java.util.HashMap<>();
+		errorResponse.put("message", e.getMessage());
+		errorResponse.put("error", "ValidationError");
+		return ResponseEntity.badRequest().body(errorResponse);
+	}
+
+	private ResponseEntity<?> requireAdmin(String authHeader) {
+		if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+			return ResponseEntity.status(401).build();
+		}
+		try {
+			Claims claims = jwtUtil.parseToken(authHeader);
+			return jwtUtil.isAdmin(claims) ? null : ResponseEntity.status(403).build();
+		} catch (Exception e) {
+			return ResponseEntity.status(401).build();
+		}
+	}
+}
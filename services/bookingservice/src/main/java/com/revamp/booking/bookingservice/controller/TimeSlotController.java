@@ -6,11 +6,20 @@ import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.revamp.booking.bookingservice.model.TimeSlot;
+import com.revamp.booking.bookingservice.service.ChangeCounterService;
+import com.revamp.booking.bookingservice.service.SlotAvailabilityBroadcaster;
 import com.revamp.booking.bookingservice.service.TimeSlotService;
+import com.revamp.booking.bookingservice.service.TimeSlotRetentionService;
+import com.revamp.booking.util.JwtUtil;
+
+import io.jsonwebtoken.Claims;
 
 @RestController
 @RequestMapping("/api/bookings/timeslots")
@@ -20,15 +29,47 @@ public class TimeSlotController {
 	@Autowired
 	private TimeSlotService timeSlotService;
 
+	@Autowired
+	private SlotAvailabilityBroadcaster slotAvailabilityBroadcaster;
+
+	@Autowired
+	private ChangeCounterService changeCounterService;
+
+	@Autowired
+	private TimeSlotRetentionService timeSlotRetentionService;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
 	/**
 	 * Get available time slots for a specific date
 	 */
 	@GetMapping("/available/{date}")
 	public ResponseEntity<List<TimeSlot>> getAvailableSlots(
-			@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+			@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+			WebRequest webRequest) {
 		try {
+			String etag = slotsETag();
+			if (webRequest.checkNotModified(etag)) {
+				return null;
+			}
 			List<TimeSlot> slots = timeSlotService.getAvailableSlotsForDate(date);
-			return ResponseEntity.ok(slots);
+			return ResponseEntity.ok().eTag(etag).body(slots);
+		} catch (Exception e) {
+			return ResponseEntity.badRequest().build();
+		}
+	}
+
+	/**
+	 * Stream availability changes for a date range as server-sent events.
+	 * Emits "slot" and "date" events; "resync" means updates were dropped and the range should be refetched.
+	 */
+	@GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public ResponseEntity<SseEmitter> streamAvailability(
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+		try {
+			return ResponseEntity.ok(slotAvailabilityBroadcaster.subscribe(startDate, endDate));
 		} catch (Exception e) {
 			return ResponseEntity.badRequest().build();
 		}
@@ -40,10 +81,15 @@ public class TimeSlotController {
 	@GetMapping("/range")
 	public ResponseEntity<List<TimeSlot>> getSlotsForDateRange(
 			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+			WebRequest webRequest) {
 		try {
+			String etag = slotsETag();
+			if (webRequest.checkNotModified(etag)) {
+				return null;
+			}
 			List<TimeSlot> slots = timeSlotService.getSlotsForDateRange(startDate, endDate);
-			return ResponseEntity.ok(slots);
+			return ResponseEntity.ok().eTag(etag).body(slots);
 		} catch (Exception e) {
 			return ResponseEntity.badRequest().build();
 		}
@@ -65,14 +111,37 @@ public class TimeSlotController {
 		}
 	}
 
+	/**
+	 * Delete past unbooked slots now instead of waiting for the nightly run (admin only)
+	 */
+	@PostMapping("/prune")
+	public ResponseEntity<?> pruneTimeSlots(@RequestHeader(value = "Authorization", required = false) String authHeader) {
+		ResponseEntity<?> denied = requireAdmin(authHeader);
+		if (denied != null) {
+			return denied;
+		}
+		try {
+			return ResponseEntity.ok(timeSlotRetentionService.prune());
+		} catch (RuntimeException e) {
+			Map<String, Object> errorResponse = new java.util.HashMap<>();
+			errorResponse.put("message", "Failed to prune time slots: " + e.getMessage());
+			errorResponse.put("error", "PruneFailed");
+			return ResponseEntity.status(500).body(errorResponse);
+		}
+	}
+
 	/**
 	 * Get time slot by ID
 	 */
 	@GetMapping("/{id}")
-	public ResponseEntity<TimeSlot> getTimeSlotById(@PathVariable String id) {
+	public ResponseEntity<TimeSlot> getTimeSlotById(@PathVariable String id, WebRequest webRequest) {
 		try {
+			String etag = slotsETag();
+			if (webRequest.checkNotModified(etag)) {
+				return null;
+			}
 			return timeSlotService.getSlotById(id)
-					.map(ResponseEntity::ok)
+					.map(slot -> ResponseEntity.ok().eTag(etag).body(slot))
 					.orElse(ResponseEntity.notFound().build());
 		} catch (Exception e) {
 			return ResponseEntity.badRequest().build();
@@ -85,35 +154,38 @@ public class TimeSlotController {
 	 */
 	@GetMapping("/check-availability/{date}")
 	public ResponseEntity<Map<String, Object>> checkDateAvailability(
-			@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+			@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+			WebRequest webRequest) {
 		try {
-			boolean isUnavailable = timeSlotService.isDateUnavailable(date);
-			boolean isSunday = date.getDayOfWeek().getValue() == 7;
-			
-			Map<String, Object> result = new java.util.HashMap<>();
-			result.put("date", date.toString());
-			result.put("isAvailable", !isUnavailable && !isSunday);
-			result.put("isUnavailable", isUnavailable);
-			result.put("isSunday", isSunday);
-			
-			if (!isUnavailable && !isSunday) {
-				List<TimeSlot> slots = timeSlotService.getAvailableSlotsForDate(date);
-				result.put("availableSlots", slots);
-				result.put("slotCount", slots.size());
-			} else {
-				result.put("availableSlots", new java.util.ArrayList<>());
-				result.put("slotCount", 0);
-				if (isUnavailable) {
-					result.put("message", "This date is unavailable (holiday/maintenance)");
-				} else if (isSunday) {
-					result.put("message", "Shop is closed on Sundays");
-				}
+			// Remaining labor hours change with bookings as well
+			String etag = changeCounterService.etag("availability", ChangeCounterService.TIMESLOTS,
+				ChangeCounterService.UNAVAILABLE_DATES, ChangeCounterService.BOOKINGS);
+			if (webRequest.checkNotModified(etag)) {
+				return null;
 			}
-			
-			return ResponseEntity.ok(result);
+			Map<String, Object> result = timeSlotService.checkDateAvailability(date);
+			return ResponseEntity.ok().eTag(etag).body(result);
 		} catch (Exception e) {
 			return ResponseEntity.badRequest().build();
 		}
 	}
-}
 
+	/**
+	 * Slot reads change whenever a slot or an unavailable date changes
+	 */
+	private String slotsETag() {
+		return changeCounterService.etag("slots", ChangeCounterService.TIMESLOTS, ChangeCounterService.UNAVAILABLE_DATES);
+	}
+
+	private ResponseEntity<?> requireAdmin(String authHeader) {
+		if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+			return ResponseEntity.status(401).build();
+		}
+		try {
+			Claims claims = jwtUtil.parseToken(authHeader);
+			return jwtUtil.isAdmin(claims) ? null : ResponseEntity.status(403).build();
+		} catch (Exception e) {
+			return ResponseEntity.status(401).build();
+		}
+	}
+}
@@ -10,6 +10,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import com.revamp.booking.bookingservice.model.UnavailableDate;
+import com.revamp.booking.bookingservice.service.ClosureService;
 import com.revamp.booking.bookingservice.service.UnavailableDateService;
 
 @RestController
@@ -20,6 +21,9 @@ public class UnavailableDateController {
 	@Autowired
 	private UnavailableDateService unavailableDateService;
 
+	@Autowired
+	private ClosureService closureService;
+
 	/**
 	 * Add an unavailable date
 	 */
@@ -37,6 +41,30 @@ public class UnavailableDateController {
 		}
 	}
 
+	/**
+	 * Rerun the closure handling for a date, e.g. to retry moves after freeing capacity.
+	 * Declaring the date already runs it with the configured mode.
+	 */
+	@PostMapping("/{date}/affected-appointments")
+	public ResponseEntity<?> handleAffectedAppointments(
+			@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+			@RequestParam(defaultValue = "move") String mode) {
+		if (!unavailableDateService.isDateUnavailable(date)) {
+			Map<String, Object> errorResponse = new java.util.HashMap<>();
+			errorResponse.put("message", date + " is not an unavailable date");
+			errorResponse.put("error", "NotFound");
+			return ResponseEntity.status(404).body(errorResponse);
+		}
+		try {
+			return ResponseEntity.ok(closureService.handleClosure(date, mode));
+		} catch (RuntimeException e) {
+			Map<String, Object> errorResponse = new java.util.HashMap<>();
+			errorResponse.put("message", e.getMessage());
+			errorResponse.put("error", "ValidationError");
+			return ResponseEntity.badRequest().body(errorResponse);
+		}
+	}
+
 	/**
 	 * Remove an unavailable date
 	 */
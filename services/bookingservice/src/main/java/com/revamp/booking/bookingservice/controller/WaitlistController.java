@@ -0,0 +1,119 @@
+package com.revamp.booking.bookingservice.controller;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.revamp.booking.bookingservice.model.WaitlistEntry;
+import com.revamp.booking.bookingservice.service.WaitlistService;
+import com.revamp.booking.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+
+@RestController
+@RequestMapping("/api/bookings/waitlist")
+@CrossOrigin(origins = "*")
+public class WaitlistController {
+
+	@Autowired
+	private WaitlistService waitlistService;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	/**
+	 * Join the waitlist for a taken slot ({date, slotId}) or for any slot on a date ({date})
+	 */
+	@PostMapping
+	public ResponseEntity<?> join(
+			@RequestHeader(value = "Authorization", required = false) String authHeader,
+			@RequestBody Map<String, Object> request) {
+		Claims claims = parse(authHeader);
+		if (claims == null) {
+			return unauthorized();
+		}
+		try {
+			LocalDate date = LocalDate.parse(request.get("date").toString());
+			Object slotId = request.get("slotId");
+			WaitlistEntry entry = waitlistService.join(jwtUtil.getCustomerId(claims), jwtUtil.getCustomerName(claims),
+				jwtUtil.getCustomerEmail(claims), date, slotId != null ? slotId.toString() : null);
+			return ResponseEntity.ok(entry);
+		} catch (RuntimeException e) {
+			Map<String, Object> errorResponse = new HashMap<>();
+			errorResponse.put("message", e.getMessage());
+			errorResponse.put("error", "ValidationError");
+			return ResponseEntity.badRequest().body(errorResponse);
+		}
+	}
+
+	/**
+	 * The customer's waitlist entries, newest first
+	 */
+	@GetMapping
+	public ResponseEntity<?> getEntries(@RequestHeader(value = "Authorization", required = false) String authHeader) {
+		Claims claims = parse(authHeader);
+		if (claims == null) {
+			return unauthorized();
+		}
+		return ResponseEntity.ok(waitlistService.getEntries(jwtUtil.getCustomerId(claims)));
+	}
+
+	@DeleteMapping("/{id}")
+	public ResponseEntity<?> leave(
+			@RequestHeader(value = "Authorization", required = false) String authHeader,
+			@PathVariable String id) {
+		Claims claims = parse(authHeader);
+		if (claims == null) {
+			return unauthorized();
+		}
+		if (!waitlistService.leave(jwtUtil.getCustomerId(claims), id)) {
+			return ResponseEntity.notFound().build();
+		}
+		return ResponseEntity.ok().build();
+	}
+
+	/**
+	 * Waitlist offers and other messages for the customer
+	 */
+	@GetMapping("/notifications")
+	public ResponseEntity<?> getNotifications(@RequestHeader(value = "Authorization", required = false) String authHeader) {
+		Claims claims = parse(authHeader);
+		if (claims == null) {
+			return unauthorized();
+		}
+		return ResponseEntity.ok(waitlistService.getNotifications(jwtUtil.getCustomerId(claims)));
+	}
+
+	@PutMapping("/notifications/{id}/read")
+	public ResponseEntity<?> markRead(
+			@RequestHeader(value = "Authorization", required = false) String authHeader,
+			@PathVariable String id) {
+		Claims claims = parse(authHeader);
+		if (claims == null) {
+			return unauthorized();
+		}
+		waitlistService.markNotificationRead(jwtUtil.getCustomerId(claims), id);
+		return ResponseEntity.ok().build();
+	}
+
+	private Claims parse(String authHeader) {
+		if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+			return null;
+		}
+		try {
+			return jwtUtil.parseToken(authHeader);
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
+	private ResponseEntity<Map<String, Object>> unauthorized() {
+		Map<String, Object> errorResponse = new HashMap<>();
+		errorResponse.put("message", "Invalid or missing token");
+		errorResponse.put("error", "Unauthorized");
+		return ResponseEntity.status(401).body(errorResponse);
+	}
+}
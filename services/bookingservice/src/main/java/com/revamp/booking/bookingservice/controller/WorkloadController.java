@@ -0,0 +1,80 @@
+package com.revamp.booking.bookingservice.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.revamp.booking.bookingservice.service.WorkloadIndex;
+import com.revamp.booking.dto.WorkloadEvent;
+import com.revamp.booking.util.JwtUtil;
+
+import io.jsonwebtoken.Claims;
+
+@RestController
+@RequestMapping("/api/bookings/workload")
+@CrossOrigin(origins = "*")
+public class WorkloadController {
+
+	// Subject of the service token the employee service signs its pushes with
+	private static final String EMPLOYEE_SERVICE = "employee-service";
+
+	@Autowired
+	private WorkloadIndex workloadIndex;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	/**
+	 * Employee and task changes pushed by the employee service; also accepted from an admin
+	 */
+	@PostMapping("/events")
+	public ResponseEntity<Void> receiveEvents(
+			@RequestHeader(value = "Authorization", required = false) String authHeader,
+			@RequestBody List<WorkloadEvent> events) {
+		Claims claims = parseClaims(authHeader);
+		if (claims == null) {
+			return ResponseEntity.status(401).build();
+		}
+		if (!jwtUtil.isAdmin(claims) && !jwtUtil.isService(claims, EMPLOYEE_SERVICE)) {
+			return ResponseEntity.status(403).build();
+		}
+		workloadIndex.apply(events);
+		return ResponseEntity.noContent().build();
+	}
+
+	/**
+	 * Reload the index from the employee service now
+	 */
+	@PostMapping("/resync")
+	public ResponseEntity<Map<String, Object>> resync(
+			@RequestHeader(value = "Authorization", required = false) String authHeader) {
+		Claims claims = parseClaims(authHeader);
+		if (claims == null) {
+			return ResponseEntity.status(401).build();
+		}
+		if (!jwtUtil.isAdmin(claims)) {
+			return ResponseEntity.status(403).build();
+		}
+		workloadIndex.resync();
+		return ResponseEntity.ok(workloadIndex.getStatus());
+	}
+
+	@GetMapping
+	public ResponseEntity<Map<String, Object>> getStatus() {
+		return ResponseEntity.ok(workloadIndex.getStatus());
+	}
+
+	private Claims parseClaims(String authHeader) {
+		if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+			return null;
+		}
+		try {
+			return jwtUtil.parseToken(authHeader);
+		} catch (Exception e) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package com.revamp.booking.bookingservice.event;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.revamp.booking.bookingservice.model.Appointment;
+
+import lombok.Getter;
+
+/**
+ * Published after an appointment in the bookings collection has been written.
+ * Listeners (read models, caches) run synchronously on the writing thread.
+ */
+@Getter
+public class AppointmentChangedEvent {
+
+	public enum Type {
+		CREATED,
+		STATUS_CHANGED,
+		EMPLOYEES_ASSIGNED,
+		EMPLOYEE_REMOVED,
+		PAYMENT_UPDATED,
+		RESCHEDULED,
+		RESCHEDULE_REQUIRED,
+		CANCELLED
+	}
+
+	private final Type type;
+	private final Appointment appointment; // State after the write (last known state for CANCELLED)
+	private final String previousStatus;
+	private final LocalDate previousDate;
+	private final List<String> previousEmployeeIds;
+	private final String actor; // Who made the change, null if unknown
+
+	private AppointmentChangedEvent(Type type, Appointment appointment, String previousStatus,
+			LocalDate previousDate, List<String> previousEmployeeIds, String actor) {
+		this.type = type;
+		this.appointment = appointment;
+		this.previousStatus = previousStatus;
+		this.previousDate = previousDate;
+		this.previousEmployeeIds = previousEmployeeIds;
+		this.actor = actor;
+	}
+
+	public static AppointmentChangedEvent created(Appointment appointment) {
+		return new AppointmentChangedEvent(Type.CREATED, appointment, null, null, null, appointment.getCustomerId());
+	}
+
+	public static AppointmentChangedEvent cancelled(Appointment appointment) {
+		return cancelled(appointment, null);
+	}
+
+	public static AppointmentChangedEvent cancelled(Appointment appointment, String actor) {
+		return new AppointmentChangedEvent(Type.CANCELLED, appointment, appointment.getStatus(),
+			appointment.getDate(), appointment.getAssignedEmployeeIds(), actor);
+	}
+
+	public static AppointmentChangedEvent updated(Type type, Appointment appointment, String previousStatus,
+			LocalDate previousDate, List<String> previousEmployeeIds) {
+		return updated(type, appointment, previousStatus, previousDate, previousEmployeeIds, null);
+	}
+
+	public static AppointmentChangedEvent updated(Type type, Appointment appointment, String previousStatus,
+			LocalDate previousDate, List<String> previousEmployeeIds, String actor) {
+		return new AppointmentChangedEvent(type, appointment, previousStatus, previousDate, previousEmployeeIds, actor);
+	}
+}
@@ -0,0 +1,46 @@
+package com.revamp.booking.bookingservice.event;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Availability change pushed to SSE subscribers and relayed between instances.
+ * type is "slot" for a single slot change or "date" when a whole date closes or reopens.
+ */
+@Data
+@NoArgsConstructor
+public class SlotAvailabilityUpdate {
+	private String type;
+	private LocalDate date;
+	private String slotId;
+	private LocalTime startTime;
+	private LocalTime endTime;
+	private boolean available;
+	private String reason; // Closure reason for "date" updates
+	private String origin; // Instance that produced the change
+
+	public static SlotAvailabilityUpdate forSlot(SlotChangedEvent event, String origin) {
+		SlotAvailabilityUpdate update = new SlotAvailabilityUpdate();
+		update.setType("slot");
+		update.setDate(event.getSlot().getDate());
+		update.setSlotId(event.getSlot().getId());
+		update.setStartTime(event.getSlot().getStartTime());
+		update.setEndTime(event.getSlot().getEndTime());
+		update.setAvailable(event.getSlot().isAvailable());
+		update.setOrigin(origin);
+		return update;
+	}
+
+	public static SlotAvailabilityUpdate forDate(UnavailableDateChangedEvent event, String origin) {
+		SlotAvailabilityUpdate update = new SlotAvailabilityUpdate();
+		update.setType("date");
+		update.setDate(event.getDate());
+		update.setAvailable(!event.isUnavailable());
+		update.setReason(event.getReason());
+		update.setOrigin(origin);
+		return update;
+	}
+}
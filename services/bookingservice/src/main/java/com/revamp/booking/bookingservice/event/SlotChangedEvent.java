@@ -0,0 +1,15 @@
+package com.revamp.booking.bookingservice.event;
+
+import com.revamp.booking.bookingservice.model.TimeSlot;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published after a time slot has been created, booked, linked or released.
+ */
+@Getter
+@AllArgsConstructor
+public class SlotChangedEvent {
+	private final TimeSlot slot; // State after the write
+}
@@ -0,0 +1,17 @@
+package com.revamp.booking.bookingservice.event;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published after a date has been declared unavailable or reopened.
+ */
+@Getter
+@AllArgsConstructor
+public class UnavailableDateChangedEvent {
+	private final LocalDate date;
+	private final boolean unavailable;
+	private final String reason; // null when reopened
+}
@@ -1,6 +1,9 @@
 package com.revamp.booking.bookingservice.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.AllArgsConstructor;
@@ -10,15 +13,27 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Document(collection = "bookings")
+@CompoundIndexes({
+	@CompoundIndex(name = "date_1_status_1", def = "{'date': 1, 'status': 1}")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Appointment {
+	/**
+	 * Statuses of appointments that are over: they no longer hold employees, get reminders or
+	 * move when their day closes
+	 */
+	public static final Set<String> INACTIVE_STATUSES = Set.of("Completed", "Delivered", "completed", "delivered", "cancelled");
+
 	@Id
 	private String id;
 	
+	@Indexed(name = "customerId_1")
 	private String customerId;
 	private String customerName;
 	private String customerEmail;
@@ -37,11 +52,27 @@ public class Appointment {
 	private List<String> neededModifications; // From Booking model (alias for modifications)
 	private Double estimatedCost;
 	private Integer estimatedTimeHours; // From Booking model
+	private Integer capacityHours; // Hours debited from the daily capacity ledger
+	private Map<String, Integer> capacityDays; // Those hours per day (ISO date) for a job spanning several days
+	@Indexed(name = "timeSlotId_1", sparse = true) // Day sheets join bookings to their slots
 	private String timeSlotId; // For service bookings
 	private LocalTime endTime; // Calculated end time
+	private LocalDate endDate; // Last day of a multi-day modification job
+	private Integer bayNumber; // Workshop bay holding a modification job
+	private Boolean rescheduleRequired; // Set when a closure hit the date and it could not be moved
+	private LocalDate rescheduledFrom; // Closed date the appointment was on
 	private String instructions; // From Booking model
 	private java.time.LocalDateTime createdAt; // From Booking model
 	private java.time.LocalDateTime updatedAt; // From Booking model
+	@Indexed(name = "paymentStatus_1", sparse = true)
+	private String paymentStatus; // From Booking model (pending, processing, paid, failed, canceled)
+	@Indexed(name = "paymentIntentId_1", sparse = true)
+	private String paymentIntentId; // From Booking model
+	private Long paymentAmount; // From Booking model
+	private String paymentClientSecret; // From Booking model
+	private Integer paymentAttempt; // From Booking model
+	private Long paymentEventCreated; // From Booking model
+	private java.time.LocalDateTime paymentUpdatedAt; // From Booking model
 	
 	@Data
 	@NoArgsConstructor
@@ -0,0 +1,38 @@
+package com.revamp.booking.bookingservice.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One change to an appointment (appointment_events collection). Append-only: events are
+ * inserted and never updated, so an appointment's history survives cancellation and archival
+ * without growing the appointment document.
+ */
+@Document(collection = "appointment_events")
+@CompoundIndexes({
+	@CompoundIndex(name = "appointmentId_1_at_1", def = "{'appointmentId': 1, 'at': 1}"), // Timelines
+	@CompoundIndex(name = "type_1_at_1", def = "{'type': 1, 'at': 1}") // Appointments created in a period
+})
+@Data
+@NoArgsConstructor
+public class AppointmentEvent {
+	@Id
+	private String id;
+
+	private String appointmentId;
+	private String customerId;
+	private String type; // AppointmentChangedEvent.Type, e.g. "STATUS_CHANGED"
+	private String actor; // Customer, admin or employee ID; "system" for jobs
+	private LocalDateTime at;
+	private String status; // Status after the change
+	private Map<String, Object> delta = new LinkedHashMap<>(); // Field -> {from, to}
+}
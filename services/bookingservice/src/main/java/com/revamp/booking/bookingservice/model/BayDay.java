@@ -0,0 +1,65 @@
+package com.revamp.booking.bookingservice.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bay occupancy for one shop day (bay_days collection).
+ * Kept compact: each occupied stretch is a [start, end) pair of minutes after midnight
+ * plus the appointment id, grouped per bay.
+ */
+@Document(collection = "bay_days")
+@Data
+@NoArgsConstructor
+public class BayDay {
+	@Id
+	private String id; // yyyy-MM-dd
+
+	@Indexed(name = "date_1")
+	private LocalDate date;
+	private List<Bay> bays = new ArrayList<>();
+
+	@Version
+	private Long version;
+
+	public BayDay(LocalDate date) {
+		this.id = date.toString();
+		this.date = date;
+	}
+
+	@Data
+	@NoArgsConstructor
+	public static class Bay {
+		@Field("n")
+		private int number;
+		@Field("s")
+		private List<Segment> segments = new ArrayList<>();
+
+		public Bay(int number) {
+			this.number = number;
+		}
+	}
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class Segment {
+		@Field("s")
+		private int start; // Minutes after midnight, inclusive
+		@Field("e")
+		private int end; // Minutes after midnight, exclusive
+		@Field("a")
+		private String appointmentId;
+	}
+}
@@ -0,0 +1,37 @@
+package com.revamp.booking.bookingservice.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Outbox of messages for customers (customer_notifications collection), read by the
+ * customer dashboard. Removed by a TTL index after expiresAt.
+ */
+@Document(collection = "customer_notifications")
+@CompoundIndex(name = "customerId_1_createdAt_-1", def = "{'customerId': 1, 'createdAt': -1}")
+@Data
+@NoArgsConstructor
+public class CustomerNotification {
+	@Id
+	private String id;
+
+	private String customerId;
+	private String type; // e.g. "waitlist-offer"
+	private String title;
+	private String message;
+	private String slotId;
+	private String appointmentId;
+	private LocalDate date;
+	private boolean read;
+	private LocalDateTime createdAt;
+	@Indexed(name = "expiresAt_1", expireAfter = "0s")
+	private LocalDateTime expiresAt;
+}
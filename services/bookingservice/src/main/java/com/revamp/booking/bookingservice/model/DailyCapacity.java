@@ -0,0 +1,31 @@
+package com.revamp.booking.bookingservice.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Labor hours ledger for one shop day (daily_capacity collection).
+ * Modification appointments debit their estimated hours on the day they start.
+ */
+@Document(collection = "daily_capacity")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyCapacity {
+	@Id
+	private String id; // ISO date, e.g. 2025-03-14
+
+	private LocalDate date;
+	private int staffCount;
+	private int capacityHours; // staffCount * hours per employee
+	private int committedHours;
+	private int remainingHours; // capacityHours - committedHours, kept for conditional debits
+	private LocalDateTime updatedAt;
+}
@@ -0,0 +1,41 @@
+package com.revamp.booking.bookingservice.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Precomputed totals for one day of appointments (daily_rollups collection).
+ * Kept current with $inc on every create and cancel; reports never scan bookings.
+ */
+@Document(collection = "daily_rollups")
+@Data
+@NoArgsConstructor
+public class DailyRollup {
+	@Id
+	private String id; // ISO date, e.g. 2025-03-14
+
+	@Indexed(name = "date_1")
+	private LocalDate date;
+	private int appointments;
+	private int services;
+	private int modifications;
+	private int bookedSlots; // Service appointments holding one of the day's slots
+	private int modificationHours; // Estimated labor hours of Modification appointments
+	private double revenue; // Sum of estimatedCost
+	private Map<String, Integer> modificationMix = new HashMap<>(); // Modification -> times booked
+	private LocalDateTime updatedAt;
+
+	public DailyRollup(LocalDate date) {
+		this.id = date.toString();
+		this.date = date;
+	}
+}
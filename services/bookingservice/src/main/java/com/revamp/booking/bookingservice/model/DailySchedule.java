@@ -0,0 +1,79 @@
+package com.revamp.booking.bookingservice.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pre-joined read model: one document per day with slot states, appointment summaries,
+ * crew and counts. Maintained incrementally by DailyScheduleProjector from booking write events
+ * and rebuildable from the bookings/timeslots/unavailabledates collections.
+ */
+@Document(collection = "daily_schedules")
+@Data
+@NoArgsConstructor
+public class DailySchedule {
+	@Id
+	private String id; // yyyy-MM-dd
+
+	@Indexed(name = "date_1")
+	private LocalDate date;
+	private boolean closed; // Declared unavailable (holiday/maintenance)
+	private String closedReason;
+	private List<SlotState> slots = new ArrayList<>();
+	private List<AppointmentEntry> appointments = new ArrayList<>();
+	private List<String> crew = new ArrayList<>(); // Distinct assigned employee names
+	private int bookedSlotCount;
+	private int serviceCount;
+	private int modificationCount;
+	private Map<String, Integer> statusCounts = new HashMap<>();
+	private LocalDateTime updatedAt;
+
+	@Version
+	private Long version;
+
+	public DailySchedule(LocalDate date) {
+		this.id = date.toString();
+		this.date = date;
+	}
+
+	@Data
+	@NoArgsConstructor
+	public static class SlotState {
+		private String slotId;
+		private LocalTime startTime;
+		private LocalTime endTime;
+		private boolean available;
+		private String appointmentId;
+	}
+
+	@Data
+	@NoArgsConstructor
+	public static class AppointmentEntry {
+		private String appointmentId;
+		private String customerId;
+		private String customerName;
+		private String vehicle;
+		private String serviceType;
+		private String status;
+		private String timeSlotId;
+		private String timeSlotStart;
+		private String timeSlotEnd;
+		private List<String> neededModifications;
+		private Integer estimatedTimeHours;
+		private List<String> assignedEmployeeIds;
+		private List<String> assignedEmployeeNames;
+	}
+}
@@ -0,0 +1,53 @@
+package com.revamp.booking.bookingservice.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-day workshop board as rendered by the admin day view.
+ * Built per request by DaySheetService, not stored.
+ */
+@Data
+@NoArgsConstructor
+public class DaySheet {
+	private LocalDate date;
+	private boolean holiday;
+	private String holidayReason;
+	private List<SlotEntry> slots = new ArrayList<>();
+	private List<AppointmentSummary> modificationJobs = new ArrayList<>(); // Every job running that day
+	private List<String> crew; // Distinct assigned employee names for the day
+
+	@Data
+	@NoArgsConstructor
+	public static class SlotEntry {
+		private String id;
+		private LocalTime startTime;
+		private LocalTime endTime;
+		private boolean available;
+		private AppointmentSummary appointment; // null when the slot is free
+	}
+
+	@Data
+	@NoArgsConstructor
+	public static class AppointmentSummary {
+		private String id;
+		private LocalDate date;
+		private LocalDate endDate; // Last day of a multi-day job
+		private String customerName;
+		private String vehicle;
+		private Appointment.VehicleDetails vehicleDetails;
+		private String serviceType;
+		private String status;
+		private String timeSlotStart;
+		private String timeSlotEnd;
+		private List<String> neededModifications;
+		private Integer estimatedTimeHours;
+		private List<String> assignedEmployeeIds;
+		private List<String> assignedEmployeeNames;
+	}
+}
@@ -1,6 +1,8 @@
 package com.revamp.booking.bookingservice.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
@@ -9,9 +11,11 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 @Document(collection = "timeslots")
+@CompoundIndex(name = "date_1_startTime_1_endTime_1", def = "{'date': 1, 'startTime': 1, 'endTime': 1}")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -24,7 +28,11 @@ public class TimeSlot {
 	private LocalTime endTime;   // 11:00, 14:00, 17:00
 	@Field("isAvailable")
 	private boolean available;
+	@Indexed(name = "appointmentId_1", sparse = true)
 	private String appointmentId; // null if available, appointment ID if booked
+	private String heldFor; // Customer ID a released slot is held for (waitlist offer)
+	@Indexed(name = "holdExpiresAt_1", sparse = true)
+	private LocalDateTime holdExpiresAt;
 	
 	public TimeSlot(LocalDate date, LocalTime startTime, LocalTime endTime) {
 		this.date = date;
@@ -1,6 +1,7 @@
 package com.revamp.booking.bookingservice.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.AllArgsConstructor;
@@ -17,6 +18,7 @@ public class UnavailableDate {
 	@Id
 	private String id;
 	
+	@Indexed(name = "date_1")
 	private LocalDate date;
 	private String reason; // e.g., "Holiday", "Shop Closed", "Maintenance"
 	private String description; // Optional description
@@ -0,0 +1,47 @@
+package com.revamp.booking.bookingservice.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A customer waiting for a specific slot, or for any slot on a date when slotId is null.
+ * MongoDB drops the document once expiresAt has passed (TTL index).
+ */
+@Document(collection = "waitlist_entries")
+@CompoundIndexes({
+	@CompoundIndex(name = "status_1_date_1_createdAt_1", def = "{'status': 1, 'date': 1, 'createdAt': 1}"),
+	@CompoundIndex(name = "customerId_1_createdAt_-1", def = "{'customerId': 1, 'createdAt': -1}")
+})
+@Data
+@NoArgsConstructor
+public class WaitlistEntry {
+	public static final String WAITING = "waiting";
+	public static final String OFFERED = "offered"; // Slot is held for the customer
+	public static final String BOOKED = "booked";
+	public static final String EXPIRED = "expired"; // Hold ran out without a booking
+	public static final String CANCELLED = "cancelled";
+
+	@Id
+	private String id;
+
+	private String customerId;
+	private String customerName;
+	private String customerEmail;
+	private LocalDate date;
+	private String slotId;
+	private String status;
+	private String offeredSlotId;
+	private LocalDateTime holdExpiresAt;
+	private LocalDateTime createdAt;
+	@Indexed(name = "expiresAt_1", expireAfter = "0s")
+	private LocalDateTime expiresAt;
+}
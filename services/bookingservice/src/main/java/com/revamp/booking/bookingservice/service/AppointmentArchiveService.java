@@ -0,0 +1,185 @@
+package com.revamp.booking.bookingservice.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.WriteModel;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Moves finished appointments out of the bookings collection into bookings_archive.
+ *
+ * Delivered and Completed appointments older than booking.archive.after-months are copied in
+ * batches with one unordered bulk upsert and then removed with one delete. The copy is an upsert
+ * so a run that dies between the two steps simply repeats the batch next time. Customer history
+ * reads the archive only when asked to.
+ */
+@Service
+public class AppointmentArchiveService {
+
+	public static final String HOT_COLLECTION = "bookings";
+	public static final String ARCHIVE_COLLECTION = "bookings_archive";
+	private static final List<String> ARCHIVABLE_STATUSES = List.of("Completed", "Delivered", "completed", "delivered");
+	private static final String LOCK_COLLECTION = "job_locks";
+	private static final String LOCK_ID = "appointment-archive";
+
+	@Value("${booking.archive.after-months:6}")
+	private int afterMonths;
+
+	@Value("${booking.archive.batch-size:500}")
+	private int batchSize;
+
+	@Value("${booking.archive.max-batches:200}")
+	private int maxBatches;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private ChangeCounterService changeCounterService;
+
+	@PostConstruct
+	public void ensureIndexes() {
+		try {
+			mongoTemplate.indexOps(ARCHIVE_COLLECTION).createIndex(new Index()
+				.on("customerId", Sort.Direction.ASC).on("date", Sort.Direction.DESC));
+			// Rollup backfills read the archive by date
+			mongoTemplate.indexOps(ARCHIVE_COLLECTION).createIndex(new Index().on("date", Sort.Direction.ASC));
+		} catch (RuntimeException e) {
+			System.err.println("✗ Failed to create archive indexes: " + e.getMessage());
+		}
+	}
+
+	@Scheduled(cron = "${booking.archive.cron:0 30 2 * * *}")
+	public void scheduledArchive() {
+		try {
+			archive();
+		} catch (RuntimeException e) {
+			System.err.println("✗ Appointment archival failed: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Archive everything that is due, one batch at a time
+	 *
+	 * @return a summary of the run, or a skipped marker if another instance is archiving
+	 */
+	public Map<String, Object> archive() {
+		Map<String, Object> summary = new LinkedHashMap<>();
+		LocalDate cutoff = LocalDate.now().minusMonths(afterMonths);
+		summary.put("cutoff", cutoff.toString());
+		if (!acquireLock()) {
+			summary.put("skipped", true);
+			return summary;
+		}
+
+		int moved = 0;
+		int batches = 0;
+		try {
+			while (batches < maxBatches) {
+				int count = archiveBatch(cutoff);
+				if (count == 0) {
+					break;
+				}
+				moved += count;
+				batches++;
+				if (count < batchSize) {
+					break;
+				}
+			}
+		} finally {
+			releaseLock();
+		}
+		if (moved > 0) {
+			changeCounterService.increment(ChangeCounterService.BOOKINGS);
+			System.out.println("✓ Archived " + moved + " appointments older than " + cutoff);
+		}
+		summary.put("archived", moved);
+		summary.put("batches", batches);
+		return summary;
+	}
+
+	/**
+	 * Copy one batch to the archive and remove it from the hot collection
+	 */
+	private int archiveBatch(LocalDate cutoff) {
+		Query query = new Query(Criteria.where("status").in(ARCHIVABLE_STATUSES).and("date").lt(cutoff))
+			.with(Sort.by(Sort.Direction.ASC, "_id"))
+			.limit(batchSize);
+		List<Document> batch = mongoTemplate.find(query, Document.class, HOT_COLLECTION);
+		if (batch.isEmpty()) {
+			return 0;
+		}
+
+		Date archivedAt = new Date();
+		List<Object> ids = new ArrayList<>();
+		List<WriteModel<Document>> copies = new ArrayList<>();
+		for (Document document : batch) {
+			ids.add(document.get("_id"));
+			document.put("archivedAt", archivedAt);
+			copies.add(new ReplaceOneModel<>(Filters.eq("_id", document.get("_id")), document,
+				new ReplaceOptions().upsert(true)));
+		}
+		mongoTemplate.getCollection(ARCHIVE_COLLECTION).bulkWrite(copies, new BulkWriteOptions().ordered(false));
+
+		// Only delete what is still finished; anything reopened meanwhile stays hot and is re-copied later
+		long deleted = mongoTemplate.getCollection(HOT_COLLECTION).deleteMany(Filters.and(
+			Filters.in("_id", ids), Filters.in("status", ARCHIVABLE_STATUSES))).getDeletedCount();
+		if (deleted < ids.size()) {
+			System.out.println("⚠ " + (ids.size() - deleted) + " appointments changed during archival and stay in "
+				+ HOT_COLLECTION);
+		}
+		return batch.size();
+	}
+
+	/**
+	 * Archived appointments of one customer, newest first
+	 */
+	public <T> List<T> findArchivedByCustomerId(String customerId, Class<T> type) {
+		Query query = new Query(Criteria.where("customerId").is(customerId))
+			.with(Sort.by(Sort.Direction.DESC, "date"));
+		return mongoTemplate.find(query, type, ARCHIVE_COLLECTION);
+	}
+
+	private boolean acquireLock() {
+		LocalDateTime now = LocalDateTime.now();
+		Query query = new Query(Criteria.where("_id").is(LOCK_ID).and("lockedUntil").lt(now));
+		Update update = new Update().set("lockedUntil", now.plusHours(1)).set("lockedAt", now);
+		try {
+			mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().upsert(true), Document.class,
+				LOCK_COLLECTION);
+			return true;
+		} catch (DuplicateKeyException e) {
+			return false; // Another instance holds an unexpired lock
+		}
+	}
+
+	private void releaseLock() {
+		mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(LOCK_ID)),
+			new Update().set("lockedUntil", LocalDateTime.now()), LOCK_COLLECTION);
+	}
+}
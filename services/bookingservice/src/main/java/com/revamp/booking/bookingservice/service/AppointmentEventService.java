@@ -0,0 +1,232 @@
+package com.revamp.booking.bookingservice.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.revamp.booking.bookingservice.event.AppointmentChangedEvent;
+import com.revamp.booking.bookingservice.model.Appointment;
+import com.revamp.booking.bookingservice.model.AppointmentEvent;
+
+/**
+ * Appends every appointment change to the appointment_events log and answers history questions
+ * from it: an appointment's timeline, and how long appointments spend in each status.
+ *
+ * Events come from AppointmentChangedEvent, so every write path that publishes one is covered.
+ * The log is only ever inserted into; stages are derived when read.
+ */
+@Service
+public class AppointmentEventService {
+
+	private static final String SYSTEM_ACTOR = "system";
+	private static final String CANCELLED_STAGE = "Cancelled";
+	// Final statuses: the stage never ends, so it has no duration
+	private static final Set<String> TERMINAL_STAGES = Set.of(CANCELLED_STAGE, "Delivered", "delivered", "cancelled");
+	private static final int ID_BATCH_SIZE = 1000;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@EventListener
+	public void onAppointmentChanged(AppointmentChangedEvent event) {
+		Appointment appointment = event.getAppointment();
+		try {
+			mongoTemplate.insert(toEvent(event));
+		} catch (RuntimeException e) {
+			// The appointment write itself succeeded; only its history entry is missing
+			System.err.println("✗ Failed to log " + event.getType() + " for appointment " + appointment.getId() + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Every event of an appointment in order, plus the status stages they add up to
+	 */
+	public Map<String, Object> getTimeline(String appointmentId) {
+		Query query = new Query(Criteria.where("appointmentId").is(appointmentId))
+			.with(Sort.by(Sort.Direction.ASC, "at"));
+		List<AppointmentEvent> events = mongoTemplate.find(query, AppointmentEvent.class);
+
+		Map<String, Object> timeline = new LinkedHashMap<>();
+		timeline.put("appointmentId", appointmentId);
+		timeline.put("events", events);
+		timeline.put("stages", stages(events, LocalDateTime.now()));
+		return timeline;
+	}
+
+	/**
+	 * Time spent per status by appointments created between startDate and endDate.
+	 * Stages still in progress are counted as open and left out of the durations; final statuses
+	 * (Delivered, Cancelled) have no duration and are not reported.
+	 */
+	public Map<String, Object> getStageDurations(LocalDate startDate, LocalDate endDate) {
+		if (endDate.isBefore(startDate)) {
+			throw new RuntimeException("endDate must not be before startDate");
+		}
+		Query created = new Query(Criteria.where("type").is(AppointmentChangedEvent.Type.CREATED.name())
+			.and("at").gte(startDate.atStartOfDay()).lt(endDate.plusDays(1).atStartOfDay()));
+		created.fields().include("appointmentId");
+		List<String> appointmentIds = mongoTemplate.find(created, AppointmentEvent.class).stream()
+			.map(AppointmentEvent::getAppointmentId)
+			.filter(Objects::nonNull)
+			.distinct()
+			.toList();
+
+		LocalDateTime now = LocalDateTime.now();
+		Map<String, List<Long>> minutesByStatus = new LinkedHashMap<>();
+		Map<String, Integer> openByStatus = new LinkedHashMap<>();
+		for (int from = 0; from < appointmentIds.size(); from += ID_BATCH_SIZE) {
+			List<String> batch = appointmentIds.subList(from, Math.min(from + ID_BATCH_SIZE, appointmentIds.size()));
+			Query query = new Query(Criteria.where("appointmentId").in(batch))
+				.with(Sort.by(Sort.Direction.ASC, "appointmentId").and(Sort.by(Sort.Direction.ASC, "at")));
+			List<AppointmentEvent> events = mongoTemplate.find(query, AppointmentEvent.class);
+
+			int start = 0;
+			for (int i = 1; i <= events.size(); i++) {
+				if (i < events.size() && events.get(i).getAppointmentId().equals(events.get(start).getAppointmentId())) {
+					continue;
+				}
+				for (Map<String, Object> stage : stages(events.subList(start, i), now)) {
+					String status = (String) stage.get("status");
+					if (!stage.containsKey("minutes")) {
+						continue;
+					}
+					if (Boolean.TRUE.equals(stage.get("open"))) {
+						openByStatus.merge(status, 1, Integer::sum);
+					} else {
+						minutesByStatus.computeIfAbsent(status, s -> new ArrayList<>()).add((Long) stage.get("minutes"));
+					}
+				}
+				start = i;
+			}
+		}
+
+		List<Map<String, Object>> statuses = new ArrayList<>();
+		for (String status : union(minutesByStatus.keySet(), openByStatus.keySet())) {
+			List<Long> minutes = minutesByStatus.getOrDefault(status, new ArrayList<>());
+			minutes.sort(null);
+			Map<String, Object> row = new LinkedHashMap<>();
+			row.put("status", status);
+			row.put("completed", minutes.size());
+			row.put("open", openByStatus.getOrDefault(status, 0));
+			if (!minutes.isEmpty()) {
+				row.put("avgMinutes", Math.round(minutes.stream().mapToLong(Long::longValue).average().orElse(0)));
+				row.put("p50Minutes", percentile(minutes, 50));
+				row.put("p90Minutes", percentile(minutes, 90));
+				row.put("maxMinutes", minutes.get(minutes.size() - 1));
+			}
+			statuses.add(row);
+		}
+
+		Map<String, Object> report = new LinkedHashMap<>();
+		report.put("startDate", startDate.toString());
+		report.put("endDate", endDate.toString());
+		report.put("appointments", appointmentIds.size());
+		report.put("stages", statuses);
+		return report;
+	}
+
+	private AppointmentEvent toEvent(AppointmentChangedEvent event) {
+		Appointment appointment = event.getAppointment();
+		AppointmentEvent logged = new AppointmentEvent();
+		logged.setAppointmentId(appointment.getId());
+		logged.setCustomerId(appointment.getCustomerId());
+		logged.setType(event.getType().name());
+		logged.setActor(event.getActor() != null ? event.getActor() : SYSTEM_ACTOR);
+		logged.setAt(LocalDateTime.now());
+
+		Map<String, Object> delta = logged.getDelta();
+		if (event.getType() == AppointmentChangedEvent.Type.CREATED) {
+			logged.setStatus(appointment.getStatus());
+			putChange(delta, "status", null, appointment.getStatus());
+			putChange(delta, "date", null, appointment.getDate());
+			putChange(delta, "serviceType", null, appointment.getServiceType());
+			putChange(delta, "timeSlotId", null, appointment.getTimeSlotId());
+			return logged;
+		}
+		if (event.getType() == AppointmentChangedEvent.Type.CANCELLED) {
+			logged.setStatus(CANCELLED_STAGE);
+			putChange(delta, "status", appointment.getStatus(), CANCELLED_STAGE);
+			return logged;
+		}
+
+		logged.setStatus(appointment.getStatus());
+		putChange(delta, "status", event.getPreviousStatus(), appointment.getStatus());
+		putChange(delta, "date", event.getPreviousDate(), appointment.getDate());
+		putChange(delta, "assignedEmployeeIds", event.getPreviousEmployeeIds(), appointment.getAssignedEmployeeIds());
+		if (event.getType() == AppointmentChangedEvent.Type.PAYMENT_UPDATED) {
+			putChange(delta, "paymentStatus", null, appointment.getPaymentStatus());
+		}
+		if (event.getType() == AppointmentChangedEvent.Type.RESCHEDULE_REQUIRED) {
+			putChange(delta, "rescheduleRequired", null, appointment.getRescheduleRequired());
+		}
+		return logged;
+	}
+
+	private void putChange(Map<String, Object> delta, String field, Object from, Object to) {
+		if (Objects.equals(from, to)) {
+			return;
+		}
+		Map<String, Object> change = new LinkedHashMap<>();
+		change.put("from", from);
+		change.put("to", to);
+		delta.put(field, change);
+	}
+
+	/**
+	 * Status stages of one appointment from its events in time order: each stage lasts from the
+	 * event that entered the status until the next event that left it
+	 */
+	private List<Map<String, Object>> stages(List<AppointmentEvent> events, LocalDateTime now) {
+		List<Map<String, Object>> stages = new ArrayList<>();
+		Map<String, Object> current = null;
+		for (AppointmentEvent event : events) {
+			String status = event.getStatus();
+			if (status == null || (current != null && status.equals(current.get("status")))) {
+				continue;
+			}
+			if (current != null) {
+				close(current, event.getAt());
+			}
+			current = new LinkedHashMap<>();
+			current.put("status", status);
+			current.put("enteredAt", event.getAt());
+			current.put("enteredBy", event.getActor());
+			stages.add(current);
+		}
+		if (current != null && !TERMINAL_STAGES.contains(current.get("status"))) {
+			current.put("open", true);
+			current.put("minutes", Duration.between((LocalDateTime) current.get("enteredAt"), now).toMinutes());
+		}
+		return stages;
+	}
+
+	private void close(Map<String, Object> stage, LocalDateTime leftAt) {
+		stage.put("leftAt", leftAt);
+		stage.put("minutes", Duration.between((LocalDateTime) stage.get("enteredAt"), leftAt).toMinutes());
+	}
+
+	private List<String> union(Set<String> first, Set<String> second) {
+		List<String> all = new ArrayList<>(first);
+		second.stream().filter(status -> !first.contains(status)).forEach(all::add);
+		return all;
+	}
+
+	private long percentile(List<Long> sorted, int percentile) {
+		int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+		return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+	}
+}
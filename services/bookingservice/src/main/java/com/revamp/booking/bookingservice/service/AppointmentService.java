@@ -1,22 +1,43 @@
 package com.revamp.booking.bookingservice.service;
 
 import java.time.LocalDate;
-import java.time.LocalTime;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
+import com.revamp.booking.bookingservice.event.AppointmentChangedEvent;
+import com.revamp.booking.bookingservice.event.SlotChangedEvent;
 import com.revamp.booking.bookingservice.model.Appointment;
 import com.revamp.booking.bookingservice.model.TimeSlot;
+import com.revamp.booking.dto.EmployeeRecord;
+import com.revamp.booking.dto.ModificationQuote;
+import com.revamp.booking.dto.EmployeeTaskRequest;
+import com.revamp.booking.dto.EmployeeTaskResponse;
+import com.revamp.booking.service.QuoteService;
 
 @Service
 public class AppointmentService {
 
+	@Value("${booking.validate.max-candidates:200}")
+	private int maxValidationCandidates;
+
 	@Autowired
 	private MongoTemplate mongoTemplate;
 
@@ -29,6 +50,24 @@ public class AppointmentService {
 	@Autowired
 	private EmployeeServiceClient employeeServiceClient;
 
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	private QuoteService quoteService;
+
+	@Autowired
+	private EmployeeScheduleIndex employeeScheduleIndex;
+
+	@Autowired
+	private CapacityLedgerService capacityLedgerService;
+
+	@Autowired
+	private BayScheduleService bayScheduleService;
+
+	@Autowired
+	private AppointmentArchiveService appointmentArchiveService;
+
 	/**
 	 * Create a new appointment
 	 */
@@ -62,7 +101,7 @@ public class AppointmentService {
 			}
 			
 			// Book the time slot
-			TimeSlot slot = timeSlotService.bookSlot(appointment.getTimeSlotId(), null);
+			TimeSlot slot = timeSlotService.bookSlot(appointment.getTimeSlotId(), null, appointment.getCustomerId());
 			appointment.setTime(slot.getStartTime());
 			appointment.setEndTime(slot.getEndTime());
 			
@@ -74,19 +113,17 @@ public class AppointmentService {
 				appointment.setTimeSlotEnd(slot.getEndTime().toString());
 			}
 		} else {
-			// For Modification, can be booked any time during shop hours (8am-5pm)
-			if (appointment.getTime() == null) {
-				appointment.setTime(LocalTime.of(8, 0)); // Default to 8am
-			}
-			appointment.setEndTime(LocalTime.of(17, 0)); // End at 5pm
-			
-			// Set timeSlotStart and timeSlotEnd for modifications
-			if (appointment.getTime() != null) {
-				appointment.setTimeSlotStart(appointment.getTime().toString());
+			// Price the job against the catalog instead of trusting client estimates
+			ModificationQuote quote = quoteService.quote(appointment.getNeededModifications());
+			if (quote.getLines().isEmpty()) {
+				throw new RuntimeException("At least one modification is required for Modification appointments");
 			}
-			if (appointment.getEndTime() != null) {
-				appointment.setTimeSlotEnd(appointment.getEndTime().toString());
+			if (!quote.getUnknownModifications().isEmpty()) {
+				throw new RuntimeException("Unknown modifications: " + quote.getUnknownModifications());
 			}
+			appointment.setEstimatedTimeHours(quote.getEstimatedTimeHours());
+			appointment.setEstimatedCost((double) quote.getEstimatedCost());
+
 		}
 		
 		// Ensure status is set (but don't overwrite if already set)
@@ -122,6 +159,28 @@ public class AppointmentService {
 			System.err.println("WARNING: Customer Email is null before saving!");
 		}
 		
+		if (CapacityLedgerService.usesCapacity(appointment.getServiceType())) {
+			// Place the job in a bay from the requested time (default opening time); it may run over several days
+			appointment.setId(new ObjectId().toHexString());
+			BayScheduleService.Placement placement = bayScheduleService.reserve(appointment.getId(),
+				appointment.getDate(), appointment.getTime(), appointment.getEstimatedTimeHours());
+			
+			// Reserve the labor hours of each day the job runs on before the appointment exists; fails when a day is full
+			try {
+				appointment.setCapacityDays(capacityLedgerService.debit(placement.parts()));
+			} catch (RuntimeException e) {
+				bayScheduleService.release(appointment.getId(), appointment.getDate(), placement.end().toLocalDate());
+				throw e;
+			}
+			appointment.setCapacityHours(appointment.getEstimatedTimeHours());
+			appointment.setBayNumber(placement.bay());
+			appointment.setTime(placement.start().toLocalTime());
+			appointment.setEndTime(placement.end().toLocalTime());
+			appointment.setEndDate(placement.end().toLocalDate());
+			appointment.setTimeSlotStart(appointment.getTime().toString());
+			appointment.setTimeSlotEnd(appointment.getEndTime().toString());
+		}
+		
 		// Save appointment using insert to ensure it's a new document
 		Appointment saved;
 		try {
@@ -134,7 +193,16 @@ public class AppointmentService {
 			System.err.println("ERROR saving appointment to MongoDB: " + e.getMessage());
 			e.printStackTrace();
 			// Fallback to save if insert fails (might be due to ID conflict)
-			saved = mongoTemplate.save(appointment);
+			try {
+				saved = mongoTemplate.save(appointment);
+			} catch (RuntimeException saveError) {
+				capacityLedgerService.credit(appointment.getCapacityDays(), appointment.getDate(),
+					appointment.getCapacityHours());
+				if (appointment.getBayNumber() != null) {
+					bayScheduleService.release(appointment.getId(), appointment.getDate(), appointment.getEndDate());
+				}
+				throw saveError;
+			}
 			System.out.println("Used save() fallback, appointment ID: " + saved.getId());
 		}
 		
@@ -176,11 +244,13 @@ public class AppointmentService {
 			if (slot != null) {
 				slot.setAppointmentId(saved.getId());
 				mongoTemplate.save(slot);
+				eventPublisher.publishEvent(new SlotChangedEvent(slot));
 			}
 		}
 		
 		System.out.println("============================================");
 		
+		eventPublisher.publishEvent(AppointmentChangedEvent.created(saved));
 		return saved;
 	}
 
@@ -201,6 +271,16 @@ public class AppointmentService {
 		return Optional.ofNullable(appointment);
 	}
 
+	/**
+	 * Get only the last-modified time of an appointment, for conditional GETs
+	 */
+	public Optional<java.time.LocalDateTime> getAppointmentUpdatedAt(String id) {
+		Query query = new Query(Criteria.where("_id").is(id));
+		query.fields().include("updatedAt");
+		Appointment appointment = mongoTemplate.findOne(query, Appointment.class);
+		return Optional.ofNullable(appointment).map(Appointment::getUpdatedAt);
+	}
+
 	/**
 	 * Get all appointments
 	 */
@@ -221,10 +301,36 @@ public class AppointmentService {
 		return mongoTemplate.find(query, Appointment.class);
 	}
 
+	/**
+	 * Get appointments by customer ID, optionally including archived history
+	 */
+	public List<Appointment> getAppointmentsByCustomerId(String customerId, boolean includeArchived) {
+		List<Appointment> appointments = getAppointmentsByCustomerId(customerId);
+		if (!includeArchived) {
+			return appointments;
+		}
+		// An appointment reopened during archival can exist in both; the live copy wins
+		Map<String, Appointment> byId = new LinkedHashMap<>();
+		for (Appointment appointment : appointments) {
+			byId.put(appointment.getId(), appointment);
+		}
+		for (Appointment archived : appointmentArchiveService.findArchivedByCustomerId(customerId, Appointment.class)) {
+			byId.putIfAbsent(archived.getId(), archived);
+		}
+		return new ArrayList<>(byId.values());
+	}
+
 	/**
 	 * Update appointment status
 	 */
 	public Appointment updateAppointmentStatus(String id, String status) {
+		return updateAppointmentStatus(id, status, null);
+	}
+
+	/**
+	 * Update appointment status, recording who changed it
+	 */
+	public Appointment updateAppointmentStatus(String id, String status, String actor) {
 		// Use _id for MongoDB query (Spring Data MongoDB maps id field to _id)
 		Query query = new Query(Criteria.where("_id").is(id));
 		Appointment appointment = mongoTemplate.findOne(query, Appointment.class);
@@ -239,9 +345,13 @@ public class AppointmentService {
 			throw new RuntimeException("Appointment not found with ID: " + id);
 		}
 		
+		String previousStatus = appointment.getStatus();
 		appointment.setStatus(status);
 		appointment.setUpdatedAt(java.time.LocalDateTime.now());
-		return mongoTemplate.save(appointment);
+		Appointment saved = mongoTemplate.save(appointment);
+		eventPublisher.publishEvent(AppointmentChangedEvent.updated(AppointmentChangedEvent.Type.STATUS_CHANGED,
+			saved, previousStatus, saved.getDate(), saved.getAssignedEmployeeIds(), actor));
+		return saved;
 	}
 
 	/**
@@ -262,6 +372,14 @@ public class AppointmentService {
 			throw new RuntimeException("Appointment not found with ID: " + appointmentId);
 		}
 		
+		// Reject employees already committed elsewhere during this appointment
+		Map<String, List<EmployeeScheduleIndex.Interval>> conflicts = employeeScheduleIndex.reserve(appointment, employeeIds);
+		if (!conflicts.isEmpty()) {
+			throw new RuntimeException("Employees already assigned during this appointment: " + describeConflicts(conflicts));
+		}
+		
+		String previousStatus = appointment.getStatus();
+		List<String> previousEmployeeIds = appointment.getAssignedEmployeeIds();
 		appointment.setAssignedEmployeeIds(employeeIds);
 		appointment.setAssignedEmployeeNames(employeeNames);
 		appointment.setStatus("Approved");
@@ -269,7 +387,17 @@ public class AppointmentService {
 		// Update the updatedAt timestamp
 		appointment.setUpdatedAt(java.time.LocalDateTime.now());
 		
-		Appointment savedAppointment = mongoTemplate.save(appointment);
+		Appointment savedAppointment;
+		try {
+			savedAppointment = mongoTemplate.save(appointment);
+		} catch (RuntimeException e) {
+			appointment.setAssignedEmployeeIds(previousEmployeeIds);
+			appointment.setStatus(previousStatus);
+			employeeScheduleIndex.release(appointment);
+			throw e;
+		}
+		eventPublisher.publishEvent(AppointmentChangedEvent.updated(AppointmentChangedEvent.Type.EMPLOYEES_ASSIGNED,
+			savedAppointment, previousStatus, savedAppointment.getDate(), previousEmployeeIds, adminId));
 		
 		// Create tasks in employee service for each assigned employee
 		createTasksForEmployees(savedAppointment, employeeIds, adminId);
@@ -277,6 +405,45 @@ public class AppointmentService {
 		return savedAppointment;
 	}
 
+	/**
+	 * Split candidate employees into those free for the whole appointment and those busy,
+	 * with the appointments they are busy on
+	 */
+	public Map<String, Object> findFreeEmployees(String appointmentId, List<String> candidateIds) {
+		Appointment appointment = getAppointmentById(appointmentId)
+			.orElseThrow(() -> new RuntimeException("Appointment not found with ID: " + appointmentId));
+		
+		Map<String, List<EmployeeScheduleIndex.Interval>> conflicts = employeeScheduleIndex.findConflicts(appointment, candidateIds);
+		List<String> free = new ArrayList<>();
+		Map<String, List<String>> busy = new LinkedHashMap<>();
+		for (String employeeId : candidateIds) {
+			List<EmployeeScheduleIndex.Interval> overlapping = conflicts.get(employeeId);
+			if (overlapping == null) {
+				free.add(employeeId);
+			} else {
+				busy.put(employeeId, overlapping.stream().map(EmployeeScheduleIndex.Interval::appointmentId).toList());
+			}
+		}
+		
+		LocalDateTime[] window = employeeScheduleIndex.windowOf(appointment);
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("appointmentId", appointment.getId());
+		result.put("start", window != null ? window[0] : null);
+		result.put("end", window != null ? window[1] : null);
+		result.put("free", free);
+		result.put("busy", busy);
+		return result;
+	}
+
+	private String describeConflicts(Map<String, List<EmployeeScheduleIndex.Interval>> conflicts) {
+		List<String> parts = new ArrayList<>();
+		conflicts.forEach((employeeId, intervals) -> {
+			EmployeeScheduleIndex.Interval first = intervals.get(0);
+			parts.add(employeeId + " (appointment " + first.appointmentId() + ", " + first.start() + " - " + first.end() + ")");
+		});
+		return String.join(", ", parts);
+	}
+
 	/**
 	 * Remove an employee from an appointment (when task is rejected)
 	 * This resets the appointment to "assigned" state for reassignment
@@ -300,6 +467,10 @@ public class AppointmentService {
 		// For each appointment, remove the employee
 		for (Appointment appointment : appointments) {
 			System.out.println("Processing appointment: " + appointment.getId());
+			String previousStatus = appointment.getStatus();
+			List<String> previousEmployeeIds = appointment.getAssignedEmployeeIds() != null
+				? new ArrayList<>(appointment.getAssignedEmployeeIds())
+				: null;
 			
 			// Remove employee from assignedEmployeeIds
 			if (appointment.getAssignedEmployeeIds() != null) {
@@ -322,6 +493,8 @@ public class AppointmentService {
 			
 			appointment.setUpdatedAt(java.time.LocalDateTime.now());
 			mongoTemplate.save(appointment);
+			eventPublisher.publishEvent(AppointmentChangedEvent.updated(AppointmentChangedEvent.Type.EMPLOYEE_REMOVED,
+				appointment, previousStatus, appointment.getDate(), previousEmployeeIds, employeeId));
 			System.out.println("✓ Appointment updated: " + appointment.getId());
 			System.out.println("  Remaining employees: " + (appointment.getAssignedEmployeeIds() != null ? appointment.getAssignedEmployeeIds().size() : 0));
 			System.out.println("  Status: " + appointment.getStatus());
@@ -397,7 +570,7 @@ public class AppointmentService {
 		for (String userId : employeeIds) {
 			System.out.println("Processing userId: " + userId);
 			// First, get the Employee record to find the actual employeeId (EMP001, etc.)
-			java.util.Map<String, Object> employeeRecord = employeeServiceClient.getEmployeeByUserId(userId);
+			EmployeeRecord employeeRecord = employeeServiceClient.getEmployeeByUserId(userId);
 			
 			if (employeeRecord == null) {
 				System.err.println("✗ ERROR: Failed to get employee record for userId: " + userId);
@@ -408,7 +581,7 @@ public class AppointmentService {
 				continue; // Skip this employee
 			}
 			
-			if (employeeRecord.get("employeeId") == null) {
+			if (employeeRecord.getEmployeeId() == null) {
 				System.err.println("✗ ERROR: Employee record found for userId: " + userId + " but employeeId field is missing");
 				System.err.println("  - Employee record: " + employeeRecord);
 				System.err.println("  - Task will NOT be created for this employee");
@@ -416,44 +589,43 @@ public class AppointmentService {
 				continue; // Skip this employee
 			}
 			
-			String actualEmployeeId = (String) employeeRecord.get("employeeId");
+			String actualEmployeeId = employeeRecord.getEmployeeId();
 			System.out.println("✓ Converting userId " + userId + " to employeeId " + actualEmployeeId);
 			
-			java.util.Map<String, Object> taskData = new java.util.HashMap<>();
-			taskData.put("customerId", appointment.getCustomerId());
-			taskData.put("customerName", appointment.getCustomerName());
-			taskData.put("vehicleInfo", vehicleInfo);
-			taskData.put("serviceType", serviceType);
-			taskData.put("description", description);
-			taskData.put("priority", "medium"); // Default priority
-			taskData.put("estimatedHours", appointment.getEstimatedTimeHours() != null ? appointment.getEstimatedTimeHours() : 2);
+			EmployeeTaskRequest taskRequest = new EmployeeTaskRequest();
+			taskRequest.setCustomerId(appointment.getCustomerId());
+			taskRequest.setCustomerName(appointment.getCustomerName());
+			taskRequest.setVehicleInfo(vehicleInfo);
+			taskRequest.setServiceType(serviceType);
+			taskRequest.setDescription(description);
+			taskRequest.setPriority("medium"); // Default priority
+			taskRequest.setEstimatedHours(appointment.getEstimatedTimeHours() != null ? appointment.getEstimatedTimeHours() : 2);
 			
 			// Set assigned date (use ISO-8601 string format for compatibility)
-			java.time.LocalDateTime assignedDateTime = java.time.LocalDateTime.now();
-			taskData.put("assignedDate", assignedDateTime.toString()); // Convert to ISO-8601 string
+			taskRequest.setAssignedDate(java.time.LocalDateTime.now().toString());
 			
 			// Set due date if available
 			if (dueDate != null) {
-				taskData.put("dueDate", dueDate.toString()); // Convert to ISO-8601 string
+				taskRequest.setDueDate(dueDate.toString()); // Convert to ISO-8601 string
 			}
 			
-			taskData.put("assignedEmployeeId", actualEmployeeId); // Use the actual employeeId (EMP001, etc.)
-			taskData.put("assignedAdminId", assignedAdminId);
-			taskData.put("instructions", appointment.getInstructions() != null ? appointment.getInstructions() : "Complete the assigned service as per customer requirements.");
+			taskRequest.setAssignedEmployeeId(actualEmployeeId); // Use the actual employeeId (EMP001, etc.)
+			taskRequest.setAssignedAdminId(assignedAdminId);
+			taskRequest.setInstructions(appointment.getInstructions() != null ? appointment.getInstructions() : "Complete the assigned service as per customer requirements.");
 			
 			// Log task data being sent
 			System.out.println("  Task data to be sent:");
-			System.out.println("    Customer: " + taskData.get("customerName"));
-			System.out.println("    Employee ID: " + taskData.get("assignedEmployeeId"));
-			System.out.println("    Service Type: " + taskData.get("serviceType"));
-			System.out.println("    Description: " + taskData.get("description"));
-			System.out.println("    Assigned Date: " + taskData.get("assignedDate"));
-			System.out.println("    Due Date: " + taskData.get("dueDate"));
+			System.out.println("    Customer: " + taskRequest.getCustomerName());
+			System.out.println("    Employee ID: " + taskRequest.getAssignedEmployeeId());
+			System.out.println("    Service Type: " + taskRequest.getServiceType());
+			System.out.println("    Description: " + taskRequest.getDescription());
+			System.out.println("    Assigned Date: " + taskRequest.getAssignedDate());
+			System.out.println("    Due Date: " + taskRequest.getDueDate());
 			
 			// Call employee service to create task
-			java.util.Map<String, Object> createdTask = employeeServiceClient.createTask(taskData);
+			EmployeeTaskResponse createdTask = employeeServiceClient.createTask(taskRequest);
 			if (createdTask != null) {
-				System.out.println("✓ Task created for employee " + actualEmployeeId + " (userId: " + userId + ") - Task ID: " + createdTask.get("id"));
+				System.out.println("✓ Task created for employee " + actualEmployeeId + " (userId: " + userId + ") - Task ID: " + createdTask.getId());
 			} else {
 				System.err.println("✗ Failed to create task for employee " + actualEmployeeId + " (userId: " + userId + ")");
 			}
@@ -464,6 +636,13 @@ public class AppointmentService {
 	 * Cancel appointment and release time slot if applicable
 	 */
 	public void cancelAppointment(String appointmentId) {
+		cancelAppointment(appointmentId, null);
+	}
+
+	/**
+	 * Cancel appointment, recording who cancelled it
+	 */
+	public void cancelAppointment(String appointmentId, String actor) {
 		// Use _id for MongoDB query (Spring Data MongoDB maps id field to _id)
 		Query query = new Query(Criteria.where("_id").is(appointmentId));
 		Appointment appointment = mongoTemplate.findOne(query, Appointment.class);
@@ -481,6 +660,7 @@ public class AppointmentService {
 			}
 			
 			mongoTemplate.remove(appointment);
+			eventPublisher.publishEvent(AppointmentChangedEvent.cancelled(appointment, actor));
 		}
 	}
 
@@ -499,6 +679,97 @@ public class AppointmentService {
 		return unavailableDateService.isDateUnavailable(date);
 	}
 
+	/**
+	 * Validate many booking candidates ({serviceType, date, timeSlotId}) at once.
+	 * Closures come from one date range query and slots from one ID query; results
+	 * are in input order and carry the same messages as a single validation.
+	 */
+	public List<Map<String, Object>> validateBookings(List<Map<String, Object>> candidates) {
+		if (candidates == null || candidates.isEmpty()) {
+			throw new RuntimeException("At least one candidate is required");
+		}
+		if (candidates.size() > maxValidationCandidates) {
+			throw new RuntimeException("At most " + maxValidationCandidates + " candidates can be validated at once");
+		}
+
+		LocalDate[] dates = new LocalDate[candidates.size()];
+		Set<String> slotIds = new HashSet<>();
+		for (int i = 0; i < candidates.size(); i++) {
+			Map<String, Object> candidate = candidates.get(i);
+			if (candidate == null) {
+				continue;
+			}
+			Object date = candidate.get("date");
+			try {
+				dates[i] = date != null ? LocalDate.parse(date.toString()) : null;
+			} catch (RuntimeException e) {
+				dates[i] = null;
+			}
+			Object slotId = candidate.get("timeSlotId");
+			if (dates[i] != null && "Service".equals(candidate.get("serviceType")) && slotId != null && !slotId.toString().isEmpty()) {
+				slotIds.add(slotId.toString());
+			}
+		}
+
+		Set<LocalDate> closed = new HashSet<>();
+		LocalDate first = Arrays.stream(dates).filter(Objects::nonNull).min(LocalDate::compareTo).orElse(null);
+		LocalDate last = Arrays.stream(dates).filter(Objects::nonNull).max(LocalDate::compareTo).orElse(null);
+		if (first != null) {
+			unavailableDateService.getUnavailableDatesInRange(first, last)
+				.forEach(unavailable -> closed.add(unavailable.getDate()));
+		}
+		Map<String, TimeSlot> slots = timeSlotService.getSlotsByIds(slotIds);
+
+		List<Map<String, Object>> results = new ArrayList<>();
+		for (int i = 0; i < candidates.size(); i++) {
+			Map<String, Object> candidate = candidates.get(i) != null ? candidates.get(i) : Map.of();
+			Map<String, Object> result = new HashMap<>();
+			result.put("index", i);
+			result.put("date", candidate.get("date"));
+			result.put("serviceType", candidate.get("serviceType"));
+			result.put("timeSlotId", candidate.get("timeSlotId"));
+			String error = validationError(candidate, dates[i], closed, slots);
+			result.put("isValid", error == null);
+			result.put("message", error != null ? error : "Booking is valid");
+			results.add(result);
+		}
+		return results;
+	}
+
+	private String validationError(Map<String, Object> candidate, LocalDate date, Set<LocalDate> closed,
+			Map<String, TimeSlot> slots) {
+		if (candidate.get("date") == null) {
+			return "Date is required";
+		}
+		if (date == null) {
+			return "Invalid date: " + candidate.get("date");
+		}
+		if (closed.contains(date)) {
+			return "Selected date is unavailable (holiday/maintenance)";
+		}
+		if (date.getDayOfWeek().getValue() == 7) {
+			return "Shop is closed on Sundays";
+		}
+		if (!"Service".equals(candidate.get("serviceType"))) {
+			return null;
+		}
+		Object slotId = candidate.get("timeSlotId");
+		if (slotId == null || slotId.toString().isEmpty()) {
+			return "Time slot ID is required for Service bookings";
+		}
+		TimeSlot slot = slots.get(slotId.toString());
+		if (slot == null) {
+			return "Time slot not found";
+		}
+		if (!slot.isAvailable()) {
+			return "Time slot is already booked";
+		}
+		if (!slot.getDate().equals(date)) {
+			return "Time slot date does not match selected date";
+		}
+		return null;
+	}
+
 	/**
 	 * Get time slot by ID
 	 */
@@ -0,0 +1,520 @@
+package com.revamp.booking.bookingservice.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.revamp.booking.bookingservice.event.AppointmentChangedEvent;
+import com.revamp.booking.bookingservice.model.Appointment;
+import com.revamp.booking.bookingservice.model.TimeSlot;
+import com.revamp.booking.bookingservice.model.UnavailableDate;
+import com.revamp.booking.dto.AppointmentRequest;
+import com.revamp.booking.dto.BatchAppointmentRequest;
+import com.revamp.booking.dto.BatchAppointmentResult;
+import com.revamp.booking.dto.ModificationQuote;
+import com.revamp.booking.service.QuoteService;
+
+/**
+ * Books many appointments for one customer in a single request, e.g. a fleet or a recurring service.
+ *
+ * Slots are resolved with one query, claimed with one unordered bulk write and the appointments
+ * are stored with one insert. Every item gets its own result; with allOrNothing any failure undoes
+ * the slots, labor hours and bays the batch already took.
+ */
+@Service
+public class BatchBookingService {
+
+	// A closed day in a recurrence moves to the next open day, but not further than this
+	private static final int MAX_SHIFT_DAYS = 7;
+
+	@Value("${booking.batch.max-items:100}")
+	private int maxItems;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private TimeSlotService timeSlotService;
+
+	@Autowired
+	private UnavailableDateService unavailableDateService;
+
+	@Autowired
+	private QuoteService quoteService;
+
+	@Autowired
+	private CapacityLedgerService capacityLedgerService;
+
+	@Autowired
+	private BayScheduleService bayScheduleService;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	private static class Pending {
+		final BatchAppointmentResult.Item result;
+		Appointment appointment;
+		boolean capacityDebited;
+		boolean bayReserved;
+
+		Pending(BatchAppointmentResult.Item result) {
+			this.result = result;
+		}
+
+		boolean ok() {
+			return result.getError() == null;
+		}
+
+		void fail(String error) {
+			if (result.getError() == null) {
+				result.setError(error);
+			}
+		}
+	}
+
+	public BatchAppointmentResult book(String customerId, String customerName, String customerEmail,
+			BatchAppointmentRequest request) {
+		if (customerId == null || customerId.isEmpty()) {
+			throw new RuntimeException("Customer ID is required");
+		}
+		boolean recurring = request.getRecurrence() != null;
+		List<AppointmentRequest> requests = recurring ? expand(request.getRecurrence()) : request.getItems();
+		if (requests == null || requests.isEmpty()) {
+			throw new RuntimeException("Either items or a recurrence is required");
+		}
+		if (requests.size() > maxItems) {
+			throw new RuntimeException("A batch is limited to " + maxItems + " appointments");
+		}
+
+		BatchAppointmentResult result = new BatchAppointmentResult();
+		result.setAllOrNothing(request.isAllOrNothing());
+		result.setRequested(requests.size());
+
+		List<Pending> pending = new ArrayList<>();
+		for (int i = 0; i < requests.size(); i++) {
+			BatchAppointmentResult.Item item = new BatchAppointmentResult.Item();
+			item.setIndex(i);
+			Pending p = new Pending(item);
+			try {
+				p.appointment = toAppointment(requests.get(i), customerId, customerName, customerEmail);
+				item.setDate(p.appointment.getDate().toString());
+				item.setServiceType(p.appointment.getServiceType());
+			} catch (RuntimeException e) {
+				p.fail("Invalid appointment: " + e.getMessage());
+			}
+			pending.add(p);
+			result.getItems().add(item);
+		}
+
+		if (recurring) {
+			shiftClosedDays(pending);
+		}
+		checkOpenDays(pending);
+		if (recurring) {
+			assignRecurringSlots(pending, request.getRecurrence().getSlotStartTime());
+		}
+		checkSlots(pending);
+		quoteModifications(pending);
+
+		if (request.isAllOrNothing() && anyFailed(pending)) {
+			// Nothing was claimed yet
+			return finish(result, pending, true);
+		}
+
+		// Slots for all Service items in one bulk write
+		Map<String, String> appointmentBySlot = new LinkedHashMap<>();
+		for (Pending p : pending) {
+			if (p.ok()) {
+				p.appointment.setId(new ObjectId().toHexString());
+				if ("Service".equals(p.appointment.getServiceType())) {
+					appointmentBySlot.put(p.appointment.getTimeSlotId(), p.appointment.getId());
+				}
+			}
+		}
+		Map<String, String> claimedSlots = new HashMap<>();
+		for (TimeSlot slot : timeSlotService.claimSlots(appointmentBySlot, customerId)) {
+			claimedSlots.put(slot.getId(), slot.getAppointmentId());
+		}
+		for (Pending p : pending) {
+			if (p.ok() && "Service".equals(p.appointment.getServiceType())
+					&& !claimedSlots.containsKey(p.appointment.getTimeSlotId())) {
+				p.fail("Time slot is already booked");
+			}
+		}
+
+		if (!(request.isAllOrNothing() && anyFailed(pending))) {
+			reserveModifications(pending, request.isAllOrNothing());
+		}
+		if (request.isAllOrNothing() && anyFailed(pending)) {
+			rollback(pending, claimedSlots);
+			return finish(result, pending, true);
+		}
+
+		List<Appointment> appointments = new ArrayList<>();
+		for (Pending p : pending) {
+			if (p.ok()) {
+				appointments.add(p.appointment);
+			}
+		}
+		try {
+			if (!appointments.isEmpty()) {
+				mongoTemplate.insert(appointments, Appointment.class);
+			}
+		} catch (RuntimeException e) {
+			System.err.println("✗ Batch insert of " + appointments.size() + " appointments failed: " + e.getMessage());
+			for (Pending p : pending) {
+				p.fail("Failed to save appointment: " + e.getMessage());
+			}
+			rollback(pending, claimedSlots);
+			return finish(result, pending, request.isAllOrNothing());
+		}
+
+		for (Appointment appointment : appointments) {
+			eventPublisher.publishEvent(AppointmentChangedEvent.created(appointment));
+		}
+		System.out.println("✓ Batch booked " + appointments.size() + " of " + pending.size()
+			+ " appointments for customer " + customerId);
+		return finish(result, pending, false);
+	}
+
+	/**
+	 * One appointment request per occurrence of the rule
+	 */
+	private List<AppointmentRequest> expand(BatchAppointmentRequest.Recurrence recurrence) {
+		AppointmentRequest template = recurrence.getTemplate();
+		if (template == null || template.getDate() == null) {
+			throw new RuntimeException("Recurrence needs a template with the first date");
+		}
+		int count = recurrence.getCount() != null ? recurrence.getCount() : 0;
+		if (count < 1) {
+			throw new RuntimeException("Recurrence count must be at least 1");
+		}
+		if (count > maxItems) {
+			throw new RuntimeException("A batch is limited to " + maxItems + " appointments");
+		}
+		int every = recurrence.getEvery() != null ? recurrence.getEvery() : 1;
+		if (every < 1) {
+			throw new RuntimeException("Recurrence interval must be at least 1");
+		}
+		ChronoUnit unit;
+		try {
+			unit = ChronoUnit.valueOf(recurrence.getUnit() == null ? "WEEKS" : recurrence.getUnit().toUpperCase());
+		} catch (IllegalArgumentException e) {
+			throw new RuntimeException("Recurrence unit must be DAYS, WEEKS or MONTHS");
+		}
+		if (unit != ChronoUnit.DAYS && unit != ChronoUnit.WEEKS && unit != ChronoUnit.MONTHS) {
+			throw new RuntimeException("Recurrence unit must be DAYS, WEEKS or MONTHS");
+		}
+		if ("Service".equals(template.getServiceType()) && recurrence.getSlotStartTime() == null) {
+			throw new RuntimeException("slotStartTime is required for recurring Service appointments");
+		}
+
+		LocalDate first = LocalDate.parse(template.getDate());
+		List<AppointmentRequest> requests = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			AppointmentRequest occurrence = new AppointmentRequest();
+			occurrence.setServiceType(template.getServiceType());
+			// Months are added from the first date so the 31st does not drift to the 28th
+			occurrence.setDate(first.plus((long) i * every, unit).toString());
+			occurrence.setVehicleId(template.getVehicleId());
+			occurrence.setVehicleDetails(template.getVehicleDetails());
+			occurrence.setNeededModifications(template.getNeededModifications());
+			occurrence.setInstructions(template.getInstructions());
+			requests.add(occurrence);
+		}
+		return requests;
+	}
+
+	private Appointment toAppointment(AppointmentRequest request, String customerId, String customerName,
+			String customerEmail) {
+		if (!"Service".equals(request.getServiceType()) && !"Modification".equals(request.getServiceType())) {
+			throw new RuntimeException("serviceType must be Service or Modification");
+		}
+		Appointment appointment = new Appointment();
+		appointment.setCustomerId(customerId);
+		appointment.setCustomerName(customerName);
+		appointment.setCustomerEmail(customerEmail);
+		appointment.setServiceType(request.getServiceType());
+		appointment.setDate(LocalDate.parse(request.getDate()));
+		appointment.setTimeSlotId(request.getTimeSlotId());
+		appointment.setInstructions(request.getInstructions());
+		appointment.setNeededModifications(request.getNeededModifications());
+		appointment.setVehicleId(request.getVehicleId());
+		if (request.getVehicleDetails() != null) {
+			Appointment.VehicleDetails vehicleDetails = new Appointment.VehicleDetails();
+			vehicleDetails.setMake(request.getVehicleDetails().getMake());
+			vehicleDetails.setModel(request.getVehicleDetails().getModel());
+			vehicleDetails.setYear(request.getVehicleDetails().getYear());
+			vehicleDetails.setRegistrationNumber(request.getVehicleDetails().getRegistrationNumber());
+			appointment.setVehicleDetails(vehicleDetails);
+			if (vehicleDetails.getRegistrationNumber() != null) {
+				appointment.setVehicle(vehicleDetails.getRegistrationNumber());
+			} else if (vehicleDetails.getMake() != null && vehicleDetails.getModel() != null) {
+				appointment.setVehicle(vehicleDetails.getMake() + " " + vehicleDetails.getModel());
+			}
+		}
+		appointment.setStatus("Pending");
+		appointment.setCreatedAt(LocalDateTime.now());
+		appointment.setUpdatedAt(LocalDateTime.now());
+		return appointment;
+	}
+
+	/**
+	 * Closures for every date in the batch, from one range query
+	 */
+	private Set<LocalDate> closedDates(LocalDate from, LocalDate to) {
+		Set<LocalDate> closed = new HashSet<>();
+		for (UnavailableDate closure : unavailableDateService.getUnavailableDatesInRange(from, to)) {
+			closed.add(closure.getDate());
+		}
+		return closed;
+	}
+
+	private boolean isOpen(LocalDate date, Set<LocalDate> closed) {
+		return date.getDayOfWeek() != DayOfWeek.SUNDAY && !closed.contains(date);
+	}
+
+	/**
+	 * A recurring appointment that lands on a Sunday or closure moves to the next open day
+	 */
+	private void shiftClosedDays(List<Pending> pending) {
+		LocalDate[] range = dateRange(pending);
+		if (range == null) {
+			return;
+		}
+		Set<LocalDate> closed = closedDates(range[0], range[1].plusDays(MAX_SHIFT_DAYS));
+		for (Pending p : pending) {
+			if (!p.ok()) {
+				continue;
+			}
+			LocalDate date = p.appointment.getDate();
+			for (int shift = 0; shift < MAX_SHIFT_DAYS && !isOpen(date, closed); shift++) {
+				date = date.plusDays(1);
+			}
+			p.appointment.setDate(date);
+			p.result.setDate(date.toString());
+		}
+	}
+
+	private void checkOpenDays(List<Pending> pending) {
+		LocalDate[] range = dateRange(pending);
+		if (range == null) {
+			return;
+		}
+		Set<LocalDate> closed = closedDates(range[0], range[1]);
+		for (Pending p : pending) {
+			if (!p.ok()) {
+				continue;
+			}
+			LocalDate date = p.appointment.getDate();
+			if (date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+				p.fail("Shop is closed on Sundays");
+			} else if (closed.contains(date)) {
+				p.fail("Selected date is unavailable (holiday/maintenance)");
+			}
+		}
+	}
+
+	private void assignRecurringSlots(List<Pending> pending, String slotStartTime) {
+		Set<LocalDate> dates = new LinkedHashSet<>();
+		for (Pending p : pending) {
+			if (p.ok() && "Service".equals(p.appointment.getServiceType())) {
+				dates.add(p.appointment.getDate());
+			}
+		}
+		if (dates.isEmpty()) {
+			return;
+		}
+		Map<LocalDate, TimeSlot> slots = timeSlotService.resolveSlots(dates, LocalTime.parse(slotStartTime));
+		for (Pending p : pending) {
+			if (p.ok() && "Service".equals(p.appointment.getServiceType())) {
+				p.appointment.setTimeSlotId(slots.get(p.appointment.getDate()).getId());
+			}
+		}
+	}
+
+	/**
+	 * Service items need an existing slot on their own date, and no two items may share one
+	 */
+	private void checkSlots(List<Pending> pending) {
+		Set<String> slotIds = new HashSet<>();
+		for (Pending p : pending) {
+			if (p.ok() && "Service".equals(p.appointment.getServiceType()) && p.appointment.getTimeSlotId() != null) {
+				slotIds.add(p.appointment.getTimeSlotId());
+			}
+		}
+		Map<String, TimeSlot> slots = new HashMap<>();
+		if (!slotIds.isEmpty()) {
+			for (TimeSlot slot : mongoTemplate.find(new Query(Criteria.where("id").in(slotIds)), TimeSlot.class)) {
+				slots.put(slot.getId(), slot);
+			}
+		}
+
+		Set<String> taken = new HashSet<>();
+		for (Pending p : pending) {
+			if (!p.ok() || !"Service".equals(p.appointment.getServiceType())) {
+				continue;
+			}
+			String slotId = p.appointment.getTimeSlotId();
+			if (slotId == null || slotId.isEmpty()) {
+				p.fail("Time slot ID is required for Service appointments");
+				continue;
+			}
+			TimeSlot slot = slots.get(slotId);
+			if (slot == null) {
+				p.fail("Time slot not found");
+			} else if (!slot.getDate().equals(p.appointment.getDate())) {
+				p.fail("Time slot date does not match selected date");
+			} else if (!taken.add(slotId)) {
+				p.fail("Time slot is used by another item in this batch");
+			} else {
+				p.result.setTimeSlotId(slotId);
+				p.appointment.setTime(slot.getStartTime());
+				p.appointment.setEndTime(slot.getEndTime());
+				p.appointment.setTimeSlotStart(slot.getStartTime().toString());
+				p.appointment.setTimeSlotEnd(slot.getEndTime().toString());
+			}
+		}
+	}
+
+	private void quoteModifications(List<Pending> pending) {
+		for (Pending p : pending) {
+			if (!p.ok() || !"Modification".equals(p.appointment.getServiceType())) {
+				continue;
+			}
+			ModificationQuote quote = quoteService.quote(p.appointment.getNeededModifications());
+			if (quote.getLines().isEmpty()) {
+				p.fail("At least one modification is required for Modification appointments");
+			} else if (!quote.getUnknownModifications().isEmpty()) {
+				p.fail("Unknown modifications: " + quote.getUnknownModifications());
+			} else {
+				p.appointment.setEstimatedTimeHours(quote.getEstimatedTimeHours());
+				p.appointment.setEstimatedCost((double) quote.getEstimatedCost());
+			}
+		}
+	}
+
+	/**
+	 * Labor hours and a bay for each Modification item, in request order
+	 */
+	private void reserveModifications(List<Pending> pending, boolean stopOnFailure) {
+		for (Pending p : pending) {
+			if (!p.ok() || !"Modification".equals(p.appointment.getServiceType())) {
+				continue;
+			}
+			Appointment appointment = p.appointment;
+			try {
+				BayScheduleService.Placement placement = bayScheduleService.reserve(appointment.getId(),
+					appointment.getDate(), null, appointment.getEstimatedTimeHours());
+				p.bayReserved = true;
+				appointment.setBayNumber(placement.bay());
+				appointment.setTime(placement.start().toLocalTime());
+				appointment.setEndTime(placement.end().toLocalTime());
+				appointment.setEndDate(placement.end().toLocalDate());
+				appointment.setTimeSlotStart(appointment.getTime().toString());
+				appointment.setTimeSlotEnd(appointment.getEndTime().toString());
+
+				// Each day the job runs on gives up the hours it spends there
+				appointment.setCapacityDays(capacityLedgerService.debit(placement.parts()));
+				appointment.setCapacityHours(appointment.getEstimatedTimeHours());
+				p.capacityDebited = true;
+			} catch (RuntimeException e) {
+				p.fail(e.getMessage());
+				if (p.bayReserved) {
+					bayScheduleService.release(appointment.getId(), appointment.getDate(), appointment.getEndDate());
+					p.bayReserved = false;
+				}
+				if (stopOnFailure) {
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Give back everything the batch took
+	 */
+	private void rollback(List<Pending> pending, Map<String, String> claimedSlots) {
+		try {
+			timeSlotService.unclaimSlots(claimedSlots);
+		} catch (RuntimeException e) {
+			System.err.println("✗ Failed to release batch slots " + claimedSlots.keySet() + ": " + e.getMessage());
+		}
+		for (Pending p : pending) {
+			Appointment appointment = p.appointment;
+			try {
+				if (p.bayReserved) {
+					bayScheduleService.release(appointment.getId(), appointment.getDate(), appointment.getEndDate());
+					p.bayReserved = false;
+				}
+				if (p.capacityDebited) {
+					capacityLedgerService.credit(appointment.getCapacityDays(), appointment.getDate(),
+						appointment.getCapacityHours());
+					p.capacityDebited = false;
+				}
+			} catch (RuntimeException e) {
+				System.err.println("✗ Failed to roll back batch item " + p.result.getIndex() + ": " + e.getMessage());
+			}
+		}
+	}
+
+	private BatchAppointmentResult finish(BatchAppointmentResult result, List<Pending> pending, boolean rolledBack) {
+		int booked = 0;
+		for (Pending p : pending) {
+			if (rolledBack) {
+				p.fail("Not booked: another item in this all-or-nothing batch failed");
+			}
+			boolean success = p.ok();
+			p.result.setSuccess(success);
+			if (success) {
+				p.result.setAppointmentId(p.appointment.getId());
+				booked++;
+			}
+		}
+		result.setRolledBack(rolledBack);
+		result.setBooked(booked);
+		result.setFailed(pending.size() - booked);
+		return result;
+	}
+
+	private boolean anyFailed(List<Pending> pending) {
+		for (Pending p : pending) {
+			if (!p.ok()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private LocalDate[] dateRange(List<Pending> pending) {
+		LocalDate from = null;
+		LocalDate to = null;
+		for (Pending p : pending) {
+			if (p.ok()) {
+				LocalDate date = p.appointment.getDate();
+				from = from == null || date.isBefore(from) ? date : from;
+				to = to == null || date.isAfter(to) ? date : to;
+			}
+		}
+		return from == null ? null : new LocalDate[] { from, to };
+	}
+}
@@ -0,0 +1,333 @@
+package com.revamp.booking.bookingservice.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.revamp.booking.bookingservice.event.AppointmentChangedEvent;
+import com.revamp.booking.bookingservice.model.Appointment;
+import com.revamp.booking.bookingservice.model.BayDay;
+
+/**
+ * Places modification jobs into workshop bays.
+ *
+ * A job keeps its bay for its whole length. It runs from its start to closing time, then
+ * continues from opening time on the following working days until its estimated hours are
+ * used up. Each bay's occupied stretches for a day are held in a tree keyed by start minute;
+ * stretches in one bay never overlap, so an overlap check is a single floor lookup and the
+ * earliest fit walks the gaps from the requested start. Day documents are written with
+ * optimistic locking and a failed multi-day placement is rolled back and searched again.
+ */
+@Service
+public class BayScheduleService {
+
+	private static final int SHOP_OPEN = 8 * 60;
+	private static final int SHOP_CLOSE = 17 * 60;
+	static final int MAX_JOB_DAYS = 14;
+	private static final int MAX_SEARCH_DAYS = 30;
+	private static final int MAX_RESERVE_ATTEMPTS = 3;
+
+	@Value("${booking.bays.count:3}")
+	private int bayCount;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private UnavailableDateService unavailableDateService;
+
+	/**
+	 * One day's stretch of a placement, in minutes after midnight
+	 */
+	public record DayPart(LocalDate date, int start, int end) {
+	}
+
+	/**
+	 * Where and when a job would run
+	 */
+	public record Placement(int bay, LocalDateTime start, LocalDateTime end, List<DayPart> parts) {
+	}
+
+	/**
+	 * Earliest placement that starts on the given date no earlier than notBefore, or null if
+	 * every bay is occupied until closing time that day
+	 */
+	public Placement findFit(LocalDate date, LocalTime notBefore, int hours) {
+		if (!isWorkingDay(date)) {
+			return null;
+		}
+		Map<LocalDate, TreeMap<Integer, BayDay.Segment>[]> days = new HashMap<>();
+		return fitOnDay(date, toMinutes(notBefore), hours * 60, days);
+	}
+
+	/**
+	 * Earliest placement starting on or after the given date
+	 */
+	public Placement findEarliest(LocalDate from, int hours) {
+		Map<LocalDate, TreeMap<Integer, BayDay.Segment>[]> days = new HashMap<>();
+		preload(from, from.plusDays(MAX_SEARCH_DAYS + MAX_JOB_DAYS), days);
+		for (LocalDate date = from; !date.isAfter(from.plusDays(MAX_SEARCH_DAYS)); date = date.plusDays(1)) {
+			if (!isWorkingDay(date)) {
+				continue;
+			}
+			Placement placement = fitOnDay(date, SHOP_OPEN, hours * 60, days);
+			if (placement != null) {
+				return placement;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Place a job starting on the given date and record it in the day documents
+	 *
+	 * @throws RuntimeException if no bay is free that day
+	 */
+	public Placement reserve(String appointmentId, LocalDate date, LocalTime notBefore, int hours) {
+		if (hours <= 0) {
+			throw new RuntimeException("Estimated hours are required to schedule a modification");
+		}
+		for (int attempt = 1; attempt <= MAX_RESERVE_ATTEMPTS; attempt++) {
+			Placement placement = findFit(date, notBefore, hours);
+			if (placement == null) {
+				throw new RuntimeException("No workshop bay is free on " + date + " for a " + hours + " hour job");
+			}
+			List<DayPart> written = new ArrayList<>();
+			try {
+				for (DayPart part : placement.parts()) {
+					write(part, placement.bay(), appointmentId);
+					written.add(part);
+				}
+				return placement;
+			} catch (OptimisticLockingFailureException | DuplicateKeyException | IllegalStateException e) {
+				// Someone else took part of this window - undo and search again
+				if (!written.isEmpty()) {
+					release(appointmentId, written.get(0).date(), written.get(written.size() - 1).date());
+				}
+			}
+		}
+		throw new RuntimeException("Workshop bays on " + date + " are being booked concurrently, please retry");
+	}
+
+	/**
+	 * Remove a job's stretches from the day documents in a date range
+	 */
+	public void release(String appointmentId, LocalDate from, LocalDate to) {
+		if (appointmentId == null || from == null) {
+			return;
+		}
+		Query query = new Query(Criteria.where("date").gte(from).lte(to != null ? to : from));
+		Update update = new Update()
+			.pull("bays.$[].s", new Document("a", appointmentId))
+			.inc("version", 1);
+		mongoTemplate.updateMulti(query, update, BayDay.class);
+	}
+
+	/**
+	 * Bays, their stretches and the share of shop time in use for a day
+	 */
+	public Map<String, Object> getOccupancy(LocalDate date) {
+		TreeMap<Integer, BayDay.Segment>[] bays = toTrees(mongoTemplate.findById(date.toString(), BayDay.class));
+		List<Map<String, Object>> bayViews = new ArrayList<>();
+		int used = 0;
+		for (int bay = 0; bay < bays.length; bay++) {
+			List<Map<String, Object>> segments = new ArrayList<>();
+			for (BayDay.Segment segment : bays[bay].values()) {
+				Map<String, Object> view = new LinkedHashMap<>();
+				view.put("appointmentId", segment.getAppointmentId());
+				view.put("start", toTime(segment.getStart()).toString());
+				view.put("end", toTime(segment.getEnd()).toString());
+				segments.add(view);
+				used += segment.getEnd() - segment.getStart();
+			}
+			Map<String, Object> bayView = new LinkedHashMap<>();
+			bayView.put("bay", bay + 1);
+			bayView.put("segments", segments);
+			bayViews.add(bayView);
+		}
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("date", date.toString());
+		result.put("bays", bayViews);
+		result.put("utilization", Math.round(100.0 * used / (bays.length * (SHOP_CLOSE - SHOP_OPEN))) / 100.0);
+		return result;
+	}
+
+	@EventListener
+	public void onAppointmentChanged(AppointmentChangedEvent event) {
+		Appointment appointment = event.getAppointment();
+		if (event.getType() != AppointmentChangedEvent.Type.CANCELLED || appointment.getBayNumber() == null) {
+			return;
+		}
+		try {
+			release(appointment.getId(), appointment.getDate(), appointment.getEndDate());
+		} catch (RuntimeException e) {
+			System.err.println("✗ Failed to release bay for appointment " + appointment.getId() + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Earliest placement over all bays starting on one day
+	 */
+	private Placement fitOnDay(LocalDate date, int notBefore, int minutes,
+			Map<LocalDate, TreeMap<Integer, BayDay.Segment>[]> days) {
+		Placement best = null;
+		TreeMap<Integer, BayDay.Segment>[] bays = day(date, days);
+		for (int bay = 0; bay < bays.length; bay++) {
+			Placement placement = fitInBay(bay, date, Math.max(notBefore, SHOP_OPEN), minutes, days);
+			if (placement != null && (best == null || placement.start().isBefore(best.start()))) {
+				best = placement;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Walk the gaps of one bay from the requested start; the first gap that holds the job,
+	 * or that runs to closing time with free continuation days, wins
+	 */
+	private Placement fitInBay(int bay, LocalDate date, int notBefore, int minutes,
+			Map<LocalDate, TreeMap<Integer, BayDay.Segment>[]> days) {
+		TreeMap<Integer, BayDay.Segment> tree = day(date, days)[bay];
+		int candidate = notBefore;
+		var covering = tree.floorEntry(candidate);
+		if (covering != null && covering.getValue().getEnd() > candidate) {
+			candidate = covering.getValue().getEnd();
+		}
+		while (candidate < SHOP_CLOSE) {
+			var next = tree.ceilingEntry(candidate);
+			int gapEnd = next != null ? next.getKey() : SHOP_CLOSE;
+			if (candidate + minutes <= gapEnd) {
+				List<DayPart> parts = List.of(new DayPart(date, candidate, candidate + minutes));
+				return new Placement(bay + 1, date.atTime(toTime(candidate)), date.atTime(toTime(candidate + minutes)), parts);
+			}
+			if (next == null) {
+				// Free until closing: the job may continue on the following working days
+				return continueFrom(bay, date, candidate, minutes, days);
+			}
+			candidate = next.getValue().getEnd();
+		}
+		return null;
+	}
+
+	private Placement continueFrom(int bay, LocalDate date, int start, int minutes,
+			Map<LocalDate, TreeMap<Integer, BayDay.Segment>[]> days) {
+		List<DayPart> parts = new ArrayList<>();
+		parts.add(new DayPart(date, start, SHOP_CLOSE));
+		int remaining = minutes - (SHOP_CLOSE - start);
+		LocalDate current = date;
+		for (int day = 1; day < MAX_JOB_DAYS && remaining > 0; day++) {
+			current = nextWorkingDay(current);
+			int end = SHOP_OPEN + Math.min(remaining, SHOP_CLOSE - SHOP_OPEN);
+			if (overlaps(day(current, days)[bay], SHOP_OPEN, end)) {
+				return null;
+			}
+			parts.add(new DayPart(current, SHOP_OPEN, end));
+			remaining -= end - SHOP_OPEN;
+		}
+		if (remaining > 0) {
+			return null;
+		}
+		DayPart last = parts.get(parts.size() - 1);
+		return new Placement(bay + 1, date.atTime(toTime(start)), last.date().atTime(toTime(last.end())), parts);
+	}
+
+	private boolean overlaps(TreeMap<Integer, BayDay.Segment> tree, int start, int end) {
+		var before = tree.lowerEntry(end);
+		return before != null && before.getValue().getEnd() > start;
+	}
+
+	private void write(DayPart part, int bayNumber, String appointmentId) {
+		BayDay day = mongoTemplate.findById(part.date().toString(), BayDay.class);
+		if (day == null) {
+			day = new BayDay(part.date());
+		}
+		BayDay.Bay bay = day.getBays().stream().filter(b -> b.getNumber() == bayNumber).findFirst().orElse(null);
+		if (bay == null) {
+			bay = new BayDay.Bay(bayNumber);
+			day.getBays().add(bay);
+		}
+		for (BayDay.Segment segment : bay.getSegments()) {
+			if (segment.getStart() < part.end() && segment.getEnd() > part.start()) {
+				throw new IllegalStateException("Bay " + bayNumber + " on " + part.date() + " was taken");
+			}
+		}
+		bay.getSegments().add(new BayDay.Segment(part.start(), part.end(), appointmentId));
+		bay.getSegments().sort((a, b) -> Integer.compare(a.getStart(), b.getStart()));
+		mongoTemplate.save(day);
+	}
+
+	private TreeMap<Integer, BayDay.Segment>[] day(LocalDate date, Map<LocalDate, TreeMap<Integer, BayDay.Segment>[]> days) {
+		return days.computeIfAbsent(date, d -> toTrees(mongoTemplate.findById(d.toString(), BayDay.class)));
+	}
+
+	private void preload(LocalDate from, LocalDate to, Map<LocalDate, TreeMap<Integer, BayDay.Segment>[]> days) {
+		Map<LocalDate, BayDay> stored = new HashMap<>();
+		for (BayDay day : mongoTemplate.find(new Query(Criteria.where("date").gte(from).lte(to)), BayDay.class)) {
+			stored.put(day.getDate(), day);
+		}
+		for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+			days.put(date, toTrees(stored.get(date)));
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private TreeMap<Integer, BayDay.Segment>[] toTrees(BayDay day) {
+		int count = bayCount;
+		if (day != null) {
+			for (BayDay.Bay bay : day.getBays()) {
+				count = Math.max(count, bay.getNumber());
+			}
+		}
+		TreeMap<Integer, BayDay.Segment>[] trees = new TreeMap[count];
+		for (int i = 0; i < count; i++) {
+			trees[i] = new TreeMap<>();
+		}
+		if (day != null) {
+			for (BayDay.Bay bay : day.getBays()) {
+				for (BayDay.Segment segment : bay.getSegments()) {
+					trees[bay.getNumber() - 1].put(segment.getStart(), segment);
+				}
+			}
+		}
+		return trees;
+	}
+
+	private LocalDate nextWorkingDay(LocalDate date) {
+		LocalDate next = date.plusDays(1);
+		while (!isWorkingDay(next)) {
+			next = next.plusDays(1);
+		}
+		return next;
+	}
+
+	private boolean isWorkingDay(LocalDate date) {
+		return date.getDayOfWeek() != DayOfWeek.SUNDAY && !unavailableDateService.isDateUnavailable(date);
+	}
+
+	private static int toMinutes(LocalTime time) {
+		return time != null ? time.getHour() * 60 + time.getMinute() : SHOP_OPEN;
+	}
+
+	private static LocalTime toTime(int minutes) {
+		return LocalTime.of(minutes / 60, minutes % 60);
+	}
+}
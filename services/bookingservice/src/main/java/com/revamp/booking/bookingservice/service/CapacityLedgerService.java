@@ -0,0 +1,221 @@
+package com.revamp.booking.bookingservice.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.revamp.booking.bookingservice.event.AppointmentChangedEvent;
+import com.revamp.booking.bookingservice.model.Appointment;
+import com.revamp.booking.bookingservice.model.DailyCapacity;
+
+/**
+ * Per-day labor hours ledger for Modification appointments.
+ *
+ * A day document is created on first use with capacity derived from the staff count: the
+ * employees the workload index knows of, or the configured count until it has loaded any.
+ * Debits are a single conditional $inc on remainingHours, so two bookings racing for the
+ * last hours of a day cannot both succeed. A job running over several days draws on each of
+ * them for the hours it spends there, and cancellations credit those same days back.
+ */
+@Service
+public class CapacityLedgerService {
+
+	@Value("${booking.capacity.staff-count:4}")
+	private int staffCount;
+
+	@Value("${booking.capacity.hours-per-employee:8}")
+	private int hoursPerEmployee;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private WorkloadIndex workloadIndex;
+
+	/**
+	 * Whether bookings of this service type draw on the day's labor hours. Both booking paths
+	 * debit and credit through this, so they agree on which appointments hold capacity.
+	 */
+	public static boolean usesCapacity(String serviceType) {
+		return "Modification".equalsIgnoreCase(serviceType);
+	}
+
+	/**
+	 * Get the ledger for a day; days never debited report full capacity without being stored
+	 */
+	public DailyCapacity getDay(LocalDate date) {
+		DailyCapacity day = mongoTemplate.findById(date.toString(), DailyCapacity.class);
+		if (day == null) {
+			int staff = defaultStaffCount();
+			int capacity = staff * hoursPerEmployee;
+			day = new DailyCapacity(date.toString(), date, staff, capacity, 0, capacity, null);
+		}
+		return day;
+	}
+
+	/**
+	 * Reserve labor hours on a day
+	 *
+	 * @throws RuntimeException if the day does not have that many hours left
+	 */
+	public DailyCapacity debit(LocalDate date, int hours) {
+		if (hours <= 0) {
+			return getDay(date);
+		}
+		ensureDay(date);
+		Query query = new Query(Criteria.where("_id").is(date.toString()).and("remainingHours").gte(hours));
+		Update update = new Update()
+			.inc("remainingHours", -hours)
+			.inc("committedHours", hours)
+			.set("updatedAt", LocalDateTime.now());
+		DailyCapacity day = mongoTemplate.findAndModify(query, update,
+			FindAndModifyOptions.options().returnNew(true), DailyCapacity.class);
+		if (day == null) {
+			DailyCapacity current = getDay(date);
+			throw new RuntimeException("Not enough workshop capacity on " + date + ": " + hours
+				+ " hour(s) needed, " + current.getRemainingHours() + " remaining");
+		}
+		return day;
+	}
+
+	/**
+	 * Reserve a placed job's labor hours on each day it runs. The estimate is spread over the
+	 * days by the minutes the job spends on each, so the shares add up to the whole hours. If a
+	 * day is short, the days already debited are credited back before the error is thrown.
+	 *
+	 * @return hours debited per day, keyed by ISO date
+	 */
+	public Map<String, Integer> debit(List<BayScheduleService.DayPart> parts) {
+		Map<String, Integer> debited = new LinkedHashMap<>();
+		try {
+			for (Map.Entry<LocalDate, Integer> share : hoursByDay(parts).entrySet()) {
+				debit(share.getKey(), share.getValue());
+				debited.put(share.getKey().toString(), share.getValue());
+			}
+		} catch (RuntimeException e) {
+			credit(debited, null, null);
+			throw e;
+		}
+		return debited;
+	}
+
+	/**
+	 * Return the hours a job holds: per day when they were debited that way, otherwise all on
+	 * its start date, as recorded for jobs booked before hours were split by day
+	 */
+	public void credit(Map<String, Integer> days, LocalDate date, Integer hours) {
+		if (days == null || days.isEmpty()) {
+			if (hours != null) {
+				credit(date, hours);
+			}
+			return;
+		}
+		days.forEach((day, dayHours) -> credit(LocalDate.parse(day), dayHours));
+	}
+
+	/**
+	 * Whole hours per day for a job's stretches; a day's share is the hours its stretch ends
+	 * past minus the hours the earlier stretches already covered, so nothing is lost to rounding
+	 */
+	static Map<LocalDate, Integer> hoursByDay(List<BayScheduleService.DayPart> parts) {
+		Map<LocalDate, Integer> shares = new LinkedHashMap<>();
+		int minutes = 0;
+		for (BayScheduleService.DayPart part : parts) {
+			int before = minutes / 60;
+			minutes += part.end() - part.start();
+			int hours = minutes / 60 - before;
+			if (hours > 0) {
+				shares.merge(part.date(), hours, Integer::sum);
+			}
+		}
+		return shares;
+	}
+
+	/**
+	 * Return previously debited hours to a day
+	 */
+	public void credit(LocalDate date, int hours) {
+		if (date == null || hours <= 0) {
+			return;
+		}
+		Update update = new Update()
+			.inc("remainingHours", hours)
+			.inc("committedHours", -hours)
+			.set("updatedAt", LocalDateTime.now());
+		mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(date.toString())), update, DailyCapacity.class);
+	}
+
+	/**
+	 * Change a day's staff count, keeping committed hours and adjusting what remains.
+	 * Remaining hours may go negative, which blocks further debits until staff is added back.
+	 */
+	public DailyCapacity setStaffCount(LocalDate date, int staff) {
+		ensureDay(date);
+		for (int attempt = 0; attempt < 5; attempt++) {
+			DailyCapacity day = getDay(date);
+			int capacity = staff * hoursPerEmployee;
+			Query query = new Query(Criteria.where("_id").is(day.getId()).and("capacityHours").is(day.getCapacityHours()));
+			Update update = new Update()
+				.set("staffCount", staff)
+				.set("capacityHours", capacity)
+				.inc("remainingHours", capacity - day.getCapacityHours())
+				.set("updatedAt", LocalDateTime.now());
+			DailyCapacity updated = mongoTemplate.findAndModify(query, update,
+				FindAndModifyOptions.options().returnNew(true), DailyCapacity.class);
+			if (updated != null) {
+				return updated;
+			}
+		}
+		throw new RuntimeException("Capacity for " + date + " is being changed concurrently, please retry");
+	}
+
+	@EventListener
+	public void onAppointmentChanged(AppointmentChangedEvent event) {
+		if (event.getType() != AppointmentChangedEvent.Type.CANCELLED) {
+			return;
+		}
+		Appointment appointment = event.getAppointment();
+		try {
+			credit(appointment.getCapacityDays(), appointment.getDate(), appointment.getCapacityHours());
+		} catch (RuntimeException e) {
+			System.err.println("✗ Failed to credit capacity for appointment " + appointment.getId() + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Staff for a day nobody has set: the current employees, as pushed by the employee service
+	 */
+	private int defaultStaffCount() {
+		int employees = workloadIndex.getEmployees().size();
+		return employees > 0 ? employees : staffCount;
+	}
+
+	private void ensureDay(LocalDate date) {
+		int staff = defaultStaffCount();
+		int capacity = staff * hoursPerEmployee;
+		Update update = new Update()
+			.setOnInsert("date", date)
+			.setOnInsert("staffCount", staff)
+			.setOnInsert("capacityHours", capacity)
+			.setOnInsert("committedHours", 0)
+			.setOnInsert("remainingHours", capacity);
+		try {
+			mongoTemplate.upsert(new Query(Criteria.where("_id").is(date.toString())), update, DailyCapacity.class);
+		} catch (DuplicateKeyException e) {
+			// Created concurrently
+		}
+	}
+}
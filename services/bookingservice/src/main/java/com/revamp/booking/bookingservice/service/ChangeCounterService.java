@@ -0,0 +1,79 @@
+package com.revamp.booking.bookingservice.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.revamp.booking.bookingservice.event.AppointmentChangedEvent;
+import com.revamp.booking.bookingservice.event.SlotChangedEvent;
+import com.revamp.booking.bookingservice.event.UnavailableDateChangedEvent;
+
+/**
+ * Per-collection change counters used to build ETags for list endpoints.
+ *
+ * Counters live in the change_counters collection so every instance sees the same values and
+ * they survive restarts. Checking an ETag costs one lookup of a few tiny documents instead of
+ * reading and serializing the full result.
+ */
+@Service
+public class ChangeCounterService {
+
+	public static final String BOOKINGS = "bookings";
+	public static final String TIMESLOTS = "timeslots";
+	public static final String UNAVAILABLE_DATES = "unavailabledates";
+
+	private static final String COLLECTION = "change_counters";
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	/**
+	 * Build a weak ETag from the current counters of the given collections
+	 */
+	public String etag(String scope, String... counters) {
+		Map<String, Long> values = new HashMap<>();
+		for (Document document : mongoTemplate.getCollection(COLLECTION)
+				.find(new Document("_id", new Document("$in", List.of(counters))))) {
+			values.put(document.getString("_id"), ((Number) document.get("value")).longValue());
+		}
+
+		StringBuilder tag = new StringBuilder("W/\"").append(scope);
+		for (String counter : counters) {
+			tag.append('-').append(values.getOrDefault(counter, 0L));
+		}
+		return tag.append('"').toString();
+	}
+
+	public void increment(String counter) {
+		try {
+			mongoTemplate.upsert(new Query(Criteria.where("_id").is(counter)), new Update().inc("value", 1L), COLLECTION);
+		} catch (RuntimeException e) {
+			// A missed bump only means clients may keep a cached list until the next change
+			System.err.println("✗ Failed to bump change counter " + counter + ": " + e.getMessage());
+		}
+	}
+
+	@EventListener
+	public void onAppointmentChanged(AppointmentChangedEvent event) {
+		increment(BOOKINGS);
+	}
+
+	@EventListener
+	public void onSlotChanged(SlotChangedEvent event) {
+		increment(TIMESLOTS);
+	}
+
+	@EventListener
+	public void onUnavailableDateChanged(UnavailableDateChangedEvent event) {
+		increment(UNAVAILABLE_DATES);
+	}
+}
@@ -0,0 +1,390 @@
+package com.revamp.booking.bookingservice.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.revamp.booking.bookingservice.event.AppointmentChangedEvent;
+import com.revamp.booking.bookingservice.event.SlotChangedEvent;
+import com.revamp.booking.bookingservice.event.UnavailableDateChangedEvent;
+import com.revamp.booking.bookingservice.model.Appointment;
+import com.revamp.booking.bookingservice.model.CustomerNotification;
+import com.revamp.booking.bookingservice.model.TimeSlot;
+import com.revamp.booking.bookingservice.model.UnavailableDate;
+
+/**
+ * Deals with the appointments on a date that has just been declared unavailable.
+ *
+ * One query finds the open appointments on the day and one update frees their slots. In "move"
+ * mode unassigned Service appointments get the same slot on the next open days (claimed with one
+ * bulk write) and unassigned Modification jobs the earliest free bay; everything else is flagged
+ * with rescheduleRequired. The appointments are updated with one bulk write and every customer
+ * gets a notification, inserted as one batch.
+ */
+@Service
+public class ClosureService {
+
+	private static final int MAX_MOVE_DAYS = 14;
+
+	@Value("${booking.closure.mode:move}")
+	private String defaultMode;
+
+	@Value("${booking.notifications.ttl-days:30}")
+	private long notificationTtlDays;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private TimeSlotService timeSlotService;
+
+	@Autowired
+	private UnavailableDateService unavailableDateService;
+
+	@Autowired
+	private BayScheduleService bayScheduleService;
+
+	@Autowired
+	private CapacityLedgerService capacityLedgerService;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@EventListener
+	public void onUnavailableDateChanged(UnavailableDateChangedEvent event) {
+		if (!event.isUnavailable()) {
+			return;
+		}
+		try {
+			handleClosure(event.getDate(), defaultMode);
+		} catch (RuntimeException e) {
+			// The closure is recorded; the pipeline can be rerun for the date
+			System.err.println("✗ Failed to handle appointments on closed date " + event.getDate() + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Move or flag every open appointment on a closed date
+	 *
+	 * @param mode "move" to rebook automatically where possible, "mark" to only flag for rescheduling
+	 */
+	public Map<String, Object> handleClosure(LocalDate date, String mode) {
+		boolean move = "move".equalsIgnoreCase(mode);
+		if (!move && !"mark".equalsIgnoreCase(mode)) {
+			throw new RuntimeException("Mode must be move or mark");
+		}
+
+		Query affectedQuery = new Query(Criteria.where("date").is(date).and("status").nin(Appointment.INACTIVE_STATUSES));
+		List<Appointment> affected = new ArrayList<>();
+		for (Appointment appointment : mongoTemplate.find(affectedQuery, Appointment.class)) {
+			// Already flagged by an earlier run; only a move attempt can change anything
+			if (move || !Boolean.TRUE.equals(appointment.getRescheduleRequired())) {
+				affected.add(appointment);
+			}
+		}
+		affected.sort(Comparator.comparing(Appointment::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder())));
+
+		Map<String, Object> summary = new LinkedHashMap<>();
+		summary.put("date", date.toString());
+		summary.put("mode", move ? "move" : "mark");
+		summary.put("affected", affected.size());
+		if (affected.isEmpty()) {
+			summary.put("moved", List.of());
+			summary.put("markedForReschedule", List.of());
+			return summary;
+		}
+
+		long slotsReleased = releaseSlots(date, affected);
+
+		Map<String, TimeSlot> newSlots = move ? moveServices(date, affected) : Map.of();
+		List<Appointment> moved = new ArrayList<>();
+		List<Appointment> marked = new ArrayList<>();
+		BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Appointment.class);
+		for (Appointment appointment : affected) {
+			Update update = new Update().set("rescheduledFrom", date).set("updatedAt", LocalDateTime.now());
+			boolean wasMoved;
+			if ("Modification".equals(appointment.getServiceType())) {
+				wasMoved = rebookModification(appointment, date, move, update);
+			} else {
+				TimeSlot slot = newSlots.get(appointment.getId());
+				wasMoved = slot != null;
+				if (wasMoved) {
+					appointment.setDate(slot.getDate());
+					appointment.setTimeSlotId(slot.getId());
+					appointment.setTime(slot.getStartTime());
+					appointment.setEndTime(slot.getEndTime());
+					appointment.setTimeSlotStart(slot.getStartTime().toString());
+					appointment.setTimeSlotEnd(slot.getEndTime().toString());
+					update.set("date", slot.getDate())
+						.set("timeSlotId", slot.getId())
+						.set("time", slot.getStartTime())
+						.set("endTime", slot.getEndTime())
+						.set("timeSlotStart", appointment.getTimeSlotStart())
+						.set("timeSlotEnd", appointment.getTimeSlotEnd());
+				} else {
+					appointment.setTimeSlotId(null);
+					update.unset("timeSlotId");
+				}
+			}
+			appointment.setRescheduledFrom(date);
+			if (wasMoved) {
+				appointment.setRescheduleRequired(null);
+				update.unset("rescheduleRequired");
+				moved.add(appointment);
+			} else {
+				appointment.setRescheduleRequired(true);
+				update.set("rescheduleRequired", true);
+				marked.add(appointment);
+			}
+			bulk.updateOne(new Query(Criteria.where("_id").is(appointment.getId())), update);
+		}
+		bulk.execute();
+
+		for (Appointment appointment : moved) {
+			eventPublisher.publishEvent(AppointmentChangedEvent.updated(AppointmentChangedEvent.Type.RESCHEDULED,
+				appointment, appointment.getStatus(), date, appointment.getAssignedEmployeeIds()));
+		}
+		for (Appointment appointment : marked) {
+			eventPublisher.publishEvent(AppointmentChangedEvent.updated(AppointmentChangedEvent.Type.RESCHEDULE_REQUIRED,
+				appointment, appointment.getStatus(), date, appointment.getAssignedEmployeeIds()));
+		}
+		int notified = notifyCustomers(date, moved, marked);
+
+		System.out.println("✓ Closure of " + date + ": moved " + moved.size() + ", flagged " + marked.size()
+			+ ", released " + slotsReleased + " slot(s)");
+		summary.put("moved", moved.stream().map(a -> Map.of("appointmentId", a.getId(), "date", a.getDate().toString())).toList());
+		summary.put("markedForReschedule", marked.stream().map(Appointment::getId).toList());
+		summary.put("slotsReleased", slotsReleased);
+		summary.put("notificationsQueued", notified);
+		return summary;
+	}
+
+	/**
+	 * Free the closed day's slots held by the affected appointments in one update.
+	 * Slots are found by the appointments' timeSlotId, read before flagging clears it;
+	 * booked slots do not record the appointment.
+	 */
+	private long releaseSlots(LocalDate date, List<Appointment> affected) {
+		List<String> slotIds = affected.stream()
+			.map(Appointment::getTimeSlotId)
+			.filter(Objects::nonNull)
+			.distinct()
+			.toList();
+		if (slotIds.isEmpty()) {
+			return 0;
+		}
+		Query query = new Query(Criteria.where("id").in(slotIds).and("date").is(date));
+		long released = mongoTemplate.updateMulti(query,
+			new Update().set("isAvailable", true).set("appointmentId", null), TimeSlot.class).getModifiedCount();
+		for (TimeSlot slot : mongoTemplate.find(query, TimeSlot.class)) {
+			eventPublisher.publishEvent(new SlotChangedEvent(slot));
+		}
+		return released;
+	}
+
+	/**
+	 * Same slot time on the next open days for unassigned Service appointments, claimed in one bulk write
+	 *
+	 * @return appointment id -> claimed slot
+	 */
+	private Map<String, TimeSlot> moveServices(LocalDate date, List<Appointment> affected) {
+		Map<LocalTime, List<Appointment>> byStart = new TreeMap<>();
+		for (Appointment appointment : affected) {
+			LocalTime start = slotStart(appointment);
+			if ("Modification".equals(appointment.getServiceType()) || start == null || isAssigned(appointment)) {
+				continue;
+			}
+			byStart.computeIfAbsent(start, key -> new ArrayList<>()).add(appointment);
+		}
+		if (byStart.isEmpty()) {
+			return Map.of();
+		}
+
+		List<LocalDate> openDates = openDatesAfter(date);
+		Map<String, String> claims = new LinkedHashMap<>();
+		for (Map.Entry<LocalTime, List<Appointment>> entry : byStart.entrySet()) {
+			Map<LocalDate, TimeSlot> slots;
+			try {
+				slots = timeSlotService.resolveSlots(openDates, entry.getKey());
+			} catch (RuntimeException e) {
+				continue; // Not one of the shop's slot times; these get flagged
+			}
+			int next = 0;
+			for (Appointment appointment : entry.getValue()) {
+				while (next < openDates.size()) {
+					TimeSlot slot = slots.get(openDates.get(next++));
+					if (slot != null && slot.isAvailable() && slot.getHeldFor() == null) {
+						claims.put(slot.getId(), appointment.getId());
+						break;
+					}
+				}
+			}
+		}
+
+		// A slot taken since it was read simply leaves its appointment flagged
+		Map<String, TimeSlot> claimed = new HashMap<>();
+		for (TimeSlot slot : timeSlotService.claimSlots(claims, null)) {
+			claimed.put(slot.getAppointmentId(), slot);
+		}
+		return claimed;
+	}
+
+	/**
+	 * Give back the job's bay and hours, and in move mode place it on the earliest open day
+	 *
+	 * @return true if the job was placed on a new date
+	 */
+	private boolean rebookModification(Appointment appointment, LocalDate date, boolean move, Update update) {
+		if (appointment.getBayNumber() != null) {
+			bayScheduleService.release(appointment.getId(), date, appointment.getEndDate());
+		}
+		capacityLedgerService.credit(appointment.getCapacityDays(), date, appointment.getCapacityHours());
+		appointment.setBayNumber(null);
+		appointment.setCapacityHours(null);
+		appointment.setCapacityDays(null);
+		update.unset("bayNumber").unset("capacityHours").unset("capacityDays");
+
+		Integer hours = appointment.getEstimatedTimeHours();
+		if (!move || isAssigned(appointment) || hours == null || hours <= 0) {
+			return false;
+		}
+		BayScheduleService.Placement fit = bayScheduleService.findEarliest(date.plusDays(1), hours);
+		if (fit == null) {
+			return false;
+		}
+		LocalDate newDate = fit.start().toLocalDate();
+		BayScheduleService.Placement placement;
+		Map<String, Integer> capacityDays;
+		try {
+			placement = bayScheduleService.reserve(appointment.getId(), newDate, null, hours);
+		} catch (RuntimeException e) {
+			return false;
+		}
+		try {
+			capacityDays = capacityLedgerService.debit(placement.parts());
+		} catch (RuntimeException e) {
+			bayScheduleService.release(appointment.getId(), newDate, placement.end().toLocalDate());
+			return false;
+		}
+
+		appointment.setDate(newDate);
+		appointment.setEndDate(placement.end().toLocalDate());
+		appointment.setBayNumber(placement.bay());
+		appointment.setCapacityHours(hours);
+		appointment.setCapacityDays(capacityDays);
+		appointment.setTime(placement.start().toLocalTime());
+		appointment.setEndTime(placement.end().toLocalTime());
+		appointment.setTimeSlotStart(appointment.getTime().toString());
+		appointment.setTimeSlotEnd(appointment.getEndTime().toString());
+		update.set("date", newDate)
+			.set("endDate", appointment.getEndDate())
+			.set("bayNumber", placement.bay())
+			.set("capacityHours", hours)
+			.set("capacityDays", capacityDays)
+			.set("time", appointment.getTime())
+			.set("endTime", appointment.getEndTime())
+			.set("timeSlotStart", appointment.getTimeSlotStart())
+			.set("timeSlotEnd", appointment.getTimeSlotEnd());
+		return true;
+	}
+
+	/**
+	 * One notification per affected appointment, inserted as a single batch
+	 */
+	private int notifyCustomers(LocalDate date, List<Appointment> moved, List<Appointment> marked) {
+		List<CustomerNotification> notifications = new ArrayList<>();
+		for (Appointment appointment : moved) {
+			CustomerNotification notification = notification(appointment, "closure-moved");
+			notification.setTitle("Your appointment was moved");
+			notification.setMessage("The shop is closed on " + date + ". Your " + appointment.getServiceType()
+				+ " appointment has been moved to " + appointment.getDate()
+				+ (appointment.getTimeSlotStart() != null ? " at " + appointment.getTimeSlotStart() : "") + ".");
+			notifications.add(notification);
+		}
+		for (Appointment appointment : marked) {
+			CustomerNotification notification = notification(appointment, "closure-reschedule");
+			notification.setTitle("Please reschedule your appointment");
+			notification.setMessage("The shop is closed on " + date + ". Please choose a new date for your "
+				+ appointment.getServiceType() + " appointment.");
+			notifications.add(notification);
+		}
+		try {
+			mongoTemplate.insert(notifications, CustomerNotification.class);
+		} catch (RuntimeException e) {
+			System.err.println("✗ Failed to queue closure notifications for " + date + ": " + e.getMessage());
+			return 0;
+		}
+		return notifications.size();
+	}
+
+	private CustomerNotification notification(Appointment appointment, String type) {
+		CustomerNotification notification = new CustomerNotification();
+		notification.setCustomerId(appointment.getCustomerId());
+		notification.setType(type);
+		notification.setAppointmentId(appointment.getId());
+		notification.setSlotId(appointment.getTimeSlotId());
+		notification.setDate(appointment.getDate());
+		notification.setCreatedAt(LocalDateTime.now());
+		notification.setExpiresAt(LocalDateTime.now().plusDays(notificationTtlDays));
+		return notification;
+	}
+
+	/**
+	 * Open days after the closed date within the move window, from one closures query
+	 */
+	private List<LocalDate> openDatesAfter(LocalDate date) {
+		LocalDate from = date.plusDays(1);
+		LocalDate to = date.plusDays(MAX_MOVE_DAYS);
+		Set<LocalDate> closed = new HashSet<>();
+		for (UnavailableDate closure : unavailableDateService.getUnavailableDatesInRange(from, to)) {
+			closed.add(closure.getDate());
+		}
+		List<LocalDate> open = new ArrayList<>();
+		for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+			if (day.getDayOfWeek() != DayOfWeek.SUNDAY && !closed.contains(day)) {
+				open.add(day);
+			}
+		}
+		return open;
+	}
+
+	private LocalTime slotStart(Appointment appointment) {
+		if (appointment.getTime() != null) {
+			return appointment.getTime();
+		}
+		try {
+			return appointment.getTimeSlotStart() != null ? LocalTime.parse(appointment.getTimeSlotStart()) : null;
+		} catch (RuntimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Assigned crews have their own calendars; those appointments are left to an admin
+	 */
+	private boolean isAssigned(Appointment appointment) {
+		return appointment.getAssignedEmployeeIds() != null && !appointment.getAssignedEmployeeIds().isEmpty();
+	}
+}
@@ -0,0 +1,328 @@
+package com.revamp.booking.bookingservice.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.revamp.booking.bookingservice.event.AppointmentChangedEvent;
+import com.revamp.booking.bookingservice.event.SlotChangedEvent;
+import com.revamp.booking.bookingservice.event.UnavailableDateChangedEvent;
+import com.revamp.booking.bookingservice.model.Appointment;
+import com.revamp.booking.bookingservice.model.DailySchedule;
+import com.revamp.booking.bookingservice.model.TimeSlot;
+import com.revamp.booking.bookingservice.model.UnavailableDate;
+
+/**
+ * Maintains the daily_schedules read model.
+ *
+ * Each booking write event touches exactly one day document (two when an appointment moves),
+ * using read-modify-write with optimistic locking. Days without a document yet are built from
+ * the source collections on first touch, and rebuild() replays any range from scratch without
+ * overwriting days that change while it runs.
+ */
+@Service
+public class DailyScheduleService {
+
+	private static final int MAX_UPDATE_ATTEMPTS = 5;
+	// Longest range served or rebuilt in one pass
+	private static final int MAX_RANGE_DAYS = 62;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	/**
+	 * Get the schedule for one day, building it from the source collections if missing
+	 */
+	public DailySchedule getDay(LocalDate date) {
+		DailySchedule day = mongoTemplate.findById(date.toString(), DailySchedule.class);
+		if (day == null) {
+			day = rebuild(date, date).get(0);
+		}
+		return day;
+	}
+
+	/**
+	 * Get schedules for a date range (inclusive), one entry per day
+	 */
+	public List<DailySchedule> getRange(LocalDate startDate, LocalDate endDate) {
+		checkRange(startDate, endDate);
+		Query query = new Query(Criteria.where("date").gte(startDate).lte(endDate));
+		List<DailySchedule> days = mongoTemplate.find(query, DailySchedule.class);
+		long expected = startDate.datesUntil(endDate.plusDays(1)).count();
+		if (days.size() < expected) {
+			// Some days were never projected yet - build the whole range once
+			return rebuild(startDate, endDate);
+		}
+		days.sort(Comparator.comparing(DailySchedule::getDate));
+		return days;
+	}
+
+	/**
+	 * Rebuild the projection for a date range by replaying the source collections.
+	 * Writes one document per day, including empty days. A day is only replaced while its
+	 * version is still the one read before the replay; a day that an event changed meanwhile
+	 * is replayed again, so a rebuild never puts an older read over a newer change.
+	 */
+	public List<DailySchedule> rebuild(LocalDate startDate, LocalDate endDate) {
+		checkRange(startDate, endDate);
+		System.out.println("Rebuilding daily schedules from " + startDate + " to " + endDate);
+
+		Map<LocalDate, DailySchedule> rebuilt = new TreeMap<>();
+		for (LocalDate date : replay(startDate, endDate, rebuilt)) {
+			boolean written = false;
+			for (int attempt = 2; attempt <= MAX_UPDATE_ATTEMPTS && !written; attempt++) {
+				written = replay(date, date, rebuilt).isEmpty();
+			}
+			if (!written) {
+				System.err.println("⚠ Daily schedule for " + date + " kept changing during the rebuild, keeping the stored one");
+				rebuilt.put(date, mongoTemplate.findById(date.toString(), DailySchedule.class));
+			}
+		}
+		return new ArrayList<>(rebuilt.values());
+	}
+
+	/**
+	 * Build a range's days from the source collections and write each one whose stored version
+	 * has not moved since the replay started
+	 *
+	 * @return the days that changed underneath and were not written
+	 */
+	private List<LocalDate> replay(LocalDate startDate, LocalDate endDate, Map<LocalDate, DailySchedule> rebuilt) {
+		// Versions before sources: an event for a source change made after this read moves the version
+		Query stored = new Query(Criteria.where("date").gte(startDate).lte(endDate));
+		stored.fields().include("date", "version");
+		Map<LocalDate, Long> versions = new HashMap<>();
+		for (DailySchedule day : mongoTemplate.find(stored, DailySchedule.class)) {
+			versions.put(day.getDate(), day.getVersion());
+		}
+
+		Map<LocalDate, DailySchedule> days = new TreeMap<>();
+		for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+			days.put(date, new DailySchedule(date));
+		}
+
+		Query range = new Query(Criteria.where("date").gte(startDate).lte(endDate));
+		for (TimeSlot slot : mongoTemplate.find(range, TimeSlot.class)) {
+			upsertSlot(days.get(slot.getDate()), slot);
+		}
+		for (Appointment appointment : mongoTemplate.find(range, Appointment.class)) {
+			upsertAppointment(days.get(appointment.getDate()), appointment);
+		}
+		for (UnavailableDate closure : mongoTemplate.find(range, UnavailableDate.class)) {
+			DailySchedule day = days.get(closure.getDate());
+			day.setClosed(true);
+			day.setClosedReason(closure.getReason());
+		}
+
+		List<LocalDate> conflicts = new ArrayList<>();
+		for (DailySchedule day : days.values()) {
+			recount(day);
+			day.setUpdatedAt(LocalDateTime.now());
+			if (replace(day, versions.get(day.getDate()))) {
+				rebuilt.put(day.getDate(), day);
+			} else {
+				conflicts.add(day.getDate());
+			}
+		}
+		return conflicts;
+	}
+
+	/**
+	 * Write a rebuilt day over the stored one if that is still at the given version, or insert
+	 * it if there was none; the bumped version makes a concurrent incremental update retry
+	 */
+	private boolean replace(DailySchedule day, Long readVersion) {
+		if (readVersion == null) {
+			day.setVersion(null);
+			try {
+				mongoTemplate.insert(day);
+				return true;
+			} catch (DuplicateKeyException e) {
+				return false; // First touched concurrently
+			}
+		}
+		day.setVersion(readVersion + 1);
+		Query current = new Query(Criteria.where("_id").is(day.getId()).and("version").is(readVersion));
+		return mongoTemplate.findAndReplace(current, day) != null;
+	}
+
+	@EventListener
+	public void onAppointmentChanged(AppointmentChangedEvent event) {
+		Appointment appointment = event.getAppointment();
+		try {
+			LocalDate previousDate = event.getPreviousDate();
+			if (previousDate != null && appointment.getDate() != null && !previousDate.equals(appointment.getDate())) {
+				apply(previousDate, day -> removeAppointment(day, appointment.getId()));
+			}
+			if (event.getType() == AppointmentChangedEvent.Type.CANCELLED) {
+				apply(appointment.getDate(), day -> removeAppointment(day, appointment.getId()));
+			} else {
+				apply(appointment.getDate(), day -> upsertAppointment(day, appointment));
+			}
+		} catch (RuntimeException e) {
+			// The write itself succeeded; the projection can be rebuilt for this day
+			System.err.println("✗ Failed to project appointment " + appointment.getId() + ": " + e.getMessage());
+		}
+	}
+
+	@EventListener
+	public void onSlotChanged(SlotChangedEvent event) {
+		TimeSlot slot = event.getSlot();
+		try {
+			apply(slot.getDate(), day -> upsertSlot(day, slot));
+		} catch (RuntimeException e) {
+			System.err.println("✗ Failed to project time slot " + slot.getId() + ": " + e.getMessage());
+		}
+	}
+
+	@EventListener
+	public void onUnavailableDateChanged(UnavailableDateChangedEvent event) {
+		try {
+			apply(event.getDate(), day -> {
+				day.setClosed(event.isUnavailable());
+				day.setClosedReason(event.getReason());
+			});
+		} catch (RuntimeException e) {
+			System.err.println("✗ Failed to project unavailable date " + event.getDate() + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Apply a change to one day document with optimistic locking
+	 */
+	private void apply(LocalDate date, Consumer<DailySchedule> change) {
+		if (date == null) {
+			return;
+		}
+		for (int attempt = 1; attempt <= MAX_UPDATE_ATTEMPTS; attempt++) {
+			DailySchedule day = mongoTemplate.findById(date.toString(), DailySchedule.class);
+			if (day == null) {
+				// First touch of this day: the source collections already contain the change
+				rebuild(date, date);
+				return;
+			}
+			change.accept(day);
+			recount(day);
+			day.setUpdatedAt(LocalDateTime.now());
+			try {
+				mongoTemplate.save(day);
+				return;
+			} catch (OptimisticLockingFailureException e) {
+				// Concurrent update of the same day - reload and reapply
+			}
+		}
+		System.err.println("⚠ Daily schedule for " + date + " kept conflicting, rebuilding it");
+		rebuild(date, date);
+	}
+
+	private void upsertSlot(DailySchedule day, TimeSlot slot) {
+		DailySchedule.SlotState state = new DailySchedule.SlotState();
+		state.setSlotId(slot.getId());
+		state.setStartTime(slot.getStartTime());
+		state.setEndTime(slot.getEndTime());
+		state.setAvailable(slot.isAvailable());
+		state.setAppointmentId(slot.getAppointmentId());
+
+		day.getSlots().removeIf(existing -> existing.getSlotId().equals(slot.getId()));
+		day.getSlots().add(state);
+		day.getSlots().sort(Comparator.comparing(DailySchedule.SlotState::getStartTime,
+			Comparator.nullsLast(Comparator.naturalOrder())));
+	}
+
+	private void upsertAppointment(DailySchedule day, Appointment appointment) {
+		DailySchedule.AppointmentEntry entry = new DailySchedule.AppointmentEntry();
+		entry.setAppointmentId(appointment.getId());
+		entry.setCustomerId(appointment.getCustomerId());
+		entry.setCustomerName(appointment.getCustomerName());
+		entry.setVehicle(appointment.getVehicle());
+		entry.setServiceType(appointment.getServiceType());
+		entry.setStatus(appointment.getStatus());
+		entry.setTimeSlotId(appointment.getTimeSlotId());
+		entry.setTimeSlotStart(appointment.getTimeSlotStart());
+		entry.setTimeSlotEnd(appointment.getTimeSlotEnd());
+		entry.setNeededModifications(appointment.getNeededModifications());
+		entry.setEstimatedTimeHours(appointment.getEstimatedTimeHours());
+		entry.setAssignedEmployeeIds(appointment.getAssignedEmployeeIds());
+		entry.setAssignedEmployeeNames(appointment.getAssignedEmployeeNames());
+
+		removeAppointment(day, appointment.getId());
+		day.getAppointments().add(entry);
+		day.getAppointments().sort(Comparator.comparing(DailySchedule.AppointmentEntry::getTimeSlotStart,
+			Comparator.nullsLast(Comparator.naturalOrder())));
+
+		// Link the slot in case the slot event carried no appointment id yet
+		if (appointment.getTimeSlotId() != null) {
+			for (DailySchedule.SlotState slot : day.getSlots()) {
+				if (appointment.getTimeSlotId().equals(slot.getSlotId())) {
+					slot.setAppointmentId(appointment.getId());
+				}
+			}
+		}
+	}
+
+	private void removeAppointment(DailySchedule day, String appointmentId) {
+		day.getAppointments().removeIf(entry -> entry.getAppointmentId().equals(appointmentId));
+	}
+
+	/**
+	 * Derive crew and counts from the document's own content
+	 */
+	private void recount(DailySchedule day) {
+		int booked = 0;
+		for (DailySchedule.SlotState slot : day.getSlots()) {
+			if (!slot.isAvailable()) {
+				booked++;
+			}
+		}
+
+		int services = 0;
+		int modifications = 0;
+		Map<String, Integer> statusCounts = new HashMap<>();
+		Set<String> crew = new LinkedHashSet<>();
+		for (DailySchedule.AppointmentEntry entry : day.getAppointments()) {
+			if ("Modification".equals(entry.getServiceType())) {
+				modifications++;
+			} else {
+				services++;
+			}
+			if (entry.getStatus() != null) {
+				statusCounts.merge(entry.getStatus(), 1, Integer::sum);
+			}
+			if (entry.getAssignedEmployeeNames() != null) {
+				crew.addAll(entry.getAssignedEmployeeNames());
+			}
+		}
+
+		day.setBookedSlotCount(booked);
+		day.setServiceCount(services);
+		day.setModificationCount(modifications);
+		day.setStatusCounts(statusCounts);
+		day.setCrew(new ArrayList<>(crew));
+	}
+
+	private void checkRange(LocalDate startDate, LocalDate endDate) {
+		if (endDate.isBefore(startDate)) {
+			throw new RuntimeException("End date must not be before start date");
+		}
+		if (startDate.plusDays(MAX_RANGE_DAYS).isBefore(endDate)) {
+			throw new RuntimeException("Date range is limited to " + MAX_RANGE_DAYS + " days");
+		}
+	}
+}
@@ -0,0 +1,158 @@
+package com.revamp.booking.bookingservice.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.revamp.booking.bookingservice.model.DaySheet;
+import com.revamp.booking.bookingservice.model.UnavailableDate;
+
+/**
+ * Builds the admin day board for every day of a range.
+ *
+ * Slots come from one aggregation over the timeslots collection: match slots in range (date
+ * index) -> $lookup the booking holding each slot (bookings.timeSlotId) -> group per day.
+ * Modification jobs are read once for the range and listed on each day they run, and closures
+ * once from unavailabledates, so days without slots still show both. Every read projects only
+ * the fields the board renders.
+ */
+@Service
+public class DaySheetService {
+
+	// Longest range the board may request in one call
+	private static final int MAX_RANGE_DAYS = 31;
+	// Calendar days a job of at most MAX_JOB_DAYS working days can span, with Sundays and closures
+	private static final int JOB_LOOKBACK_DAYS = 2 * BayScheduleService.MAX_JOB_DAYS;
+
+	private static final Document APPOINTMENT_SUMMARY_FIELDS = new Document()
+		.append("customerName", 1)
+		.append("vehicle", 1)
+		.append("vehicleDetails", 1)
+		.append("serviceType", 1)
+		.append("status", 1)
+		.append("timeSlotStart", 1)
+		.append("timeSlotEnd", 1)
+		.append("neededModifications", 1)
+		.append("estimatedTimeHours", 1)
+		.append("assignedEmployeeIds", 1)
+		.append("assignedEmployeeNames", 1);
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	/**
+	 * Get the day sheets for a date range (inclusive), one per day
+	 */
+	public List<DaySheet> getDaySheets(LocalDate startDate, LocalDate endDate) {
+		if (endDate.isBefore(startDate)) {
+			throw new RuntimeException("End date must not be before start date");
+		}
+		if (startDate.plusDays(MAX_RANGE_DAYS).isBefore(endDate)) {
+			throw new RuntimeException("Date range is limited to " + MAX_RANGE_DAYS + " days");
+		}
+
+		Map<LocalDate, DaySheet> sheets = new TreeMap<>();
+		for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+			DaySheet sheet = new DaySheet();
+			sheet.setDate(date);
+			sheets.put(date, sheet);
+		}
+
+		Aggregation aggregation = Aggregation.newAggregation(
+			Aggregation.match(Criteria.where("date").gte(startDate).lte(endDate)),
+			Aggregation.stage(new Document("$addFields",
+				new Document("slotId", new Document("$toString", "$_id")))),
+			Aggregation.stage(new Document("$lookup", new Document()
+				.append("from", "bookings")
+				.append("localField", "slotId")
+				.append("foreignField", "timeSlotId")
+				.append("pipeline", List.of(new Document("$project", APPOINTMENT_SUMMARY_FIELDS)))
+				.append("as", "booking"))),
+			Aggregation.stage(new Document("$group", new Document()
+				.append("_id", "$date")
+				.append("slots", new Document("$push", new Document()
+					.append("_id", "$slotId")
+					.append("startTime", "$startTime")
+					.append("endTime", "$endTime")
+					.append("available", "$isAvailable")
+					.append("appointment", new Document("$first", "$booking")))))),
+			Aggregation.stage(new Document("$project", new Document()
+				.append("_id", 0)
+				.append("date", "$_id")
+				.append("slots", 1)))
+		);
+		for (DaySheet slotted : mongoTemplate.aggregate(aggregation, "timeslots", DaySheet.class).getMappedResults()) {
+			sheets.get(slotted.getDate()).setSlots(slotted.getSlots());
+		}
+
+		// Jobs that started before the range but are still running count too
+		Query jobs = new Query(Criteria.where("date").gte(startDate.minusDays(JOB_LOOKBACK_DAYS)).lte(endDate)
+			.and("serviceType").regex("^modification$", "i"));
+		APPOINTMENT_SUMMARY_FIELDS.keySet().forEach(jobs.fields()::include);
+		jobs.fields().include("date", "endDate");
+		for (DaySheet.AppointmentSummary job : mongoTemplate.find(jobs, DaySheet.AppointmentSummary.class, "bookings")) {
+			LocalDate last = job.getEndDate() != null ? job.getEndDate() : job.getDate();
+			LocalDate from = job.getDate().isBefore(startDate) ? startDate : job.getDate();
+			LocalDate to = last.isAfter(endDate) ? endDate : last;
+			for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+				sheets.get(date).getModificationJobs().add(job);
+			}
+		}
+
+		Query closures = new Query(Criteria.where("date").gte(startDate).lte(endDate));
+		closures.fields().include("date", "reason");
+		for (UnavailableDate closure : mongoTemplate.find(closures, UnavailableDate.class)) {
+			DaySheet sheet = sheets.get(closure.getDate());
+			sheet.setHoliday(true);
+			sheet.setHolidayReason(closure.getReason());
+		}
+
+		List<DaySheet> result = new ArrayList<>(sheets.values());
+		for (DaySheet sheet : result) {
+			finish(sheet);
+		}
+		return result;
+	}
+
+	/**
+	 * Order slots and collect the day's crew from the joined appointments
+	 */
+	private void finish(DaySheet sheet) {
+		if (sheet.getSlots() == null) {
+			sheet.setSlots(new ArrayList<>());
+		}
+		if (sheet.getModificationJobs() == null) {
+			sheet.setModificationJobs(new ArrayList<>());
+		}
+		sheet.getSlots().sort(Comparator.comparing(DaySheet.SlotEntry::getStartTime,
+			Comparator.nullsLast(Comparator.naturalOrder())));
+
+		Set<String> crew = new LinkedHashSet<>();
+		for (DaySheet.SlotEntry slot : sheet.getSlots()) {
+			addCrew(crew, slot.getAppointment());
+		}
+		for (DaySheet.AppointmentSummary job : sheet.getModificationJobs()) {
+			addCrew(crew, job);
+		}
+		sheet.setCrew(new ArrayList<>(crew));
+	}
+
+	private void addCrew(Set<String> crew, DaySheet.AppointmentSummary appointment) {
+		if (appointment != null && appointment.getAssignedEmployeeNames() != null) {
+			crew.addAll(appointment.getAssignedEmployeeNames());
+		}
+	}
+}
@@ -0,0 +1,147 @@
+package com.revamp.booking.bookingservice.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.revamp.booking.bookingservice.model.Appointment;
+import com.revamp.booking.dto.EmployeeRecommendation;
+import com.revamp.booking.model.ModificationItem;
+import com.revamp.booking.service.ModificationCatalogService;
+
+/**
+ * Ranks employees for an appointment by skill match, open-task load and calendar conflicts.
+ * Works entirely from the in-memory workload and schedule indexes.
+ */
+@Service
+public class EmployeeRecommendationService {
+
+	private static final double SKILL_WEIGHT = 0.6;
+	private static final double LOAD_WEIGHT = 0.4;
+	private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+	// Single letters and digits carry no meaning as a skill
+	private static final int MIN_TOKEN_LENGTH = 2;
+
+	@Autowired
+	private AppointmentService appointmentService;
+
+	@Autowired
+	private WorkloadIndex workloadIndex;
+
+	@Autowired
+	private EmployeeScheduleIndex employeeScheduleIndex;
+
+	@Autowired
+	private ModificationCatalogService modificationCatalogService;
+
+	/**
+	 * Best candidates first; employees with a conflicting assignment are listed last
+	 */
+	public List<EmployeeRecommendation> recommend(String appointmentId, int limit) {
+		Appointment appointment = appointmentService.getAppointmentById(appointmentId)
+			.orElseThrow(() -> new RuntimeException("Appointment not found with ID: " + appointmentId));
+		List<String> required = requiredSkills(appointment);
+		Map<String, Set<String>> requiredTokens = new HashMap<>();
+		for (String skill : required) {
+			requiredTokens.put(skill, tokens(skill));
+		}
+
+		List<WorkloadIndex.EmployeeEntry> employees = workloadIndex.getEmployees();
+		int maxHours = 0;
+		for (WorkloadIndex.EmployeeEntry employee : employees) {
+			maxHours = Math.max(maxHours, workloadIndex.getLoad(employee.userId()).openHours());
+		}
+
+		List<EmployeeRecommendation> ranked = new ArrayList<>();
+		for (WorkloadIndex.EmployeeEntry employee : employees) {
+			EmployeeRecommendation recommendation = new EmployeeRecommendation();
+			recommendation.setUserId(employee.userId());
+			recommendation.setFullName(employee.fullName());
+
+			for (String skill : required) {
+				if (hasSkill(employee, requiredTokens.get(skill))) {
+					recommendation.getMatchedSkills().add(skill);
+				}
+			}
+			double skillScore = required.isEmpty() ? 1.0 : (double) recommendation.getMatchedSkills().size() / required.size();
+
+			WorkloadIndex.Load load = workloadIndex.getLoad(employee.userId());
+			recommendation.setOpenTasks(load.openTasks());
+			recommendation.setOpenHours(load.openHours());
+			double loadScore = maxHours == 0 ? 1.0 : 1.0 - (double) load.openHours() / maxHours;
+
+			Map<String, List<EmployeeScheduleIndex.Interval>> conflicts =
+				employeeScheduleIndex.findConflicts(appointment, List.of(employee.userId()));
+			List<EmployeeScheduleIndex.Interval> overlapping = conflicts.getOrDefault(employee.userId(), List.of());
+			recommendation.setAvailable(overlapping.isEmpty());
+			for (EmployeeScheduleIndex.Interval interval : overlapping) {
+				recommendation.getConflictingAppointmentIds().add(interval.appointmentId());
+			}
+
+			recommendation.setScore(Math.round((SKILL_WEIGHT * skillScore + LOAD_WEIGHT * loadScore) * 1000) / 1000.0);
+			ranked.add(recommendation);
+		}
+
+		ranked.sort(Comparator.comparing(EmployeeRecommendation::isAvailable).reversed()
+			.thenComparing(Comparator.comparingDouble(EmployeeRecommendation::getScore).reversed())
+			.thenComparingInt(EmployeeRecommendation::getOpenTasks));
+		return ranked.size() > limit ? new ArrayList<>(ranked.subList(0, limit)) : ranked;
+	}
+
+	/**
+	 * Modifications need their named skills; service bookings need general servicing.
+	 * Bookings may store catalog ids, which are resolved to the item's name.
+	 */
+	private List<String> requiredSkills(Appointment appointment) {
+		List<String> mods = appointment.getNeededModifications();
+		if (mods == null || mods.isEmpty()) {
+			mods = appointment.getModifications();
+		}
+		List<String> required = new ArrayList<>();
+		if (mods != null && !mods.isEmpty()) {
+			for (String mod : mods) {
+				if (mod != null && !mod.isBlank()) {
+					String name = modificationCatalogService.getCatalog().find(mod.trim())
+						.map(ModificationItem::getName)
+						.orElse(mod);
+					required.add(name.trim().toLowerCase());
+				}
+			}
+		} else {
+			required.add(appointment.getServiceType() != null ? appointment.getServiceType().toLowerCase() : "service");
+		}
+		return required;
+	}
+
+	/**
+	 * Skills are free text, so they are compared word by word: "Engine" matches "engine tuning"
+	 * and the other way round, but a skill never matches part of a word
+	 */
+	private boolean hasSkill(WorkloadIndex.EmployeeEntry employee, Set<String> required) {
+		if (required.isEmpty()) {
+			return false;
+		}
+		for (String skill : employee.skills()) {
+			Set<String> skillTokens = tokens(skill);
+			if (!skillTokens.isEmpty() && (required.containsAll(skillTokens) || skillTokens.containsAll(required))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private Set<String> tokens(String text) {
+		return Arrays.stream(NON_WORD.split(text.toLowerCase()))
+			.filter(token -> token.length() >= MIN_TOKEN_LENGTH)
+			.collect(Collectors.toSet());
+	}
+}
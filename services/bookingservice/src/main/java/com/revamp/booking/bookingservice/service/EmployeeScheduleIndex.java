@@ -0,0 +1,350 @@
+package com.revamp.booking.bookingservice.service;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.revamp.booking.bookingservice.event.AppointmentChangedEvent;
+import com.revamp.booking.bookingservice.model.Appointment;
+
+/**
+ * In-memory index of when each employee is busy, used to stop double assignments.
+ *
+ * Every active appointment with assigned employees contributes one interval per employee.
+ * An employee's intervals are grouped by length into power-of-two classes and ordered by start
+ * within a class, so an overlap check only looks at intervals starting within their own class's
+ * length before the requested window. A week-long modification therefore does not widen the
+ * search for three-hour services. The index is warmed from bookings on startup, follows
+ * appointment events, and is rebuilt periodically to pick up writes made by other instances.
+ */
+@Service
+public class EmployeeScheduleIndex {
+
+	private static final LocalTime SHOP_OPEN = LocalTime.of(8, 0);
+	private static final LocalTime SHOP_CLOSE = LocalTime.of(17, 0);
+	private static final int WORK_HOURS_PER_DAY = 8;
+	// Finished jobs older than this cannot conflict with new assignments
+	private static final int WARM_LOOKBACK_DAYS = 14;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	private final Map<String, EmployeeIntervals> byEmployee = new HashMap<>();
+	private final Map<String, List<Interval>> byAppointment = new HashMap<>();
+	// Appointments changed or reserved while a warm() read is in flight; null when none is
+	private Set<String> changedDuringWarm;
+
+	/**
+	 * A span of time an employee is committed to an appointment, end exclusive
+	 */
+	public record Interval(String employeeId, String appointmentId, LocalDateTime start, LocalDateTime end) {
+		private static final Comparator<Interval> ORDER = Comparator.comparing(Interval::start)
+			.thenComparing(Interval::appointmentId);
+
+		boolean overlaps(LocalDateTime from, LocalDateTime to) {
+			return start.isBefore(to) && end.isAfter(from);
+		}
+	}
+
+	/**
+	 * Rebuild the index from the bookings collection. The read runs outside the lock; appointments
+	 * changed or reserved meanwhile keep their current entries instead of the older read.
+	 */
+	@Scheduled(initialDelay = 0, fixedDelayString = "${booking.employee-index.refresh-ms:300000}")
+	public void warm() {
+		synchronized (this) {
+			changedDuringWarm = new HashSet<>();
+		}
+		Query query = new Query(Criteria.where("assignedEmployeeIds.0").exists(true)
+			.and("date").gte(LocalDate.now().minusDays(WARM_LOOKBACK_DAYS)));
+		query.fields().include("_id", "serviceType", "date", "endDate", "time", "endTime", "timeSlotStart", "timeSlotEnd",
+			"status", "estimatedTimeHours", "assignedEmployeeIds");
+		List<Appointment> appointments;
+		try {
+			appointments = mongoTemplate.find(query, Appointment.class);
+		} catch (RuntimeException e) {
+			System.err.println("✗ Failed to warm employee schedule index: " + e.getMessage());
+			synchronized (this) {
+				changedDuringWarm = null;
+			}
+			return;
+		}
+
+		synchronized (this) {
+			Map<String, List<Interval>> kept = new HashMap<>();
+			for (String appointmentId : changedDuringWarm) {
+				List<Interval> current = byAppointment.get(appointmentId);
+				if (current != null) {
+					kept.put(appointmentId, current);
+				}
+			}
+			byEmployee.clear();
+			byAppointment.clear();
+			for (Appointment appointment : appointments) {
+				if (!changedDuringWarm.contains(appointment.getId())) {
+					index(appointment, appointment.getAssignedEmployeeIds());
+				}
+			}
+			for (Map.Entry<String, List<Interval>> entry : kept.entrySet()) {
+				for (Interval interval : entry.getValue()) {
+					byEmployee.computeIfAbsent(interval.employeeId(), id -> new EmployeeIntervals()).add(interval);
+				}
+				byAppointment.put(entry.getKey(), entry.getValue());
+			}
+			changedDuringWarm = null;
+		}
+		System.out.println("✓ Employee schedule index warmed with " + appointments.size() + " appointment(s)");
+	}
+
+	@EventListener
+	public void onAppointmentChanged(AppointmentChangedEvent event) {
+		Appointment appointment = event.getAppointment();
+		synchronized (this) {
+			markChanged(appointment.getId());
+			unindex(appointment.getId());
+			if (event.getType() != AppointmentChangedEvent.Type.CANCELLED) {
+				index(appointment, appointment.getAssignedEmployeeIds());
+			}
+		}
+	}
+
+	/**
+	 * Check whether an employee has nothing else between from and to
+	 *
+	 * @param ignoreAppointmentId appointment whose own intervals do not count, may be null
+	 */
+	public synchronized boolean isFree(String employeeId, LocalDateTime from, LocalDateTime to, String ignoreAppointmentId) {
+		return conflicts(employeeId, from, to, ignoreAppointmentId).isEmpty();
+	}
+
+	/**
+	 * Intervals of an employee that overlap the window, excluding the given appointment
+	 */
+	public synchronized List<Interval> conflicts(String employeeId, LocalDateTime from, LocalDateTime to, String ignoreAppointmentId) {
+		EmployeeIntervals intervals = byEmployee.get(employeeId);
+		List<Interval> conflicts = new ArrayList<>();
+		if (intervals == null) {
+			return conflicts;
+		}
+		for (Interval interval : intervals.startingNear(from, to)) {
+			if (interval.overlaps(from, to) && !interval.appointmentId().equals(ignoreAppointmentId)) {
+				conflicts.add(interval);
+			}
+		}
+		return conflicts;
+	}
+
+	/**
+	 * Atomically check that every employee is free for the appointment and reserve them.
+	 * Reservations are replaced by the real intervals once the assignment event arrives.
+	 *
+	 * @return conflicting intervals by employee; empty if the reservation was made
+	 */
+	public synchronized Map<String, List<Interval>> reserve(Appointment appointment, Collection<String> employeeIds) {
+		Map<String, List<Interval>> conflicts = findConflicts(appointment, employeeIds);
+		if (conflicts.isEmpty()) {
+			List<String> reserved = new ArrayList<>(employeeIds);
+			List<Interval> current = byAppointment.get(appointment.getId());
+			if (current != null) {
+				for (Interval interval : current) {
+					if (!reserved.contains(interval.employeeId())) {
+						reserved.add(interval.employeeId());
+					}
+				}
+			}
+			markChanged(appointment.getId());
+			unindex(appointment.getId());
+			index(appointment, reserved);
+		}
+		return conflicts;
+	}
+
+	/**
+	 * Undo a reservation after the assignment failed, restoring the stored assignment
+	 */
+	public synchronized void release(Appointment appointment) {
+		markChanged(appointment.getId());
+		unindex(appointment.getId());
+		index(appointment, appointment.getAssignedEmployeeIds());
+	}
+
+	/**
+	 * Conflicting intervals by employee for assigning them to an appointment
+	 */
+	public synchronized Map<String, List<Interval>> findConflicts(Appointment appointment, Collection<String> employeeIds) {
+		Map<String, List<Interval>> conflicts = new LinkedHashMap<>();
+		LocalDateTime[] window = windowOf(appointment);
+		if (window == null) {
+			return conflicts;
+		}
+		for (String employeeId : employeeIds) {
+			List<Interval> overlapping = conflicts(employeeId, window[0], window[1], appointment.getId());
+			if (!overlapping.isEmpty()) {
+				conflicts.put(employeeId, overlapping);
+			}
+		}
+		return conflicts;
+	}
+
+	/**
+	 * The time an appointment occupies its employees, or null if it cannot be placed.
+	 * Service bookings use their slot and modifications their bay placement; modifications
+	 * booked before bay placement run through the shop day for as many days as they need.
+	 */
+	public LocalDateTime[] windowOf(Appointment appointment) {
+		LocalDate date = appointment.getDate();
+		if (date == null) {
+			return null;
+		}
+		LocalTime start = appointment.getTime() != null ? appointment.getTime() : parseTime(appointment.getTimeSlotStart());
+		LocalTime end = appointment.getEndTime() != null ? appointment.getEndTime() : parseTime(appointment.getTimeSlotEnd());
+
+		boolean modification = CapacityLedgerService.usesCapacity(appointment.getServiceType());
+		if (modification && appointment.getEndDate() != null
+				&& start != null && end != null) {
+			// Placed in a bay with a real window
+			return new LocalDateTime[] { date.atTime(start), appointment.getEndDate().atTime(end) };
+		}
+		if (modification) {
+			// Older bookings without a placement: assume whole shop days
+			int hours = appointment.getEstimatedTimeHours() != null ? appointment.getEstimatedTimeHours() : WORK_HOURS_PER_DAY;
+			int days = Math.max(1, (hours + WORK_HOURS_PER_DAY - 1) / WORK_HOURS_PER_DAY);
+			LocalDate lastDay = date;
+			for (int day = 1; day < days; day++) {
+				lastDay = lastDay.plusDays(1);
+				if (lastDay.getDayOfWeek() == DayOfWeek.SUNDAY) {
+					lastDay = lastDay.plusDays(1);
+				}
+			}
+			return new LocalDateTime[] {
+				date.atTime(start != null ? start : SHOP_OPEN),
+				lastDay.atTime(SHOP_CLOSE)
+			};
+		}
+
+		if (start == null || end == null || !end.isAfter(start)) {
+			return null;
+		}
+		return new LocalDateTime[] { date.atTime(start), date.atTime(end) };
+	}
+
+	private void markChanged(String appointmentId) {
+		if (changedDuringWarm != null) {
+			changedDuringWarm.add(appointmentId);
+		}
+	}
+
+	private void index(Appointment appointment, List<String> employeeIds) {
+		if (employeeIds == null || employeeIds.isEmpty() || appointment.getStatus() != null
+				&& Appointment.INACTIVE_STATUSES.contains(appointment.getStatus())) {
+			return;
+		}
+		LocalDateTime[] window = windowOf(appointment);
+		if (window == null) {
+			return;
+		}
+		List<Interval> intervals = new ArrayList<>();
+		for (String employeeId : employeeIds) {
+			Interval interval = new Interval(employeeId, appointment.getId(), window[0], window[1]);
+			byEmployee.computeIfAbsent(employeeId, id -> new EmployeeIntervals()).add(interval);
+			intervals.add(interval);
+		}
+		byAppointment.put(appointment.getId(), intervals);
+	}
+
+	private void unindex(String appointmentId) {
+		List<Interval> intervals = byAppointment.remove(appointmentId);
+		if (intervals == null) {
+			return;
+		}
+		for (Interval interval : intervals) {
+			EmployeeIntervals employeeIntervals = byEmployee.get(interval.employeeId());
+			if (employeeIntervals != null) {
+				employeeIntervals.remove(interval);
+				if (employeeIntervals.isEmpty()) {
+					byEmployee.remove(interval.employeeId());
+				}
+			}
+		}
+	}
+
+	/**
+	 * One employee's intervals. Class k holds intervals up to 2^k minutes long, so one that
+	 * starts more than 2^k minutes before a window has ended before it.
+	 */
+	private static class EmployeeIntervals {
+		private final TreeMap<Integer, NavigableSet<Interval>> byLengthClass = new TreeMap<>();
+
+		void add(Interval interval) {
+			byLengthClass.computeIfAbsent(lengthClass(interval), k -> new TreeSet<>(Interval.ORDER)).add(interval);
+		}
+
+		void remove(Interval interval) {
+			int lengthClass = lengthClass(interval);
+			NavigableSet<Interval> intervals = byLengthClass.get(lengthClass);
+			if (intervals != null && intervals.remove(interval) && intervals.isEmpty()) {
+				byLengthClass.remove(lengthClass);
+			}
+		}
+
+		boolean isEmpty() {
+			return byLengthClass.isEmpty();
+		}
+
+		/**
+		 * Intervals that may overlap from..to: those starting before to and no further back
+		 * than their class's length
+		 */
+		List<Interval> startingNear(LocalDateTime from, LocalDateTime to) {
+			List<Interval> candidates = new ArrayList<>();
+			Interval upper = new Interval("", "", to, to);
+			for (Map.Entry<Integer, NavigableSet<Interval>> entry : byLengthClass.entrySet()) {
+				LocalDateTime earliest = from.minusMinutes(1L << entry.getKey());
+				if (!earliest.isBefore(to)) {
+					continue;
+				}
+				Interval lower = new Interval("", "", earliest, earliest);
+				candidates.addAll(entry.getValue().subSet(lower, true, upper, false));
+			}
+			return candidates;
+		}
+
+		private static int lengthClass(Interval interval) {
+			long minutes = Math.max(1, (Duration.between(interval.start(), interval.end()).toSeconds() + 59) / 60);
+			return 64 - Long.numberOfLeadingZeros(minutes - 1);
+		}
+	}
+
+	private LocalTime parseTime(String value) {
+		if (value == null || value.isBlank()) {
+			return null;
+		}
+		try {
+			return LocalTime.parse(value);
+		} catch (RuntimeException e) {
+			return null;
+		}
+	}
+}
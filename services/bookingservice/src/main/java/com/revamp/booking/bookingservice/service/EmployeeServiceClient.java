@@ -1,6 +1,13 @@
 package com.revamp.booking.bookingservice.service;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.revamp.booking.bookingservice.config.SmileConfig;
+import com.revamp.booking.dto.EmployeeRecord;
+import com.revamp.booking.dto.EmployeeTaskRequest;
+import com.revamp.booking.dto.EmployeeTaskResponse;
+import com.revamp.booking.dto.WorkloadSnapshot;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -9,21 +16,28 @@ import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
-import java.util.Map;
 
 /**
  * Client service to communicate with the Employee Service API.
  * Used to create tasks when employees are assigned to appointments.
+ *
+ * Requests are sent as Smile (binary JSON) and Smile responses are preferred;
+ * JSON responses are still understood so an older employee service keeps working.
  */
 @Service
 public class EmployeeServiceClient {
 
+    private static final String SMILE = SmileConfig.APPLICATION_SMILE.toString();
+    private static final String ACCEPT = SMILE + ", application/json;q=0.5";
+
     @Value("${employee.api.base:http://localhost:8083}")
     private String employeeServiceBaseUrl;
 
     private final HttpClient httpClient;
     private final ObjectMapper objectMapper;
+    private final ObjectMapper smileMapper;
 
     public EmployeeServiceClient() {
         this.httpClient = HttpClient.newBuilder()
@@ -32,39 +46,42 @@ public class EmployeeServiceClient {
         this.objectMapper = new ObjectMapper();
         // Configure ObjectMapper to handle Java 8 time types
         this.objectMapper.findAndRegisterModules();
+        this.objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.smileMapper = new ObjectMapper(new SmileFactory());
+        this.smileMapper.findAndRegisterModules();
+        this.smileMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
     }
 
     /**
      * Get employee by userId to retrieve the employeeId (EMP001, etc.)
-     * 
+     *
      * @param userId The user ID from auth service
-     * @return The employee record as a Map, or null if not found
+     * @return The employee record, or null if not found
      */
-    public Map<String, Object> getEmployeeByUserId(String userId) {
+    public EmployeeRecord getEmployeeByUserId(String userId) {
         try {
             String url = employeeServiceBaseUrl + "/api/employees/by-user/" + userId;
-            
+
             HttpRequest request = HttpRequest.newBuilder()
                     .uri(URI.create(url))
-                    .header("Content-Type", "application/json")
+                    .header("Accept", ACCEPT)
                     .GET()
                     .timeout(Duration.ofSeconds(10))
                     .build();
 
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
 
             if (response.statusCode() == 200) {
-                Map<String, Object> employee = objectMapper.readValue(response.body(), Map.class);
+                EmployeeRecord employee = decode(response, EmployeeRecord.class);
                 System.out.println("✓ Successfully fetched employee record for userId: " + userId);
-                System.out.println("  Employee data: " + employee);
+                System.out.println("  Employee ID: " + employee.getEmployeeId());
                 return employee;
             } else if (response.statusCode() == 404) {
                 System.err.println("✗ Employee not found for userId: " + userId + " (404 Not Found)");
-                System.err.println("  Response: " + response.body());
                 return null;
             } else {
                 System.err.println("✗ Failed to get employee by userId. Status: " + response.statusCode());
-                System.err.println("  Response: " + response.body());
+                System.err.println("  Response: " + describeBody(response));
                 return null;
             }
         } catch (IOException | InterruptedException e) {
@@ -76,41 +93,34 @@ public class EmployeeServiceClient {
 
     /**
      * Create a task in the employee service for an assigned employee.
-     * 
-     * @param taskData Map containing task data to be sent to employee service
-     * @return The created task as a Map, or null if creation failed
+     *
+     * @param taskRequest Task data to be sent to employee service
+     * @return The created task, or null if creation failed
      */
-    public Map<String, Object> createTask(Map<String, Object> taskData) {
+    public EmployeeTaskResponse createTask(EmployeeTaskRequest taskRequest) {
         try {
             String url = employeeServiceBaseUrl + "/api/tasks";
-            String jsonBody = objectMapper.writeValueAsString(taskData);
+            byte[] body = smileMapper.writeValueAsBytes(taskRequest);
 
             HttpRequest request = HttpRequest.newBuilder()
                     .uri(URI.create(url))
-                    .header("Content-Type", "application/json")
-                    .POST(HttpRequest.BodyPublishers.ofString(jsonBody))
+                    .header("Content-Type", SMILE)
+                    .header("Accept", ACCEPT)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(body))
                     .timeout(Duration.ofSeconds(10))
                     .build();
 
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
 
             if (response.statusCode() == 200 || response.statusCode() == 201) {
-                Map<String, Object> createdTask = objectMapper.readValue(response.body(), Map.class);
+                EmployeeTaskResponse createdTask = decode(response, EmployeeTaskResponse.class);
                 System.out.println("✓ Task created successfully in employee service");
-                System.out.println("  Task ID: " + createdTask.get("id"));
-                System.out.println("  Employee ID: " + createdTask.get("assignedEmployeeId"));
+                System.out.println("  Task ID: " + createdTask.getId());
+                System.out.println("  Employee ID: " + createdTask.getAssignedEmployeeId());
                 return createdTask;
             } else {
                 System.err.println("✗ Failed to create task in employee service. Status: " + response.statusCode());
-                System.err.println("  Response: " + response.body());
-                // Try to parse error response
-                try {
-                    Map<String, Object> errorData = objectMapper.readValue(response.body(), Map.class);
-                    System.err.println("  Error message: " + errorData.get("message"));
-                    System.err.println("  Error type: " + errorData.get("error"));
-                } catch (Exception e) {
-                    System.err.println("  Could not parse error response");
-                }
+                System.err.println("  Response: " + describeBody(response));
                 return null;
             }
         } catch (IOException | InterruptedException e) {
@@ -119,5 +129,57 @@ public class EmployeeServiceClient {
             return null;
         }
     }
-}
 
+    /**
+     * Fetch every employee and open task for the workload index.
+     *
+     * @return The snapshot, or null if the employee service could not be reached
+     */
+    public WorkloadSnapshot getWorkloadSnapshot() {
+        try {
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(employeeServiceBaseUrl + "/api/employees/workload-snapshot"))
+                    .header("Accept", ACCEPT)
+                    .GET()
+                    .timeout(Duration.ofSeconds(30))
+                    .build();
+
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() == 200) {
+                return decode(response, WorkloadSnapshot.class);
+            }
+            System.err.println("✗ Failed to fetch workload snapshot. Status: " + response.statusCode());
+            return null;
+        } catch (IOException | InterruptedException e) {
+            System.err.println("Error calling employee service for workload snapshot: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Decode a response body with the mapper matching its Content-Type.
+     */
+    private <T> T decode(HttpResponse<byte[]> response, Class<T> type) throws IOException {
+        return mapperFor(response).readValue(response.body(), type);
+    }
+
+    private ObjectMapper mapperFor(HttpResponse<byte[]> response) {
+        String contentType = response.headers().firstValue("Content-Type").orElse("");
+        return contentType.startsWith(SMILE) ? smileMapper : objectMapper;
+    }
+
+    /**
+     * Readable form of an error body for logging (Smile bodies are converted back to JSON text).
+     */
+    private String describeBody(HttpResponse<byte[]> response) {
+        try {
+            ObjectMapper mapper = mapperFor(response);
+            if (mapper == smileMapper) {
+                return objectMapper.writeValueAsString(smileMapper.readTree(response.body()));
+            }
+        } catch (IOException e) {
+            return "<unreadable body>";
+        }
+        return new String(response.body(), StandardCharsets.UTF_8);
+    }
+}
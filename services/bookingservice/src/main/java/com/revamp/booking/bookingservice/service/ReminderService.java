@@ -0,0 +1,239 @@
+package com.revamp.booking.bookingservice.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.revamp.booking.bookingservice.event.AppointmentChangedEvent;
+import com.revamp.booking.bookingservice.model.Appointment;
+import com.revamp.booking.bookingservice.model.CustomerNotification;
+import com.revamp.booking.util.TimingWheel;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Sends appointment reminders at booking.reminders.offsets-hours before each appointment.
+ *
+ * Upcoming appointments live in an in-memory timing wheel (minute, hour and day levels, eight
+ * days ahead), so firing never scans bookings. The wheel is filled from one date range query at
+ * startup and hourly as days come into reach, and kept current by appointment events. Due
+ * reminders are checked against the appointments with one query and written as one batch of
+ * notifications whose ids are derived from the appointment and its start time, so a reminder is
+ * stored once even when several instances or a restart fire it again.
+ */
+@Service
+public class ReminderService {
+
+	private static final long TICK_MS = 60_000;
+	private static final int[] WHEEL_SIZES = { 60, 24, 8 }; // Minutes, hours, days
+	private static final int LOAD_DAYS = 7;
+	private static final LocalTime DEFAULT_START = LocalTime.of(8, 0);
+
+	@Value("${booking.reminders.offsets-hours:24,2}")
+	private int[] offsetsHours;
+
+	// Reminders missed by at most this much (e.g. during a restart) are still sent
+	@Value("${booking.reminders.grace-minutes:30}")
+	private long graceMinutes;
+
+	@Value("${booking.notifications.ttl-days:30}")
+	private long notificationTtlDays;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	public record Reminder(String key, String appointmentId, String customerId, String serviceType,
+			LocalDateTime start, int offsetHours) {
+	}
+
+	private final TimingWheel<Reminder> wheel = new TimingWheel<>(TICK_MS, WHEEL_SIZES, System.currentTimeMillis());
+	private final Map<String, List<String>> keysByAppointment = new ConcurrentHashMap<>();
+
+	@PostConstruct
+	public void init() {
+		try {
+			load();
+		} catch (RuntimeException e) {
+			// The hourly load retries
+			System.err.println("✗ Failed to load appointment reminders: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Put every active appointment of the coming days into the wheel; already known ones are replaced
+	 */
+	@Scheduled(fixedDelayString = "${booking.reminders.load-ms:3600000}", initialDelayString = "${booking.reminders.load-ms:3600000}")
+	public void load() {
+		LocalDate today = LocalDate.now();
+		Query query = new Query(Criteria.where("date").gte(today).lte(today.plusDays(LOAD_DAYS))
+			.and("status").nin(Appointment.INACTIVE_STATUSES));
+		List<Appointment> appointments = mongoTemplate.find(query, Appointment.class);
+		for (Appointment appointment : appointments) {
+			schedule(appointment);
+		}
+		System.out.println("✓ Reminder wheel holds " + wheel.size() + " reminder(s) for " + appointments.size() + " appointment(s)");
+	}
+
+	@EventListener
+	public void onAppointmentChanged(AppointmentChangedEvent event) {
+		Appointment appointment = event.getAppointment();
+		if (event.getType() == AppointmentChangedEvent.Type.CANCELLED) {
+			unschedule(appointment.getId());
+		} else {
+			schedule(appointment);
+		}
+	}
+
+	/**
+	 * Advance the wheel and store the reminders that came due
+	 */
+	@Scheduled(fixedDelayString = "${booking.reminders.tick-ms:30000}")
+	public void fire() {
+		List<Reminder> due = wheel.advance(System.currentTimeMillis());
+		if (due.isEmpty()) {
+			return;
+		}
+		forget(due);
+		try {
+			send(due);
+		} catch (RuntimeException e) {
+			System.err.println("✗ Failed to send " + due.size() + " reminder(s): " + e.getMessage());
+		}
+	}
+
+	private synchronized void schedule(Appointment appointment) {
+		unschedule(appointment.getId());
+		LocalDateTime start = startOf(appointment);
+		if (start == null || appointment.getCustomerId() == null || !isRemindable(appointment)) {
+			return;
+		}
+		LocalDateTime now = LocalDateTime.now();
+		List<String> keys = new ArrayList<>();
+		for (int offset : offsetsHours) {
+			LocalDateTime deadline = start.minusHours(offset);
+			if (!start.isAfter(now) || deadline.isBefore(now.minusMinutes(graceMinutes))) {
+				continue;
+			}
+			String key = appointment.getId() + ":" + start + ":" + offset + "h";
+			Reminder reminder = new Reminder(key, appointment.getId(), appointment.getCustomerId(),
+				appointment.getServiceType(), start, offset);
+			if (wheel.schedule(key, deadline.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), reminder)) {
+				keys.add(key);
+			}
+			// Beyond the wheel's reach: a later load picks it up
+		}
+		if (!keys.isEmpty()) {
+			keysByAppointment.put(appointment.getId(), keys);
+		}
+	}
+
+	/**
+	 * Finished appointments and ones on a closed day waiting for a new date get no reminders
+	 */
+	private boolean isRemindable(Appointment appointment) {
+		return !Appointment.INACTIVE_STATUSES.contains(appointment.getStatus())
+			&& !Boolean.TRUE.equals(appointment.getRescheduleRequired());
+	}
+
+	private synchronized void unschedule(String appointmentId) {
+		List<String> keys = keysByAppointment.remove(appointmentId);
+		if (keys != null) {
+			keys.forEach(wheel::cancel);
+		}
+	}
+
+	private synchronized void forget(List<Reminder> fired) {
+		for (Reminder reminder : fired) {
+			keysByAppointment.computeIfPresent(reminder.appointmentId(), (id, keys) -> {
+				List<String> remaining = new ArrayList<>(keys);
+				remaining.remove(reminder.key());
+				return remaining.isEmpty() ? null : remaining;
+			});
+		}
+	}
+
+	private void send(List<Reminder> due) {
+		// Another instance may have cancelled or moved the appointment without us hearing of it
+		Map<String, Appointment> current = new HashMap<>();
+		Query query = new Query(Criteria.where("_id").in(due.stream().map(Reminder::appointmentId).distinct().toList()));
+		for (Appointment appointment : mongoTemplate.find(query, Appointment.class)) {
+			current.put(appointment.getId(), appointment);
+		}
+
+		LocalDateTime now = LocalDateTime.now();
+		List<CustomerNotification> notifications = new ArrayList<>();
+		for (Reminder reminder : due) {
+			Appointment appointment = current.get(reminder.appointmentId());
+			if (appointment == null || !isRemindable(appointment)
+					|| !reminder.start().equals(startOf(appointment)) || !reminder.start().isAfter(now)) {
+				continue;
+			}
+			CustomerNotification notification = new CustomerNotification();
+			notification.setId("reminder:" + reminder.key());
+			notification.setCustomerId(reminder.customerId());
+			notification.setType("appointment-reminder");
+			notification.setTitle("Upcoming appointment");
+			notification.setMessage("Reminder: your " + reminder.serviceType() + " appointment is on "
+				+ reminder.start().toLocalDate() + " at " + reminder.start().toLocalTime() + ".");
+			notification.setAppointmentId(reminder.appointmentId());
+			notification.setSlotId(appointment.getTimeSlotId());
+			notification.setDate(reminder.start().toLocalDate());
+			notification.setCreatedAt(now);
+			notification.setExpiresAt(now.plusDays(notificationTtlDays));
+			notifications.add(notification);
+		}
+		if (notifications.isEmpty()) {
+			return;
+		}
+
+		int inserted;
+		try {
+			inserted = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CustomerNotification.class)
+				.insert(notifications)
+				.execute()
+				.getInsertedCount();
+		} catch (BulkOperationException e) {
+			// Duplicate ids are reminders that were already stored
+			for (BulkWriteError error : e.getErrors()) {
+				if (error.getCode() != 11000) {
+					System.err.println("✗ Failed to store reminder: " + error.getMessage());
+				}
+			}
+			inserted = e.getResult().getInsertedCount();
+		}
+		System.out.println("✓ Sent " + inserted + " appointment reminder(s)");
+	}
+
+	private LocalDateTime startOf(Appointment appointment) {
+		if (appointment.getDate() == null) {
+			return null;
+		}
+		LocalTime time = appointment.getTime();
+		if (time == null && appointment.getTimeSlotStart() != null) {
+			try {
+				time = LocalTime.parse(appointment.getTimeSlotStart());
+			} catch (RuntimeException e) {
+				time = null;
+			}
+		}
+		return appointment.getDate().atTime(time != null ? time : DEFAULT_START);
+	}
+}
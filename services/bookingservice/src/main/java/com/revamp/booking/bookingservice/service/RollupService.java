@@ -0,0 +1,299 @@
+package com.revamp.booking.bookingservice.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.revamp.booking.bookingservice.event.AppointmentChangedEvent;
+import com.revamp.booking.bookingservice.model.Appointment;
+import com.revamp.booking.bookingservice.model.DailyRollup;
+import com.revamp.booking.bookingservice.model.UnavailableDate;
+import com.revamp.booking.model.ModificationItem;
+import com.revamp.booking.service.ModificationCatalogService;
+
+/**
+ * Maintains the daily_rollups collection behind the utilization and revenue reports.
+ *
+ * Creates and cancellations apply a single upsert with $inc to the affected day, so the write
+ * path never aggregates. backfill() rebuilds any range with aggregation pipelines over bookings
+ * and bookings_archive; it runs nightly over recent days as a safety net and can be triggered
+ * by hand for history that predates the rollups.
+ */
+@Service
+public class RollupService {
+
+	private static final int SLOTS_PER_DAY = 3;
+	private static final int MAX_REPORT_DAYS = 366;
+
+	@Value("${booking.rollups.reconcile-past-days:7}")
+	private int reconcilePastDays;
+
+	@Value("${booking.rollups.reconcile-future-days:90}")
+	private int reconcileFutureDays;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private ModificationCatalogService modificationCatalogService;
+
+	@EventListener
+	public void onAppointmentChanged(AppointmentChangedEvent event) {
+		Appointment appointment = event.getAppointment();
+		try {
+			if (event.getType() == AppointmentChangedEvent.Type.CREATED) {
+				apply(appointment.getDate(), appointment, 1);
+			} else if (event.getType() == AppointmentChangedEvent.Type.CANCELLED) {
+				apply(appointment.getDate(), appointment, -1);
+			} else if (event.getPreviousDate() != null && appointment.getDate() != null
+					&& !event.getPreviousDate().equals(appointment.getDate())) {
+				apply(event.getPreviousDate(), appointment, -1);
+				apply(appointment.getDate(), appointment, 1);
+			}
+		} catch (RuntimeException e) {
+			// The write itself succeeded; the nightly backfill corrects the day
+			System.err.println("✗ Failed to roll up appointment " + appointment.getId() + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Add (sign 1) or remove (sign -1) one appointment's contribution to a day
+	 */
+	private void apply(LocalDate date, Appointment appointment, int sign) {
+		if (date == null) {
+			return;
+		}
+		boolean modification = "Modification".equals(appointment.getServiceType());
+		Update update = new Update()
+			.inc("appointments", sign)
+			.inc(modification ? "modifications" : "services", sign)
+			.set("updatedAt", LocalDateTime.now())
+			.setOnInsert("date", date);
+		if (appointment.getEstimatedCost() != null) {
+			update.inc("revenue", sign * appointment.getEstimatedCost());
+		}
+		if (modification) {
+			if (appointment.getEstimatedTimeHours() != null) {
+				update.inc("modificationHours", sign * appointment.getEstimatedTimeHours());
+			}
+			if (appointment.getNeededModifications() != null) {
+				for (String name : appointment.getNeededModifications()) {
+					update.inc("modificationMix." + mixKey(name), sign);
+				}
+			}
+		}
+
+		Query query = new Query(Criteria.where("_id").is(date.toString()));
+		if (sign > 0) {
+			mongoTemplate.upsert(query, update, DailyRollup.class);
+		} else {
+			// Never create a negative day; an appointment older than the rollups is fixed by backfill
+			mongoTemplate.updateFirst(query, update, DailyRollup.class);
+		}
+	}
+
+	@Scheduled(cron = "${booking.rollups.reconcile-cron:0 45 3 * * *}")
+	public void reconcile() {
+		LocalDate today = LocalDate.now();
+		try {
+			backfill(today.minusDays(reconcilePastDays), today.plusDays(reconcileFutureDays));
+		} catch (RuntimeException e) {
+			System.err.println("✗ Rollup reconciliation failed: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Rebuild the rollups for a date range (inclusive) from bookings and the archive.
+	 * Increments that land while a day is being replaced can be lost; run it off-peak.
+	 *
+	 * @return number of days that have appointments
+	 */
+	public int backfill(LocalDate startDate, LocalDate endDate) {
+		if (endDate.isBefore(startDate)) {
+			throw new RuntimeException("End date must not be before start date");
+		}
+		System.out.println("Backfilling daily rollups from " + startDate + " to " + endDate);
+
+		Map<LocalDate, DailyRollup> days = new TreeMap<>();
+		for (String collection : List.of(AppointmentArchiveService.HOT_COLLECTION, AppointmentArchiveService.ARCHIVE_COLLECTION)) {
+			aggregateTotals(collection, startDate, endDate, days);
+			aggregateMix(collection, startDate, endDate, days);
+		}
+
+		LocalDateTime now = LocalDateTime.now();
+		for (DailyRollup day : days.values()) {
+			day.setUpdatedAt(now);
+			mongoTemplate.findAndReplace(new Query(Criteria.where("_id").is(day.getId())), day,
+				FindAndReplaceOptions.options().upsert());
+		}
+		// Days that no longer have appointments
+		Query stale = new Query(Criteria.where("date").gte(startDate).lte(endDate)
+			.and("_id").nin(days.keySet().stream().map(LocalDate::toString).toList()));
+		mongoTemplate.remove(stale, DailyRollup.class);
+
+		System.out.println("✓ Backfilled " + days.size() + " days of rollups");
+		return days.size();
+	}
+
+	private void aggregateTotals(String collection, LocalDate startDate, LocalDate endDate,
+			Map<LocalDate, DailyRollup> days) {
+		TypedAggregation<Appointment> aggregation = Aggregation.newAggregation(Appointment.class,
+			Aggregation.match(Criteria.where("date").gte(startDate).lte(endDate)),
+			Aggregation.group("date")
+				.count().as("appointments")
+				.sum(ConditionalOperators.when(ComparisonOperators.Eq.valueOf("serviceType").equalToValue("Modification"))
+					.then(0).otherwise(1)).as("services")
+				.sum(ConditionalOperators.when(ComparisonOperators.Eq.valueOf("serviceType").equalToValue("Modification"))
+					.then(1).otherwise(0)).as("modifications")
+				.sum(ConditionalOperators.when(ComparisonOperators.Eq.valueOf("serviceType").equalToValue("Modification"))
+					.thenValueOf(ConditionalOperators.ifNull("estimatedTimeHours").then(0)).otherwise(0)).as("modificationHours")
+				.sum(ConditionalOperators.ifNull("estimatedCost").then(0)).as("revenue"));
+
+		for (Document row : mongoTemplate.aggregate(aggregation, collection, Document.class)) {
+			DailyRollup day = days.computeIfAbsent(toLocalDate(row.get("_id")), DailyRollup::new);
+			day.setAppointments(day.getAppointments() + ((Number) row.get("appointments")).intValue());
+			day.setServices(day.getServices() + ((Number) row.get("services")).intValue());
+			day.setModifications(day.getModifications() + ((Number) row.get("modifications")).intValue());
+			day.setModificationHours(day.getModificationHours() + ((Number) row.get("modificationHours")).intValue());
+			day.setRevenue(day.getRevenue() + ((Number) row.get("revenue")).doubleValue());
+		}
+	}
+
+	private void aggregateMix(String collection, LocalDate startDate, LocalDate endDate,
+			Map<LocalDate, DailyRollup> days) {
+		TypedAggregation<Appointment> aggregation = Aggregation.newAggregation(Appointment.class,
+			Aggregation.match(Criteria.where("date").gte(startDate).lte(endDate).and("serviceType").is("Modification")),
+			Aggregation.unwind("neededModifications"),
+			Aggregation.group("date", "neededModifications").count().as("count"));
+
+		for (Document row : mongoTemplate.aggregate(aggregation, collection, Document.class)) {
+			Document id = (Document) row.get("_id");
+			DailyRollup day = days.computeIfAbsent(toLocalDate(id.get("date")), DailyRollup::new);
+			day.getModificationMix().merge(mixKey(id.getString("neededModifications")),
+				((Number) row.get("count")).intValue(), Integer::sum);
+		}
+	}
+
+	/**
+	 * One row per day in the range, with slot utilization against the shop's open slots
+	 */
+	public List<Map<String, Object>> getDailyReport(LocalDate startDate, LocalDate endDate) {
+		checkRange(startDate, endDate);
+		Map<LocalDate, DailyRollup> rollups = new HashMap<>();
+		Query query = new Query(Criteria.where("date").gte(startDate).lte(endDate));
+		for (DailyRollup rollup : mongoTemplate.find(query, DailyRollup.class)) {
+			rollups.put(rollup.getDate(), rollup);
+		}
+		Set<LocalDate> closed = new HashSet<>();
+		for (UnavailableDate closure : mongoTemplate.find(query, UnavailableDate.class)) {
+			closed.add(closure.getDate());
+		}
+
+		List<Map<String, Object>> rows = new ArrayList<>();
+		for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+			DailyRollup day = rollups.getOrDefault(date, new DailyRollup(date));
+			int slotCapacity = date.getDayOfWeek() == DayOfWeek.SUNDAY || closed.contains(date) ? 0 : SLOTS_PER_DAY;
+			Map<String, Object> row = new LinkedHashMap<>();
+			row.put("date", date.toString());
+			putTotals(row, day.getAppointments(), day.getServices(), day.getModifications(),
+				day.getModificationHours(), day.getRevenue(), slotCapacity, day.getModificationMix());
+			rows.add(row);
+		}
+		return rows;
+	}
+
+	/**
+	 * Daily rows summed per week, weeks starting on Monday
+	 */
+	public List<Map<String, Object>> getWeeklyReport(LocalDate startDate, LocalDate endDate) {
+		LocalDate weekStart = startDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+		LocalDate weekEnd = endDate.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
+		List<Map<String, Object>> days = getDailyReport(weekStart, weekEnd);
+
+		List<Map<String, Object>> weeks = new ArrayList<>();
+		for (int i = 0; i < days.size(); i += 7) {
+			int appointments = 0, services = 0, modifications = 0, modificationHours = 0, slotCapacity = 0;
+			double revenue = 0;
+			Map<String, Integer> mix = new HashMap<>();
+			for (Map<String, Object> day : days.subList(i, Math.min(i + 7, days.size()))) {
+				appointments += (int) day.get("appointments");
+				services += (int) day.get("services");
+				modifications += (int) day.get("modifications");
+				modificationHours += (int) day.get("modificationHours");
+				slotCapacity += (int) day.get("slotCapacity");
+				revenue += (double) day.get("revenue");
+				@SuppressWarnings("unchecked")
+				Map<String, Integer> dayMix = (Map<String, Integer>) day.get("modificationMix");
+				dayMix.forEach((name, count) -> mix.merge(name, count, Integer::sum));
+			}
+			Map<String, Object> row = new LinkedHashMap<>();
+			row.put("weekStart", days.get(i).get("date"));
+			putTotals(row, appointments, services, modifications, modificationHours, revenue, slotCapacity, mix);
+			weeks.add(row);
+		}
+		return weeks;
+	}
+
+	private void putTotals(Map<String, Object> row, int appointments, int services, int modifications,
+			int modificationHours, double revenue, int slotCapacity, Map<String, Integer> mix) {
+		row.put("appointments", appointments);
+		row.put("services", services);
+		row.put("modifications", modifications);
+		row.put("modificationHours", modificationHours);
+		row.put("revenue", revenue);
+		row.put("slotCapacity", slotCapacity);
+		// Every Service appointment holds one slot
+		row.put("slotUtilization", slotCapacity == 0 ? 0.0 : (double) services / slotCapacity);
+		row.put("modificationMix", mix);
+	}
+
+	private LocalDate toLocalDate(Object value) {
+		return mongoTemplate.getConverter().getConversionService().convert(value, LocalDate.class);
+	}
+
+	/**
+	 * Modification names become field names; dots and a leading $ are not allowed there.
+	 * Bookings may store catalog ids, which are counted under the item's name.
+	 */
+	private String mixKey(String idOrName) {
+		String name = idOrName == null ? null : modificationCatalogService.getCatalog().find(idOrName)
+			.map(ModificationItem::getName)
+			.orElse(idOrName);
+		String key = name == null ? "unknown" : name.replace('.', '_');
+		return key.startsWith("$") ? "_" + key.substring(1) : key;
+	}
+
+	private void checkRange(LocalDate startDate, LocalDate endDate) {
+		if (endDate.isBefore(startDate)) {
+			throw new RuntimeException("End date must not be before start date");
+		}
+		if (startDate.plusDays(MAX_REPORT_DAYS).isBefore(endDate)) {
+			throw new RuntimeException("Date range is limited to " + MAX_REPORT_DAYS + " days");
+		}
+	}
+}
@@ -0,0 +1,197 @@
+package com.revamp.booking.bookingservice.service;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.revamp.booking.bookingservice.event.SlotAvailabilityUpdate;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * In-process fan-out of slot availability changes to SSE subscribers.
+ *
+ * Every subscriber has its own bounded buffer drained by a small shared sender pool, so a slow
+ * client never blocks the booking write path or other clients. When a buffer is full the oldest
+ * update is dropped and the client receives a "resync" event telling it to refetch the range.
+ */
+@Service
+public class SlotAvailabilityBroadcaster {
+
+	private static final Object HEARTBEAT = new Object();
+	private static final int MAX_RANGE_DAYS = 62;
+
+	@Value("${booking.sse.buffer-size:32}")
+	private int bufferSize;
+
+	@Value("${booking.sse.timeout-ms:1800000}")
+	private long timeoutMs;
+
+	@Value("${booking.sse.max-subscribers:2000}")
+	private int maxSubscribers;
+
+	private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+	private final ExecutorService sender;
+
+	public SlotAvailabilityBroadcaster() {
+		AtomicInteger threadCount = new AtomicInteger();
+		this.sender = Executors.newFixedThreadPool(4, runnable -> {
+			Thread thread = new Thread(runnable, "slot-sse-sender-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Subscribe to availability changes for a date range (inclusive)
+	 */
+	public SseEmitter subscribe(LocalDate startDate, LocalDate endDate) {
+		if (endDate.isBefore(startDate)) {
+			throw new RuntimeException("End date must not be before start date");
+		}
+		if (startDate.plusDays(MAX_RANGE_DAYS).isBefore(endDate)) {
+			throw new RuntimeException("Date range is limited to " + MAX_RANGE_DAYS + " days");
+		}
+		if (subscribers.size() >= maxSubscribers) {
+			throw new RuntimeException("Too many availability subscribers, please retry later");
+		}
+
+		SseEmitter emitter = new SseEmitter(timeoutMs);
+		Subscriber subscriber = new Subscriber(emitter, startDate, endDate);
+		emitter.onCompletion(subscriber::close);
+		emitter.onTimeout(subscriber::close);
+		emitter.onError(error -> subscriber.close());
+		subscribers.add(subscriber);
+
+		try {
+			emitter.send(SseEmitter.event().name("subscribed")
+				.data("{\"startDate\":\"" + startDate + "\",\"endDate\":\"" + endDate + "\"}", MediaType.APPLICATION_JSON));
+		} catch (IOException e) {
+			subscriber.close();
+		}
+		return emitter;
+	}
+
+	/**
+	 * Queue an update for every subscriber whose range covers its date
+	 */
+	public void deliver(SlotAvailabilityUpdate update) {
+		if (update.getDate() == null) {
+			return;
+		}
+		for (Subscriber subscriber : subscribers) {
+			if (subscriber.covers(update.getDate())) {
+				subscriber.offer(update);
+			}
+		}
+	}
+
+	public int getSubscriberCount() {
+		return subscribers.size();
+	}
+
+	/**
+	 * Keep idle connections open through proxies and detect dead clients
+	 */
+	@Scheduled(fixedDelayString = "${booking.sse.heartbeat-ms:25000}")
+	public void heartbeat() {
+		for (Subscriber subscriber : subscribers) {
+			subscriber.offer(HEARTBEAT);
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		for (Subscriber subscriber : subscribers) {
+			subscriber.emitter.complete();
+		}
+		sender.shutdownNow();
+	}
+
+	private class Subscriber {
+		private final SseEmitter emitter;
+		private final LocalDate startDate;
+		private final LocalDate endDate;
+		private final ArrayDeque<Object> buffer = new ArrayDeque<>();
+		private final AtomicBoolean draining = new AtomicBoolean(false);
+		private boolean overflowed; // Guarded by buffer
+		private volatile boolean closed;
+
+		Subscriber(SseEmitter emitter, LocalDate startDate, LocalDate endDate) {
+			this.emitter = emitter;
+			this.startDate = startDate;
+			this.endDate = endDate;
+		}
+
+		boolean covers(LocalDate date) {
+			return !date.isBefore(startDate) && !date.isAfter(endDate);
+		}
+
+		void offer(Object item) {
+			if (closed) {
+				return;
+			}
+			synchronized (buffer) {
+				if (buffer.size() >= bufferSize) {
+					buffer.pollFirst(); // Drop oldest
+					overflowed = true;
+				}
+				buffer.addLast(item);
+			}
+			if (draining.compareAndSet(false, true)) {
+				sender.execute(this::drain);
+			}
+		}
+
+		private void drain() {
+			while (!closed) {
+				Object item;
+				boolean resync;
+				synchronized (buffer) {
+					item = buffer.pollFirst();
+					if (item == null) {
+						draining.set(false);
+						return;
+					}
+					resync = overflowed;
+					overflowed = false;
+				}
+				try {
+					if (resync) {
+						emitter.send(SseEmitter.event().name("resync").data("{}", MediaType.APPLICATION_JSON));
+					}
+					if (item == HEARTBEAT) {
+						emitter.send(SseEmitter.event().comment("keepalive"));
+					} else {
+						SlotAvailabilityUpdate update = (SlotAvailabilityUpdate) item;
+						emitter.send(SseEmitter.event().name(update.getType()).data(update, MediaType.APPLICATION_JSON));
+					}
+				} catch (IOException | IllegalStateException e) {
+					close();
+					emitter.completeWithError(e);
+				}
+			}
+			draining.set(false);
+		}
+
+		void close() {
+			closed = true;
+			subscribers.remove(this);
+			synchronized (buffer) {
+				buffer.clear();
+			}
+		}
+	}
+}
@@ -0,0 +1,140 @@
+package com.revamp.booking.bookingservice.service;
+
+import java.util.Date;
+import java.util.UUID;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import com.mongodb.CursorType;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import com.revamp.booking.bookingservice.event.SlotAvailabilityUpdate;
+import com.revamp.booking.bookingservice.event.SlotChangedEvent;
+import com.revamp.booking.bookingservice.event.UnavailableDateChangedEvent;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Turns slot and unavailable-date writes into availability updates for SSE subscribers.
+ *
+ * Updates are delivered to local subscribers immediately. With booking.sse.relay.enabled=true
+ * they are also appended to a capped collection that every replica tails, so subscribers
+ * connected to other instances see the change as well.
+ */
+@Service
+public class SlotAvailabilityRelay {
+
+	private static final String COLLECTION = "slot_availability_events";
+
+	@Value("${booking.sse.relay.enabled:false}")
+	private boolean relayEnabled;
+
+	@Value("${booking.sse.relay.capped-size-bytes:1048576}")
+	private long cappedSizeBytes;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private SlotAvailabilityBroadcaster broadcaster;
+
+	private final String instanceId = UUID.randomUUID().toString();
+	private volatile boolean running;
+	private Thread tailer;
+
+	@PostConstruct
+	public void start() {
+		if (!relayEnabled) {
+			return;
+		}
+		try {
+			if (!mongoTemplate.collectionExists(COLLECTION)) {
+				mongoTemplate.createCollection(COLLECTION, CollectionOptions.empty().capped().size(cappedSizeBytes));
+			}
+		} catch (RuntimeException e) {
+			// Another instance created it first
+			System.out.println("Capped collection " + COLLECTION + " already exists: " + e.getMessage());
+		}
+		running = true;
+		tailer = new Thread(this::tail, "slot-availability-relay");
+		tailer.setDaemon(true);
+		tailer.start();
+		System.out.println("✓ Slot availability relay started (instance " + instanceId + ")");
+	}
+
+	@PreDestroy
+	public void stop() {
+		running = false;
+		if (tailer != null) {
+			tailer.interrupt();
+		}
+	}
+
+	@EventListener
+	public void onSlotChanged(SlotChangedEvent event) {
+		publish(SlotAvailabilityUpdate.forSlot(event, instanceId));
+	}
+
+	@EventListener
+	public void onUnavailableDateChanged(UnavailableDateChangedEvent event) {
+		publish(SlotAvailabilityUpdate.forDate(event, instanceId));
+	}
+
+	private void publish(SlotAvailabilityUpdate update) {
+		broadcaster.deliver(update);
+		if (!relayEnabled) {
+			return;
+		}
+		try {
+			Document document = new Document();
+			mongoTemplate.getConverter().write(update, document);
+			document.put("ts", new Date());
+			mongoTemplate.getCollection(COLLECTION).insertOne(document);
+		} catch (RuntimeException e) {
+			// Local subscribers already have the update; remote ones will resync on reconnect
+			System.err.println("✗ Failed to relay slot availability update: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Tail the capped collection and deliver updates produced by other instances.
+	 * Resumes from the last seen timestamp; a few duplicates after a reconnect are harmless
+	 * because updates carry absolute state.
+	 */
+	private void tail() {
+		Date since = new Date();
+		while (running) {
+			try (MongoCursor<Document> cursor = mongoTemplate.getCollection(COLLECTION)
+					.find(Filters.gte("ts", since))
+					.cursorType(CursorType.TailableAwait)
+					.iterator()) {
+				while (running && cursor.hasNext()) {
+					Document document = cursor.next();
+					since = document.getDate("ts");
+					if (instanceId.equals(document.getString("origin"))) {
+						continue;
+					}
+					broadcaster.deliver(mongoTemplate.getConverter().read(SlotAvailabilityUpdate.class, document));
+				}
+			} catch (RuntimeException e) {
+				if (running) {
+					System.err.println("✗ Slot availability relay cursor failed: " + e.getMessage());
+				}
+			}
+			// Tailable cursors die on an empty collection or after errors; back off before reopening
+			try {
+				Thread.sleep(1000);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+}
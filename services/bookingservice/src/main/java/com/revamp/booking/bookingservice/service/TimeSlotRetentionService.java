@@ -0,0 +1,66 @@
+package com.revamp.booking.bookingservice.service;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.revamp.booking.bookingservice.model.TimeSlot;
+
+/**
+ * Keeps the timeslots collection down to the slots that still matter.
+ *
+ * Slots are created three per open day and nothing used to remove them. Past slots that were
+ * never booked carry no information and are deleted once they are older than
+ * booking.slots.retention-days; booked ones stay as the record of what happened on that day.
+ */
+@Service
+public class TimeSlotRetentionService {
+
+	@Value("${booking.slots.retention-days:7}")
+	private int retentionDays;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private ChangeCounterService changeCounterService;
+
+	@Scheduled(cron = "${booking.slots.prune-cron:0 15 3 * * *}")
+	public void scheduledPrune() {
+		try {
+			prune();
+		} catch (RuntimeException e) {
+			System.err.println("✗ Time slot pruning failed: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Delete past slots that were never booked and are not held for anyone.
+	 * Slots are booked without an appointmentId, so availability is what marks them booked.
+	 */
+	public Map<String, Object> prune() {
+		LocalDate cutoff = LocalDate.now().minusDays(retentionDays);
+		Query query = new Query(Criteria.where("date").lt(cutoff)
+			.and("isAvailable").is(true)
+			.and("appointmentId").is(null)
+			.and("heldFor").is(null));
+		long deleted = mongoTemplate.remove(query, TimeSlot.class).getDeletedCount();
+		if (deleted > 0) {
+			changeCounterService.increment(ChangeCounterService.TIMESLOTS);
+			System.out.println("✓ Pruned " + deleted + " unbooked time slots before " + cutoff);
+		}
+
+		Map<String, Object> summary = new LinkedHashMap<>();
+		summary.put("cutoff", cutoff.toString());
+		summary.put("deleted", deleted);
+		return summary;
+	}
+}
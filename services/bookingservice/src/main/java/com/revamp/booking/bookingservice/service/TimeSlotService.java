@@ -2,21 +2,36 @@ package com.revamp.booking.bookingservice.service;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import com.revamp.booking.bookingservice.event.AppointmentChangedEvent;
+import com.revamp.booking.bookingservice.event.SlotChangedEvent;
+import com.revamp.booking.bookingservice.event.UnavailableDateChangedEvent;
+import com.revamp.booking.bookingservice.model.Appointment;
+import com.revamp.booking.bookingservice.model.DailyCapacity;
 import com.revamp.booking.bookingservice.model.TimeSlot;
-import com.revamp.booking.bookingservice.model.UnavailableDate;
+import com.revamp.booking.bookingservice.model.WaitlistEntry;
+import com.revamp.booking.util.SingleFlight;
 
 @Service
 public class TimeSlotService {
@@ -27,6 +42,15 @@ public class TimeSlotService {
 	@Autowired
 	private UnavailableDateService unavailableDateService;
 
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	private CapacityLedgerService capacityLedgerService;
+
+	@Autowired
+	private WaitlistService waitlistService;
+
 	// Service time slots: 8-11, 11-14, 14-17 (3 hours each)
 	private static final LocalTime SLOT_1_START = LocalTime.of(8, 0);
 	private static final LocalTime SLOT_1_END = LocalTime.of(11, 0);
@@ -35,6 +59,10 @@ public class TimeSlotService {
 	private static final LocalTime SLOT_3_START = LocalTime.of(14, 0);
 	private static final LocalTime SLOT_3_END = LocalTime.of(17, 0);
 
+	// Concurrent reads of the same date share one set of queries
+	private final SingleFlight<LocalDate, List<TimeSlot>> availableSlotsFlight = new SingleFlight<>();
+	private final SingleFlight<LocalDate, Map<String, Object>> availabilityFlight = new SingleFlight<>();
+
 	/**
 	 * Generate time slots for a given date range
 	 * Shop hours: Monday to Saturday, 8am to 5pm
@@ -66,6 +94,72 @@ public class TimeSlotService {
 	 * Get available time slots for a specific date
 	 */
 	public List<TimeSlot> getAvailableSlotsForDate(LocalDate date) {
+		return availableSlotsFlight.execute(date, () -> loadAvailableSlots(date));
+	}
+
+	/**
+	 * Check if a date is available for booking
+	 * Returns available slots for Service type, or just availability for Modification
+	 */
+	public Map<String, Object> checkDateAvailability(LocalDate date) {
+		return availabilityFlight.execute(date, () -> loadDateAvailability(date));
+	}
+
+	/**
+	 * Drop in-flight reads for a date whose slots changed
+	 */
+	@EventListener
+	public void onSlotChanged(SlotChangedEvent event) {
+		invalidate(event.getSlot().getDate());
+	}
+
+	@EventListener
+	public void onUnavailableDateChanged(UnavailableDateChangedEvent event) {
+		invalidate(event.getDate());
+	}
+
+	private void invalidate(LocalDate date) {
+		if (date != null) {
+			availableSlotsFlight.invalidate(date);
+			availabilityFlight.invalidate(date);
+		}
+	}
+
+	private Map<String, Object> loadDateAvailability(LocalDate date) {
+		boolean isUnavailable = unavailableDateService.isDateUnavailable(date);
+		boolean isSunday = date.getDayOfWeek() == DayOfWeek.SUNDAY;
+
+		Map<String, Object> result = new HashMap<>();
+		result.put("date", date.toString());
+		result.put("isAvailable", !isUnavailable && !isSunday);
+		result.put("isUnavailable", isUnavailable);
+		result.put("isSunday", isSunday);
+
+		if (!isUnavailable && !isSunday) {
+			List<TimeSlot> slots = loadAvailableSlots(date);
+			result.put("availableSlots", slots);
+			result.put("slotCount", slots.size());
+			// Labor hours left for Modification appointments
+			DailyCapacity capacity = capacityLedgerService.getDay(date);
+			result.put("capacityHours", capacity.getCapacityHours());
+			result.put("committedHours", capacity.getCommittedHours());
+			result.put("remainingHours", Math.max(0, capacity.getRemainingHours()));
+		} else {
+			result.put("availableSlots", new ArrayList<>());
+			result.put("slotCount", 0);
+			result.put("remainingHours", 0);
+			if (isUnavailable) {
+				result.put("message", "This date is unavailable (holiday/maintenance)");
+			} else if (isSunday) {
+				result.put("message", "Shop is closed on Sundays");
+			}
+		}
+
+		// Shared between coalesced callers
+		return Collections.unmodifiableMap(result);
+	}
+
+	private List<TimeSlot> loadAvailableSlots(LocalDate date) {
 		// Check if date is unavailable
 		if (unavailableDateService.isDateUnavailable(date)) {
 			return new ArrayList<>();
@@ -99,6 +193,7 @@ public class TimeSlotService {
 		if (slot == null) {
 			slot = new TimeSlot(date, startTime, endTime);
 			mongoTemplate.save(slot);
+			eventPublisher.publishEvent(new SlotChangedEvent(slot));
 		}
 		
 		return slot;
@@ -109,13 +204,21 @@ public class TimeSlotService {
 	 * Uses atomic update to prevent race conditions when multiple customers try to book the same slot
 	 */
 	public TimeSlot bookSlot(String slotId, String appointmentId) {
+		return bookSlot(slotId, appointmentId, null);
+	}
+
+	/**
+	 * Book a time slot atomically; a slot held for a waitlisted customer can only be booked by them
+	 */
+	public TimeSlot bookSlot(String slotId, String appointmentId, String customerId) {
 		// Use atomic update with condition to prevent race conditions
-		Query query = new Query(Criteria.where("id").is(slotId)
-			.and("isAvailable").is(true));
+		Query query = new Query(Criteria.where("id").is(slotId)).addCriteria(bookable(customerId));
 		
 		Update update = new Update()
 			.set("isAvailable", false)
-			.set("appointmentId", appointmentId);
+			.set("appointmentId", appointmentId)
+			.unset("heldFor")
+			.unset("holdExpiresAt");
 		
 		// Use findAndModify for atomic operation
 		TimeSlot slot = mongoTemplate.findAndModify(
@@ -134,6 +237,9 @@ public class TimeSlotService {
 				throw new RuntimeException("Time slot not found");
 			}
 			
+			if (existingSlot.getHeldFor() != null && existingSlot.getAppointmentId() == null) {
+				throw new RuntimeException("Time slot is held for a waitlisted customer");
+			}
 			if (!existingSlot.isAvailable()) {
 				throw new RuntimeException("Time slot is already booked");
 			}
@@ -142,23 +248,211 @@ public class TimeSlotService {
 			throw new RuntimeException("Time slot booking failed. Please try again.");
 		}
 		
+		eventPublisher.publishEvent(new SlotChangedEvent(slot));
 		return slot;
 	}
 
 	/**
-	 * Release a time slot (when appointment is cancelled)
+	 * Free, or held for this customer and not yet taken
+	 */
+	private Criteria bookable(String customerId) {
+		Criteria bookable = Criteria.where("isAvailable").is(true);
+		if (customerId != null) {
+			bookable = new Criteria().orOperator(bookable, Criteria.where("heldFor").is(customerId)
+				.and("appointmentId").is(null)
+				.and("holdExpiresAt").gt(LocalDateTime.now()));
+		}
+		return bookable;
+	}
+
+	/**
+	 * Get or create the slot starting at startTime on each date.
+	 * One query for the existing slots and one insert for the missing ones.
+	 */
+	public Map<LocalDate, TimeSlot> resolveSlots(Collection<LocalDate> dates, LocalTime startTime) {
+		LocalTime endTime;
+		if (SLOT_1_START.equals(startTime)) {
+			endTime = SLOT_1_END;
+		} else if (SLOT_2_START.equals(startTime)) {
+			endTime = SLOT_2_END;
+		} else if (SLOT_3_START.equals(startTime)) {
+			endTime = SLOT_3_END;
+		} else {
+			throw new RuntimeException("No time slot starts at " + startTime);
+		}
+
+		Map<LocalDate, TimeSlot> slots = new HashMap<>();
+		Query query = new Query(Criteria.where("date").in(dates)
+			.and("startTime").is(startTime)
+			.and("endTime").is(endTime));
+		for (TimeSlot slot : mongoTemplate.find(query, TimeSlot.class)) {
+			slots.putIfAbsent(slot.getDate(), slot);
+		}
+
+		List<TimeSlot> missing = new ArrayList<>();
+		for (LocalDate date : dates) {
+			if (!slots.containsKey(date)) {
+				TimeSlot slot = new TimeSlot(date, startTime, endTime);
+				slots.put(date, slot);
+				missing.add(slot);
+			}
+		}
+		if (!missing.isEmpty()) {
+			mongoTemplate.insert(missing, TimeSlot.class);
+			for (TimeSlot slot : missing) {
+				eventPublisher.publishEvent(new SlotChangedEvent(slot));
+			}
+		}
+		return slots;
+	}
+
+	/**
+	 * Book many slots with one unordered bulk write, slot id -> appointment id.
+	 * Returns the slots that now belong to their appointment; any slot missing from the
+	 * result was already booked or held for someone else.
+	 */
+	public List<TimeSlot> claimSlots(Map<String, String> appointmentBySlot, String customerId) {
+		if (appointmentBySlot.isEmpty()) {
+			return List.of();
+		}
+		BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TimeSlot.class);
+		for (Map.Entry<String, String> entry : appointmentBySlot.entrySet()) {
+			bulk.updateOne(new Query(Criteria.where("id").is(entry.getKey())).addCriteria(bookable(customerId)),
+				new Update()
+					.set("isAvailable", false)
+					.set("appointmentId", entry.getValue())
+					.unset("heldFor")
+					.unset("holdExpiresAt"));
+		}
+		bulk.execute();
+		return changedSlots(appointmentBySlot, true);
+	}
+
+	/**
+	 * Undo claimSlots for the slots that still belong to the given appointments
+	 */
+	public void unclaimSlots(Map<String, String> appointmentBySlot) {
+		if (appointmentBySlot.isEmpty()) {
+			return;
+		}
+		BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TimeSlot.class);
+		for (Map.Entry<String, String> entry : appointmentBySlot.entrySet()) {
+			bulk.updateOne(new Query(Criteria.where("id").is(entry.getKey()).and("appointmentId").is(entry.getValue())),
+				new Update().set("isAvailable", true).set("appointmentId", null));
+		}
+		bulk.execute();
+		changedSlots(appointmentBySlot, false);
+	}
+
+	/**
+	 * Read back the slots touched by a bulk write and publish the ones that changed
+	 */
+	private List<TimeSlot> changedSlots(Map<String, String> appointmentBySlot, boolean claimed) {
+		List<TimeSlot> changed = new ArrayList<>();
+		Query query = new Query(Criteria.where("id").in(appointmentBySlot.keySet()));
+		for (TimeSlot slot : mongoTemplate.find(query, TimeSlot.class)) {
+			boolean ours = appointmentBySlot.get(slot.getId()).equals(slot.getAppointmentId());
+			if (ours == claimed) {
+				changed.add(slot);
+				eventPublisher.publishEvent(new SlotChangedEvent(slot));
+			}
+		}
+		return changed;
+	}
+
+	/**
+	 * Release a time slot (when appointment is cancelled).
+	 * If someone is on the waitlist the slot goes straight to a hold for them instead.
 	 */
 	public void releaseSlot(String slotId) {
 		Query query = new Query(Criteria.where("id").is(slotId));
 		TimeSlot slot = mongoTemplate.findOne(query, TimeSlot.class);
 		
 		if (slot != null) {
-			slot.setAvailable(true);
-			slot.setAppointmentId(null);
-			mongoTemplate.save(slot);
+			handOver(slot, query);
+		}
+	}
+
+	/**
+	 * Hand slots whose waitlist hold ran out to the next waiter, or free them
+	 */
+	@Scheduled(fixedDelayString = "${booking.waitlist.hold-sweep-ms:30000}")
+	public void expireHolds() {
+		Query expired = new Query(Criteria.where("heldFor").ne(null)
+			.and("appointmentId").is(null)
+			.and("holdExpiresAt").lt(LocalDateTime.now()));
+		for (TimeSlot slot : mongoTemplate.find(expired, TimeSlot.class)) {
+			try {
+				waitlistService.expireOffer(slot);
+				handOver(slot, holdGuard(slot));
+			} catch (RuntimeException e) {
+				System.err.println("✗ Failed to expire hold on slot " + slot.getId() + ": " + e.getMessage());
+			}
 		}
 	}
 
+	/**
+	 * A customer who books one slot no longer needs the others held for them that day; those
+	 * go straight to the next waiter instead of sitting out their hold
+	 */
+	@EventListener
+	public void onAppointmentChanged(AppointmentChangedEvent event) {
+		Appointment appointment = event.getAppointment();
+		if (event.getType() != AppointmentChangedEvent.Type.CREATED || appointment.getTimeSlotId() == null
+				|| appointment.getCustomerId() == null) {
+			return;
+		}
+		Query held = new Query(Criteria.where("date").is(appointment.getDate())
+			.and("heldFor").is(appointment.getCustomerId())
+			.and("appointmentId").is(null)
+			.and("id").ne(appointment.getTimeSlotId()));
+		for (TimeSlot slot : mongoTemplate.find(held, TimeSlot.class)) {
+			try {
+				waitlistService.withdrawOffer(slot);
+				handOver(slot, holdGuard(slot));
+			} catch (RuntimeException e) {
+				System.err.println("✗ Failed to release hold on slot " + slot.getId() + ": " + e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Matches the slot only while the hold is still the one that was read
+	 */
+	private Query holdGuard(TimeSlot slot) {
+		return new Query(Criteria.where("id").is(slot.getId())
+			.and("heldFor").is(slot.getHeldFor())
+			.and("holdExpiresAt").is(slot.getHoldExpiresAt())
+			.and("appointmentId").is(null));
+	}
+
+	/**
+	 * One write per release: hold the slot for the head of the waitlist, or make it available
+	 */
+	private void handOver(TimeSlot slot, Query guard) {
+		LocalDateTime holdExpiresAt = waitlistService.nextHoldExpiry();
+		WaitlistEntry offer = waitlistService.claimHead(slot, holdExpiresAt);
+		Update update = new Update().set("appointmentId", null);
+		if (offer != null) {
+			update.set("isAvailable", false).set("heldFor", offer.getCustomerId()).set("holdExpiresAt", holdExpiresAt);
+		} else {
+			update.set("isAvailable", true).unset("heldFor").unset("holdExpiresAt");
+		}
+		TimeSlot updated = mongoTemplate.findAndModify(guard, update,
+			FindAndModifyOptions.options().returnNew(true), TimeSlot.class);
+		if (updated == null) {
+			// The slot changed under us; give the claimed waiter their place back
+			if (offer != null) {
+				waitlistService.requeue(offer);
+			}
+			return;
+		}
+		if (offer != null) {
+			waitlistService.notifyOffer(offer, updated);
+		}
+		eventPublisher.publishEvent(new SlotChangedEvent(updated));
+	}
+
 	/**
 	 * Get time slot by ID
 	 */
@@ -168,6 +462,21 @@ public class TimeSlotService {
 		return Optional.ofNullable(slot);
 	}
 
+	/**
+	 * Get time slots by ID, in one query; unknown IDs are left out
+	 */
+	public Map<String, TimeSlot> getSlotsByIds(Collection<String> slotIds) {
+		Map<String, TimeSlot> slots = new HashMap<>();
+		if (slotIds.isEmpty()) {
+			return slots;
+		}
+		Query query = new Query(Criteria.where("id").in(slotIds));
+		for (TimeSlot slot : mongoTemplate.find(query, TimeSlot.class)) {
+			slots.put(slot.getId(), slot);
+		}
+		return slots;
+	}
+
 	/**
 	 * Get all time slots for a date range
 	 */
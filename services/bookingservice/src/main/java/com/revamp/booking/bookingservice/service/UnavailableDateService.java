@@ -5,11 +5,13 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
+import com.revamp.booking.bookingservice.event.UnavailableDateChangedEvent;
 import com.revamp.booking.bookingservice.model.UnavailableDate;
 
 @Service
@@ -18,6 +20,9 @@ public class UnavailableDateService {
 	@Autowired
 	private MongoTemplate mongoTemplate;
 
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
 	/**
 	 * Add an unavailable date
 	 */
@@ -29,12 +34,16 @@ public class UnavailableDateService {
 		if (existing != null) {
 			existing.setReason(reason);
 			existing.setDescription(description);
-			return mongoTemplate.save(existing);
+			UnavailableDate updated = mongoTemplate.save(existing);
+			eventPublisher.publishEvent(new UnavailableDateChangedEvent(date, true, reason));
+			return updated;
 		}
 		
 		UnavailableDate unavailableDate = new UnavailableDate(date, reason);
 		unavailableDate.setDescription(description);
-		return mongoTemplate.save(unavailableDate);
+		UnavailableDate saved = mongoTemplate.save(unavailableDate);
+		eventPublisher.publishEvent(new UnavailableDateChangedEvent(date, true, reason));
+		return saved;
 	}
 
 	/**
@@ -42,7 +51,10 @@ public class UnavailableDateService {
 	 */
 	public void removeUnavailableDate(String id) {
 		Query query = new Query(Criteria.where("id").is(id));
-		mongoTemplate.remove(query, UnavailableDate.class);
+		UnavailableDate removed = mongoTemplate.findAndRemove(query, UnavailableDate.class);
+		if (removed != null) {
+			eventPublisher.publishEvent(new UnavailableDateChangedEvent(removed.getDate(), false, null));
+		}
 	}
 
 	/**
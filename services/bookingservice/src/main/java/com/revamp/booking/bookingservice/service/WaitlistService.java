@@ -0,0 +1,208 @@
+package com.revamp.booking.bookingservice.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.revamp.booking.bookingservice.event.AppointmentChangedEvent;
+import com.revamp.booking.bookingservice.model.Appointment;
+import com.revamp.booking.bookingservice.model.CustomerNotification;
+import com.revamp.booking.bookingservice.model.TimeSlot;
+import com.revamp.booking.bookingservice.model.WaitlistEntry;
+
+/**
+ * Waitlist for taken service slots.
+ *
+ * Customers wait for one slot or for any slot on a date. When a slot is released,
+ * TimeSlotService claims the oldest matching waiter with a single findAndModify and holds the
+ * slot for them; the customer gets a notification and has a short window to book it.
+ * Waiters are dropped by a TTL index once their date has passed or the wait limit is reached.
+ */
+@Service
+public class WaitlistService {
+
+	@Value("${booking.waitlist.ttl-hours:72}")
+	private long ttlHours;
+
+	@Value("${booking.waitlist.hold-minutes:15}")
+	private long holdMinutes;
+
+	@Value("${booking.notifications.ttl-days:30}")
+	private long notificationTtlDays;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private UnavailableDateService unavailableDateService;
+
+	/**
+	 * Join the waitlist for a slot, or for any slot on the date when slotId is null
+	 */
+	public WaitlistEntry join(String customerId, String customerName, String customerEmail, LocalDate date, String slotId) {
+		if (date.isBefore(LocalDate.now())) {
+			throw new RuntimeException("Cannot wait for a date in the past");
+		}
+		if (date.getDayOfWeek() == DayOfWeek.SUNDAY || unavailableDateService.isDateUnavailable(date)) {
+			throw new RuntimeException("The shop is closed on " + date);
+		}
+		if (slotId != null) {
+			TimeSlot slot = mongoTemplate.findById(slotId, TimeSlot.class);
+			if (slot == null || !date.equals(slot.getDate())) {
+				throw new RuntimeException("Time slot not found on " + date);
+			}
+			if (slot.isAvailable()) {
+				throw new RuntimeException("This time slot is available, book it directly");
+			}
+		}
+
+		Query existing = new Query(Criteria.where("customerId").is(customerId).and("date").is(date)
+			.and("slotId").is(slotId).and("status").in(WaitlistEntry.WAITING, WaitlistEntry.OFFERED));
+		WaitlistEntry current = mongoTemplate.findOne(existing, WaitlistEntry.class);
+		if (current != null) {
+			return current;
+		}
+
+		LocalDateTime now = LocalDateTime.now();
+		LocalDateTime endOfDay = date.plusDays(1).atStartOfDay();
+		WaitlistEntry entry = new WaitlistEntry();
+		entry.setCustomerId(customerId);
+		entry.setCustomerName(customerName);
+		entry.setCustomerEmail(customerEmail);
+		entry.setDate(date);
+		entry.setSlotId(slotId);
+		entry.setStatus(WaitlistEntry.WAITING);
+		entry.setCreatedAt(now);
+		entry.setExpiresAt(now.plusHours(ttlHours).isBefore(endOfDay) ? now.plusHours(ttlHours) : endOfDay);
+		return mongoTemplate.insert(entry);
+	}
+
+	public boolean leave(String customerId, String entryId) {
+		Query query = new Query(Criteria.where("_id").is(entryId).and("customerId").is(customerId)
+			.and("status").is(WaitlistEntry.WAITING));
+		return mongoTemplate.updateFirst(query, Update.update("status", WaitlistEntry.CANCELLED), WaitlistEntry.class)
+			.getModifiedCount() > 0;
+	}
+
+	public List<WaitlistEntry> getEntries(String customerId) {
+		Query query = new Query(Criteria.where("customerId").is(customerId)).with(Sort.by(Sort.Direction.DESC, "createdAt"));
+		return mongoTemplate.find(query, WaitlistEntry.class);
+	}
+
+	public List<CustomerNotification> getNotifications(String customerId) {
+		Query query = new Query(Criteria.where("customerId").is(customerId))
+			.with(Sort.by(Sort.Direction.DESC, "createdAt")).limit(50);
+		return mongoTemplate.find(query, CustomerNotification.class);
+	}
+
+	public void markNotificationRead(String customerId, String notificationId) {
+		Query query = new Query(Criteria.where("_id").is(notificationId).and("customerId").is(customerId));
+		mongoTemplate.updateFirst(query, Update.update("read", true), CustomerNotification.class);
+	}
+
+	/**
+	 * Atomically take the oldest live waiter for a released slot and mark them offered
+	 *
+	 * @return the offered entry, or null if nobody is waiting
+	 */
+	public WaitlistEntry claimHead(TimeSlot slot, LocalDateTime holdExpiresAt) {
+		if (slot.getDate() == null || slot.getDate().isBefore(LocalDate.now())) {
+			return null;
+		}
+		Query query = new Query(Criteria.where("status").is(WaitlistEntry.WAITING)
+			.and("date").is(slot.getDate())
+			.and("expiresAt").gt(LocalDateTime.now())
+			.orOperator(Criteria.where("slotId").is(slot.getId()), Criteria.where("slotId").is(null)))
+			.with(Sort.by(Sort.Direction.ASC, "createdAt"));
+		Update update = new Update()
+			.set("status", WaitlistEntry.OFFERED)
+			.set("offeredSlotId", slot.getId())
+			.set("holdExpiresAt", holdExpiresAt);
+		return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), WaitlistEntry.class);
+	}
+
+	public LocalDateTime nextHoldExpiry() {
+		return LocalDateTime.now().plusMinutes(holdMinutes);
+	}
+
+	/**
+	 * Record the offer in the customer's notification outbox
+	 */
+	public void notifyOffer(WaitlistEntry entry, TimeSlot slot) {
+		CustomerNotification notification = new CustomerNotification();
+		notification.setCustomerId(entry.getCustomerId());
+		notification.setType("waitlist-offer");
+		notification.setTitle("A time slot opened up");
+		notification.setMessage("The " + slot.getStartTime() + " - " + slot.getEndTime() + " slot on " + slot.getDate()
+			+ " is held for you until " + entry.getHoldExpiresAt().toLocalTime().withNano(0) + ". Book it before then to keep it.");
+		notification.setSlotId(slot.getId());
+		notification.setDate(slot.getDate());
+		notification.setCreatedAt(LocalDateTime.now());
+		notification.setExpiresAt(LocalDateTime.now().plusDays(notificationTtlDays));
+		mongoTemplate.insert(notification);
+		System.out.println("✓ Waitlist offer for slot " + slot.getId() + " sent to customer " + entry.getCustomerId());
+	}
+
+	/**
+	 * Put a claimed waiter back in line when their hold could not be placed
+	 */
+	public void requeue(WaitlistEntry entry) {
+		Query query = new Query(Criteria.where("_id").is(entry.getId()).and("status").is(WaitlistEntry.OFFERED));
+		Update update = new Update().set("status", WaitlistEntry.WAITING).unset("offeredSlotId").unset("holdExpiresAt");
+		mongoTemplate.updateFirst(query, update, WaitlistEntry.class);
+	}
+
+	/**
+	 * The hold on a slot ran out: the customer's offer expires
+	 */
+	public void expireOffer(TimeSlot slot) {
+		closeOffer(slot, WaitlistEntry.EXPIRED);
+	}
+
+	/**
+	 * The customer booked another slot instead: the offer on this one is withdrawn
+	 */
+	public void withdrawOffer(TimeSlot slot) {
+		closeOffer(slot, WaitlistEntry.CANCELLED);
+	}
+
+	/**
+	 * Close the customer's entry for the slot they booked, whether it was offered to them or they
+	 * were still waiting for it. Holds on other slots are released by TimeSlotService.
+	 */
+	@EventListener
+	public void onAppointmentChanged(AppointmentChangedEvent event) {
+		Appointment appointment = event.getAppointment();
+		if (event.getType() != AppointmentChangedEvent.Type.CREATED || appointment.getTimeSlotId() == null) {
+			return;
+		}
+		try {
+			Query query = new Query(Criteria.where("customerId").is(appointment.getCustomerId())
+				.and("status").in(WaitlistEntry.OFFERED, WaitlistEntry.WAITING)
+				.and("date").is(appointment.getDate())
+				.orOperator(Criteria.where("offeredSlotId").is(appointment.getTimeSlotId()),
+					Criteria.where("slotId").is(appointment.getTimeSlotId())));
+			mongoTemplate.updateMulti(query, Update.update("status", WaitlistEntry.BOOKED), WaitlistEntry.class);
+		} catch (RuntimeException e) {
+			System.err.println("✗ Failed to close waitlist entries for appointment " + appointment.getId() + ": " + e.getMessage());
+		}
+	}
+
+	private void closeOffer(TimeSlot slot, String status) {
+		Query query = new Query(Criteria.where("status").is(WaitlistEntry.OFFERED)
+			.and("offeredSlotId").is(slot.getId()).and("customerId").is(slot.getHeldFor()));
+		mongoTemplate.updateMulti(query, Update.update("status", status), WaitlistEntry.class);
+	}
+}
@@ -0,0 +1,192 @@
+package com.revamp.booking.bookingservice.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.revamp.booking.dto.WorkloadEvent;
+import com.revamp.booking.dto.WorkloadSnapshot;
+
+/**
+ * In-memory copy of employee skills and open-task load, fed by the employee service.
+ *
+ * The employee service pushes every employee and task change; each entry keeps the version
+ * of the change that produced it so late or replayed events cannot roll it back. The full
+ * snapshot is reloaded on startup and periodically to repair anything a lost push missed.
+ * Per-employee task counts and hours are maintained incrementally, so reads never touch
+ * the task list.
+ */
+@Service
+public class WorkloadIndex {
+
+	@Autowired
+	private EmployeeServiceClient employeeServiceClient;
+
+	private Map<String, EmployeeEntry> employees = new HashMap<>();
+	private Map<String, TaskEntry> tasks = new HashMap<>();
+	private Map<String, Load> loads = new HashMap<>();
+	private long snapshotVersion;
+
+	/**
+	 * An employee as seen by the recommender; skills are lower-cased
+	 */
+	public record EmployeeEntry(String userId, String fullName, Set<String> skills, long version, boolean removed) {
+	}
+
+	/**
+	 * Open tasks and estimated hours currently assigned to one employee
+	 */
+	public record Load(int openTasks, int openHours) {
+		static final Load NONE = new Load(0, 0);
+	}
+
+	private record TaskEntry(String userId, int hours, long version) {
+	}
+
+	/**
+	 * Reload the full snapshot from the employee service
+	 */
+	@Scheduled(initialDelay = 0, fixedDelayString = "${booking.workload.resync-ms:600000}")
+	public void resync() {
+		WorkloadSnapshot snapshot = employeeServiceClient.getWorkloadSnapshot();
+		if (snapshot == null) {
+			return;
+		}
+		Map<String, EmployeeEntry> freshEmployees = new HashMap<>();
+		for (WorkloadEvent event : safe(snapshot.getEmployees())) {
+			freshEmployees.put(event.getUserId(), toEmployee(event, false));
+		}
+		Map<String, TaskEntry> freshTasks = new HashMap<>();
+		for (WorkloadEvent event : safe(snapshot.getTasks())) {
+			freshTasks.put(event.getTaskId(), new TaskEntry(event.getUserId(), event.getEstimatedHours(), event.getVersion()));
+		}
+
+		synchronized (this) {
+			// Keep changes pushed after the snapshot was taken
+			employees.forEach((userId, entry) -> {
+				if (entry.version() > snapshot.getVersion()) {
+					freshEmployees.put(userId, entry);
+				}
+			});
+			tasks.forEach((taskId, entry) -> {
+				if (entry.version() > snapshot.getVersion()) {
+					freshTasks.put(taskId, entry);
+				}
+			});
+			employees = freshEmployees;
+			tasks = freshTasks;
+			loads = new HashMap<>();
+			for (TaskEntry task : tasks.values()) {
+				adjust(task.userId(), 1, task.hours());
+			}
+			snapshotVersion = snapshot.getVersion();
+		}
+		System.out.println("✓ Workload index loaded " + freshEmployees.size() + " employee(s) and "
+			+ freshTasks.size() + " open task(s)");
+	}
+
+	/**
+	 * Apply pushed changes in order
+	 */
+	public synchronized void apply(List<WorkloadEvent> events) {
+		for (WorkloadEvent event : events) {
+			if (event.getType() == null) {
+				continue;
+			}
+			switch (event.getType()) {
+				case WorkloadEvent.EMPLOYEE -> applyEmployee(event, false);
+				case WorkloadEvent.EMPLOYEE_REMOVED -> applyEmployee(event, true);
+				case WorkloadEvent.TASK -> applyTask(event);
+				default -> System.err.println("⚠ Unknown workload event type: " + event.getType());
+			}
+		}
+	}
+
+	/**
+	 * Current, not removed employees
+	 */
+	public synchronized List<EmployeeEntry> getEmployees() {
+		List<EmployeeEntry> active = new ArrayList<>();
+		for (EmployeeEntry entry : employees.values()) {
+			if (!entry.removed()) {
+				active.add(entry);
+			}
+		}
+		return active;
+	}
+
+	public synchronized Load getLoad(String userId) {
+		return loads.getOrDefault(userId, Load.NONE);
+	}
+
+	public synchronized Map<String, Object> getStatus() {
+		Map<String, Object> status = new HashMap<>();
+		status.put("employees", getEmployees().size());
+		status.put("trackedTasks", tasks.size());
+		status.put("snapshotVersion", snapshotVersion);
+		return status;
+	}
+
+	private void applyEmployee(WorkloadEvent event, boolean removed) {
+		if (event.getUserId() == null) {
+			return;
+		}
+		EmployeeEntry current = employees.get(event.getUserId());
+		if (current != null && current.version() > event.getVersion()) {
+			return;
+		}
+		employees.put(event.getUserId(), toEmployee(event, removed));
+	}
+
+	private void applyTask(WorkloadEvent event) {
+		if (event.getTaskId() == null) {
+			return;
+		}
+		TaskEntry current = tasks.get(event.getTaskId());
+		if (current != null) {
+			if (current.version() > event.getVersion()) {
+				return;
+			}
+			adjust(current.userId(), -1, -current.hours());
+		}
+		// Closed or unassigned tasks arrive without a user and stay as a tombstone until the next resync
+		tasks.put(event.getTaskId(), new TaskEntry(event.getUserId(), event.getEstimatedHours(), event.getVersion()));
+		adjust(event.getUserId(), 1, event.getEstimatedHours());
+	}
+
+	private void adjust(String userId, int taskDelta, int hoursDelta) {
+		if (userId == null) {
+			return;
+		}
+		Load load = loads.getOrDefault(userId, Load.NONE);
+		Load updated = new Load(load.openTasks() + taskDelta, load.openHours() + hoursDelta);
+		if (updated.openTasks() <= 0) {
+			loads.remove(userId);
+		} else {
+			loads.put(userId, updated);
+		}
+	}
+
+	private EmployeeEntry toEmployee(WorkloadEvent event, boolean removed) {
+		Set<String> skills = new LinkedHashSet<>();
+		for (String skill : safe(event.getSkills())) {
+			if (skill != null && !skill.isBlank()) {
+				skills.add(skill.trim().toLowerCase());
+			}
+		}
+		return new EmployeeEntry(event.getUserId(), event.getFullName(), Collections.unmodifiableSet(skills),
+			event.getVersion(), removed);
+	}
+
+	private static <T> List<T> safe(List<T> list) {
+		return list != null ? list : List.of();
+	}
+}
@@ -2,27 +2,33 @@ package com.revamp.booking.controller;
 
 import com.revamp.booking.dto.AppointmentRequest;
 import com.revamp.booking.dto.AppointmentResponse;
+import com.revamp.booking.dto.ModificationQuote;
+import com.revamp.booking.dto.QuoteRequest;
 import com.revamp.booking.model.Booking;
-import com.revamp.booking.model.ModificationItem;
+import com.revamp.booking.model.ModificationCatalog;
 import com.revamp.booking.repository.BookingRepository;
 import com.revamp.booking.repository.ModificationItemRepository;
+import com.revamp.booking.bookingservice.service.AppointmentArchiveService;
 import com.revamp.booking.service.BookingService;
-import com.revamp.booking.service.StripeService;
+import com.revamp.booking.service.ModificationCatalogService;
+import com.revamp.booking.service.PaymentIntentService;
+import com.revamp.booking.service.QuoteService;
 import com.revamp.booking.util.JwtUtil;
 import com.stripe.exception.StripeException;
-import com.stripe.model.PaymentIntent;
 import io.jsonwebtoken.Claims;
 import jakarta.validation.Valid;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api")
@@ -31,53 +37,86 @@ public class BookingController {
     private final BookingService bookingService;
     private final ModificationItemRepository modificationItemRepository;
     private final BookingRepository bookingRepository;
-    private final StripeService stripeService;
+    private final PaymentIntentService paymentIntentService;
     private final JwtUtil jwtUtil;
-    private final MongoTemplate modificationServicesTemplate;
+    private final ModificationCatalogService modificationCatalogService;
+    private final QuoteService quoteService;
+    private final AppointmentArchiveService appointmentArchiveService;
 
     public BookingController(
             BookingService bookingService,
             ModificationItemRepository modificationItemRepository,
             BookingRepository bookingRepository,
-            StripeService stripeService,
+            PaymentIntentService paymentIntentService,
             JwtUtil jwtUtil,
-            @Qualifier("modificationServicesTemplate") MongoTemplate modificationServicesTemplate
+            ModificationCatalogService modificationCatalogService,
+            QuoteService quoteService,
+            AppointmentArchiveService appointmentArchiveService
     ) {
         this.bookingService = bookingService;
         this.modificationItemRepository = modificationItemRepository;
         this.bookingRepository = bookingRepository;
-        this.stripeService = stripeService;
+        this.paymentIntentService = paymentIntentService;
         this.jwtUtil = jwtUtil;
-        this.modificationServicesTemplate = modificationServicesTemplate;
+        this.modificationCatalogService = modificationCatalogService;
+        this.quoteService = quoteService;
+        this.appointmentArchiveService = appointmentArchiveService;
     }
 
     @GetMapping("/modifications")
-    public List<ModificationItem> listModifications() {
-        // Use the qualified MongoTemplate to read from Time-slot database
-        // where modificationservices collection is stored
-        System.out.println("===== Fetching Modification Services =====");
-        System.out.println("Using modificationServicesTemplate");
-        System.out.println("Collection: modificationservices");
-        
-        List<ModificationItem> items = modificationServicesTemplate.findAll(ModificationItem.class);
-        
-        System.out.println("Found " + items.size() + " modification service(s)");
-        if (items.size() > 0) {
-            System.out.println("Services:");
-            for (ModificationItem item : items) {
-                System.out.println("  - ID: " + item.getId() + ", Name: " + item.getName());
-            }
+    public ResponseEntity<byte[]> listModifications(WebRequest webRequest) {
+        // Served from the in-memory snapshot; the remote catalog cluster is not on this path
+        ModificationCatalog catalog = modificationCatalogService.getCatalog();
+        if (webRequest.checkNotModified(catalog.getEtag())) {
+            return null;
         }
-        System.out.println("============================================");
-        
-        // Map estimatedCost (Double) to unitPrice (Integer) for compatibility
-        items.forEach(item -> {
-            if (item.getEstimatedCost() != null && item.getUnitPrice() == null) {
-                item.setUnitPrice(item.getEstimatedCost().intValue());
+        return ResponseEntity.ok()
+                .eTag(catalog.getEtag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(catalog.getJson());
+    }
+
+    @PostMapping("/modifications/invalidate")
+    public ResponseEntity<Map<String, Object>> invalidateModifications(
+            @RequestHeader(value = "Authorization", required = false) String authHeader
+    ) {
+        // Admin only: the admin service passes on the token of the admin who edited the catalog
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.status(401).build();
+        }
+        try {
+            if (!jwtUtil.isAdmin(jwtUtil.parseToken(authHeader))) {
+                return ResponseEntity.status(403).build();
             }
-        });
-        
-        return items;
+        } catch (Exception e) {
+            return ResponseEntity.status(401).build();
+        }
+
+        try {
+            ModificationCatalog catalog = modificationCatalogService.refresh();
+            Map<String, Object> response = new HashMap<>();
+            response.put("version", catalog.getVersion());
+            response.put("itemCount", catalog.getItems().size());
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("message", "Failed to refresh modification catalog: " + e.getMessage());
+            error.put("error", "CatalogRefreshFailed");
+            return ResponseEntity.status(503).body(error);
+        }
+    }
+
+    @PostMapping("/modifications/quotes")
+    public ResponseEntity<?> quoteModifications(@Valid @RequestBody QuoteRequest request) {
+        try {
+            List<ModificationQuote> quotes = quoteService.quoteAll(request.getBaskets());
+            return ResponseEntity.ok(quotes);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            error.put("error", "InvalidQuoteRequest");
+            return ResponseEntity.badRequest().body(error);
+        }
     }
 
     @PostMapping("/bookings/appointments")
@@ -108,7 +147,8 @@ public class BookingController {
 
     @GetMapping("/bookings")
     public ResponseEntity<List<Booking>> getBookings(
-            @RequestHeader(value = "Authorization", required = false) String authHeader
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestParam(defaultValue = "false") boolean includeArchived
     ) {
         String customerId;
         
@@ -124,6 +164,16 @@ public class BookingController {
         }
         
         List<Booking> bookings = bookingRepository.findByCustomerId(customerId);
+        if (includeArchived) {
+            // Archived history is only read on request; skip copies that are still live
+            Set<String> liveIds = new HashSet<>();
+            bookings.forEach(booking -> liveIds.add(booking.getId()));
+            for (Booking archived : appointmentArchiveService.findArchivedByCustomerId(customerId, Booking.class)) {
+                if (!liveIds.contains(archived.getId())) {
+                    bookings.add(archived);
+                }
+            }
+        }
         return ResponseEntity.ok(bookings);
     }
 
@@ -178,7 +228,7 @@ public class BookingController {
             return ResponseEntity.status(403).build();
         }
         
-        bookingRepository.delete(booking);
+        bookingService.deleteBooking(booking);
         return ResponseEntity.ok().build();
     }
 
@@ -187,15 +237,19 @@ public class BookingController {
             @PathVariable String bookingId,
             @RequestBody PaymentIntentRequest req
     ) throws StripeException {
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new IllegalArgumentException("Booking not found"));
-
-        Long amount = booking.getEstimatedCost() != null ? booking.getEstimatedCost().longValue() : req.getAmount();
-        PaymentIntent intent = stripeService.createPaymentIntent(amount, "lkr", bookingId);
+        PaymentIntentService.ActiveIntent intent;
+        try {
+            intent = paymentIntentService.getOrCreate(bookingId, req.getAmount());
+        } catch (IllegalStateException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            error.put("error", "AlreadyPaid");
+            return ResponseEntity.status(409).body(error);
+        }
 
         Map<String, String> response = new HashMap<>();
-        response.put("clientSecret", intent.getClientSecret());
-        response.put("paymentIntentId", intent.getId());
+        response.put("clientSecret", intent.clientSecret());
+        response.put("paymentIntentId", intent.paymentIntentId());
         return ResponseEntity.ok(response);
     }
 
@@ -0,0 +1,83 @@
+package com.revamp.booking.controller;
+
+import com.revamp.booking.model.PaymentReconciliationReport;
+import com.revamp.booking.service.PaymentReconciliationService;
+import com.revamp.booking.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/payments/reconciliation")
+@RequiredArgsConstructor
+public class PaymentReconciliationController {
+
+    private final PaymentReconciliationService paymentReconciliationService;
+    private final JwtUtil jwtUtil;
+
+    @PostMapping("/run")
+    public ResponseEntity<?> run(@RequestHeader(value = "Authorization", required = false) String authHeader) {
+        ResponseEntity<?> denied = requireAdmin(authHeader);
+        if (denied != null) {
+            return denied;
+        }
+
+        // Runs on the scheduler thread; the report is filled in when the run finishes
+        String reportId = paymentReconciliationService.startManualRun();
+        if (reportId == null) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("message", "A reconciliation run is already in progress");
+            error.put("error", "AlreadyRunning");
+            return ResponseEntity.status(409).body(error);
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Reconciliation started");
+        response.put("reportId", reportId);
+        return ResponseEntity.accepted().body(response);
+    }
+
+    @GetMapping("/reports/{reportId}")
+    public ResponseEntity<?> report(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @PathVariable String reportId
+    ) {
+        ResponseEntity<?> denied = requireAdmin(authHeader);
+        if (denied != null) {
+            return denied;
+        }
+        return paymentReconciliationService.findReport(reportId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/reports")
+    public ResponseEntity<?> reports(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        ResponseEntity<?> denied = requireAdmin(authHeader);
+        if (denied != null) {
+            return denied;
+        }
+        List<PaymentReconciliationReport> reports =
+                paymentReconciliationService.recentReports(Math.max(1, Math.min(limit, 100)));
+        return ResponseEntity.ok(reports);
+    }
+
+    private ResponseEntity<?> requireAdmin(String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.status(401).build();
+        }
+        try {
+            Claims claims = jwtUtil.parseToken(authHeader);
+            return jwtUtil.isAdmin(claims) ? null : ResponseEntity.status(403).build();
+        } catch (Exception e) {
+            return ResponseEntity.status(401).build();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.revamp.booking.controller;
+
+import com.revamp.booking.service.LocalStripeWebhookSender;
+import com.revamp.booking.service.StubStripeService;
+import com.stripe.model.PaymentIntent;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Development endpoints that stand in for Stripe; only present with stripe.mode=stub
+ */
+@RestController
+@RequestMapping("/api/dev/stripe")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "stripe.mode", havingValue = "stub")
+public class StripeStubController {
+
+    private final LocalStripeWebhookSender localStripeWebhookSender;
+    private final StubStripeService stubStripeService;
+
+    /**
+     * Move a stub intent to a new status and deliver the matching webhook, like a customer paying
+     */
+    @PostMapping("/intents/{paymentIntentId}/status")
+    public ResponseEntity<Map<String, Object>> setIntentStatus(
+            @PathVariable String paymentIntentId,
+            @RequestBody Map<String, String> request
+    ) {
+        String status = request.getOrDefault("status", "succeeded");
+        PaymentIntent intent = stubStripeService.setStatus(paymentIntentId, status).orElse(null);
+        if (intent == null) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("message", "No such payment_intent: " + paymentIntentId);
+            error.put("error", "NotFound");
+            return ResponseEntity.status(404).body(error);
+        }
+        if ("false".equals(request.get("sendWebhook"))) {
+            // Simulates a lost webhook; only reconciliation will notice the change
+            Map<String, Object> response = new HashMap<>();
+            response.put("paymentIntentId", intent.getId());
+            response.put("status", intent.getStatus());
+            return ResponseEntity.ok(response);
+        }
+
+        String eventType = switch (status) {
+            case "succeeded" -> "payment_intent.succeeded";
+            case "processing" -> "payment_intent.processing";
+            case "canceled" -> "payment_intent.canceled";
+            default -> "payment_intent.payment_failed";
+        };
+        SimulatedEvent event = new SimulatedEvent();
+        event.setType(eventType);
+        event.setPaymentIntentId(intent.getId());
+        event.setBookingId(intent.getMetadata().get("bookingId"));
+        event.setAmount(intent.getAmount());
+        event.setIntentStatus(status);
+        event.setDeliverTwice(Boolean.parseBoolean(request.get("deliverTwice")));
+        return sendWebhook(event);
+    }
+
+    @GetMapping("/calls")
+    public Map<String, Object> getCallCounts() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("createPaymentIntent", stubStripeService.getCreateCalls());
+        response.put("retrievePaymentIntent", stubStripeService.getRetrieveCalls());
+        response.put("cancelPaymentIntent", stubStripeService.getCancelCalls());
+        return response;
+    }
+
+    @PostMapping("/webhooks")
+    public ResponseEntity<Map<String, Object>> sendWebhook(@RequestBody SimulatedEvent request) {
+        try {
+            LocalStripeWebhookSender.SentEvent sent = localStripeWebhookSender.sendPaymentIntentEvent(
+                    request.getType(), request.getPaymentIntentId(), request.getBookingId(),
+                    request.getAmount() != null ? request.getAmount() : 0L,
+                    request.getIntentStatus() != null ? request.getIntentStatus() : "succeeded");
+            Map<String, Object> response = new HashMap<>();
+            response.put("eventId", sent.eventId());
+            response.put("webhookStatus", sent.status());
+            response.put("webhookResponse", sent.body());
+            if (request.isDeliverTwice()) {
+                response.put("redeliveryResponse", localStripeWebhookSender.send(sent.eventId(), sent.payload()).body());
+            }
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            error.put("error", "LocalWebhookFailed");
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    @Data
+    public static class SimulatedEvent {
+        private String type = "payment_intent.succeeded";
+        private String paymentIntentId;
+        private String bookingId;
+        private Long amount;
+        private String intentStatus;
+        private boolean deliverTwice;
+    }
+}
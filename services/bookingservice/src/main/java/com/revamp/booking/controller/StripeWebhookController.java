@@ -1,10 +1,8 @@
 package com.revamp.booking.controller;
 
-import com.revamp.booking.model.Booking;
-import com.revamp.booking.repository.BookingRepository;
+import com.revamp.booking.service.StripeWebhookProcessor;
 import com.stripe.exception.SignatureVerificationException;
 import com.stripe.model.Event;
-import com.stripe.model.PaymentIntent;
 import com.stripe.net.Webhook;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -19,7 +17,7 @@ import org.springframework.web.bind.annotation.*;
 @Slf4j
 public class StripeWebhookController {
 
-    private final BookingRepository bookingRepository;
+    private final StripeWebhookProcessor stripeWebhookProcessor;
     @Value("${stripe.webhook.secret:}")
     private String webhookSecret;
 
@@ -37,21 +35,14 @@ public class StripeWebhookController {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid signature");
         }
 
-        if ("payment_intent.succeeded".equals(event.getType())) {
-            PaymentIntent paymentIntent = (PaymentIntent) event.getDataObjectDeserializer()
-                    .getObject().orElse(null);
-            if (paymentIntent != null) {
-                String bookingId = paymentIntent.getMetadata().get("bookingId");
-                if (bookingId != null) {
-                    bookingRepository.findById(bookingId).ifPresent(booking -> {
-                        // Payment confirmed - booking status can remain pending until admin approval
-                        log.info("Payment confirmed for booking: {}", bookingId);
-                    });
-                }
-            }
+        // Store and acknowledge; processing happens on the webhook workers
+        try {
+            boolean accepted = stripeWebhookProcessor.accept(event, payload);
+            return ResponseEntity.ok(accepted ? "OK" : "Duplicate");
+        } catch (RuntimeException e) {
+            // Not stored - let Stripe redeliver
+            log.error("Failed to store Stripe event {}", event.getId(), e);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Retry later");
         }
-
-        return ResponseEntity.ok("OK");
     }
 }
-
@@ -0,0 +1,23 @@
+package com.revamp.booking.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchAppointmentRequest {
+    private List<AppointmentRequest> items; // Explicit appointments, e.g. one per fleet vehicle
+
+    private Recurrence recurrence; // Alternative to items: repeat one appointment on a schedule
+
+    private boolean allOrNothing; // Book every item or none of them
+
+    @Data
+    public static class Recurrence {
+        private AppointmentRequest template; // date is the first occurrence; timeSlotId is ignored
+        private String slotStartTime; // HH:mm, which of the day's slots to claim for Service
+        private Integer every; // Interval length, defaults to 1
+        private String unit; // DAYS | WEEKS | MONTHS
+        private Integer count; // Number of occurrences
+    }
+}
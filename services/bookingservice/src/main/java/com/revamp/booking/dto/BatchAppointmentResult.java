@@ -0,0 +1,27 @@
+package com.revamp.booking.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BatchAppointmentResult {
+    private boolean allOrNothing;
+    private boolean rolledBack; // All-or-nothing batch that had a failure: nothing was kept
+    private int requested;
+    private int booked;
+    private int failed;
+    private List<Item> items = new ArrayList<>();
+
+    @Data
+    public static class Item {
+        private int index;
+        private String date;
+        private String serviceType;
+        private boolean success;
+        private String appointmentId;
+        private String timeSlotId;
+        private String error;
+    }
+}
@@ -0,0 +1,21 @@
+package com.revamp.booking.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One ranked candidate for an appointment
+ */
+@Data
+public class EmployeeRecommendation {
+    private String userId;
+    private String fullName;
+    private double score; // 0..1, higher is better
+    private List<String> matchedSkills = new ArrayList<>();
+    private int openTasks;
+    private int openHours;
+    private boolean available; // false if already assigned to an overlapping appointment
+    private List<String> conflictingAppointmentIds = new ArrayList<>();
+}
@@ -0,0 +1,23 @@
+package com.revamp.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Employee record as returned by the employee service (/api/employees/by-user/{userId}).
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class EmployeeRecord {
+    private String id;
+    private String employeeId; // EMP001, EMP002, etc.
+    private String userId;     // auth service user id
+    private String username;
+    private String email;
+    private String department;
+    private String specialization;
+    private List<String> skills;
+    private boolean available;
+}
@@ -0,0 +1,23 @@
+package com.revamp.booking.dto;
+
+import lombok.Data;
+
+/**
+ * Payload for creating a task in the employee service (POST /api/tasks).
+ * Dates are ISO-8601 strings so both the JSON and Smile encodings stay compatible.
+ */
+@Data
+public class EmployeeTaskRequest {
+    private String customerId;
+    private String customerName;
+    private String vehicleInfo;
+    private String serviceType; // "service" or "modification"
+    private String description;
+    private String priority;
+    private int estimatedHours;
+    private String assignedDate;
+    private String dueDate;
+    private String assignedEmployeeId;
+    private String assignedAdminId;
+    private String instructions;
+}
@@ -0,0 +1,15 @@
+package com.revamp.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+/**
+ * Subset of the task returned by the employee service after creation.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class EmployeeTaskResponse {
+    private String id;
+    private String assignedEmployeeId;
+    private String status;
+}
@@ -0,0 +1,29 @@
+package com.revamp.booking.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Server-side price and duration for one basket of modifications
+ */
+@Data
+public class ModificationQuote {
+    private List<String> requested = new ArrayList<>();
+    private List<Line> lines = new ArrayList<>();
+    private List<String> unknownModifications = new ArrayList<>();
+    private int baseHours;
+    private int estimatedTimeHours; // baseHours plus 10% coordination buffer per extra job
+    private int estimatedCost; // integer LKR
+    private int estimatedDays; // 8-hour shop days
+    private long catalogVersion;
+
+    @Data
+    public static class Line {
+        private String id;
+        private String name;
+        private int estimatedHours;
+        private int unitPrice;
+    }
+}
@@ -0,0 +1,12 @@
+package com.revamp.booking.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class QuoteRequest {
+    @NotEmpty
+    private List<List<String>> baskets; // Each basket is a list of modification ids or names
+}
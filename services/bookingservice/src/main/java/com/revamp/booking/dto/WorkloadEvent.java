@@ -0,0 +1,29 @@
+package com.revamp.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Employee or task change pushed by the employee service (see WorkloadService there).
+ * userId is the auth user id appointments are assigned with.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class WorkloadEvent {
+    public static final String EMPLOYEE = "employee";
+    public static final String EMPLOYEE_REMOVED = "employee-removed";
+    public static final String TASK = "task";
+
+    private String type;
+    private long version;
+
+    private String userId;
+    private String fullName;
+    private List<String> skills;
+
+    private String taskId;
+    private String taskStatus;
+    private int estimatedHours;
+}
@@ -0,0 +1,17 @@
+package com.revamp.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Every employee and open task, as served by the employee service's workload-snapshot endpoint
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class WorkloadSnapshot {
+    private long version;
+    private List<WorkloadEvent> employees;
+    private List<WorkloadEvent> tasks;
+}
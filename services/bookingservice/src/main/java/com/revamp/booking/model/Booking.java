@@ -7,7 +7,9 @@ import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
+// Indexes on bookings are declared on com.revamp.booking.bookingservice.model.Appointment
 @Data
 @Document(collection = "bookings")
 public class Booking {
@@ -34,12 +36,27 @@ public class Booking {
     private List<String> neededModifications;
 
     private Integer estimatedTimeHours; // may be null for service
+    private Integer capacityHours; // labor hours debited from the daily capacity ledger
+    private Map<String, Integer> capacityDays; // those hours per day (ISO date) for a multi-day job
+    private LocalDate endDate; // last day of a multi-day modification job
+    private Integer bayNumber; // workshop bay holding a modification job
+    private Boolean rescheduleRequired; // set when a closure hit the date and it could not be moved
+    private LocalDate rescheduledFrom; // closed date the appointment was on
     private Integer estimatedCost; // integer LKR
 
     private String instructions;
 
     private String status; // pending, approved, in_progress, completed
 
+    // Payment state, written by Stripe webhook processing
+    private String paymentStatus; // pending, processing, paid, failed, canceled
+    private String paymentIntentId;
+    private Long paymentAmount; // Active intent amount in minor units
+    private String paymentClientSecret; // Active intent client secret, reused on page reloads
+    private Integer paymentAttempt; // Bumped whenever a new intent is needed; part of the idempotency key
+    private Long paymentEventCreated; // Stripe event time (epoch seconds) of the last applied update
+    private LocalDateTime paymentUpdatedAt;
+
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
@@ -0,0 +1,63 @@
+package com.revamp.booking.model;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable snapshot of the modification catalog, served from memory.
+ * The JSON body is serialized once per snapshot; never mutate the items or the byte array.
+ */
+@Getter
+public class ModificationCatalog {
+    private final long version;
+    private final Instant loadedAt;
+    private final List<ModificationItem> items;
+    private final byte[] json;
+    private final String etag;
+
+    @Getter(AccessLevel.NONE)
+    private final Map<String, ModificationItem> byId = new HashMap<>();
+    @Getter(AccessLevel.NONE)
+    private final Map<String, ModificationItem> byName = new HashMap<>();
+
+    public ModificationCatalog(long version, Instant loadedAt, List<ModificationItem> items, byte[] json, String etag) {
+        this.version = version;
+        this.loadedAt = loadedAt;
+        this.items = List.copyOf(items);
+        this.json = json;
+        this.etag = etag;
+        for (ModificationItem item : this.items) {
+            if (item.getId() != null) {
+                byId.put(item.getId(), item);
+            }
+            if (item.getName() != null) {
+                byName.putIfAbsent(normalizeName(item.getName()), item);
+            }
+        }
+    }
+
+    /**
+     * Look up an item by id, falling back to a case-insensitive name match
+     */
+    public Optional<ModificationItem> find(String idOrName) {
+        if (idOrName == null) {
+            return Optional.empty();
+        }
+        ModificationItem item = byId.get(idOrName);
+        if (item == null) {
+            item = byName.get(normalizeName(idOrName));
+        }
+        return Optional.ofNullable(item);
+    }
+
+    private static String normalizeName(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
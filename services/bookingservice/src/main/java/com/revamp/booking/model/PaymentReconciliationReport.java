@@ -0,0 +1,55 @@
+package com.revamp.booking.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.IndexDirection;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Summary of one payment reconciliation run
+ */
+@Data
+@Document(collection = "payment_reconciliation_reports")
+public class PaymentReconciliationReport {
+    private static final int MAX_SAMPLES = 100;
+
+    @Id
+    private String id;
+
+    private String trigger; // scheduled | manual
+    @Indexed(name = "startedAt_-1", direction = IndexDirection.DESCENDING)
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private long durationMs;
+
+    private int scanned; // Bookings with an open payment state
+    private int checked; // Intents fetched from Stripe
+    private int updated; // Bookings whose payment state changed
+    private Map<String, Integer> updatesByStatus = new HashMap<>();
+    private int abandoned; // Intents still awaiting payment past the abandonment window
+    private int errors;
+
+    private List<String> abandonedBookingIds = new ArrayList<>();
+    private List<String> errorSamples = new ArrayList<>();
+
+    public void addAbandoned(String bookingId) {
+        abandoned++;
+        if (abandonedBookingIds.size() < MAX_SAMPLES) {
+            abandonedBookingIds.add(bookingId);
+        }
+    }
+
+    public void addError(String message) {
+        errors++;
+        if (errorSamples.size() < MAX_SAMPLES) {
+            errorSamples.add(message);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.revamp.booking.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Inbox entry for a verified Stripe webhook. The Stripe event id is the document id,
+ * so a redelivered event fails the insert and is acknowledged without reprocessing.
+ */
+@Data
+@Document(collection = "stripe_webhook_events")
+@CompoundIndex(name = "status_1_nextAttemptAt_1", def = "{'status': 1, 'nextAttemptAt': 1}")
+public class StripeWebhookEvent {
+    public static final String RECEIVED = "received";
+    public static final String PROCESSING = "processing";
+    public static final String PROCESSED = "processed";
+    public static final String FAILED = "failed";
+
+    @Id
+    private String id; // Stripe event id (evt_...)
+
+    private String type;
+    private long created; // Stripe event time, epoch seconds
+    private String payload; // Raw signed body
+
+    private String status;
+    private int attempts;
+    private String lastError;
+    private LocalDateTime receivedAt;
+    private LocalDateTime nextAttemptAt; // Lease expiry while processing, retry time after a failure
+    private LocalDateTime processedAt;
+}
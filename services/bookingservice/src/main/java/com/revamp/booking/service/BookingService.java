@@ -1,10 +1,18 @@
 package com.revamp.booking.service;
 
 import com.revamp.booking.dto.AppointmentRequest;
+import com.revamp.booking.dto.ModificationQuote;
 import com.revamp.booking.model.Booking;
 import com.revamp.booking.repository.BookingRepository;
+import com.revamp.booking.bookingservice.event.AppointmentChangedEvent;
+import com.revamp.booking.bookingservice.model.Appointment;
+import com.revamp.booking.bookingservice.service.BayScheduleService;
+import com.revamp.booking.bookingservice.service.CapacityLedgerService;
 import com.revamp.booking.bookingservice.service.TimeSlotService;
 import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
@@ -15,6 +23,11 @@ import java.time.LocalDateTime;
 public class BookingService {
     private final BookingRepository bookingRepository;
     private final TimeSlotService timeSlotService;
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final QuoteService quoteService;
+    private final CapacityLedgerService capacityLedgerService;
+    private final BayScheduleService bayScheduleService;
 
     public Booking createAppointment(String customerId, String customerName, String customerEmail, AppointmentRequest req) {
         Booking booking = new Booking();
@@ -52,18 +65,60 @@ public class BookingService {
                 booking.setTimeSlotEnd(slot.getEndTime().toString());
             });
         } else {
+            // Client-supplied estimates are ignored; price against the catalog
+            ModificationQuote quote = quoteService.quote(req.getNeededModifications());
+            if (quote.getLines().isEmpty()) {
+                throw new IllegalArgumentException("neededModifications is required for modification bookings");
+            }
+            if (!quote.getUnknownModifications().isEmpty()) {
+                throw new IllegalArgumentException("Unknown modifications: " + quote.getUnknownModifications());
+            }
             booking.setNeededModifications(req.getNeededModifications());
-            booking.setEstimatedTimeHours(req.getEstimatedTimeHours());
-            booking.setEstimatedCost(req.getEstimatedCost());
+            booking.setEstimatedTimeHours(quote.getEstimatedTimeHours());
+            booking.setEstimatedCost(quote.getEstimatedCost());
+        }
+
+        if (CapacityLedgerService.usesCapacity(req.getServiceType())) {
+            // Place the job in a bay from opening time; it may run over several days
+            booking.setId(new ObjectId().toHexString());
+            BayScheduleService.Placement placement;
+            try {
+                placement = bayScheduleService.reserve(booking.getId(), booking.getDate(), null,
+                        booking.getEstimatedTimeHours());
+            } catch (RuntimeException e) {
+                throw new IllegalStateException(e.getMessage());
+            }
+
+            // Fails when the labor hours of a day the job runs on are already committed
+            try {
+                booking.setCapacityDays(capacityLedgerService.debit(placement.parts()));
+            } catch (RuntimeException e) {
+                bayScheduleService.release(booking.getId(), booking.getDate(), placement.end().toLocalDate());
+                throw new IllegalStateException(e.getMessage());
+            }
+            booking.setCapacityHours(booking.getEstimatedTimeHours());
+            booking.setBayNumber(placement.bay());
+            booking.setEndDate(placement.end().toLocalDate());
+            booking.setTimeSlotStart(placement.start().toLocalTime().toString());
+            booking.setTimeSlotEnd(placement.end().toLocalTime().toString());
         }
 
         // Save booking first to get ID
-        Booking saved = bookingRepository.save(booking);
+        Booking saved;
+        try {
+            saved = bookingRepository.save(booking);
+        } catch (RuntimeException e) {
+            capacityLedgerService.credit(booking.getCapacityDays(), booking.getDate(), booking.getCapacityHours());
+            if (booking.getBayNumber() != null) {
+                bayScheduleService.release(booking.getId(), booking.getDate(), booking.getEndDate());
+            }
+            throw e;
+        }
 
         // Book the time slot after saving (for Service bookings)
         if ("Service".equalsIgnoreCase(req.getServiceType())) {
             try {
-                timeSlotService.bookSlot(req.getTimeSlotId(), saved.getId());
+                timeSlotService.bookSlot(req.getTimeSlotId(), saved.getId(), customerId);
             } catch (RuntimeException e) {
                 // If slot booking fails, delete the booking and throw error
                 bookingRepository.delete(saved);
@@ -71,6 +126,23 @@ public class BookingService {
             }
         }
 
+        // Bookings and appointments share the bookings collection; listeners work on the appointment view
+        Appointment appointment = mongoTemplate.findById(saved.getId(), Appointment.class);
+        if (appointment != null) {
+            eventPublisher.publishEvent(AppointmentChangedEvent.created(appointment));
+        }
         return saved;
     }
+
+    public void deleteBooking(Booking booking) {
+        Appointment appointment = mongoTemplate.findById(booking.getId(), Appointment.class);
+        bookingRepository.delete(booking);
+        if (booking.getTimeSlotId() != null) {
+            // Frees the slot or hands it to the next waitlisted customer
+            timeSlotService.releaseSlot(booking.getTimeSlotId());
+        }
+        if (appointment != null) {
+            eventPublisher.publishEvent(AppointmentChangedEvent.cancelled(appointment));
+        }
+    }
 }
@@ -0,0 +1,119 @@
+package com.revamp.booking.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stripe.Stripe;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Local stand-in for Stripe's webhook delivery (stripe.mode=stub).
+ * Builds payment_intent events, signs them with stripe.webhook.secret exactly like Stripe does
+ * and posts them to this service's webhook endpoint, so the inbox is exercised end to end.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "stripe.mode", havingValue = "stub")
+public class LocalStripeWebhookSender {
+    private final ObjectMapper objectMapper;
+    private final String webhookSecret;
+    private final String webhookUrl;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(3))
+            .build();
+
+    public LocalStripeWebhookSender(
+            ObjectMapper objectMapper,
+            @Value("${stripe.webhook.secret:}") String webhookSecret,
+            @Value("${stripe.webhook.local-url:http://localhost:${server.port:8084}/api/webhooks/stripe}") String webhookUrl
+    ) {
+        this.objectMapper = objectMapper;
+        this.webhookSecret = webhookSecret;
+        this.webhookUrl = webhookUrl;
+    }
+
+    /**
+     * Send a signed payment_intent.* event and return the webhook's HTTP status
+     */
+    public SentEvent sendPaymentIntentEvent(String type, String paymentIntentId, String bookingId, long amount,
+                                            String intentStatus) throws IOException, InterruptedException {
+        Map<String, Object> intent = new LinkedHashMap<>();
+        intent.put("id", paymentIntentId);
+        intent.put("object", "payment_intent");
+        intent.put("amount", amount);
+        intent.put("currency", "lkr");
+        intent.put("status", intentStatus);
+        intent.put("metadata", bookingId != null ? Map.of("bookingId", bookingId) : Map.of());
+
+        Map<String, Object> event = new LinkedHashMap<>();
+        String eventId = "evt_local_" + UUID.randomUUID().toString().replace("-", "");
+        event.put("id", eventId);
+        event.put("object", "event");
+        event.put("api_version", Stripe.API_VERSION);
+        event.put("created", System.currentTimeMillis() / 1000);
+        event.put("type", type);
+        event.put("livemode", false);
+        event.put("data", Map.of("object", intent));
+
+        return send(eventId, toJson(event));
+    }
+
+    /**
+     * Deliver a raw payload, e.g. to replay the same event and check deduplication
+     */
+    public SentEvent send(String eventId, String payload) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(webhookUrl))
+                .timeout(Duration.ofSeconds(5))
+                .header("Content-Type", "application/json")
+                .header("Stripe-Signature", sign(payload))
+                .POST(HttpRequest.BodyPublishers.ofString(payload, StandardCharsets.UTF_8))
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        log.info("Local webhook {} delivered: HTTP {} {}", eventId, response.statusCode(), response.body());
+        return new SentEvent(eventId, payload, response.statusCode(), response.body());
+    }
+
+    private String sign(String payload) {
+        if (webhookSecret == null || webhookSecret.isEmpty()) {
+            throw new IllegalStateException("stripe.webhook.secret must be set to send local webhooks");
+        }
+        long timestamp = System.currentTimeMillis() / 1000;
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(webhookSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            byte[] digest = mac.doFinal((timestamp + "." + payload).getBytes(StandardCharsets.UTF_8));
+            return "t=" + timestamp + ",v1=" + HexFormat.of().formatHex(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to sign local webhook", e);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize local webhook", e);
+        }
+    }
+
+    public record SentEvent(String eventId, String payload, int status, String body) {
+    }
+}
@@ -0,0 +1,91 @@
+package com.revamp.booking.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.revamp.booking.model.ModificationCatalog;
+import com.revamp.booking.model.ModificationItem;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Near-cache of the modification catalog, which lives on a separate cluster and changes a few
+ * times a month. Requests are served from an in-memory snapshot; the remote collection is only
+ * read on a schedule and when the admin service signals a change.
+ */
+@Service
+public class ModificationCatalogService {
+    private final MongoTemplate modificationServicesTemplate;
+    private final ObjectMapper objectMapper;
+
+    private volatile ModificationCatalog catalog;
+
+    public ModificationCatalogService(
+            @Qualifier("modificationServicesTemplate") MongoTemplate modificationServicesTemplate,
+            ObjectMapper objectMapper
+    ) {
+        this.modificationServicesTemplate = modificationServicesTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Current snapshot; loads it on first use if the scheduled refresh has not run yet
+     */
+    public ModificationCatalog getCatalog() {
+        ModificationCatalog current = catalog;
+        if (current == null) {
+            current = refresh();
+        }
+        return current;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${booking.catalog.refresh-ms:600000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            // Keep serving the previous snapshot until the remote cluster is reachable again
+            System.err.println("✗ Failed to refresh modification catalog: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reload the catalog from the remote cluster. A new version is only published when the
+     * content actually changed, so ETags stay stable across no-op refreshes.
+     */
+    public synchronized ModificationCatalog refresh() {
+        List<ModificationItem> items = modificationServicesTemplate.findAll(ModificationItem.class);
+
+        // Map estimatedCost (Double) to unitPrice (Integer) for compatibility
+        items.forEach(item -> {
+            if (item.getEstimatedCost() != null && item.getUnitPrice() == null) {
+                item.setUnitPrice(item.getEstimatedCost().intValue());
+            }
+        });
+
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(items);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize modification catalog", e);
+        }
+
+        ModificationCatalog current = catalog;
+        if (current != null && Arrays.equals(current.getJson(), json)) {
+            return current;
+        }
+
+        long version = current != null ? current.getVersion() + 1 : 1;
+        String etag = "\"" + DigestUtils.md5DigestAsHex(json) + "\"";
+        ModificationCatalog refreshed = new ModificationCatalog(version, Instant.now(), items, json, etag);
+        catalog = refreshed;
+        System.out.println("✓ Modification catalog v" + version + " loaded with " + items.size() + " item(s)");
+        return refreshed;
+    }
+}
@@ -0,0 +1,136 @@
+package com.revamp.booking.service;
+
+import com.mongodb.client.result.UpdateResult;
+import com.revamp.booking.model.Booking;
+import com.revamp.booking.repository.BookingRepository;
+import com.stripe.exception.StripeException;
+import com.stripe.model.PaymentIntent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Keeps one active PaymentIntent per booking.
+ *
+ * The intent id, amount and client secret are stored on the booking and handed out again while
+ * the amount is unchanged, so page reloads cost no Stripe call. A new intent is only created when
+ * the amount changes or the previous one was canceled; its idempotency key is derived from the
+ * booking, attempt number and amount, so concurrent or retried requests get the same intent.
+ * The intent it replaces is canceled in Stripe first. A request that loses the race to store its
+ * intent hands out the one that was stored, or cancels its own and starts over.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentIntentService {
+    private static final String CURRENCY = "lkr";
+    private static final int MAX_STORE_ATTEMPTS = 3;
+
+    private final BookingRepository bookingRepository;
+    private final MongoTemplate mongoTemplate;
+    private final StripeService stripeService;
+    private final PaymentStateService paymentStateService;
+
+    public record ActiveIntent(String paymentIntentId, String clientSecret, long amount, boolean reused) {
+    }
+
+    public ActiveIntent getOrCreate(String bookingId, Long requestedAmountLkr) throws StripeException {
+        for (int attempt = 1; attempt <= MAX_STORE_ATTEMPTS; attempt++) {
+            ActiveIntent intent = tryGetOrCreate(bookingId, requestedAmountLkr);
+            if (intent != null) {
+                return intent;
+            }
+        }
+        throw new IllegalStateException("Payment for booking " + bookingId + " is being set up concurrently, please retry");
+    }
+
+    /**
+     * One pass of getOrCreate; null when a concurrent request stored a different intent first
+     */
+    private ActiveIntent tryGetOrCreate(String bookingId, Long requestedAmountLkr) throws StripeException {
+        Booking booking = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new IllegalArgumentException("Booking not found"));
+        if (PaymentStateService.PAID.equals(booking.getPaymentStatus())) {
+            throw new IllegalStateException("Booking is already paid");
+        }
+
+        Long amountLkr = booking.getEstimatedCost() != null ? Long.valueOf(booking.getEstimatedCost()) : requestedAmountLkr;
+        if (amountLkr == null || amountLkr <= 0) {
+            throw new IllegalArgumentException("Booking has no payable amount");
+        }
+        long amountMinor = amountLkr * 100L;
+
+        if (isReusable(booking, amountMinor)) {
+            return new ActiveIntent(booking.getPaymentIntentId(), booking.getPaymentClientSecret(), amountMinor, true);
+        }
+
+        if (booking.getPaymentIntentId() != null && !PaymentStateService.CANCELED.equals(booking.getPaymentStatus())) {
+            cancelSuperseded(bookingId, booking.getPaymentIntentId());
+        }
+
+        Integer previousAttempt = booking.getPaymentAttempt();
+        int attempt = previousAttempt != null ? previousAttempt + 1 : 1;
+        String idempotencyKey = "booking-" + bookingId + "-intent-" + attempt + "-" + amountMinor;
+        PaymentIntent intent = stripeService.createPaymentIntent(amountLkr, CURRENCY, bookingId, idempotencyKey);
+
+        // Only the request that moves the attempt forward stores its intent
+        Query query = new Query(Criteria.where("_id").is(bookingId).and("paymentAttempt").is(previousAttempt));
+        LocalDateTime now = LocalDateTime.now();
+        Update update = new Update()
+                .set("paymentIntentId", intent.getId())
+                .set("paymentAmount", amountMinor)
+                .set("paymentClientSecret", intent.getClientSecret())
+                .set("paymentAttempt", attempt)
+                .set("paymentStatus", PaymentStateService.PENDING)
+                .set("paymentUpdatedAt", now)
+                .set("updatedAt", now);
+        UpdateResult result = mongoTemplate.updateFirst(query, update, Booking.class);
+        if (result.getModifiedCount() == 0) {
+            // A concurrent request stored an intent first; with the same key it is the same intent
+            Booking current = bookingRepository.findById(bookingId).orElse(booking);
+            if (isReusable(current, amountMinor)) {
+                return new ActiveIntent(current.getPaymentIntentId(), current.getPaymentClientSecret(), amountMinor, true);
+            }
+            // The stored one is for another amount or attempt; ours must not stay payable
+            if (!intent.getId().equals(current.getPaymentIntentId())) {
+                stripeService.cancelPaymentIntent(intent, "booking-" + bookingId + "-cancel-" + intent.getId());
+                log.info("Canceled PaymentIntent {} for booking {} after losing the race to store it", intent.getId(), bookingId);
+            }
+            return null;
+        }
+        // Payment status went back to pending; listeners bump the bookings ETag
+        paymentStateService.publishChange(bookingId);
+        log.info("Created PaymentIntent {} for booking {} (attempt {})", intent.getId(), bookingId, attempt);
+        return new ActiveIntent(intent.getId(), intent.getClientSecret(), amountMinor, false);
+    }
+
+    /**
+     * Cancel the intent being replaced so the customer cannot pay both. One that is already paid
+     * or being paid is kept and no new intent is created.
+     */
+    private void cancelSuperseded(String bookingId, String paymentIntentId) throws StripeException {
+        PaymentIntent previous = stripeService.retrievePaymentIntent(paymentIntentId);
+        String status = PaymentStateService.fromIntentStatus(previous.getStatus());
+        if (PaymentStateService.PAID.equals(status) || PaymentStateService.PROCESSING.equals(status)) {
+            throw new IllegalStateException("The previous payment for this booking is already " + status);
+        }
+        if (!PaymentStateService.CANCELED.equals(status)) {
+            stripeService.cancelPaymentIntent(previous, "booking-" + bookingId + "-cancel-" + paymentIntentId);
+            log.info("Canceled superseded PaymentIntent {} for booking {}", paymentIntentId, bookingId);
+        }
+    }
+
+    private boolean isReusable(Booking booking, long amountMinor) {
+        return booking.getPaymentIntentId() != null
+                && booking.getPaymentClientSecret() != null
+                && Objects.equals(booking.getPaymentAmount(), amountMinor)
+                && !PaymentStateService.CANCELED.equals(booking.getPaymentStatus());
+    }
+}
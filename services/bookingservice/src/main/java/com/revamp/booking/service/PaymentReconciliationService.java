@@ -0,0 +1,297 @@
+package com.revamp.booking.service;
+
+import com.revamp.booking.model.Booking;
+import com.revamp.booking.model.PaymentReconciliationReport;
+import com.stripe.model.Charge;
+import com.stripe.model.PaymentIntent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares bookings with an open payment state against Stripe and fixes missed webhooks.
+ *
+ * Bookings are paged by _id. Each page's intents are fetched with bounded concurrency and a
+ * global request rate, changed states are written with one unordered bulk write per page, and
+ * a report is saved to payment_reconciliation_reports. A lock document keeps replicas from
+ * running the job at the same time.
+ */
+@Service
+@Slf4j
+public class PaymentReconciliationService {
+    private static final String LOCK_COLLECTION = "job_locks";
+    private static final String LOCK_ID = "payment-reconciliation";
+    private static final List<String> OPEN_STATES = List.of(
+            PaymentStateService.PENDING, PaymentStateService.PROCESSING, PaymentStateService.FAILED);
+
+    private final MongoTemplate mongoTemplate;
+    private final StripeService stripeService;
+    private final PaymentStateService paymentStateService;
+    private final TaskScheduler taskScheduler;
+    private final int pageSize;
+    private final long minRequestIntervalNanos;
+    private final Duration abandonAfter;
+    private final ExecutorService fetchers;
+    private final AtomicLong nextRequestAt = new AtomicLong();
+
+    public PaymentReconciliationService(
+            MongoTemplate mongoTemplate,
+            StripeService stripeService,
+            PaymentStateService paymentStateService,
+            TaskScheduler taskScheduler,
+            @Value("${payment.reconciliation.page-size:200}") int pageSize,
+            @Value("${payment.reconciliation.concurrency:4}") int concurrency,
+            @Value("${payment.reconciliation.max-requests-per-second:20}") int maxRequestsPerSecond,
+            @Value("${payment.reconciliation.abandon-after-hours:48}") long abandonAfterHours
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.stripeService = stripeService;
+        this.paymentStateService = paymentStateService;
+        this.taskScheduler = taskScheduler;
+        this.pageSize = pageSize;
+        this.minRequestIntervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, maxRequestsPerSecond);
+        this.abandonAfter = Duration.ofHours(abandonAfterHours);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.fetchers = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "payment-reconcile-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Scheduled(cron = "${payment.reconciliation.cron:0 30 2 * * *}")
+    public void scheduledRun() {
+        reconcile("scheduled");
+    }
+
+    /**
+     * Run a reconciliation pass now
+     *
+     * @return the saved report, or null if another run holds the lock
+     */
+    public PaymentReconciliationReport reconcile(String trigger) {
+        if (!acquireLock()) {
+            log.info("Payment reconciliation already running elsewhere, skipping");
+            return null;
+        }
+        return run(newReport(trigger));
+    }
+
+    /**
+     * Start a reconciliation pass on the scheduler thread and return without waiting for it
+     *
+     * @return id of the report the run fills in, or null if another run holds the lock
+     */
+    public String startManualRun() {
+        if (!acquireLock()) {
+            return null;
+        }
+        PaymentReconciliationReport report = mongoTemplate.save(newReport("manual"));
+        try {
+            taskScheduler.schedule(() -> run(report), Instant.now());
+        } catch (RuntimeException e) {
+            releaseLock();
+            throw e;
+        }
+        return report.getId();
+    }
+
+    public Optional<PaymentReconciliationReport> findReport(String reportId) {
+        return Optional.ofNullable(mongoTemplate.findById(reportId, PaymentReconciliationReport.class));
+    }
+
+    public List<PaymentReconciliationReport> recentReports(int limit) {
+        Query query = new Query().with(Sort.by(Sort.Direction.DESC, "startedAt")).limit(limit);
+        return mongoTemplate.find(query, PaymentReconciliationReport.class);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fetchers.shutdownNow();
+    }
+
+    private PaymentReconciliationReport newReport(String trigger) {
+        PaymentReconciliationReport report = new PaymentReconciliationReport();
+        report.setTrigger(trigger);
+        report.setStartedAt(LocalDateTime.now());
+        return report;
+    }
+
+    /**
+     * Page through the open bookings; the caller holds the lock, which is released here
+     */
+    private PaymentReconciliationReport run(PaymentReconciliationReport report) {
+        long started = System.nanoTime();
+        try {
+            ObjectId lastId = null;
+            List<Booking> page;
+            do {
+                page = nextPage(lastId);
+                if (!page.isEmpty()) {
+                    reconcilePage(page, report);
+                    lastId = new ObjectId(page.get(page.size() - 1).getId());
+                }
+            } while (page.size() == pageSize);
+        } catch (RuntimeException e) {
+            log.error("Payment reconciliation aborted", e);
+            report.addError("Aborted: " + e.getMessage());
+        } finally {
+            releaseLock();
+        }
+
+        report.setFinishedAt(LocalDateTime.now());
+        report.setDurationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        mongoTemplate.save(report);
+        log.info("Payment reconciliation ({}) scanned {} booking(s), checked {}, updated {} {}, abandoned {}, errors {} in {} ms",
+                report.getTrigger(), report.getScanned(), report.getChecked(), report.getUpdated(), report.getUpdatesByStatus(),
+                report.getAbandoned(), report.getErrors(), report.getDurationMs());
+        return report;
+    }
+
+    private List<Booking> nextPage(ObjectId lastId) {
+        Criteria criteria = Criteria.where("paymentIntentId").ne(null).and("paymentStatus").in(OPEN_STATES);
+        if (lastId != null) {
+            criteria = criteria.and("_id").gt(lastId);
+        }
+        Query query = new Query(criteria).with(Sort.by("_id")).limit(pageSize);
+        query.fields().include("_id", "paymentIntentId", "paymentStatus");
+        return mongoTemplate.find(query, Booking.class);
+    }
+
+    private void reconcilePage(List<Booking> page, PaymentReconciliationReport report) {
+        report.setScanned(report.getScanned() + page.size());
+
+        List<CompletableFuture<PaymentIntent>> fetches = new ArrayList<>(page.size());
+        for (Booking booking : page) {
+            fetches.add(CompletableFuture.supplyAsync(() -> fetch(booking.getPaymentIntentId()), fetchers));
+        }
+
+        Instant abandonBefore = Instant.now().minus(abandonAfter);
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Booking.class);
+        List<String> changed = new ArrayList<>();
+        for (int i = 0; i < page.size(); i++) {
+            Booking booking = page.get(i);
+            PaymentIntent intent;
+            try {
+                intent = fetches.get(i).join();
+            } catch (RuntimeException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                report.addError(booking.getId() + ": " + cause.getMessage());
+                continue;
+            }
+            report.setChecked(report.getChecked() + 1);
+
+            String status = PaymentStateService.fromIntentStatus(intent.getStatus());
+            if (PaymentStateService.PENDING.equals(status) && intent.getCreated() != null
+                    && Instant.ofEpochSecond(intent.getCreated()).isBefore(abandonBefore)) {
+                report.addAbandoned(booking.getId());
+            }
+            if (status.equals(booking.getPaymentStatus())) {
+                continue;
+            }
+            if (PaymentStateService.FAILED.equals(booking.getPaymentStatus()) && PaymentStateService.PENDING.equals(status)) {
+                continue; // A failed attempt leaves the intent awaiting a new payment method
+            }
+            long changedAt = stateChangedAt(intent);
+            bulk.updateOne(paymentStateService.applicableQuery(booking.getId(), intent.getId(), status, changedAt),
+                    paymentStateService.paymentUpdate(intent.getId(), status, changedAt));
+            changed.add(booking.getId());
+            report.getUpdatesByStatus().merge(status, 1, Integer::sum);
+        }
+
+        if (changed.isEmpty()) {
+            return;
+        }
+        int modified = bulk.execute().getModifiedCount();
+        report.setUpdated(report.getUpdated() + modified);
+        for (String bookingId : changed) {
+            paymentStateService.publishChange(bookingId);
+        }
+    }
+
+    /**
+     * When the intent reached its current state by Stripe's clock: its cancellation, its latest
+     * charge, or its creation. Stamping this rather than the time of the check keeps webhooks for
+     * anything that happened after it applicable.
+     */
+    static long stateChangedAt(PaymentIntent intent) {
+        if (intent.getCanceledAt() != null) {
+            return intent.getCanceledAt();
+        }
+        Charge latestCharge = intent.getLatestChargeObject();
+        if (latestCharge != null && latestCharge.getCreated() != null) {
+            return latestCharge.getCreated();
+        }
+        return intent.getCreated() != null ? intent.getCreated() : 0L;
+    }
+
+    private PaymentIntent fetch(String paymentIntentId) {
+        pace();
+        try {
+            return stripeService.retrievePaymentIntent(paymentIntentId);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to retrieve " + paymentIntentId + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Space requests out so all fetchers together stay under the configured rate
+     */
+    private void pace() {
+        long now = System.nanoTime();
+        long slot = nextRequestAt.getAndUpdate(next -> Math.max(next, now) + minRequestIntervalNanos);
+        long wait = Math.max(slot, now) - now;
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the Stripe rate limit");
+            }
+        }
+    }
+
+    private boolean acquireLock() {
+        LocalDateTime now = LocalDateTime.now();
+        Query query = new Query(Criteria.where("_id").is(LOCK_ID).and("lockedUntil").lt(now));
+        Update update = new Update().set("lockedUntil", now.plusHours(1)).set("lockedAt", now);
+        try {
+            mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().upsert(true), Document.class,
+                    LOCK_COLLECTION);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false; // Lock document exists and has not expired
+        }
+    }
+
+    private void releaseLock() {
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(LOCK_ID)),
+                new Update().set("lockedUntil", LocalDateTime.now()), LOCK_COLLECTION);
+    }
+}
@@ -0,0 +1,113 @@
+package com.revamp.booking.service;
+
+import com.mongodb.client.result.UpdateResult;
+import com.revamp.booking.bookingservice.event.AppointmentChangedEvent;
+import com.revamp.booking.bookingservice.model.Appointment;
+import com.revamp.booking.model.Booking;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Single place where a booking's payment state is written.
+ * Updates are conditional in the database: an update older than the last applied one is ignored,
+ * and only a success may overwrite a paid booking.
+ */
+@Service
+@RequiredArgsConstructor
+public class PaymentStateService {
+    public static final String PENDING = "pending";
+    public static final String PROCESSING = "processing";
+    public static final String PAID = "paid";
+    public static final String FAILED = "failed";
+    public static final String CANCELED = "canceled";
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Map a PaymentIntent status to the booking's payment state
+     */
+    public static String fromIntentStatus(String intentStatus) {
+        if (intentStatus == null) {
+            return PENDING;
+        }
+        return switch (intentStatus) {
+            case "succeeded" -> PAID;
+            case "processing", "requires_capture" -> PROCESSING;
+            case "canceled" -> CANCELED;
+            default -> PENDING; // requires_payment_method, requires_confirmation, requires_action
+        };
+    }
+
+    /**
+     * Atomically apply a payment state observed at eventCreated (epoch seconds)
+     *
+     * @return true if the booking was updated
+     */
+    public boolean apply(String bookingId, String paymentIntentId, String paymentStatus, long eventCreated) {
+        UpdateResult result = mongoTemplate.updateFirst(
+                applicableQuery(bookingId, paymentIntentId, paymentStatus, eventCreated),
+                paymentUpdate(paymentIntentId, paymentStatus, eventCreated),
+                Booking.class);
+        if (result.getModifiedCount() == 0) {
+            return false;
+        }
+        publishChange(bookingId);
+        return true;
+    }
+
+    public Optional<String> findBookingIdByIntent(String paymentIntentId) {
+        Query query = new Query(Criteria.where("paymentIntentId").is(paymentIntentId));
+        query.fields().include("_id");
+        return Optional.ofNullable(mongoTemplate.findOne(query, Booking.class)).map(Booking::getId);
+    }
+
+    Query applicableQuery(String bookingId, String paymentIntentId, String paymentStatus, long eventCreated) {
+        List<Criteria> conditions = new ArrayList<>();
+        conditions.add(new Criteria().orOperator(
+                Criteria.where("paymentEventCreated").is(null), // Also matches a missing field
+                Criteria.where("paymentEventCreated").lte(eventCreated)));
+        if (paymentIntentId != null) {
+            // Events of an intent that was replaced (and canceled) no longer apply
+            conditions.add(new Criteria().orOperator(
+                    Criteria.where("paymentIntentId").is(null),
+                    Criteria.where("paymentIntentId").is(paymentIntentId)));
+        }
+        Criteria criteria = Criteria.where("_id").is(bookingId).andOperator(conditions);
+        if (!PAID.equals(paymentStatus)) {
+            criteria.and("paymentStatus").ne(PAID);
+        }
+        return new Query(criteria);
+    }
+
+    Update paymentUpdate(String paymentIntentId, String paymentStatus, long eventCreated) {
+        LocalDateTime now = LocalDateTime.now();
+        Update update = new Update()
+                .set("paymentStatus", paymentStatus)
+                .set("paymentEventCreated", eventCreated)
+                .set("paymentUpdatedAt", now)
+                .set("updatedAt", now);
+        if (paymentIntentId != null) {
+            update.set("paymentIntentId", paymentIntentId);
+        }
+        return update;
+    }
+
+    void publishChange(String bookingId) {
+        Appointment appointment = mongoTemplate.findById(bookingId, Appointment.class);
+        if (appointment != null) {
+            eventPublisher.publishEvent(AppointmentChangedEvent.updated(AppointmentChangedEvent.Type.PAYMENT_UPDATED,
+                    appointment, appointment.getStatus(), appointment.getDate(), appointment.getAssignedEmployeeIds()));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.revamp.booking.service;
+
+import com.revamp.booking.dto.ModificationQuote;
+import com.revamp.booking.model.ModificationCatalog;
+import com.revamp.booking.model.ModificationItem;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Prices modification baskets against the in-memory catalog snapshot.
+ * Uses the same rules the booking form used: hours are summed with a 10% buffer per extra job
+ * and rounded up, cost is the sum of unit prices.
+ */
+@Service
+@RequiredArgsConstructor
+public class QuoteService {
+    private static final int MAX_BASKETS = 100;
+    private static final int HOURS_PER_DAY = 8;
+
+    private final ModificationCatalogService modificationCatalogService;
+
+    public ModificationQuote quote(List<String> modifications) {
+        return quote(modificationCatalogService.getCatalog(), modifications);
+    }
+
+    /**
+     * Quote several candidate baskets against one catalog version
+     */
+    public List<ModificationQuote> quoteAll(List<List<String>> baskets) {
+        if (baskets.size() > MAX_BASKETS) {
+            throw new IllegalArgumentException("At most " + MAX_BASKETS + " baskets can be quoted at once");
+        }
+        ModificationCatalog catalog = modificationCatalogService.getCatalog();
+        List<ModificationQuote> quotes = new ArrayList<>(baskets.size());
+        for (List<String> basket : baskets) {
+            quotes.add(quote(catalog, basket));
+        }
+        return quotes;
+    }
+
+    private ModificationQuote quote(ModificationCatalog catalog, List<String> modifications) {
+        ModificationQuote quote = new ModificationQuote();
+        quote.setCatalogVersion(catalog.getVersion());
+        if (modifications == null) {
+            return quote;
+        }
+
+        int hours = 0;
+        int cost = 0;
+        for (String requested : new LinkedHashSet<>(modifications)) {
+            quote.getRequested().add(requested);
+            Optional<ModificationItem> match = catalog.find(requested);
+            if (match.isEmpty()) {
+                quote.getUnknownModifications().add(requested);
+                continue;
+            }
+            ModificationItem item = match.get();
+            ModificationQuote.Line line = new ModificationQuote.Line();
+            line.setId(item.getId());
+            line.setName(item.getName());
+            line.setEstimatedHours(item.getEstimatedHours() != null ? item.getEstimatedHours() : 0);
+            line.setUnitPrice(item.getUnitPrice() != null ? item.getUnitPrice() : 0);
+            quote.getLines().add(line);
+            hours += line.getEstimatedHours();
+            cost += line.getUnitPrice();
+        }
+
+        int jobs = quote.getLines().size();
+        double bufferMultiplier = jobs > 1 ? 1 + (jobs - 1) * 0.1 : 1;
+        int estimatedHours = (int) Math.ceil(hours * bufferMultiplier);
+        quote.setBaseHours(hours);
+        quote.setEstimatedTimeHours(estimatedHours);
+        quote.setEstimatedCost(cost);
+        quote.setEstimatedDays((int) Math.ceil(estimatedHours / (double) HOURS_PER_DAY));
+        return quote;
+    }
+}
@@ -1,38 +1,88 @@
 package com.revamp.booking.service;
 
-import com.stripe.Stripe;
 import com.stripe.exception.StripeException;
 import com.stripe.model.PaymentIntent;
+import com.stripe.net.RequestOptions;
+import com.stripe.param.PaymentIntentCancelParams;
 import com.stripe.param.PaymentIntentCreateParams;
-import lombok.RequiredArgsConstructor;
+import com.stripe.param.PaymentIntentRetrieveParams;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
 
+/**
+ * Stripe calls for the live mode. The secret key goes with every request rather than into the
+ * SDK's global setting, and the service refuses to start without one.
+ */
 @Service
-@RequiredArgsConstructor
+@ConditionalOnProperty(name = "stripe.mode", havingValue = "live", matchIfMissing = true)
 public class StripeService {
-    @Value("${stripe.api.secret}")
+    @Value("${stripe.api.secret:}")
     private String stripeSecretKey;
 
+    @Value("${stripe.connect-timeout-ms:3000}")
+    private int connectTimeoutMs;
+
+    @Value("${stripe.read-timeout-ms:10000}")
+    private int readTimeoutMs;
+
+    @Value("${stripe.max-network-retries:2}")
+    private int maxNetworkRetries;
+
     @PostConstruct
     public void init() {
-        Stripe.apiKey = stripeSecretKey;
+        if (stripeSecretKey == null || stripeSecretKey.isBlank()) {
+            throw new IllegalStateException("stripe.api.secret (STRIPE_SECRET_KEY) must be set when stripe.mode is live;"
+                    + " use stripe.mode=stub to run without Stripe");
+        }
     }
 
-    public PaymentIntent createPaymentIntent(Long amountLkr, String currency, String bookingId) throws StripeException {
+    /**
+     * Create a PaymentIntent. Retrying with the same idempotency key returns the original intent
+     * instead of creating another one.
+     */
+    public PaymentIntent createPaymentIntent(Long amountLkr, String currency, String bookingId, String idempotencyKey)
+            throws StripeException {
         PaymentIntentCreateParams params = PaymentIntentCreateParams.builder()
                 .setAmount(amountLkr * 100L) // Stripe uses smallest currency unit (cents), LKR uses cents too
                 .setCurrency(currency.toLowerCase())
                 .putMetadata("bookingId", bookingId)
                 .build();
 
-        return PaymentIntent.create(params);
+        return PaymentIntent.create(params, requestOptions(idempotencyKey));
     }
 
+    /**
+     * Retrieve a PaymentIntent with its latest charge, whose time tells when the last payment attempt happened
+     */
     public PaymentIntent retrievePaymentIntent(String paymentIntentId) throws StripeException {
-        return PaymentIntent.retrieve(paymentIntentId);
+        PaymentIntentRetrieveParams params = PaymentIntentRetrieveParams.builder()
+                .addExpand("latest_charge")
+                .build();
+        return PaymentIntent.retrieve(paymentIntentId, params, requestOptions(null));
     }
-}
 
+    /**
+     * Cancel an intent that is being replaced so it can no longer be paid
+     */
+    public PaymentIntent cancelPaymentIntent(PaymentIntent intent, String idempotencyKey) throws StripeException {
+        PaymentIntentCancelParams params = PaymentIntentCancelParams.builder()
+                .setCancellationReason(PaymentIntentCancelParams.CancellationReason.ABANDONED)
+                .build();
+        return intent.cancel(params, requestOptions(idempotencyKey));
+    }
+
+    private RequestOptions requestOptions(String idempotencyKey) {
+        RequestOptions.RequestOptionsBuilder builder = RequestOptions.builder()
+                .setApiKey(stripeSecretKey)
+                .setConnectTimeout(connectTimeoutMs)
+                .setReadTimeout(readTimeoutMs)
+                .setMaxNetworkRetries(maxNetworkRetries);
+        if (idempotencyKey != null) {
+            builder.setIdempotencyKey(idempotencyKey);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,199 @@
+package com.revamp.booking.service;
+
+import com.revamp.booking.model.StripeWebhookEvent;
+import com.stripe.exception.EventDataObjectDeserializationException;
+import com.stripe.model.Event;
+import com.stripe.model.PaymentIntent;
+import com.stripe.model.StripeObject;
+import com.stripe.net.LiveStripeResponseGetter;
+import com.stripe.net.StripeResponseGetter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stores verified Stripe webhooks in the stripe_webhook_events inbox and processes them on a
+ * worker pool, off the request thread.
+ *
+ * Each event is claimed with an atomic status change before it is processed, so concurrent
+ * workers or instances never apply the same event twice. Failed or unclaimed events are picked
+ * up again by a periodic sweep with backoff.
+ */
+@Service
+@Slf4j
+public class StripeWebhookProcessor {
+    private static final int MAX_ATTEMPTS = 8;
+    private static final int SWEEP_BATCH = 100;
+    private static final long LEASE_MINUTES = 5;
+
+    private final MongoTemplate mongoTemplate;
+    private final PaymentStateService paymentStateService;
+    private final ThreadPoolExecutor workers;
+    // Only used to deserialize stored payloads, the same way Webhook.constructEvent does
+    private final StripeResponseGetter responseGetter = new LiveStripeResponseGetter();
+
+    public StripeWebhookProcessor(
+            MongoTemplate mongoTemplate,
+            PaymentStateService paymentStateService,
+            @Value("${stripe.webhook.workers:4}") int workerCount,
+            @Value("${stripe.webhook.queue-size:1000}") int queueSize
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.paymentStateService = paymentStateService;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+                    Thread thread = new Thread(runnable, "stripe-webhook-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Record a verified event in the inbox and queue it for processing
+     *
+     * @return false if the event was already received
+     */
+    public boolean accept(Event event, String payload) {
+        StripeWebhookEvent inbox = new StripeWebhookEvent();
+        inbox.setId(event.getId());
+        inbox.setType(event.getType());
+        inbox.setCreated(event.getCreated() != null ? event.getCreated() : 0L);
+        inbox.setPayload(payload);
+        inbox.setStatus(StripeWebhookEvent.RECEIVED);
+        inbox.setReceivedAt(LocalDateTime.now());
+        inbox.setNextAttemptAt(LocalDateTime.now());
+        try {
+            mongoTemplate.insert(inbox);
+        } catch (DuplicateKeyException e) {
+            log.info("Duplicate Stripe event {} ignored", event.getId());
+            return false;
+        }
+        submit(event.getId());
+        return true;
+    }
+
+    /**
+     * Retry failed events and pick up events whose worker died or whose queue slot was rejected
+     */
+    @Scheduled(fixedDelayString = "${stripe.webhook.sweep-ms:30000}")
+    public void sweep() {
+        Query query = new Query(Criteria.where("status").in(
+                        StripeWebhookEvent.RECEIVED, StripeWebhookEvent.FAILED, StripeWebhookEvent.PROCESSING)
+                .and("nextAttemptAt").lte(LocalDateTime.now())
+                .and("attempts").lt(MAX_ATTEMPTS))
+                .with(Sort.by("nextAttemptAt"))
+                .limit(SWEEP_BATCH);
+        query.fields().include("_id");
+        List<StripeWebhookEvent> due = mongoTemplate.find(query, StripeWebhookEvent.class);
+        for (StripeWebhookEvent event : due) {
+            submit(event.getId());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    private void submit(String eventId) {
+        try {
+            workers.execute(() -> process(eventId));
+        } catch (RejectedExecutionException e) {
+            // Queue is full; the event stays in the inbox and the sweep picks it up
+            log.warn("Stripe webhook queue full, deferring event {}", eventId);
+        }
+    }
+
+    void process(String eventId) {
+        StripeWebhookEvent claimed = claim(eventId);
+        if (claimed == null) {
+            return; // Already processed or being processed elsewhere
+        }
+        try {
+            Event event = StripeObject.deserializeStripeObject(claimed.getPayload(), Event.class, responseGetter);
+            handle(event);
+            mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(eventId)),
+                    new Update().set("status", StripeWebhookEvent.PROCESSED)
+                            .set("processedAt", LocalDateTime.now())
+                            .unset("lastError"),
+                    StripeWebhookEvent.class);
+        } catch (Exception e) {
+            log.error("Failed to process Stripe event {} (attempt {})", eventId, claimed.getAttempts(), e);
+            long backoffSeconds = Math.min(3600, 15L << Math.min(claimed.getAttempts(), 8));
+            mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(eventId)),
+                    new Update().set("status", StripeWebhookEvent.FAILED)
+                            .set("lastError", e.getMessage())
+                            .set("nextAttemptAt", LocalDateTime.now().plusSeconds(backoffSeconds)),
+                    StripeWebhookEvent.class);
+        }
+    }
+
+    private StripeWebhookEvent claim(String eventId) {
+        LocalDateTime now = LocalDateTime.now();
+        Query query = new Query(Criteria.where("_id").is(eventId)
+                .and("attempts").lt(MAX_ATTEMPTS)
+                .orOperator(
+                        Criteria.where("status").in(StripeWebhookEvent.RECEIVED, StripeWebhookEvent.FAILED),
+                        // Lease of a worker that died mid-processing has expired
+                        Criteria.where("status").is(StripeWebhookEvent.PROCESSING).and("nextAttemptAt").lte(now)));
+        Update update = new Update()
+                .set("status", StripeWebhookEvent.PROCESSING)
+                .set("nextAttemptAt", now.plusMinutes(LEASE_MINUTES))
+                .inc("attempts", 1);
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true),
+                StripeWebhookEvent.class);
+    }
+
+    private void handle(Event event) throws EventDataObjectDeserializationException {
+        String paymentStatus = switch (event.getType()) {
+            case "payment_intent.succeeded" -> PaymentStateService.PAID;
+            case "payment_intent.processing" -> PaymentStateService.PROCESSING;
+            case "payment_intent.payment_failed" -> PaymentStateService.FAILED;
+            case "payment_intent.canceled" -> PaymentStateService.CANCELED;
+            default -> null;
+        };
+        if (paymentStatus == null) {
+            return; // Not an event we act on
+        }
+
+        StripeObject object = event.getDataObjectDeserializer().getObject().orElse(null);
+        if (object == null) {
+            // Event was rendered with a different API version than this library
+            object = event.getDataObjectDeserializer().deserializeUnsafe();
+        }
+        PaymentIntent intent = (PaymentIntent) object;
+
+        String bookingId = intent.getMetadata() != null ? intent.getMetadata().get("bookingId") : null;
+        if (bookingId == null) {
+            Optional<String> byIntent = paymentStateService.findBookingIdByIntent(intent.getId());
+            if (byIntent.isEmpty()) {
+                log.warn("Stripe event {} for intent {} has no matching booking", event.getId(), intent.getId());
+                return;
+            }
+            bookingId = byIntent.get();
+        }
+
+        boolean applied = paymentStateService.apply(bookingId, intent.getId(), paymentStatus, event.getCreated());
+        log.info("Stripe event {} ({}) for booking {}: {}", event.getId(), event.getType(), bookingId,
+                applied ? "payment state set to " + paymentStatus : "stale, ignored");
+    }
+}
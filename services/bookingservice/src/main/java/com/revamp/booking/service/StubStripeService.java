@@ -0,0 +1,105 @@
+package com.revamp.booking.service;
+
+import com.stripe.exception.InvalidRequestException;
+import com.stripe.exception.StripeException;
+import com.stripe.model.PaymentIntent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory stand-in for Stripe (stripe.mode=stub). Honors idempotency keys like Stripe does,
+ * counts remote calls, and lets tests move intents between statuses.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "stripe.mode", havingValue = "stub")
+public class StubStripeService extends StripeService {
+    private final Map<String, PaymentIntent> intents = new ConcurrentHashMap<>();
+    private final Map<String, String> intentIdsByIdempotencyKey = new ConcurrentHashMap<>();
+    private final AtomicInteger createCalls = new AtomicInteger();
+    private final AtomicInteger retrieveCalls = new AtomicInteger();
+    private final AtomicInteger cancelCalls = new AtomicInteger();
+
+    @Override
+    public void init() {
+        // No API key needed
+    }
+
+    @Override
+    public PaymentIntent createPaymentIntent(Long amountLkr, String currency, String bookingId, String idempotencyKey) {
+        createCalls.incrementAndGet();
+        String key = idempotencyKey != null ? idempotencyKey : "none-" + createCalls.get();
+        String intentId = intentIdsByIdempotencyKey.computeIfAbsent(key, k -> {
+            PaymentIntent intent = new PaymentIntent();
+            intent.setId("pi_stub_" + Integer.toHexString(k.hashCode()) + "_" + intents.size());
+            intent.setObject("payment_intent");
+            intent.setClientSecret(intent.getId() + "_secret_stub");
+            intent.setAmount(amountLkr * 100L);
+            intent.setCurrency(currency.toLowerCase());
+            intent.setStatus("requires_payment_method");
+            intent.setCreated(Instant.now().getEpochSecond());
+            Map<String, String> metadata = new HashMap<>();
+            metadata.put("bookingId", bookingId);
+            intent.setMetadata(metadata);
+            intents.put(intent.getId(), intent);
+            log.info("Stub Stripe created intent {} for booking {}", intent.getId(), bookingId);
+            return intent.getId();
+        });
+        return intents.get(intentId);
+    }
+
+    @Override
+    public PaymentIntent retrievePaymentIntent(String paymentIntentId) throws StripeException {
+        retrieveCalls.incrementAndGet();
+        PaymentIntent intent = intents.get(paymentIntentId);
+        if (intent == null) {
+            throw new InvalidRequestException("No such payment_intent: " + paymentIntentId, "id", null, null, 404, null);
+        }
+        return intent;
+    }
+
+    @Override
+    public PaymentIntent cancelPaymentIntent(PaymentIntent intent, String idempotencyKey) throws StripeException {
+        cancelCalls.incrementAndGet();
+        PaymentIntent stored = intents.get(intent.getId());
+        if (stored == null) {
+            throw new InvalidRequestException("No such payment_intent: " + intent.getId(), "id", null, null, 404, null);
+        }
+        if ("succeeded".equals(stored.getStatus())) {
+            throw new InvalidRequestException("This PaymentIntent's status is succeeded", null, null,
+                    "payment_intent_unexpected_state", 400, null);
+        }
+        stored.setStatus("canceled");
+        stored.setCanceledAt(Instant.now().getEpochSecond());
+        log.info("Stub Stripe canceled intent {}", stored.getId());
+        return stored;
+    }
+
+    public Optional<PaymentIntent> setStatus(String paymentIntentId, String status) {
+        PaymentIntent intent = intents.get(paymentIntentId);
+        if (intent != null) {
+            intent.setStatus(status);
+        }
+        return Optional.ofNullable(intent);
+    }
+
+    public int getCreateCalls() {
+        return createCalls.get();
+    }
+
+    public int getRetrieveCalls() {
+        return retrieveCalls.get();
+    }
+
+    public int getCancelCalls() {
+        return cancelCalls.get();
+    }
+}
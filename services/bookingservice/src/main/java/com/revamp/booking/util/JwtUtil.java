@@ -84,5 +84,12 @@ public class JwtUtil {
         String role = getRole(claims);
         return "ADMIN".equalsIgnoreCase(role);
     }
+
+    /**
+     * Token another Revamp service signed with the shared secret to call this one
+     */
+    public boolean isService(Claims claims, String service) {
+        return "SERVICE".equalsIgnoreCase(getRole(claims)) && service.equals(claims.getSubject());
+    }
 }
 
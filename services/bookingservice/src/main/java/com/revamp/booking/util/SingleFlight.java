@@ -0,0 +1,86 @@
+package com.revamp.booking.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical reads: while a computation for a key is running, other callers
+ * asking for the same key wait for it and share its result instead of querying again.
+ *
+ * Nothing is cached once the computation finishes. invalidate() detaches the running computation
+ * so later callers start a fresh one, and callers that were waiting on it recompute rather than
+ * return a result that may predate the change. Writes the computation makes itself (on its own
+ * thread) are part of its result and do not invalidate it.
+ */
+public class SingleFlight<K, V> {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final ConcurrentHashMap<K, Flight<V>> inFlight = new ConcurrentHashMap<>();
+
+    public V execute(K key, Supplier<V> loader) {
+        V result = null;
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            Flight<V> flight = new Flight<>(Thread.currentThread());
+            Flight<V> existing = inFlight.putIfAbsent(key, flight);
+            if (existing == null) {
+                try {
+                    flight.future.complete(loader.get());
+                } catch (RuntimeException | Error e) {
+                    flight.future.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(key, flight);
+                }
+            } else {
+                flight = existing;
+            }
+
+            result = await(flight);
+            if (!flight.invalidated) {
+                return result;
+            }
+        }
+        // Keeps getting invalidated under heavy writes - the last result is as fresh as any
+        return result;
+    }
+
+    public void invalidate(K key) {
+        Flight<V> flight = inFlight.get(key);
+        if (flight == null || flight.leader == Thread.currentThread()) {
+            return;
+        }
+        if (inFlight.remove(key, flight)) {
+            flight.invalidated = true;
+        }
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private V await(Flight<V> flight) {
+        try {
+            return flight.future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private static class Flight<V> {
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        private final Thread leader;
+        private volatile boolean invalidated;
+
+        private Flight(Thread leader) {
+            this.leader = leader;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.revamp.booking.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical timing wheel: timers keyed by id, fired by advancing the wheel to the current time.
+ *
+ * Each level is a ring of buckets; a level's whole ring spans one bucket of the level above.
+ * A timer sits in the coarsest level that can still tell its bucket apart and moves down a level
+ * when that bucket comes round, so scheduling, cancelling and firing are O(1) per timer no matter
+ * how many timers are pending. Timers beyond the top level's span are refused. A timer fires at
+ * the start of the finest tick containing its deadline, i.e. up to one tick early.
+ *
+ * All methods are synchronized; the wheel is meant to be advanced by a single scheduler thread.
+ */
+public class TimingWheel<T> {
+
+    private final Level<T>[] levels;
+    private final Map<String, Timer<T>> timers = new HashMap<>();
+    private final List<T> due = new ArrayList<>();
+
+    /**
+     * @param tickMs     resolution of the finest level
+     * @param wheelSizes bucket count per level, finest first
+     * @param startMs    current time
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMs, int[] wheelSizes, long startMs) {
+        levels = new Level[wheelSizes.length];
+        long levelTick = tickMs;
+        for (int i = 0; i < wheelSizes.length; i++) {
+            levels[i] = new Level<>(levelTick, wheelSizes[i], startMs);
+            levelTick *= wheelSizes[i];
+        }
+    }
+
+    /**
+     * Latest deadline the wheel accepts right now
+     */
+    public synchronized long horizonMs() {
+        Level<T> top = levels[levels.length - 1];
+        return top.currentTime + top.tickMs * top.size - 1;
+    }
+
+    /**
+     * Schedule or replace the timer with this key. A deadline already reached fires on the next advance.
+     *
+     * @return false if the deadline is beyond the wheel's horizon
+     */
+    public synchronized boolean schedule(String key, long deadlineMs, T payload) {
+        cancel(key);
+        Timer<T> timer = new Timer<>(key, deadlineMs, payload);
+        timers.put(key, timer);
+        if (!place(timer)) {
+            timers.remove(key);
+            return false;
+        }
+        return true;
+    }
+
+    public synchronized boolean cancel(String key) {
+        Timer<T> timer = timers.remove(key);
+        if (timer == null) {
+            return false;
+        }
+        timer.bucket.remove(key);
+        return true;
+    }
+
+    public synchronized boolean contains(String key) {
+        return timers.containsKey(key);
+    }
+
+    public synchronized int size() {
+        return timers.size();
+    }
+
+    /**
+     * Move the wheel to nowMs and return the payloads of every timer that is now due
+     */
+    public synchronized List<T> advance(long nowMs) {
+        Level<T> finest = levels[0];
+        boolean[] turned = new boolean[levels.length];
+        while (finest.currentTime + finest.tickMs <= nowMs) {
+            finest.currentTime += finest.tickMs;
+            for (int i = 1; i < levels.length; i++) {
+                Level<T> level = levels[i];
+                turned[i] = finest.currentTime >= level.currentTime + level.tickMs;
+                if (turned[i]) {
+                    level.currentTime = finest.currentTime - Math.floorMod(finest.currentTime, level.tickMs);
+                }
+            }
+            // Every level is on the new time; now coarser buckets drop their timers down a level
+            for (int i = levels.length - 1; i > 0; i--) {
+                if (turned[i]) {
+                    cascade(levels[i].bucketFor(levels[i].currentTime));
+                }
+            }
+            cascade(finest.bucketFor(finest.currentTime));
+        }
+        List<T> fired = new ArrayList<>(due);
+        due.clear();
+        return fired;
+    }
+
+    private void cascade(Map<String, Timer<T>> bucket) {
+        if (bucket.isEmpty()) {
+            return;
+        }
+        List<Timer<T>> moving = new ArrayList<>(bucket.values());
+        bucket.clear();
+        for (Timer<T> timer : moving) {
+            place(timer);
+        }
+    }
+
+    private boolean place(Timer<T> timer) {
+        if (timer.deadlineMs < levels[0].currentTime + levels[0].tickMs) {
+            timer.bucket = null;
+            timers.remove(timer.key);
+            due.add(timer.payload);
+            return true;
+        }
+        for (Level<T> level : levels) {
+            // A finer level already took anything inside this level's current tick
+            if (timer.deadlineMs < level.currentTime + level.tickMs * level.size) {
+                timer.bucket = level.bucketFor(timer.deadlineMs);
+                timer.bucket.put(timer.key, timer);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Timer<T> {
+        final String key;
+        final long deadlineMs;
+        final T payload;
+        Map<String, Timer<T>> bucket;
+
+        Timer(String key, long deadlineMs, T payload) {
+            this.key = key;
+            this.deadlineMs = deadlineMs;
+            this.payload = payload;
+        }
+    }
+
+    private static final class Level<T> {
+        final long tickMs;
+        final int size;
+        final Map<String, Timer<T>>[] buckets;
+        long currentTime; // Start of the current tick at this level
+
+        @SuppressWarnings("unchecked")
+        Level(long tickMs, int size, long startMs) {
+            this.tickMs = tickMs;
+            this.size = size;
+            this.buckets = new Map[size];
+            for (int i = 0; i < size; i++) {
+                buckets[i] = new LinkedHashMap<>();
+            }
+            this.currentTime = startMs - Math.floorMod(startMs, tickMs);
+        }
+
+        Map<String, Timer<T>> bucketFor(long timeMs) {
+            return buckets[(int) Math.floorMod(Math.floorDiv(timeMs, tickMs), (long) size)];
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.revamp.booking.bookingservice.config;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.revamp.booking.bookingservice.event.AppointmentChangedEvent;
+import com.revamp.booking.bookingservice.model.Appointment;
+import com.revamp.booking.bookingservice.model.TimeSlot;
+import com.revamp.booking.bookingservice.service.AppointmentArchiveService;
+import com.revamp.booking.bookingservice.service.AppointmentEventService;
+import com.revamp.booking.bookingservice.service.AppointmentService;
+import com.revamp.booking.bookingservice.service.BayScheduleService;
+import com.revamp.booking.bookingservice.service.ClosureService;
+import com.revamp.booking.bookingservice.service.DailyScheduleService;
+import com.revamp.booking.bookingservice.service.DaySheetService;
+import com.revamp.booking.bookingservice.service.EmployeeScheduleIndex;
+import com.revamp.booking.bookingservice.service.ReminderService;
+import com.revamp.booking.bookingservice.service.RollupService;
+import com.revamp.booking.bookingservice.service.TimeSlotRetentionService;
+import com.revamp.booking.bookingservice.service.TimeSlotService;
+import com.revamp.booking.bookingservice.service.UnavailableDateService;
+import com.revamp.booking.bookingservice.service.WaitlistService;
+import com.revamp.booking.repository.BookingRepository;
+import com.revamp.booking.service.PaymentReconciliationService;
+import com.revamp.booking.service.PaymentStateService;
+import com.revamp.booking.service.StripeWebhookProcessor;
+
+/**
+ * Runs the service's own queries against a scratch database that holds only the declared indexes,
+ * with the server's notablescan parameter on: any query MongoDB can only answer with a collection
+ * scan is rejected, including aggregation $match and $lookup stages. Services are built outside
+ * Spring with just the fields the exercised paths touch.
+ *
+ * Lookups by _id are not listed separately, since _id is always indexed, and neither are the
+ * deliberate full reads of small collections (all closures, the modification catalog).
+ *
+ * Needs a throwaway MongoDB server, given by INDEX_CHECK_MONGODB_URI, where the user may run
+ * setParameter; the test is skipped without one.
+ */
+@EnabledIfEnvironmentVariable(named = "INDEX_CHECK_MONGODB_URI", matches = ".+")
+class MongoIndexUsageTests {
+
+	private static final String DATABASE = "index_check_bookings";
+	private static final ApplicationEventPublisher NO_EVENTS = event -> { };
+
+	private static MongoClient client;
+	private static MongoTemplate mongoTemplate;
+	private static AppointmentArchiveService archiveService;
+
+	@BeforeAll
+	static void createIndexes() {
+		client = MongoClients.create(System.getenv("INDEX_CHECK_MONGODB_URI"));
+		mongoTemplate = new MongoTemplate(client, DATABASE);
+		mongoTemplate.getDb().drop();
+		assertTrue(MongoIndexBootstrap.ensureIndexes(mongoTemplate).isEmpty(), "every declared index is created");
+		archiveService = service(new AppointmentArchiveService(), "batchSize", 500, "maxBatches", 1);
+		archiveService.ensureIndexes();
+		setNoTableScan(true);
+	}
+
+	@AfterAll
+	static void dropDatabase() {
+		setNoTableScan(false);
+		mongoTemplate.getDb().drop();
+		client.close();
+	}
+
+	@Test
+	void appointmentQueriesUseIndexes() {
+		LocalDate today = LocalDate.now();
+		AppointmentService appointments = service(new AppointmentService(),
+			"appointmentArchiveService", archiveService, "eventPublisher", NO_EVENTS);
+		appointments.getAppointmentsByCustomerId("c1", true);
+		appointments.getAppointmentsByDateRange(today, today.plusDays(7));
+		appointments.removeEmployeeFromAppointment("c1", "e1", "Eve");
+
+		service(new ClosureService()).handleClosure(today, "mark");
+		service(new ReminderService()).load();
+		service(new EmployeeScheduleIndex()).warm();
+		archiveService.archive();
+		archiveService.findArchivedByCustomerId("c1", Appointment.class);
+	}
+
+	@Test
+	void slotAndClosureQueriesUseIndexes() {
+		LocalDate today = LocalDate.now();
+		LocalDate workday = nextWorkday();
+		UnavailableDateService closures = service(new UnavailableDateService(), "eventPublisher", NO_EVENTS);
+		closures.isDateUnavailable(today);
+		closures.getUnavailableDatesInRange(today, today.plusDays(30));
+
+		TimeSlotService slots = service(new TimeSlotService(), "unavailableDateService", closures,
+			"eventPublisher", NO_EVENTS);
+		slots.getAvailableSlotsForDate(workday);
+		slots.resolveSlots(List.of(workday, workday.plusWeeks(1)), LocalTime.of(8, 0));
+		slots.getSlotsForDateRange(today, today.plusDays(30));
+		slots.expireHolds();
+		service(new TimeSlotRetentionService()).prune();
+
+		BayScheduleService bays = service(new BayScheduleService(), "bayCount", 3, "unavailableDateService", closures);
+		bays.findEarliest(workday, 4);
+		bays.release("a1", workday, workday.plusDays(2));
+	}
+
+	@Test
+	void waitlistQueriesUseIndexes() {
+		LocalDate workday = nextWorkday();
+		UnavailableDateService closures = service(new UnavailableDateService(), "eventPublisher", NO_EVENTS);
+		WaitlistService waitlist = service(new WaitlistService(), "unavailableDateService", closures, "ttlHours", 72L);
+		waitlist.join("c1", "Cam", "cam@example.com", workday, null);
+		waitlist.getEntries("c1");
+		waitlist.getNotifications("c1");
+
+		TimeSlot slot = new TimeSlot(workday, LocalTime.of(8, 0), LocalTime.of(11, 0));
+		slot.setId("s1");
+		slot.setHeldFor("c1");
+		waitlist.claimHead(slot, LocalDateTime.now().plusMinutes(15));
+		waitlist.expireOffer(slot);
+
+		Appointment booked = new Appointment();
+		booked.setCustomerId("c1");
+		booked.setDate(workday);
+		booked.setTimeSlotId("s1");
+		waitlist.onAppointmentChanged(AppointmentChangedEvent.created(booked));
+		service(new TimeSlotService(), "waitlistService", waitlist, "eventPublisher", NO_EVENTS)
+			.onAppointmentChanged(AppointmentChangedEvent.created(booked));
+	}
+
+	@Test
+	void readModelQueriesUseIndexes() {
+		LocalDate today = LocalDate.now();
+		// The day sheet joins bookings per slot, so there has to be a slot for its $lookup to run
+		mongoTemplate.insert(new TimeSlot(today, LocalTime.of(8, 0), LocalTime.of(11, 0)));
+		service(new DaySheetService()).getDaySheets(today, today.plusDays(7));
+
+		AppointmentEventService events = service(new AppointmentEventService());
+		events.getTimeline("a1");
+		events.getStageDurations(today.minusDays(7), today);
+
+		service(new DailyScheduleService()).getRange(today, today.plusDays(7));
+		RollupService rollups = service(new RollupService());
+		rollups.backfill(today.minusDays(7), today);
+		rollups.getDailyReport(today.minusDays(7), today);
+	}
+
+	@Test
+	void paymentQueriesUseIndexes() {
+		new MongoRepositoryFactory(mongoTemplate).getRepository(BookingRepository.class).findByCustomerId("c1");
+
+		PaymentStateService paymentState = new PaymentStateService(mongoTemplate, NO_EVENTS);
+		paymentState.findBookingIdByIntent("pi_1");
+
+		PaymentReconciliationService reconciliation = new PaymentReconciliationService(mongoTemplate, null, paymentState,
+			null, 200, 1, 20, 48);
+		try {
+			reconciliation.reconcile("index-check");
+			reconciliation.recentReports(10);
+		} finally {
+			reconciliation.shutdown();
+		}
+
+		StripeWebhookProcessor webhooks = new StripeWebhookProcessor(mongoTemplate, paymentState, 1, 10);
+		try {
+			webhooks.sweep();
+		} finally {
+			webhooks.shutdown();
+		}
+	}
+
+	/**
+	 * A service built outside Spring on the scratch database, with the named fields set
+	 */
+	private static <T> T service(T instance, Object... fieldsAndValues) {
+		ReflectionTestUtils.setField(instance, "mongoTemplate", mongoTemplate);
+		for (int i = 0; i < fieldsAndValues.length; i += 2) {
+			ReflectionTestUtils.setField(instance, (String) fieldsAndValues[i], fieldsAndValues[i + 1]);
+		}
+		return instance;
+	}
+
+	private static LocalDate nextWorkday() {
+		LocalDate date = LocalDate.now().plusDays(1);
+		return date.getDayOfWeek() == DayOfWeek.SUNDAY ? date.plusDays(1) : date;
+	}
+
+	private static void setNoTableScan(boolean enabled) {
+		client.getDatabase("admin").runCommand(new Document("setParameter", 1).append("notablescan", enabled));
+	}
+}
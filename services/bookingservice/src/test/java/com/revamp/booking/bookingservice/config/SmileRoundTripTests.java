@@ -0,0 +1,129 @@
+package com.revamp.booking.bookingservice.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.revamp.booking.bookingservice.controller.WorkloadController;
+import com.revamp.booking.bookingservice.service.WorkloadIndex;
+import com.revamp.booking.dto.WorkloadEvent;
+import com.revamp.booking.util.JwtUtil;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Sends the same workload events to WorkloadController as JSON and as Smile, through the JSON
+ * converter and SmileConfig's converter, and checks both decode to the same events and that the
+ * status reads back the same in either format.
+ */
+class SmileRoundTripTests {
+
+	private final ObjectMapper jsonMapper = Jackson2ObjectMapperBuilder.json().build();
+	private final ObjectMapper smileMapper = Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+
+	private WorkloadIndex workloadIndex;
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		workloadIndex = mock(WorkloadIndex.class);
+		JwtUtil jwtUtil = mock(JwtUtil.class);
+		Claims claims = mock(Claims.class);
+		when(jwtUtil.parseToken(any())).thenReturn(claims);
+		when(jwtUtil.isAdmin(claims)).thenReturn(true);
+
+		WorkloadController controller = new WorkloadController();
+		ReflectionTestUtils.setField(controller, "workloadIndex", workloadIndex);
+		ReflectionTestUtils.setField(controller, "jwtUtil", jwtUtil);
+
+		mockMvc = MockMvcBuilders.standaloneSetup(controller)
+				.setMessageConverters(new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build()),
+						new SmileConfig().smileHttpMessageConverter(Jackson2ObjectMapperBuilder.json()))
+				.build();
+	}
+
+	@Test
+	void workloadEventsDecodeTheSameFromJsonAndSmile() throws Exception {
+		List<WorkloadEvent> events = List.of(employee("u1", "Nimal Perera", List.of("paint", "body")),
+				task("u1", "t1", "in-progress", 6));
+
+		mockMvc.perform(post("/api/bookings/workload/events")
+				.header("Authorization", "Bearer admin")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(jsonMapper.writeValueAsBytes(events)))
+				.andExpect(status().isNoContent());
+		mockMvc.perform(post("/api/bookings/workload/events")
+				.header("Authorization", "Bearer admin")
+				.contentType(SmileConfig.APPLICATION_SMILE)
+				.content(smileMapper.writeValueAsBytes(events)))
+				.andExpect(status().isNoContent());
+
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<List<WorkloadEvent>> applied = ArgumentCaptor.forClass(List.class);
+		verify(workloadIndex, times(2)).apply(applied.capture());
+		assertEquals(events, applied.getAllValues().get(0));
+		assertEquals(events, applied.getAllValues().get(1));
+	}
+
+	@Test
+	void statusReadsTheSameAsJsonAndSmile() throws Exception {
+		Map<String, Object> status = Map.of("employees", 3, "openTasks", 5, "version", 1_700_000_000_000L,
+				"stale", false);
+		when(workloadIndex.getStatus()).thenReturn(status);
+
+		byte[] json = mockMvc.perform(get("/api/bookings/workload").accept(MediaType.APPLICATION_JSON))
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+				.andReturn().getResponse().getContentAsByteArray();
+		byte[] smile = mockMvc.perform(get("/api/bookings/workload").accept(SmileConfig.APPLICATION_SMILE))
+				.andExpect(content().contentTypeCompatibleWith(SmileConfig.APPLICATION_SMILE))
+				.andReturn().getResponse().getContentAsByteArray();
+
+		TypeReference<Map<String, Object>> type = new TypeReference<>() { };
+		assertEquals(status, jsonMapper.readValue(json, type));
+		assertEquals(status, smileMapper.readValue(smile, type));
+	}
+
+	private static WorkloadEvent employee(String userId, String fullName, List<String> skills) {
+		WorkloadEvent event = new WorkloadEvent();
+		event.setType(WorkloadEvent.EMPLOYEE);
+		event.setVersion(1_700_000_000_000L);
+		event.setUserId(userId);
+		event.setFullName(fullName);
+		event.setSkills(skills);
+		return event;
+	}
+
+	private static WorkloadEvent task(String userId, String taskId, String taskStatus, int estimatedHours) {
+		WorkloadEvent event = new WorkloadEvent();
+		event.setType(WorkloadEvent.TASK);
+		event.setVersion(1_700_000_000_001L);
+		event.setUserId(userId);
+		event.setTaskId(taskId);
+		event.setTaskStatus(taskStatus);
+		event.setEstimatedHours(estimatedHours);
+		return event;
+	}
+}
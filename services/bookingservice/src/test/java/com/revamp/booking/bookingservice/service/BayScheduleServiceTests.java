@@ -0,0 +1,145 @@
+package com.revamp.booking.bookingservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.InetSocketAddress;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.revamp.booking.bookingservice.service.BayScheduleService.DayPart;
+import com.revamp.booking.bookingservice.service.BayScheduleService.Placement;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+
+/**
+ * Places jobs against bay_days in an in-memory MongoDB. The shop is open 08:00 to 17:00,
+ * closed on Sundays and on the dates the mocked UnavailableDateService reports.
+ */
+class BayScheduleServiceTests {
+
+	private static final LocalDate FRIDAY = LocalDate.of(2025, 3, 14);
+	private static final LocalDate SATURDAY = FRIDAY.plusDays(1);
+	private static final LocalDate MONDAY = FRIDAY.plusDays(3);
+	private static final LocalDate TUESDAY = FRIDAY.plusDays(4);
+	private static final LocalDate WEDNESDAY = FRIDAY.plusDays(5);
+
+	private MongoServer server;
+	private MongoClient client;
+	private UnavailableDateService unavailableDateService;
+	private BayScheduleService bays;
+
+	@BeforeEach
+	void setUp() {
+		server = new MongoServer(new MemoryBackend());
+		InetSocketAddress address = server.bind();
+		client = MongoClients.create("mongodb://" + address.getHostString() + ":" + address.getPort());
+		unavailableDateService = mock(UnavailableDateService.class);
+
+		bays = new BayScheduleService();
+		ReflectionTestUtils.setField(bays, "mongoTemplate", new MongoTemplate(client, "bays"));
+		ReflectionTestUtils.setField(bays, "unavailableDateService", unavailableDateService);
+		ReflectionTestUtils.setField(bays, "bayCount", 2);
+	}
+
+	@AfterEach
+	void tearDown() {
+		client.close();
+		server.shutdown();
+	}
+
+	@Test
+	void shortJobTakesTheFirstFreeBayAtTheRequestedTime() {
+		Placement placement = bays.findFit(FRIDAY, LocalTime.of(9, 0), 3);
+
+		assertEquals(1, placement.bay());
+		assertEquals(FRIDAY.atTime(9, 0), placement.start());
+		assertEquals(FRIDAY.atTime(12, 0), placement.end());
+		assertEquals(List.of(new DayPart(FRIDAY, 9 * 60, 12 * 60)), placement.parts());
+	}
+
+	@Test
+	void laterJobsUseTheNextBayOrTheNextGap() {
+		bays.reserve("a1", FRIDAY, LocalTime.of(8, 0), 4);
+
+		Placement second = bays.reserve("a2", FRIDAY, LocalTime.of(8, 0), 2);
+		assertEquals(2, second.bay());
+		assertEquals(FRIDAY.atTime(8, 0), second.start());
+
+		// Bay 2 frees up first
+		Placement third = bays.findFit(FRIDAY, LocalTime.of(8, 0), 3);
+		assertEquals(2, third.bay());
+		assertEquals(FRIDAY.atTime(10, 0), third.start());
+
+		// A request before opening time starts at opening time
+		assertEquals(SATURDAY.atTime(8, 0), bays.findFit(SATURDAY, LocalTime.of(6, 0), 1).start());
+	}
+
+	@Test
+	void longJobContinuesOnTheNextWorkingDays() {
+		when(unavailableDateService.isDateUnavailable(MONDAY)).thenReturn(true);
+
+		Placement placement = bays.reserve("a1", SATURDAY, LocalTime.of(13, 0), 16);
+
+		// Sunday and the closed Monday are skipped
+		assertEquals(List.of(new DayPart(SATURDAY, 13 * 60, 17 * 60), new DayPart(TUESDAY, 8 * 60, 17 * 60),
+			new DayPart(WEDNESDAY, 8 * 60, 11 * 60)), placement.parts());
+		assertEquals(WEDNESDAY.atTime(11, 0), placement.end());
+		assertEquals(Map.of(SATURDAY, 4, TUESDAY, 9, WEDNESDAY, 3), CapacityLedgerService.hoursByDay(placement.parts()));
+
+		// The bay is held on every day the job runs
+		assertEquals(2, bays.findFit(TUESDAY, LocalTime.of(8, 0), 1).bay());
+	}
+
+	@Test
+	void continuationMustBeFreeInTheSameBay() {
+		ReflectionTestUtils.setField(bays, "bayCount", 1);
+		bays.reserve("a1", MONDAY, LocalTime.of(8, 0), 2);
+
+		// Free on Saturday afternoon, but the continuation would run into a1 on Monday morning
+		assertNull(bays.findFit(SATURDAY, LocalTime.of(15, 0), 4));
+		assertThrows(RuntimeException.class, () -> bays.reserve("a2", SATURDAY, LocalTime.of(15, 0), 4));
+		assertEquals(SATURDAY.atTime(17, 0), bays.findFit(SATURDAY, LocalTime.of(15, 0), 2).end());
+
+		// Saturday cannot hold a 12 hour job either, so the earliest start is after a1 on Monday
+		Placement earliest = bays.findEarliest(SATURDAY, 12);
+		assertEquals(List.of(new DayPart(MONDAY, 10 * 60, 17 * 60), new DayPart(TUESDAY, 8 * 60, 13 * 60)),
+			earliest.parts());
+	}
+
+	@Test
+	void releaseFreesEveryDayOfTheJob() {
+		ReflectionTestUtils.setField(bays, "bayCount", 1);
+		bays.reserve("a1", FRIDAY, LocalTime.of(8, 0), 12);
+		assertNull(bays.findFit(FRIDAY, LocalTime.of(8, 0), 1));
+		assertEquals(SATURDAY.atTime(11, 0), bays.findFit(SATURDAY, LocalTime.of(8, 0), 1).start());
+
+		bays.release("a1", FRIDAY, SATURDAY);
+
+		assertEquals(FRIDAY.atTime(8, 0), bays.findFit(FRIDAY, LocalTime.of(8, 0), 9).start());
+		assertEquals(SATURDAY.atTime(8, 0), bays.findFit(SATURDAY, LocalTime.of(8, 0), 9).start());
+	}
+
+	@Test
+	void hoursAreSplitWithoutLosingPartialHours() {
+		List<DayPart> parts = List.of(new DayPart(FRIDAY, 16 * 60 + 30, 17 * 60), new DayPart(SATURDAY, 8 * 60, 9 * 60 + 30),
+			new DayPart(MONDAY, 8 * 60, 8 * 60 + 45));
+
+		// 30 + 90 + 45 minutes: the Friday half hour is counted when Saturday completes it
+		assertEquals(Map.of(SATURDAY, 2), CapacityLedgerService.hoursByDay(parts));
+	}
+}
@@ -0,0 +1,140 @@
+package com.revamp.booking.bookingservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.revamp.booking.bookingservice.service.WorkloadIndex.EmployeeEntry;
+import com.revamp.booking.bookingservice.service.WorkloadIndex.Load;
+import com.revamp.booking.dto.WorkloadEvent;
+import com.revamp.booking.dto.WorkloadSnapshot;
+
+/**
+ * Feeds WorkloadIndex pushed events and snapshots from a mocked employee service client and
+ * checks the employee list and the incrementally kept loads.
+ */
+class WorkloadIndexTests {
+
+	private EmployeeServiceClient employeeServiceClient;
+	private WorkloadIndex index;
+
+	@BeforeEach
+	void setUp() {
+		employeeServiceClient = mock(EmployeeServiceClient.class);
+		index = new WorkloadIndex();
+		ReflectionTestUtils.setField(index, "employeeServiceClient", employeeServiceClient);
+	}
+
+	@Test
+	void taskEventsMoveLoadBetweenEmployees() {
+		index.apply(List.of(task("t1", "u1", 4, 10), task("t2", "u1", 2, 11), task("t3", "u2", 8, 12)));
+		assertEquals(new Load(2, 6), index.getLoad("u1"));
+		assertEquals(new Load(1, 8), index.getLoad("u2"));
+
+		// Reassigned, then closed
+		index.apply(List.of(task("t1", "u2", 5, 20), task("t3", null, 8, 21)));
+		assertEquals(new Load(1, 2), index.getLoad("u1"));
+		assertEquals(new Load(1, 5), index.getLoad("u2"));
+
+		index.apply(List.of(task("t2", null, 2, 30)));
+		assertEquals(Load.NONE, index.getLoad("u1"));
+		assertEquals(Load.NONE, index.getLoad("nobody"));
+	}
+
+	@Test
+	void olderEventsCannotRollBackNewerOnes() {
+		index.apply(List.of(task("t1", "u1", 4, 20), employee("u1", 20, "Paint")));
+		index.apply(List.of(task("t1", "u2", 6, 10), removed("u1", 10), employee("u1", 15, "Body")));
+
+		assertEquals(new Load(1, 4), index.getLoad("u1"));
+		assertEquals(Load.NONE, index.getLoad("u2"));
+		assertEquals(Set.of("paint"), single(index.getEmployees()).skills());
+	}
+
+	@Test
+	void employeesAreNormalisedAndRemovedOnesHidden() {
+		index.apply(List.of(employee("u1", 1, " Paint ", "BODY", "", null), employee("u2", 1, "engine")));
+		EmployeeEntry entry = index.getEmployees().stream().filter(e -> e.userId().equals("u1")).findFirst().orElseThrow();
+		assertEquals(List.of("paint", "body"), List.copyOf(entry.skills()));
+
+		index.apply(List.of(removed("u2", 2)));
+		assertEquals("u1", single(index.getEmployees()).userId());
+		assertEquals(1, index.getStatus().get("employees"));
+	}
+
+	@Test
+	void resyncKeepsPushesNewerThanTheSnapshotAndRebuildsLoads() {
+		index.apply(List.of(task("t-old", "u1", 3, 50), task("t-new", "u1", 2, 150),
+			employee("u1", 50, "paint"), employee("u2", 150, "engine")));
+
+		when(employeeServiceClient.getWorkloadSnapshot()).thenReturn(snapshot(100,
+			List.of(employee("u3", 90, "body")), List.of(task("t-snap", "u3", 7, 90))));
+		index.resync();
+
+		// Pushes at or before version 100 are replaced by the snapshot, later ones survive it
+		assertEquals(Set.of("u2", "u3"), Set.copyOf(index.getEmployees().stream().map(EmployeeEntry::userId).toList()));
+		assertEquals(new Load(1, 2), index.getLoad("u1"));
+		assertEquals(new Load(1, 7), index.getLoad("u3"));
+		assertEquals(2, index.getStatus().get("trackedTasks"));
+		assertEquals(100L, index.getStatus().get("snapshotVersion"));
+	}
+
+	@Test
+	void failedSnapshotLeavesTheIndexAlone() {
+		index.apply(List.of(task("t1", "u1", 4, 10), employee("u1", 10, "paint")));
+		when(employeeServiceClient.getWorkloadSnapshot()).thenReturn(null);
+
+		index.resync();
+
+		assertEquals(new Load(1, 4), index.getLoad("u1"));
+		assertTrue(index.getEmployees().stream().anyMatch(e -> e.userId().equals("u1")));
+	}
+
+	private static EmployeeEntry single(List<EmployeeEntry> entries) {
+		assertEquals(1, entries.size());
+		return entries.get(0);
+	}
+
+	private static WorkloadSnapshot snapshot(long version, List<WorkloadEvent> employees, List<WorkloadEvent> tasks) {
+		WorkloadSnapshot snapshot = new WorkloadSnapshot();
+		snapshot.setVersion(version);
+		snapshot.setEmployees(employees);
+		snapshot.setTasks(tasks);
+		return snapshot;
+	}
+
+	private static WorkloadEvent employee(String userId, long version, String... skills) {
+		WorkloadEvent event = new WorkloadEvent();
+		event.setType(WorkloadEvent.EMPLOYEE);
+		event.setUserId(userId);
+		event.setFullName("Employee " + userId);
+		event.setSkills(Arrays.asList(skills));
+		event.setVersion(version);
+		return event;
+	}
+
+	private static WorkloadEvent removed(String userId, long version) {
+		WorkloadEvent event = employee(userId, version);
+		event.setType(WorkloadEvent.EMPLOYEE_REMOVED);
+		return event;
+	}
+
+	private static WorkloadEvent task(String taskId, String userId, int hours, long version) {
+		WorkloadEvent event = new WorkloadEvent();
+		event.setType(WorkloadEvent.TASK);
+		event.setTaskId(taskId);
+		event.setUserId(userId);
+		event.setEstimatedHours(hours);
+		event.setVersion(version);
+		return event;
+	}
+}
@@ -0,0 +1,134 @@
+package com.revamp.booking.service;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.revamp.booking.model.Booking;
+import com.revamp.booking.model.PaymentReconciliationReport;
+import com.stripe.model.PaymentIntent;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Runs reconciliation passes against the in-memory Stripe stand-in and an in-memory MongoDB,
+ * with a page size small enough that every pass spans several pages.
+ */
+class PaymentReconciliationTests {
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private StubStripeService stripe;
+    private PaymentReconciliationService reconciliation;
+
+    @BeforeEach
+    void startServices() {
+        server = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = server.bind();
+        client = MongoClients.create("mongodb://" + address.getHostString() + ":" + address.getPort());
+        mongoTemplate = new MongoTemplate(client, "reconciliation");
+        stripe = new StubStripeService();
+        PaymentStateService paymentState = new PaymentStateService(mongoTemplate, event -> { });
+        reconciliation = new PaymentReconciliationService(mongoTemplate, stripe, paymentState, null, 2, 2, 1000, 48);
+    }
+
+    @AfterEach
+    void stopServices() {
+        reconciliation.shutdown();
+        client.close();
+        server.shutdown();
+    }
+
+    @Test
+    void fixesMissedWebhooksAndCountsWhatItDid() throws Exception {
+        PaymentIntent succeeded = intent("b-succeeded");
+        stripe.setStatus(succeeded.getId(), "succeeded");
+        String missedSuccess = booking(PaymentStateService.PENDING, succeeded.getId(), null);
+
+        PaymentIntent canceled = intent("b-canceled");
+        stripe.cancelPaymentIntent(canceled, null);
+        String missedCancel = booking(PaymentStateService.PENDING, canceled.getId(), null);
+
+        PaymentIntent stale = intent("b-abandoned");
+        stale.setCreated(Instant.now().minus(Duration.ofDays(3)).getEpochSecond());
+        String abandoned = booking(PaymentStateService.PENDING, stale.getId(), null);
+
+        // A webhook newer than anything Stripe's read reflects was applied in the meantime
+        PaymentIntent processing = intent("b-newer-webhook");
+        stripe.setStatus(processing.getId(), "processing");
+        long newerEvent = processing.getCreated() + 3600;
+        String guarded = booking(PaymentStateService.PENDING, processing.getId(), newerEvent);
+
+        String missing = booking(PaymentStateService.PENDING, "pi_missing", null);
+        String upToDate = booking(PaymentStateService.PENDING, intent("b-up-to-date").getId(), null);
+        String paid = booking(PaymentStateService.PAID, intent("b-paid").getId(), null);
+
+        PaymentReconciliationReport report = reconciliation.reconcile("test");
+
+        assertNotNull(report);
+        assertEquals(6, report.getScanned());
+        assertEquals(5, report.getChecked());
+        assertEquals(Map.of(PaymentStateService.PAID, 1, PaymentStateService.CANCELED, 1,
+                PaymentStateService.PROCESSING, 1), report.getUpdatesByStatus());
+        assertEquals(2, report.getUpdated());
+        assertEquals(1, report.getAbandoned());
+        assertEquals(List.of(abandoned), report.getAbandonedBookingIds());
+        assertEquals(1, report.getErrors());
+
+        assertEquals(PaymentStateService.PAID, paymentStatus(missedSuccess));
+        assertEquals(PaymentStateService.CANCELED, paymentStatus(missedCancel));
+        assertEquals(PaymentStateService.PENDING, paymentStatus(abandoned));
+        assertEquals(PaymentStateService.PENDING, paymentStatus(guarded));
+        assertEquals(newerEvent, mongoTemplate.findById(guarded, Booking.class).getPaymentEventCreated());
+        assertEquals(PaymentStateService.PENDING, paymentStatus(missing));
+        assertEquals(PaymentStateService.PENDING, paymentStatus(upToDate));
+        assertEquals(PaymentStateService.PAID, paymentStatus(paid));
+
+        assertEquals(report.getId(), reconciliation.recentReports(1).get(0).getId());
+    }
+
+    @Test
+    void leavesFailedPaymentsAwaitingANewMethodAlone() {
+        String failed = booking(PaymentStateService.FAILED, intent("b-failed").getId(), null);
+
+        PaymentReconciliationReport first = reconciliation.reconcile("test");
+        PaymentReconciliationReport second = reconciliation.reconcile("test");
+
+        // The lock is released after each pass, so the second one runs too
+        assertNotNull(second);
+        assertEquals(1, first.getChecked());
+        assertEquals(0, first.getUpdated());
+        assertEquals(Map.of(), first.getUpdatesByStatus());
+        assertEquals(PaymentStateService.FAILED, paymentStatus(failed));
+    }
+
+    private PaymentIntent intent(String bookingId) {
+        return stripe.createPaymentIntent(1000L, "lkr", bookingId, "key-" + bookingId);
+    }
+
+    private String booking(String paymentStatus, String paymentIntentId, Long paymentEventCreated) {
+        Booking booking = new Booking();
+        booking.setId(new ObjectId().toHexString());
+        booking.setPaymentStatus(paymentStatus);
+        booking.setPaymentIntentId(paymentIntentId);
+        booking.setPaymentEventCreated(paymentEventCreated);
+        return mongoTemplate.insert(booking).getId();
+    }
+
+    private String paymentStatus(String bookingId) {
+        return mongoTemplate.findById(bookingId, Booking.class).getPaymentStatus();
+    }
+}
@@ -0,0 +1,162 @@
+package com.revamp.booking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.revamp.booking.controller.StripeWebhookController;
+import com.revamp.booking.model.StripeWebhookEvent;
+import com.sun.net.httpserver.HttpServer;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Delivers signed events through the local Stripe stand-in to the real webhook controller over
+ * HTTP. The inbox is kept in memory in place of stripe_webhook_events; the payment state writer
+ * is a mock, so each state transition shows up as one apply() call.
+ */
+class StripeWebhookDeliveryTests {
+
+    private static final String SECRET = "whsec_test_delivery";
+
+    private final Map<String, StripeWebhookEvent> inbox = new ConcurrentHashMap<>();
+    private PaymentStateService paymentStateService;
+    private StripeWebhookProcessor processor;
+    private HttpServer server;
+    private LocalStripeWebhookSender sender;
+
+    @BeforeEach
+    void startWebhookEndpoint() throws Exception {
+        paymentStateService = mock(PaymentStateService.class);
+        when(paymentStateService.apply(anyString(), anyString(), anyString(), anyLong())).thenReturn(true);
+        processor = new StripeWebhookProcessor(inMemoryInbox(), paymentStateService, 2, 10);
+
+        StripeWebhookController controller = new StripeWebhookController(processor);
+        ReflectionTestUtils.setField(controller, "webhookSecret", SECRET);
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/webhooks/stripe", exchange -> {
+            String payload = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            ResponseEntity<String> response = controller.handleStripeWebhook(payload,
+                    exchange.getRequestHeaders().getFirst("Stripe-Signature"));
+            byte[] body = String.valueOf(response.getBody()).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(response.getStatusCode().value(), body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        String url = "http://localhost:" + server.getAddress().getPort() + "/api/webhooks/stripe";
+        sender = new LocalStripeWebhookSender(new ObjectMapper(), SECRET, url);
+    }
+
+    @AfterEach
+    void stopWebhookEndpoint() {
+        server.stop(0);
+        processor.shutdown();
+    }
+
+    @Test
+    void redeliveredEventChangesPaymentStateOnce() throws Exception {
+        LocalStripeWebhookSender.SentEvent first = sender.sendPaymentIntentEvent(
+                "payment_intent.succeeded", "pi_delivery", "booking-1", 250000, "succeeded");
+        LocalStripeWebhookSender.SentEvent second = sender.send(first.eventId(), first.payload());
+
+        assertEquals(200, first.status());
+        assertEquals("OK", first.body());
+        assertEquals(200, second.status());
+        assertEquals("Duplicate", second.body());
+        verify(paymentStateService, timeout(5000).times(1))
+                .apply(eq("booking-1"), eq("pi_delivery"), eq(PaymentStateService.PAID), anyLong());
+        awaitStatus(first.eventId(), StripeWebhookEvent.PROCESSED);
+
+        // A retry sweep reaching an event that was already processed finds nothing to claim
+        processor.process(first.eventId());
+        verify(paymentStateService, times(1)).apply(anyString(), anyString(), anyString(), anyLong());
+        assertEquals(1, inbox.get(first.eventId()).getAttempts());
+    }
+
+    @Test
+    void tamperedPayloadIsRejected() throws Exception {
+        LocalStripeWebhookSender.SentEvent sent = sender.sendPaymentIntentEvent(
+                "payment_intent.succeeded", "pi_signed", "booking-2", 1000, "succeeded");
+        LocalStripeWebhookSender tampering = new LocalStripeWebhookSender(new ObjectMapper(), "whsec_other",
+                "http://localhost:" + server.getAddress().getPort() + "/api/webhooks/stripe");
+
+        LocalStripeWebhookSender.SentEvent forged = tampering.send("evt_forged",
+                sent.payload().replace(sent.eventId(), "evt_forged"));
+
+        assertEquals(400, forged.status());
+        assertEquals(List.of(sent.eventId()), List.copyOf(inbox.keySet()));
+    }
+
+    private void awaitStatus(String eventId, String status) throws InterruptedException {
+        for (int i = 0; i < 100 && !status.equals(inbox.get(eventId).getStatus()); i++) {
+            Thread.sleep(50);
+        }
+        assertEquals(status, inbox.get(eventId).getStatus());
+    }
+
+    /**
+     * Just the inbox operations StripeWebhookProcessor uses: insert with a unique id, the claim
+     * (findAndModify) and the status update after processing
+     */
+    private MongoTemplate inMemoryInbox() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.insert(any(StripeWebhookEvent.class))).thenAnswer(invocation -> {
+            StripeWebhookEvent event = invocation.getArgument(0);
+            if (inbox.putIfAbsent(event.getId(), event) != null) {
+                throw new DuplicateKeyException("E11000 duplicate key error: " + event.getId());
+            }
+            return event;
+        });
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(StripeWebhookEvent.class))).thenAnswer(invocation -> {
+            StripeWebhookEvent event = inbox.get(idOf(invocation.getArgument(0)));
+            synchronized (inbox) {
+                if (event == null || !List.of(StripeWebhookEvent.RECEIVED, StripeWebhookEvent.FAILED).contains(event.getStatus())) {
+                    return null;
+                }
+                event.setStatus(StripeWebhookEvent.PROCESSING);
+                event.setAttempts(event.getAttempts() + 1);
+                return event;
+            }
+        });
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(StripeWebhookEvent.class))).thenAnswer(invocation -> {
+            StripeWebhookEvent event = inbox.get(idOf(invocation.getArgument(0)));
+            Document set = invocation.<Update>getArgument(1).getUpdateObject().get("$set", Document.class);
+            event.setStatus(set.getString("status"));
+            return null;
+        });
+        return mongoTemplate;
+    }
+
+    private static String idOf(Query query) {
+        return query.getQueryObject().getString("_id");
+    }
+}
@@ -0,0 +1,149 @@
+package com.revamp.booking.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives SingleFlight with loaders that block on a latch, so the follower is known to be waiting
+ * on the leader's flight before the test invalidates or releases it.
+ */
+class SingleFlightTests {
+
+    private static final String KEY = "2025-03-14";
+
+    private final SingleFlight<String, Integer> flight = new SingleFlight<>();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void concurrentCallersShareOneLoad() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Integer> leader = leader(release);
+        CompletableFuture<Integer> follower = follower();
+
+        release.countDown();
+
+        assertEquals(1, leader.get(5, TimeUnit.SECONDS));
+        assertEquals(1, follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+        assertEquals(0, flight.inFlightCount());
+    }
+
+    @Test
+    void invalidateFromTheLeaderThreadKeepsItsResult() {
+        Integer result = flight.execute(KEY, () -> {
+            flight.invalidate(KEY);
+            return loads.incrementAndGet();
+        });
+
+        assertEquals(1, result);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void invalidateFromAnotherThreadMakesLeaderAndWaitersReload() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Integer> leader = leader(release);
+        CompletableFuture<Integer> follower = follower();
+
+        flight.invalidate(KEY);
+        assertEquals(0, flight.inFlightCount());
+        release.countDown();
+
+        // Neither caller may return the load that started before the change
+        assertTrue(leader.get(5, TimeUnit.SECONDS) > 1);
+        assertTrue(follower.get(5, TimeUnit.SECONDS) > 1);
+        assertTrue(loads.get() >= 2);
+    }
+
+    @Test
+    void givesUpAfterThreeInvalidatedAttempts() {
+        Integer result = flight.execute(KEY, () -> {
+            CompletableFuture.runAsync(() -> flight.invalidate(KEY)).join();
+            return loads.incrementAndGet();
+        });
+
+        assertEquals(3, result);
+        assertEquals(3, loads.get());
+        assertEquals(0, flight.inFlightCount());
+    }
+
+    @Test
+    void failureReachesEveryWaiterAndIsNotKept() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("mongo down");
+        CompletableFuture<Integer> leader = CompletableFuture.supplyAsync(() -> flight.execute(KEY, () -> {
+            loads.incrementAndGet();
+            await(release);
+            throw failure;
+        }));
+        awaitLoading();
+        CompletableFuture<Integer> follower = follower();
+
+        release.countDown();
+
+        Exception leaderError = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        Exception followerError = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertSame(failure, leaderError.getCause());
+        assertSame(failure, followerError.getCause());
+        assertEquals(0, flight.inFlightCount());
+        assertEquals(2, flight.execute(KEY, loads::incrementAndGet));
+    }
+
+    private CompletableFuture<Integer> leader(CountDownLatch release) throws InterruptedException {
+        CompletableFuture<Integer> leader = CompletableFuture.supplyAsync(() -> flight.execute(KEY, () -> {
+            int load = loads.incrementAndGet();
+            if (load == 1) {
+                await(release);
+            }
+            return load;
+        }));
+        awaitLoading();
+        return leader;
+    }
+
+    /**
+     * Starts a second caller and returns once it is parked on the running flight
+     */
+    private CompletableFuture<Integer> follower() throws InterruptedException {
+        CompletableFuture<Integer> result = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            try {
+                result.complete(flight.execute(KEY, loads::incrementAndGet));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        thread.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(Thread.State.WAITING, thread.getState());
+        return result;
+    }
+
+    private void awaitLoading() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while ((loads.get() == 0 || flight.inFlightCount() == 0) && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(1, flight.inFlightCount());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
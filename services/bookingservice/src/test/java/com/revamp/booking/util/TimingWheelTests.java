@@ -0,0 +1,103 @@
+package com.revamp.booking.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A three level wheel with four buckets per level and a 1 ms tick covers 1, 4 and 16 ms per
+ * bucket, so every timer within its 64 ms span is placed, cascaded and fired within a few ticks.
+ */
+class TimingWheelTests {
+
+    private static final int[] SIZES = {4, 4, 4};
+
+    @Test
+    void everyTimerFiresOnItsOwnTickAfterCascading() {
+        TimingWheel<Long> wheel = new TimingWheel<>(1, SIZES, 0);
+        for (long deadline = 63; deadline >= 0; deadline--) {
+            assertTrue(wheel.schedule("t" + deadline, deadline, deadline));
+        }
+
+        for (long now = 0; now <= 63; now++) {
+            assertEquals(List.of(now), wheel.advance(now), "fired at " + now);
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void largeJumpFiresEverythingPassed() {
+        TimingWheel<Long> wheel = new TimingWheel<>(1, SIZES, 0);
+        wheel.schedule("minute", 3, 3L);
+        wheel.schedule("hour", 17, 17L);
+        wheel.schedule("day", 63, 63L);
+
+        assertEquals(List.of(3L), wheel.advance(16));
+        List<Long> fired = new ArrayList<>(wheel.advance(500));
+        fired.sort(null);
+        assertEquals(List.of(17L, 63L), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void horizonMovesWithTheTopLevel() {
+        TimingWheel<Long> wheel = new TimingWheel<>(1, SIZES, 0);
+        assertEquals(63, wheel.horizonMs());
+        assertFalse(wheel.schedule("far", 64, 64L));
+        assertFalse(wheel.contains("far"));
+
+        // The top level only turns every 16 ms
+        wheel.advance(15);
+        assertEquals(63, wheel.horizonMs());
+        wheel.advance(16);
+        assertEquals(79, wheel.horizonMs());
+        assertTrue(wheel.schedule("far", 79, 79L));
+        assertFalse(wheel.schedule("too-far", 80, 80L));
+
+        assertEquals(List.of(), wheel.advance(78));
+        assertEquals(List.of(79L), wheel.advance(79));
+    }
+
+    @Test
+    void rescheduleAndCancelReplaceTheEarlierTimer() {
+        TimingWheel<Long> wheel = new TimingWheel<>(1, SIZES, 0);
+        wheel.schedule("a", 40, 40L);
+        wheel.schedule("a", 6, 6L);
+        wheel.schedule("b", 20, 20L);
+        assertEquals(2, wheel.size());
+
+        assertTrue(wheel.cancel("b"));
+        assertFalse(wheel.cancel("b"));
+
+        assertEquals(List.of(6L), wheel.advance(6));
+        assertEquals(List.of(), wheel.advance(63));
+        assertFalse(wheel.contains("a"));
+    }
+
+    @Test
+    void pastDeadlineFiresOnTheNextAdvance() {
+        TimingWheel<Long> wheel = new TimingWheel<>(1, SIZES, 10);
+        assertTrue(wheel.schedule("late", 2, 2L));
+
+        assertEquals(List.of(2L), wheel.advance(10));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void coarseTickFiresAtTheStartOfTheTickHoldingTheDeadline() {
+        // 10 ms ticks started mid-tick: the deadline at 25 belongs to the tick starting at 20
+        TimingWheel<String> wheel = new TimingWheel<>(10, new int[] {6, 4}, 7);
+        wheel.schedule("r", 25, "r");
+        wheel.schedule("s", 95, "s");
+
+        assertEquals(List.of(), wheel.advance(19));
+        assertEquals(List.of("r"), wheel.advance(20));
+        assertEquals(List.of(), wheel.advance(89));
+        assertEquals(List.of("s"), wheel.advance(90));
+    }
+}
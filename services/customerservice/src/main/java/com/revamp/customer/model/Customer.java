@@ -2,6 +2,7 @@ package com.revamp.customer.model;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "customers")
@@ -13,6 +14,7 @@ public class Customer {
   @Id
   private String id;
 
+  @Indexed(name = "userId_1")
   private String userId; // JWT subject
   private String name;
   private String email;
@@ -2,6 +2,7 @@ package com.revamp.customer.model;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "history")
@@ -13,6 +14,7 @@ public class HistoryItem {
   @Id
   private String id;
 
+  @Indexed(name = "customerUserId_1")
   private String customerUserId; // owner (JWT sub)
   private String vehicleId;
 
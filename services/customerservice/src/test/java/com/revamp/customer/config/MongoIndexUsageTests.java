@@ -0,0 +1,60 @@
+package com.revamp.customer.config;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.revamp.customer.repo.CustomerRepository;
+import com.revamp.customer.repo.HistoryRepo;
+import com.revamp.customer.repo.VehicleRepo;
+
+/**
+ * Calls the customer, vehicle and history repository finders against a scratch database that
+ * holds only the declared indexes, with the server's notablescan parameter on, so any of them that
+ * needs a collection scan is rejected. Needs a throwaway MongoDB server, given by
+ * INDEX_CHECK_MONGODB_URI, and is skipped without one.
+ */
+@EnabledIfEnvironmentVariable(named = "INDEX_CHECK_MONGODB_URI", matches = ".+")
+class MongoIndexUsageTests {
+
+  private static final String DATABASE = "index_check_customers";
+
+  private static MongoClient client;
+  private static MongoTemplate mongoTemplate;
+
+  @BeforeAll
+  static void createIndexes() {
+    client = MongoClients.create(System.getenv("INDEX_CHECK_MONGODB_URI"));
+    mongoTemplate = new MongoTemplate(client, DATABASE);
+    mongoTemplate.getDb().drop();
+    assertTrue(MongoIndexBootstrap.ensureIndexes(mongoTemplate).isEmpty(), "every declared index is created");
+    setNoTableScan(true);
+  }
+
+  @AfterAll
+  static void dropDatabase() {
+    setNoTableScan(false);
+    mongoTemplate.getDb().drop();
+    client.close();
+  }
+
+  @Test
+  void repositoryQueriesUseIndexes() {
+    MongoRepositoryFactory repositories = new MongoRepositoryFactory(mongoTemplate);
+    repositories.getRepository(CustomerRepository.class).findByUserId("u1");
+    repositories.getRepository(VehicleRepo.class).findByCustomerUserId("u1");
+    repositories.getRepository(HistoryRepo.class).findByCustomerUserId("u1");
+  }
+
+  private static void setNoTableScan(boolean enabled) {
+    client.getDatabase("admin").runCommand(new Document("setParameter", 1).append("notablescan", enabled));
+  }
+}
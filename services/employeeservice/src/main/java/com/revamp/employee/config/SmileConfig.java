@@ -0,0 +1,25 @@
+package com.revamp.employee.config;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Registers a Smile (binary JSON) message converter next to the default JSON one.
+ * Internal callers (booking service) send and accept application/x-jackson-smile;
+ * everyone else keeps getting plain JSON through normal content negotiation.
+ */
+@Configuration
+public class SmileConfig {
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        // The builder is prototype scoped, so switching its factory does not touch the JSON ObjectMapper
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
@@ -3,10 +3,12 @@ package com.revamp.employee.controller;
 import com.revamp.employee.dto.AvailabilityRequest;
 import com.revamp.employee.dto.CreateEmployeeRequest;
 import com.revamp.employee.dto.EmployeeUpdateRequest;
+import com.revamp.employee.dto.WorkloadSnapshot;
 import com.revamp.employee.model.Employee;
 import com.revamp.employee.model.TimeLog;
 import com.revamp.employee.service.EmployeeService;
 import com.revamp.employee.service.TimeTrackingService;
+import com.revamp.employee.service.WorkloadService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -27,6 +29,9 @@ public class EmployeeController {
     @Autowired
     private TimeTrackingService timeTrackingService;
 
+    @Autowired
+    private WorkloadService workloadService;
+
     @PostMapping
     public ResponseEntity<?> createEmployee(@RequestBody CreateEmployeeRequest request) {
         try {
@@ -40,6 +45,14 @@ public class EmployeeController {
         }
     }
 
+    /**
+     * Every employee and open task, for the booking service's workload index
+     */
+    @GetMapping("/workload-snapshot")
+    public ResponseEntity<WorkloadSnapshot> getWorkloadSnapshot() {
+        return ResponseEntity.ok(workloadService.snapshot());
+    }
+
     @GetMapping("/by-user/{userId}")
     public ResponseEntity<Employee> getEmployeeByUserId(@PathVariable String userId) {
         Optional<Employee> employee = employeeService.getEmployeeByUserId(userId);
@@ -0,0 +1,18 @@
+package com.revamp.employee.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response of the booking service remove-employee endpoint.
+ */
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class RemoveEmployeeResult {
+    private String message;
+    private String appointmentId;
+    private String status;
+    private int remainingEmployees;
+}
@@ -0,0 +1,33 @@
+package com.revamp.employee.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Change to an employee or task, pushed to the booking service's workload index.
+ * Employees are identified by their auth userId, the id appointments are assigned with.
+ */
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class WorkloadEvent {
+    public static final String EMPLOYEE = "employee";
+    public static final String EMPLOYEE_REMOVED = "employee-removed";
+    public static final String TASK = "task";
+
+    private String type;
+    private long version; // Epoch millis when the change was published; older versions are ignored
+
+    // Employee events
+    private String userId;
+    private String fullName;
+    private List<String> skills;
+
+    // Task events; userId is the current assignee or null once unassigned
+    private String taskId;
+    private String taskStatus;
+    private int estimatedHours;
+}
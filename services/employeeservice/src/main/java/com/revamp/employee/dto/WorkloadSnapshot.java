@@ -0,0 +1,20 @@
+package com.revamp.employee.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Full workload state used by the booking service to warm and resync its index.
+ * Contains every employee and every open task.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkloadSnapshot {
+    private long version;
+    private List<WorkloadEvent> employees;
+    private List<WorkloadEvent> tasks;
+}
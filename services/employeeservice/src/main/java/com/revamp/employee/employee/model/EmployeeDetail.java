@@ -1,6 +1,7 @@
 package com.revamp.employee.employee.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "Details")
@@ -9,8 +10,10 @@ public class EmployeeDetail {
     @Id
     private String id;
 
+    @Indexed(name = "userId_1")
     private String userId;
     private String fullName;
+    @Indexed(name = "email_1")
     private String email;
     private String phoneNumber;
     private String[] skills;
@@ -10,6 +10,7 @@ import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
 import com.revamp.employee.employee.model.EmployeeDetail;
+import com.revamp.employee.service.WorkloadService;
 
 @Service
 public class EmployeeDetailService {
@@ -17,6 +18,9 @@ public class EmployeeDetailService {
     @Autowired
     private MongoTemplate mongoTemplate;
 
+    @Autowired
+    private WorkloadService workloadService;
+
     public EmployeeDetail save(EmployeeDetail detail) {
         try {
             System.out.println("===== Saving Employee Detail =====");
@@ -29,6 +33,7 @@ public class EmployeeDetailService {
             System.out.println("Using mongoTemplate (should connect to EAD-Employes)");
             
             EmployeeDetail saved = mongoTemplate.save(detail);
+            workloadService.employeeChanged(saved);
             System.out.println("✓ Saved successfully with ID: " + saved.getId());
             System.out.println("✓ Collection: Details");
             System.out.println("✓ Database: EAD-Employes");
@@ -69,7 +74,10 @@ public class EmployeeDetailService {
 
     public void delete(String id) {
         Query query = Query.query(Criteria.where("_id").is(id));
-        mongoTemplate.remove(query, EmployeeDetail.class);
+        EmployeeDetail removed = mongoTemplate.findAndRemove(query, EmployeeDetail.class);
+        if (removed != null) {
+            workloadService.employeeRemoved(removed.getUserId());
+        }
         System.out.println("✓ Deleted employee detail with ID: " + id + " from EAD-Employes database");
     }
 
@@ -82,6 +90,7 @@ public class EmployeeDetailService {
         System.out.println("Skills: " + java.util.Arrays.toString(detail.getSkills()));
         
         EmployeeDetail updated = mongoTemplate.save(detail);
+        workloadService.employeeChanged(updated);
         System.out.println("✓ Updated successfully in EAD-Employes database");
         System.out.println("================================");
         return updated;
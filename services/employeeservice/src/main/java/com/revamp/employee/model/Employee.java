@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -17,6 +18,7 @@ public class Employee {
     @Id
     private String id;
     private String username;
+    @Indexed(name = "email_1")
     private String email;
     private String phone;
     private String department;
@@ -25,6 +27,8 @@ public class Employee {
     private boolean isAvailable;
     private LocalDateTime lastActive;
     private List<String> skills;
+    @Indexed(name = "employeeId_1")
     private String employeeId; // EMP001, EMP002, etc.
+    @Indexed(name = "userId_1")
     private String userId; // Reference to auth service user
 }
@@ -4,12 +4,14 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
 import java.util.Map;
 
 @Document(collection = "notifications")
+@CompoundIndex(name = "recipientId_1_isRead_1", def = "{'recipientId': 1, 'isRead': 1}")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
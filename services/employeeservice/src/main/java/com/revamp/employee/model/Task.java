@@ -4,12 +4,18 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Document(collection = "tasks")
+@CompoundIndexes({
+    @CompoundIndex(name = "assignedEmployeeId_1_status_1", def = "{'assignedEmployeeId': 1, 'status': 1}"),
+    @CompoundIndex(name = "status_1_assignedEmployeeId_1", def = "{'status': 1, 'assignedEmployeeId': 1}")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
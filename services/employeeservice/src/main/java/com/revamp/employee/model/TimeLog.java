@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Duration;
@@ -11,6 +13,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Document(collection = "time_logs")
+@CompoundIndex(name = "employeeId_1_status_1", def = "{'employeeId': 1, 'status': 1}")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -18,6 +21,7 @@ public class TimeLog {
     @Id
     private String id;
     private String employeeId;
+    @Indexed(name = "taskId_1")
     private String taskId;
     private LocalDateTime startTime;
     private LocalDateTime endTime;
@@ -4,6 +4,7 @@ import com.revamp.employee.model.Task;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,4 +13,5 @@ public interface TaskRepository extends MongoRepository<Task, String> {
     List<Task> findByAssignedEmployeeId(String employeeId);
     List<Task> findByAssignedEmployeeIdAndStatus(String employeeId, String status);
     Optional<Task> findByIdAndAssignedEmployeeId(String taskId, String employeeId);
+    List<Task> findByStatusInAndAssignedEmployeeIdNotNull(Collection<String> statuses);
 }
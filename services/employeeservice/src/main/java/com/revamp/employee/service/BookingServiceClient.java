@@ -1,6 +1,10 @@
 package com.revamp.employee.service;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.revamp.employee.config.SmileConfig;
+import com.revamp.employee.dto.RemoveEmployeeResult;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -9,6 +13,7 @@ import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
@@ -16,15 +21,21 @@ import java.util.Map;
 /**
  * Client service to communicate with the Booking Service API.
  * Used to update appointments when tasks are rejected.
+ *
+ * Requests are sent as Smile (binary JSON); JSON responses are still understood.
  */
 @Service
 public class BookingServiceClient {
 
+    private static final String SMILE = SmileConfig.APPLICATION_SMILE.toString();
+    private static final String ACCEPT = SMILE + ", application/json;q=0.5";
+
     @Value("${booking.api.base:http://localhost:8084}")
     private String bookingServiceBaseUrl;
 
     private final HttpClient httpClient;
     private final ObjectMapper objectMapper;
+    private final ObjectMapper smileMapper;
 
     public BookingServiceClient() {
         this.httpClient = HttpClient.newBuilder()
@@ -32,6 +43,10 @@ public class BookingServiceClient {
                 .build();
         this.objectMapper = new ObjectMapper();
         this.objectMapper.findAndRegisterModules();
+        this.objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.smileMapper = new ObjectMapper(new SmileFactory());
+        this.smileMapper.findAndRegisterModules();
+        this.smileMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
     }
 
     /**
@@ -52,32 +67,30 @@ public class BookingServiceClient {
             requestBody.put("employeeId", employeeId);
             requestBody.put("employeeName", employeeName != null ? employeeName : "");
             
-            String jsonBody = objectMapper.writeValueAsString(requestBody);
-            
             HttpRequest request = HttpRequest.newBuilder()
                     .uri(URI.create(url))
-                    .header("Content-Type", "application/json")
-                    .PUT(HttpRequest.BodyPublishers.ofString(jsonBody))
+                    .header("Content-Type", SMILE)
+                    .header("Accept", ACCEPT)
+                    .PUT(HttpRequest.BodyPublishers.ofByteArray(smileMapper.writeValueAsBytes(requestBody)))
                     .timeout(Duration.ofSeconds(10))
                     .build();
 
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
 
             if (response.statusCode() == 200) {
-                Map<String, Object> result = objectMapper.readValue(response.body(), Map.class);
+                RemoveEmployeeResult result = mapperFor(response).readValue(response.body(), RemoveEmployeeResult.class);
                 System.out.println("✓ Successfully removed employee from appointment");
-                System.out.println("  Appointment ID: " + result.get("appointmentId"));
-                System.out.println("  Status: " + result.get("status"));
-                System.out.println("  Remaining employees: " + result.get("remainingEmployees"));
+                System.out.println("  Appointment ID: " + result.getAppointmentId());
+                System.out.println("  Status: " + result.getStatus());
+                System.out.println("  Remaining employees: " + result.getRemainingEmployees());
                 return true;
             } else {
                 System.err.println("✗ Failed to remove employee from appointment. Status: " + response.statusCode());
-                System.err.println("  Response: " + response.body());
                 try {
-                    Map<String, Object> errorData = objectMapper.readValue(response.body(), Map.class);
-                    System.err.println("  Error message: " + errorData.get("message"));
+                    RemoveEmployeeResult errorData = mapperFor(response).readValue(response.body(), RemoveEmployeeResult.class);
+                    System.err.println("  Error message: " + errorData.getMessage());
                 } catch (Exception e) {
-                    System.err.println("  Could not parse error response");
+                    System.err.println("  Response: " + new String(response.body(), StandardCharsets.UTF_8));
                 }
                 return false;
             }
@@ -87,7 +100,9 @@ public class BookingServiceClient {
             return false;
         }
     }
-}
-
-
 
+    private ObjectMapper mapperFor(HttpResponse<byte[]> response) {
+        String contentType = response.headers().firstValue("Content-Type").orElse("");
+        return contentType.startsWith(SMILE) ? smileMapper : objectMapper;
+    }
+}
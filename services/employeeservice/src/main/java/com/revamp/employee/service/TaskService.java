@@ -28,6 +28,9 @@ public class TaskService {
     @Autowired
     private EmployeeService employeeService;
 
+    @Autowired
+    private WorkloadService workloadService;
+
     /**
      * Create a new task assigned to an employee by an admin.
      * 
@@ -53,7 +56,7 @@ public class TaskService {
         task.setUpdatedAt(LocalDateTime.now());
         task.setUpdates(new ArrayList<>());
         
-        Task savedTask = taskRepository.save(task);
+        Task savedTask = save(task);
         
         // Create notification for employee when task is assigned
         if (savedTask.getAssignedEmployeeId() != null && !savedTask.getAssignedEmployeeId().isEmpty()) {
@@ -129,7 +132,7 @@ public class TaskService {
             }
             task.getUpdates().add(update);
             
-            return taskRepository.save(task);
+            return save(task);
         }
         throw new RuntimeException("Task not found");
     }
@@ -184,7 +187,7 @@ public class TaskService {
                 }
             }
             
-            Task savedTask = taskRepository.save(task);
+            Task savedTask = save(task);
             System.out.println("✓ Task saved successfully:");
             System.out.println("  - Status: " + savedTask.getStatus() + " (ready for reassignment)");
             System.out.println("  - Assigned Employee ID: " + (savedTask.getAssignedEmployeeId() != null ? savedTask.getAssignedEmployeeId() : "null (cleared)"));
@@ -242,7 +245,7 @@ public class TaskService {
             }
             task.getUpdates().add(update);
             
-            return taskRepository.save(task);
+            return save(task);
         }
         throw new RuntimeException("Task not found");
     }
@@ -297,7 +300,7 @@ public class TaskService {
                 }
             }
             
-            return taskRepository.save(task);
+            return save(task);
         }
         throw new RuntimeException("Task not found");
     }
@@ -352,8 +355,14 @@ public class TaskService {
                 }
             }
             
-            return taskRepository.save(task);
+            return save(task);
         }
         throw new RuntimeException("Task not found");
     }
+
+    private Task save(Task task) {
+        Task saved = taskRepository.save(task);
+        workloadService.taskChanged(saved);
+        return saved;
+    }
 }
@@ -0,0 +1,232 @@
+package com.revamp.employee.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.revamp.employee.config.SmileConfig;
+import com.revamp.employee.dto.WorkloadEvent;
+import com.revamp.employee.dto.WorkloadSnapshot;
+import com.revamp.employee.employee.model.EmployeeDetail;
+import com.revamp.employee.model.Employee;
+import com.revamp.employee.model.Task;
+import com.revamp.employee.repository.EmployeeRepository;
+import com.revamp.employee.repository.TaskRepository;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feeds the booking service's workload index.
+ *
+ * Employee and task changes are queued and pushed in small batches by a background thread,
+ * so the task write path never waits on the booking service. Lost batches are harmless:
+ * the booking service periodically reloads the full snapshot from this service.
+ * Each batch carries a short-lived service token signed with the shared JWT secret, which the
+ * booking service requires on its workload endpoint.
+ */
+@Service
+public class WorkloadService {
+
+    public static final List<String> OPEN_TASK_STATUSES = List.of("assigned", "accepted", "in-progress");
+    public static final String SERVICE_SUBJECT = "employee-service";
+    private static final int MAX_BATCH = 200;
+    private static final long SERVICE_TOKEN_TTL_MS = 5 * 60 * 1000;
+
+    @Value("${booking.api.base:http://localhost:8084}")
+    private String bookingServiceBaseUrl;
+
+    @Value("${workload.events.queue-size:10000}")
+    private int queueSize;
+
+    @Value("${jwt.secret}")
+    private String jwtSecret;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate; // Employee details live in the Details collection
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(3))
+            .build();
+    private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+    // Tasks reference employees by employeeId (EMP001) or, when that lookup failed, by userId
+    private final Map<String, String> userIdByEmployeeId = new ConcurrentHashMap<>();
+    private BlockingQueue<WorkloadEvent> queue;
+    private Thread sender;
+
+    @PostConstruct
+    public void start() {
+        queue = new LinkedBlockingQueue<>(queueSize);
+        sender = new Thread(this::drain, "workload-event-sender");
+        sender.setDaemon(true);
+        sender.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        sender.interrupt();
+    }
+
+    public void taskChanged(Task task) {
+        WorkloadEvent event = toEvent(task, resolveUserId(task.getAssignedEmployeeId()));
+        if (!OPEN_TASK_STATUSES.contains(event.getTaskStatus())) {
+            event.setUserId(null); // Closed tasks no longer count against anyone
+        }
+        offer(event);
+    }
+
+    public void employeeChanged(EmployeeDetail detail) {
+        offer(toEvent(detail));
+    }
+
+    public void employeeRemoved(String userId) {
+        WorkloadEvent event = new WorkloadEvent();
+        event.setType(WorkloadEvent.EMPLOYEE_REMOVED);
+        event.setUserId(userId);
+        event.setVersion(System.currentTimeMillis());
+        offer(event);
+    }
+
+    /**
+     * Every employee and every open task
+     */
+    public WorkloadSnapshot snapshot() {
+        long version = System.currentTimeMillis();
+        Map<String, String> userIds = new HashMap<>();
+        for (Employee employee : employeeRepository.findAll()) {
+            if (employee.getEmployeeId() != null && employee.getUserId() != null) {
+                userIds.put(employee.getEmployeeId(), employee.getUserId());
+            }
+        }
+        userIdByEmployeeId.putAll(userIds);
+
+        List<WorkloadEvent> employees = new ArrayList<>();
+        for (EmployeeDetail detail : mongoTemplate.findAll(EmployeeDetail.class)) {
+            WorkloadEvent event = toEvent(detail);
+            event.setVersion(version);
+            employees.add(event);
+        }
+        List<WorkloadEvent> tasks = new ArrayList<>();
+        for (Task task : taskRepository.findByStatusInAndAssignedEmployeeIdNotNull(OPEN_TASK_STATUSES)) {
+            String employeeId = task.getAssignedEmployeeId();
+            WorkloadEvent event = toEvent(task, userIds.getOrDefault(employeeId, employeeId));
+            event.setVersion(version);
+            tasks.add(event);
+        }
+        return new WorkloadSnapshot(version, employees, tasks);
+    }
+
+    private WorkloadEvent toEvent(Task task, String userId) {
+        WorkloadEvent event = new WorkloadEvent();
+        event.setType(WorkloadEvent.TASK);
+        event.setVersion(System.currentTimeMillis());
+        event.setTaskId(task.getId());
+        event.setTaskStatus(task.getStatus());
+        event.setEstimatedHours(task.getEstimatedHours());
+        event.setUserId(userId);
+        return event;
+    }
+
+    private WorkloadEvent toEvent(EmployeeDetail detail) {
+        WorkloadEvent event = new WorkloadEvent();
+        event.setType(WorkloadEvent.EMPLOYEE);
+        event.setVersion(System.currentTimeMillis());
+        event.setUserId(detail.getUserId());
+        event.setFullName(detail.getFullName());
+        event.setSkills(Arrays.asList(detail.getSkills()));
+        return event;
+    }
+
+    private String resolveUserId(String employeeId) {
+        if (employeeId == null || employeeId.isEmpty()) {
+            return null;
+        }
+        return userIdByEmployeeId.computeIfAbsent(employeeId, id -> employeeRepository.findByEmployeeId(id)
+                .map(Employee::getUserId)
+                .orElse(id));
+    }
+
+    private void offer(WorkloadEvent event) {
+        if (!queue.offer(event)) {
+            System.err.println("⚠ Workload event queue full, dropping event; the booking service will resync");
+        }
+    }
+
+    private void drain() {
+        List<WorkloadEvent> batch = new ArrayList<>();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                WorkloadEvent first = queue.poll(30, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH - 1);
+                send(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void send(List<WorkloadEvent> batch) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(bookingServiceBaseUrl + "/api/bookings/workload/events"))
+                    .header("Content-Type", SmileConfig.APPLICATION_SMILE.toString())
+                    .header("Authorization", "Bearer " + serviceToken())
+                    .timeout(Duration.ofSeconds(5))
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(smileMapper.writeValueAsBytes(batch)))
+                    .build();
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 300) {
+                System.err.println("⚠ Booking service rejected " + batch.size() + " workload event(s): HTTP " + response.statusCode());
+            }
+        } catch (IOException e) {
+            System.err.println("⚠ Could not push " + batch.size() + " workload event(s) to booking service: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String serviceToken() {
+        Date now = new Date();
+        return Jwts.builder()
+                .setSubject(SERVICE_SUBJECT)
+                .claim("role", "SERVICE")
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + SERVICE_TOKEN_TTL_MS))
+                .signWith(Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
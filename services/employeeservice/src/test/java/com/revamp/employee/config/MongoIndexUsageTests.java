@@ -0,0 +1,95 @@
+package com.revamp.employee.config;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.revamp.employee.employee.service.EmployeeDetailService;
+import com.revamp.employee.repository.EmployeeRepository;
+import com.revamp.employee.repository.NotificationRepository;
+import com.revamp.employee.repository.TaskRepository;
+import com.revamp.employee.repository.TimeLogRepository;
+
+/**
+ * Calls the repository finders and EmployeeDetailService's lookups against a scratch database that
+ * holds only the declared indexes, with the server's notablescan parameter on, so any of them that
+ * needs a collection scan is rejected. The full employee listings are deliberate full reads and
+ * are left out. Needs a throwaway MongoDB server, given by INDEX_CHECK_MONGODB_URI, and is skipped
+ * without one.
+ */
+@EnabledIfEnvironmentVariable(named = "INDEX_CHECK_MONGODB_URI", matches = ".+")
+class MongoIndexUsageTests {
+
+    private static final String DATABASE = "index_check_employees";
+
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+    private static MongoRepositoryFactory repositories;
+
+    @BeforeAll
+    static void createIndexes() {
+        client = MongoClients.create(System.getenv("INDEX_CHECK_MONGODB_URI"));
+        mongoTemplate = new MongoTemplate(client, DATABASE);
+        mongoTemplate.getDb().drop();
+        assertTrue(MongoIndexBootstrap.ensureIndexes(mongoTemplate).isEmpty(), "every declared index is created");
+        repositories = new MongoRepositoryFactory(mongoTemplate);
+        setNoTableScan(true);
+    }
+
+    @AfterAll
+    static void dropDatabase() {
+        setNoTableScan(false);
+        mongoTemplate.getDb().drop();
+        client.close();
+    }
+
+    @Test
+    void employeeQueriesUseIndexes() {
+        EmployeeRepository employees = repositories.getRepository(EmployeeRepository.class);
+        employees.findByEmployeeId("EMP001");
+        employees.findByUserId("u1");
+        employees.findByEmail("e@revamp.com");
+
+        EmployeeDetailService details = new EmployeeDetailService();
+        ReflectionTestUtils.setField(details, "mongoTemplate", mongoTemplate);
+        details.findByUserId("u1");
+        details.findByEmail("e@revamp.com");
+        details.existsByEmail("e@revamp.com");
+    }
+
+    @Test
+    void taskQueriesUseIndexes() {
+        TaskRepository tasks = repositories.getRepository(TaskRepository.class);
+        tasks.findByAssignedEmployeeId("EMP001");
+        tasks.findByAssignedEmployeeIdAndStatus("EMP001", "assigned");
+        tasks.findByIdAndAssignedEmployeeId("t1", "EMP001");
+        tasks.findByStatusInAndAssignedEmployeeIdNotNull(List.of("assigned", "accepted", "in-progress"));
+    }
+
+    @Test
+    void notificationAndTimeLogQueriesUseIndexes() {
+        NotificationRepository notifications = repositories.getRepository(NotificationRepository.class);
+        notifications.findByRecipientId("ADMIN001");
+        notifications.findByRecipientIdAndIsRead("ADMIN001", false);
+
+        TimeLogRepository timeLogs = repositories.getRepository(TimeLogRepository.class);
+        timeLogs.findByEmployeeId("EMP001");
+        timeLogs.findByEmployeeIdAndStatus("EMP001", "active");
+        timeLogs.findByTaskId("t1");
+    }
+
+    private static void setNoTableScan(boolean enabled) {
+        client.getDatabase("admin").runCommand(new Document("setParameter", 1).append("notablescan", enabled));
+    }
+}
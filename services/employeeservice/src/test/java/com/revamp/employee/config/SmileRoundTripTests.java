@@ -0,0 +1,111 @@
+package com.revamp.employee.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.revamp.employee.controller.EmployeeController;
+import com.revamp.employee.dto.WorkloadEvent;
+import com.revamp.employee.dto.WorkloadSnapshot;
+import com.revamp.employee.model.Employee;
+import com.revamp.employee.service.EmployeeService;
+import com.revamp.employee.service.TimeTrackingService;
+import com.revamp.employee.service.WorkloadService;
+
+/**
+ * Reads the endpoints the booking service calls, the workload snapshot and the employee lookup,
+ * once as JSON and once as Smile through SmileConfig's converter, and checks both decode to the
+ * same objects.
+ */
+class SmileRoundTripTests {
+
+    private final ObjectMapper jsonMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper smileMapper = Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+
+    private EmployeeService employeeService;
+    private WorkloadService workloadService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        employeeService = mock(EmployeeService.class);
+        workloadService = mock(WorkloadService.class);
+
+        EmployeeController controller = new EmployeeController();
+        ReflectionTestUtils.setField(controller, "employeeService", employeeService);
+        ReflectionTestUtils.setField(controller, "timeTrackingService", mock(TimeTrackingService.class));
+        ReflectionTestUtils.setField(controller, "workloadService", workloadService);
+
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build()),
+                        new SmileConfig().smileHttpMessageConverter(Jackson2ObjectMapperBuilder.json()))
+                .build();
+    }
+
+    @Test
+    void workloadSnapshotReadsTheSameAsJsonAndSmile() throws Exception {
+        WorkloadEvent employee = new WorkloadEvent();
+        employee.setType(WorkloadEvent.EMPLOYEE);
+        employee.setVersion(1_700_000_000_000L);
+        employee.setUserId("u1");
+        employee.setFullName("Nimal Perera");
+        employee.setSkills(List.of("paint", "body"));
+        WorkloadEvent task = new WorkloadEvent();
+        task.setType(WorkloadEvent.TASK);
+        task.setVersion(1_700_000_000_001L);
+        task.setUserId("u1");
+        task.setTaskId("t1");
+        task.setTaskStatus("in-progress");
+        task.setEstimatedHours(6);
+        WorkloadSnapshot snapshot = new WorkloadSnapshot(1_700_000_000_001L, List.of(employee), List.of(task));
+        when(workloadService.snapshot()).thenReturn(snapshot);
+
+        assertEquals(snapshot, jsonMapper.readValue(read("/api/employees/workload-snapshot", MediaType.APPLICATION_JSON),
+                WorkloadSnapshot.class));
+        assertEquals(snapshot, smileMapper.readValue(read("/api/employees/workload-snapshot", SmileConfig.APPLICATION_SMILE),
+                WorkloadSnapshot.class));
+    }
+
+    @Test
+    void employeeLookupReadsTheSameAsJsonAndSmile() throws Exception {
+        Employee employee = new Employee();
+        employee.setId("e1");
+        employee.setEmployeeId("EMP001");
+        employee.setUserId("u1");
+        employee.setEmail("nimal@revamp.com");
+        employee.setAvailable(true);
+        employee.setLastActive(LocalDateTime.of(2025, 3, 14, 9, 30, 15));
+        employee.setSkills(List.of("paint"));
+        when(employeeService.getEmployeeByUserId("u1")).thenReturn(Optional.of(employee));
+
+        assertEquals(employee, jsonMapper.readValue(read("/api/employees/by-user/u1", MediaType.APPLICATION_JSON),
+                Employee.class));
+        assertEquals(employee, smileMapper.readValue(read("/api/employees/by-user/u1", SmileConfig.APPLICATION_SMILE),
+                Employee.class));
+    }
+
+    private byte[] read(String path, MediaType accept) throws Exception {
+        return mockMvc.perform(get(path).accept(accept))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(accept))
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+}